@@ -18,6 +18,8 @@ package io.appform.sai;
 import com.google.common.base.Strings;
 import com.phonepe.sentinelai.core.agent.StreamConsumer;
 
+import java.util.List;
+
 import lombok.AllArgsConstructor;
 
 @AllArgsConstructor
@@ -26,14 +28,21 @@ class AgentStreamConsumer implements StreamConsumer {
     // reasoning and content are being streamed at the same time
     private final BufferedOutputPrinter reasoningPrinter;
     private final BufferedOutputPrinter outputPrinter;
+    private final List<TurnObserver> turnObservers;
+
+    AgentStreamConsumer(BufferedOutputPrinter reasoningPrinter, BufferedOutputPrinter outputPrinter) {
+        this(reasoningPrinter, outputPrinter, List.of());
+    }
 
     @Override
     public void consumeReasoningAndContent(String reasoningData, String content) {
         if (!Strings.isNullOrEmpty(reasoningData)) {
             reasoningPrinter.accept(reasoningData);
+            track(reasoningData);
         }
         if (!Strings.isNullOrEmpty(content)) {
             outputPrinter.accept(content);
+            track(content);
         }
     }
 
@@ -41,4 +50,8 @@ class AgentStreamConsumer implements StreamConsumer {
         reasoningPrinter.markDone();
         outputPrinter.markDone();
     }
+
+    private void track(String chunk) {
+        turnObservers.forEach(observer -> observer.onStreamed(chunk));
+    }
 }
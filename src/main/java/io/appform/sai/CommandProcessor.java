@@ -19,23 +19,29 @@ import static io.appform.sai.Utils.elapsedTimeInSeconds;
 
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.phonepe.sentinelai.core.agent.AgentInput;
+import com.phonepe.sentinelai.core.agent.AgentOutput;
 import com.phonepe.sentinelai.core.agent.AgentRequestMetadata;
 import com.phonepe.sentinelai.core.errors.ErrorType;
 import com.phonepe.sentinelai.core.model.ModelUsageStats;
 import com.phonepe.sentinelai.core.utils.AgentUtils;
 
 import io.appform.sai.Printer.Update;
+import io.appform.sai.http.StreamWatchdogInterceptor;
 import io.appform.sai.models.Actor;
 import io.appform.sai.models.Severity;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
 import lombok.Builder;
 import lombok.NonNull;
+import lombok.Singular;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -62,6 +68,13 @@ public class CommandProcessor implements AutoCloseable {
     private final SaiAgent agent;
 
     private final Printer printer;
+    /**
+     * When {@code false} the agent is run through the non-streaming execution path and the final
+     * answer is printed once, skipping all incremental markdown rendering.
+     */
+    private final boolean streaming;
+    /** Notified of the lifecycle and streamed output of every turn (status line, timings). */
+    private final List<TurnObserver> turnObservers;
     private volatile Future<?> runningTask;
     private final String user = Optional.ofNullable(System.getProperty("user.name"))
             .orElseGet(() -> System.getenv().getOrDefault("USER", "User"));
@@ -70,10 +83,14 @@ public class CommandProcessor implements AutoCloseable {
     public CommandProcessor(
                             @NonNull final String sessionId,
                             @NonNull final SaiAgent agent,
-                            @NonNull final Printer printer) {
+                            @NonNull final Printer printer,
+                            final boolean streaming,
+                            @Singular final List<TurnObserver> turnObservers) {
         this.sessionId = sessionId;
         this.agent = agent;
         this.printer = printer;
+        this.streaming = streaming;
+        this.turnObservers = turnObservers;
     }
 
     public CommandProcessor start() {
@@ -117,22 +134,25 @@ public class CommandProcessor implements AutoCloseable {
                                       Printer.Colours.CYAN + "\u23F3 " + Printer.Colours.GRAY + "Processing "
                                               + Printer.Colours.WHITE + input.runId()
                                               + Printer.Colours.GRAY + "\u2026" + Printer.Colours.RESET));
-            final var streamHandler = new AgentStreamConsumer(new BufferedOutputPrinter(printer), //Reasoning stream
-                                                              new BufferedOutputPrinter(printer));//Content stream
-            final var responseF = agent.executeAsyncTextStreaming(
-                                                                  AgentInput.<String>builder()
-                                                                          .requestMetadata(AgentRequestMetadata
-                                                                                  .builder()
-                                                                                  .sessionId(sessionId)
-                                                                                  .runId(input.runId())
-                                                                                  .userId(user)
-                                                                                  .build())
-                                                                          .request(prompt)
-                                                                          .build(),
-                                                                  streamHandler);
-            runningTask = responseF;
-            final var response = responseF.get();
-            streamHandler.markDone();
+            turnObservers.forEach(observer -> observer.startTurn(input.runId()));
+            final var agentInput = AgentInput.<String>builder()
+                    .requestMetadata(AgentRequestMetadata.builder()
+                            .sessionId(sessionId)
+                            .runId(input.runId())
+                            .userId(user)
+                            .build())
+                    .request(prompt)
+                    .build();
+            final AgentOutput<String> response;
+            if (streaming) {
+                response = executeStreaming(input.runId(), agentInput);
+            }
+            else {
+                final var responseF = agent.executeAsync(agentInput);
+                runningTask = responseF;
+                response = responseF.get();
+                printFinalAnswer(response.getData());
+            }
             final var error = response.getError();
             if (error.getErrorType().equals(ErrorType.SUCCESS)) {
                 log.info("Agent response: {}", response.getData());
@@ -176,9 +196,61 @@ public class CommandProcessor implements AutoCloseable {
                     .data(errorMessage)
                     .build());
         }
+        turnObservers.forEach(TurnObserver::endTurn);
         messages.add(Printer.markIdleStatus());
         messages.add(Printer.empty());
         printer.print(messages);
     }
 
+    /**
+     * Runs the turn with streamed output. A stream that the watchdog aborted after it had already
+     * produced output fails the turn: the model call cannot be replayed without re-running the
+     * tools before it, so the stall is reported to the turn observers and the user is told to
+     * retry the prompt.
+     */
+    private AgentOutput<String> executeStreaming(final String runId, final AgentInput<String> agentInput)
+            throws ExecutionException, InterruptedException {
+        final var streamHandler = new AgentStreamConsumer(new BufferedOutputPrinter(printer), //Reasoning stream
+                                                          new BufferedOutputPrinter(printer), //Content stream
+                                                          turnObservers);
+        final var responseF = agent.executeAsyncTextStreaming(agentInput, streamHandler);
+        runningTask = responseF;
+        try {
+            return responseF.get();
+        }
+        catch (ExecutionException e) {
+            final var stalled = Throwables.getCausalChain(e)
+                    .stream()
+                    .filter(StreamWatchdogInterceptor.StalledStreamException.class::isInstance)
+                    .map(StreamWatchdogInterceptor.StalledStreamException.class::cast)
+                    .findFirst()
+                    .orElse(null);
+            if (stalled == null) {
+                throw e;
+            }
+            final var stalls = stalled.stalls();
+            log.warn("Stream stalled for run {} after {} re-issues", runId, stalls.reissued());
+            turnObservers.forEach(observer -> observer.onStalled(stalls.detected(), stalls.stalledMillis()));
+            throw new ExecutionException("%s. The answer is incomplete; retry the prompt."
+                    .formatted(stalled.getMessage()), null);
+        }
+        finally {
+            streamHandler.markDone();
+        }
+    }
+
+    /**
+     * Prints the complete answer of a non-streamed run in one go. Headless output has its ANSI
+     * codes stripped by the {@link Printer} anyway, so markdown rendering is skipped there.
+     */
+    private void printFinalAnswer(final String answer) {
+        if (Strings.isNullOrEmpty(answer)) {
+            return;
+        }
+        final var rendered = printer.isHeadless() ? answer : MarkdownRenderer.toAnsi(answer);
+        printer.print(Printer.assistantMessage(rendered)
+                .withImportant(true)
+                .withRaw(true));
+    }
+
 }
@@ -16,19 +16,37 @@
 package io.appform.sai;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.phonepe.sentinelai.core.utils.EnvLoader;
 import com.phonepe.sentinelai.models.ChatCompletionServiceFactory;
 
+import io.appform.sai.config.CompressionPolicy;
+import io.appform.sai.config.EndpointEntry;
+import io.appform.sai.config.HedgingPolicy;
 import io.appform.sai.config.ProviderEntry;
+import io.appform.sai.config.RetryPolicy;
+import io.appform.sai.config.RoutingPolicy;
 import io.appform.sai.config.SettingsConfig;
+import io.appform.sai.copilot.CopilotModel;
+import io.appform.sai.http.EndpointRouter;
+import io.appform.sai.http.HedgingInterceptor;
+import io.appform.sai.http.RequestCompressionInterceptor;
+import io.appform.sai.http.ResponsesApiInterceptor;
+import io.appform.sai.http.RetryInterceptor;
+import io.appform.sai.http.StreamWatchdogInterceptor;
 import io.github.sashirestela.cleverclient.client.OkHttpClientAdapter;
 import io.github.sashirestela.cleverclient.retry.RetryConfig;
 import io.github.sashirestela.openai.SimpleOpenAI;
 import io.github.sashirestela.openai.SimpleOpenAIAzure;
 import io.github.sashirestela.openai.service.ChatCompletionServices;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
 
 import lombok.Getter;
 import lombok.experimental.UtilityClass;
@@ -38,14 +56,16 @@ import okhttp3.OkHttpClient;
 @Slf4j
 public class ConfigurableProviderFactory implements ChatCompletionServiceFactory {
 
+    // Retries are done by RetryInterceptor on the HTTP client, which sees status codes and Retry-After
     private static final RetryConfig RETRY_CONFIG = RetryConfig.builder()
-            .maxAttempts(1) // disabling implicit retries by default for tests
+            .maxAttempts(1)
             .build();
 
     @UtilityClass
     public static class Providers {
         public static final String AZURE = "azure";
         public static final String OPENAI = "openai";
+        public static final String OPENAI_RESPONSES = "openai-responses";
         public static final String COPILOT_PROXY = "copilot-proxy";
         public static final String COPILOT = "copilot";
     }
@@ -55,8 +75,10 @@ public class ConfigurableProviderFactory implements ChatCompletionServiceFactory
     private final ObjectMapper mapper;
     private final OkHttpClient okHttpClient;
     private final SettingsConfig settingsConfig;
+    private final Map<Object, OkHttpClient> extraHeaderClients = new ConcurrentHashMap<>();
 
     private CopilotDirectProvider copilotDirectProvider = null;
+    private OkHttpClient responsesApiClient = null;
 
     /**
      * Constructs a factory without a settings config (env-var fallback only).
@@ -88,8 +110,8 @@ public class ConfigurableProviderFactory implements ChatCompletionServiceFactory
                                        SettingsConfig settingsConfig) {
         this.provider = provider;
         this.mapper = mapper;
-        this.okHttpClient = okHttpClient;
         this.settingsConfig = settingsConfig != null ? settingsConfig : SettingsConfig.builder().build();
+        this.okHttpClient = withResilience(okHttpClient, provider, this.settingsConfig.getProvider(provider).orElse(null));
 
         /* if (Providers.COPILOT.equals(provider)) {
             if (this.settingsConfig.getProvider(Providers.COPILOT) != null) {
@@ -106,6 +128,121 @@ public class ConfigurableProviderFactory implements ChatCompletionServiceFactory
         } */
     }
 
+    /**
+     * Resolves the base URL requests for {@code provider} are sent to, using the same settings.yaml
+     * then env-var precedence as {@link #get(String)}. Unlike {@code get}, this never throws.
+     *
+     * @param provider       the provider name
+     * @param settingsConfig the loaded settings.yaml configuration (may be {@code null})
+     * @return the base URL, or empty if the provider is unknown or its endpoint is not configured
+     */
+    public static Optional<String> baseUrl(String provider, @Nullable SettingsConfig settingsConfig) {
+        final var entry = settingsConfig == null ? null : settingsConfig.getProvider(provider).orElse(null);
+        if (entry != null) {
+            final var type = entry.getType() == null && Providers.COPILOT.equals(provider)
+                    ? Providers.COPILOT
+                    : Strings.nullToEmpty(entry.getType()).toLowerCase();
+            return switch (type) {
+                case Providers.COPILOT -> Optional.of(CopilotDirectProvider.COPILOT_API_BASE_URL);
+                case Providers.OPENAI, Providers.OPENAI_RESPONSES -> configuredOrEnv(entry.primaryEndpoint(),
+                                                                                     "OPENAI_ENDPOINT");
+                case Providers.AZURE -> configuredOrEnv(entry.primaryEndpoint(), "AZURE_ENDPOINT");
+                default -> Optional.empty();
+            };
+        }
+        return switch (Strings.nullToEmpty(provider)) {
+            case Providers.COPILOT -> Optional.of(CopilotDirectProvider.COPILOT_API_BASE_URL);
+            case Providers.AZURE -> EnvLoader.readEnv("AZURE_ENDPOINT");
+            case Providers.OPENAI -> Optional.of(EnvLoader.readEnv("OPENAI_ENDPOINT", "https://api.openai.com/v1"));
+            case Providers.COPILOT_PROXY -> Optional.of(EnvLoader.readEnv("COPILOT_PROXY_ENDPOINT",
+                                                                          "http://localhost:4141"));
+            default -> Optional.empty();
+        };
+    }
+
+    /**
+     * Adds the provider's retry, hedging, stream watchdog and endpoint routing interceptors to the
+     * client. Retries wrap hedging, so each attempt may be hedged, and routing is innermost, so
+     * every attempt and every hedged copy goes to the best endpoint at the time it is sent. Request
+     * compression is a network interceptor, so it compresses the final body of every attempt.
+     *
+     * @param client   the client to derive from
+     * @param provider the provider name
+     * @param entry    the provider's settings.yaml entry, or {@code null} for env-var providers
+     * @return the derived client, or {@code client} if none is enabled
+     */
+    @VisibleForTesting
+    static OkHttpClient withResilience(OkHttpClient client, String provider, @Nullable ProviderEntry entry) {
+        final var retry = entry == null || entry.getRetry() == null
+                ? RetryPolicy.DEFAULT
+                : entry.getRetry().withDefaults(RetryPolicy.DEFAULT);
+        final var hedging = entry == null || entry.getHedging() == null
+                ? HedgingPolicy.DEFAULT
+                : entry.getHedging().withDefaults(HedgingPolicy.DEFAULT);
+        final var endpoints = entry == null ? List.<EndpointEntry>of() : entry.allEndpoints();
+        final var retryEnabled = retry.getMaxAttempts() > 1;
+        final var hedgingEnabled = Boolean.TRUE.equals(hedging.getEnabled());
+        final var idleTimeout = entry == null || entry.getStreamIdleTimeout() == null
+                ? StreamWatchdogInterceptor.DEFAULT_IDLE_TIMEOUT
+                : entry.getStreamIdleTimeout();
+        final var watchdogEnabled = idleTimeout.isPositive();
+        final var routingEnabled = endpoints.size() > 1;
+        final var compression = entry == null || entry.getCompression() == null
+                ? CompressionPolicy.DEFAULT
+                : entry.getCompression().withDefaults(CompressionPolicy.DEFAULT);
+        final var compressionEnabled = Boolean.TRUE.equals(compression.getEnabled());
+        if (!retryEnabled && !hedgingEnabled && !watchdogEnabled && !routingEnabled && !compressionEnabled) {
+            return client;
+        }
+        final var builder = client.newBuilder();
+        if (retryEnabled) {
+            builder.addInterceptor(new RetryInterceptor(retry));
+        }
+        if (hedgingEnabled) {
+            builder.addInterceptor(new HedgingInterceptor(hedging));
+        }
+        if (watchdogEnabled) {
+            builder.addInterceptor(new StreamWatchdogInterceptor(idleTimeout));
+        }
+        if (routingEnabled) {
+            final var routing = entry.getRouting() == null
+                    ? RoutingPolicy.DEFAULT
+                    : entry.getRouting().withDefaults(RoutingPolicy.DEFAULT);
+            builder.addInterceptor(EndpointRouter.forProvider(provider, endpoints, routing));
+        }
+        if (compressionEnabled) {
+            builder.addNetworkInterceptor(new RequestCompressionInterceptor(compression));
+        }
+        return builder.build();
+    }
+
+    private static Optional<String> configuredOrEnv(String configValue, String envVar) {
+        return Strings.isNullOrEmpty(configValue) ? EnvLoader.readEnv(envVar) : Optional.of(configValue);
+    }
+
+    /**
+     * Describes {@code modelName} from the provider's model catalogue. Only the Copilot provider
+     * publishes one; for all other providers the result is empty.
+     *
+     * @param modelName the API model id
+     * @return the model's catalogue entry, or empty if the provider has no catalogue, the model is
+     *         unknown, or the provider cannot be initialised
+     */
+    public Optional<CopilotModel> describeModel(String modelName) {
+        final var entry = settingsConfig.getProvider(provider).orElse(null);
+        final var type = entry == null || entry.getType() == null ? provider : entry.getType();
+        if (!Providers.COPILOT.equalsIgnoreCase(type)) {
+            return Optional.empty();
+        }
+        try {
+            return copilotDirectProvider().describeModel(modelName);
+        }
+        catch (IllegalStateException e) {
+            log.debug("No Copilot model catalogue available: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     @Override
     public ChatCompletionServices get(String modelName) {
         // Copilot is always handled by the built-in CopilotDirectProvider — never config-driven.
@@ -135,13 +272,14 @@ public class ConfigurableProviderFactory implements ChatCompletionServiceFactory
      *
      * @param client       the base OkHttpClient
      * @param extraHeaders comma-delimited "Key:Value,Key2:Value2" string, or null
-     * @return the client with headers injected, or the original client if no headers
+     * @return the client with headers injected (created once per header set and derived from the
+     *         shared client, so it uses the same connection pool), or the original client if no headers
      */
     private OkHttpClient applyExtraHeaders(OkHttpClient client, String extraHeaders) {
         if (Strings.isNullOrEmpty(extraHeaders)) {
             return client;
         }
-        return client.newBuilder()
+        return extraHeaderClients.computeIfAbsent(extraHeaders, key -> client.newBuilder()
                 .addInterceptor(chain -> {
                     var requestBuilder = chain.request().newBuilder();
                     for (String header : extraHeaders.split(",")) {
@@ -153,7 +291,7 @@ public class ConfigurableProviderFactory implements ChatCompletionServiceFactory
                     }
                     return chain.proceed(requestBuilder.build());
                 })
-                .build();
+                .build());
     }
 
     /**
@@ -161,13 +299,14 @@ public class ConfigurableProviderFactory implements ChatCompletionServiceFactory
      *
      * @param client       the base OkHttpClient
      * @param extraHeaders map of header name to value, or null
-     * @return the client with headers injected, or the original client if no headers
+     * @return the client with headers injected (created once per header set), or the original
+     *         client if no headers
      */
     private OkHttpClient applyExtraHeadersFromMap(OkHttpClient client, Map<String, String> extraHeaders) {
         if (extraHeaders == null || extraHeaders.isEmpty()) {
             return client;
         }
-        return client.newBuilder()
+        return extraHeaderClients.computeIfAbsent(extraHeaders, headers -> client.newBuilder()
                 .addInterceptor(chain -> {
                     var requestBuilder = chain.request().newBuilder();
                     extraHeaders.forEach((key, value) -> {
@@ -176,7 +315,7 @@ public class ConfigurableProviderFactory implements ChatCompletionServiceFactory
                     });
                     return chain.proceed(requestBuilder.build());
                 })
-                .build();
+                .build());
     }
 
     private ChatCompletionServices azureModel(String modelName) {
@@ -197,7 +336,7 @@ public class ConfigurableProviderFactory implements ChatCompletionServiceFactory
 
     private ChatCompletionServices azureModelFromConfig(ProviderEntry entry, String modelName) {
         log.debug("Creating Azure ChatCompletionServices from config for provider: {}, model: {}", provider, modelName);
-        final var endpoint = resolveValue(entry.getEndpoint(),
+        final var endpoint = resolveValue(entry.primaryEndpoint(),
                                           "AZURE_ENDPOINT",
                                           "Azure endpoint must be set in settings.yaml or AZURE_ENDPOINT env var");
         final var apiKey = resolveValue(entry.getApiKey(),
@@ -236,16 +375,16 @@ public class ConfigurableProviderFactory implements ChatCompletionServiceFactory
                  modelName);
         return switch (type.toLowerCase()) {
             case Providers.COPILOT -> copilotDirectModel(modelName);
-            case Providers.OPENAI -> openAIModelFromConfig(entry, modelName);
+            case Providers.OPENAI -> openAIModelFromConfig(entry, modelName, okHttpClient);
+            case Providers.OPENAI_RESPONSES -> openAIModelFromConfig(entry, modelName, responsesApiClient());
             case Providers.AZURE -> azureModelFromConfig(entry, modelName);
             default -> throw new IllegalArgumentException(
                                                           "Unsupported provider type '" + type + "' for provider '"
-                                                                  + provider + "'. Use 'openai' or 'azure'.");
+                                                                  + provider + "'. Use 'openai', 'openai-responses' or 'azure'.");
         };
     }
 
-    private ChatCompletionServices copilotDirectModel(String modelName) {
-        log.debug("Creating Copilot Direct ChatCompletionServices for model: {}", modelName);
+    private synchronized CopilotDirectProvider copilotDirectProvider() {
         if (copilotDirectProvider == null) {
             try {
                 copilotDirectProvider = new CopilotDirectProvider(mapper, okHttpClient, RETRY_CONFIG);
@@ -254,7 +393,12 @@ public class ConfigurableProviderFactory implements ChatCompletionServiceFactory
                 throw new IllegalStateException("Failed to initialise Copilot direct provider", e);
             }
         }
-        return copilotDirectProvider.get(modelName);
+        return copilotDirectProvider;
+    }
+
+    private ChatCompletionServices copilotDirectModel(String modelName) {
+        log.debug("Creating Copilot Direct ChatCompletionServices for model: {}", modelName);
+        return copilotDirectProvider().get(modelName);
     }
 
     private ChatCompletionServices copilotProxyModel(String modelName) {
@@ -289,11 +433,11 @@ public class ConfigurableProviderFactory implements ChatCompletionServiceFactory
                 .build();
     }
 
-    private ChatCompletionServices openAIModelFromConfig(ProviderEntry entry, String modelName) {
+    private ChatCompletionServices openAIModelFromConfig(ProviderEntry entry, String modelName, OkHttpClient client) {
         log.debug("Creating OpenAI-compatible ChatCompletionServices from config for provider: {}, model: {}",
                   provider,
                   modelName);
-        final var endpoint = resolveValue(entry.getEndpoint(),
+        final var endpoint = resolveValue(entry.primaryEndpoint(),
                                           "OPENAI_ENDPOINT",
                                           "OpenAI endpoint must be set in settings.yaml or OPENAI_ENDPOINT env var");
         final var apiKey = resolveValue(entry.getApiKey(),
@@ -301,7 +445,7 @@ public class ConfigurableProviderFactory implements ChatCompletionServiceFactory
                                         "API key must be set in settings.yaml or OPENAI_API_KEY env var");
         final var organizationId = resolveValueOrNull(entry.getOrganizationId(), "OPENAI_ORGANIZATION");
         final var projectId = resolveValueOrNull(entry.getProjectId(), "OPENAI_PROJECT_ID");
-        var httpClient = applyExtraHeadersFromMap(okHttpClient, entry.getExtraHeaders());
+        var httpClient = applyExtraHeadersFromMap(client, entry.getExtraHeaders());
         log.debug("Using OpenAI endpoint: {} for provider: {}", endpoint, provider);
         return SimpleOpenAI.builder()
                 .baseUrl(endpoint)
@@ -314,6 +458,19 @@ public class ConfigurableProviderFactory implements ChatCompletionServiceFactory
                 .build();
     }
 
+    /**
+     * @return the provider's client with a {@link ResponsesApiInterceptor}, created once so that
+     *         its conversation state spans all requests to the provider
+     */
+    private synchronized OkHttpClient responsesApiClient() {
+        if (responsesApiClient == null) {
+            responsesApiClient = okHttpClient.newBuilder()
+                    .addInterceptor(new ResponsesApiInterceptor(mapper))
+                    .build();
+        }
+        return responsesApiClient;
+    }
+
     private String readEnv(String key, String errorMessage) {
         return EnvLoader.readEnv(key)
                 .orElseThrow(() -> new IllegalArgumentException(errorMessage));
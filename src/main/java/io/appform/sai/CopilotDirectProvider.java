@@ -21,21 +21,36 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.net.MediaType;
 import com.phonepe.sentinelai.models.ChatCompletionServiceFactory;
 
+import io.appform.sai.copilot.CopilotModel;
+import io.appform.sai.copilot.CopilotModelCatalog;
+import io.appform.sai.copilot.CopilotModelsService;
 import io.github.sashirestela.cleverclient.client.OkHttpClientAdapter;
 import io.github.sashirestela.cleverclient.retry.RetryConfig;
 import io.github.sashirestela.openai.SimpleOpenAI;
 import io.github.sashirestela.openai.service.ChatCompletionServices;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
 
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.OkHttpClient;
@@ -55,12 +70,23 @@ import okhttp3.Response;
  * {@code ~/.config/sai/copilot_access_token.json}. If the cached token is still valid
  * (not expiring within {@value #REFRESH_BUFFER_SECONDS} seconds) it is used directly,
  * avoiding a network round-trip on startup.</li>
- * <li>If no valid cached token exists, exchanges the GitHub token for a short-lived Copilot
- * bearer token by calling {@code GET https://api.github.com/copilot_internal/v2/token} and
- * persists the result to the cache file.</li>
+ * <li>If no valid cached token exists, starts exchanging the GitHub token for a short-lived
+ * Copilot bearer token ({@code GET https://api.github.com/copilot_internal/v2/token}) in the
+ * background, so that the exchange overlaps the rest of startup. The first request waits for
+ * it if it has not finished yet.</li>
  * <li>Schedules automatic token refresh 60 s before the reported expiry.</li>
+ * <li>Refreshes the disk-cached model catalogue ({@code ~/.config/sai/copilot_models.json}) in
+ * the background if it is missing or older than a day. {@link #describeModel(String)} serves
+ * the model limits used to size the agent's context window from it.</li>
  * </ol>
  *
+ * <p>Refreshes are single-flight: however many requests are rejected at once, one exchange is
+ * made and all of them retry with its result. The cache file is shared between SAI processes.
+ * A refresh holds an exclusive lock on {@code copilot_access_token.json.lock} while it re-reads
+ * the cache and, only if no other process has refreshed it in the meantime, fetches a new token.
+ * The file is written to a temporary file and atomically renamed into place, so readers never
+ * see a partial write and concurrent headless runs cause one exchange instead of one each.
+ *
  * <p>Every call to {@link #get(String)} returns a {@link SimpleOpenAI} instance whose
  * underlying {@link OkHttpClient} is equipped with two interceptors:
  * <ul>
@@ -70,7 +96,7 @@ import okhttp3.Response;
  * <li>A header interceptor that injects all Copilot-required request headers (editor version,
  * plugin version, integration id, etc.) and replaces the {@code Authorization} header with
  * the current Copilot bearer token. On a {@code 401} or {@code 404} response the token is
- * refreshed inline and the request is retried once.</li>
+ * refreshed (see above) and the request is retried once.</li>
  * </ul>
  *
  * <p>Call {@link #close()} when the provider is no longer needed to release the background
@@ -87,6 +113,8 @@ public class CopilotDirectProvider implements ChatCompletionServiceFactory, Auto
     private static final String USER_AGENT = "GitHubCopilotChat/" + COPILOT_VERSION;
     private static final String API_VERSION = "2025-04-01";
     private static final String INITIATOR_HEADER = "X-Initiator";
+    /** Serialises shared-cache refreshes within the process; the file lock only excludes other processes. */
+    private static final Object SHARED_REFRESH_LOCK = new Object();
 
     /**
      * Minimum number of seconds before token expiry at which a refresh is triggered.
@@ -96,14 +124,24 @@ public class CopilotDirectProvider implements ChatCompletionServiceFactory, Auto
 
     private final ObjectMapper mapper;
     private final OkHttpClient baseHttpClient;
+    private final OkHttpClient copilotHttpClient;
     private final RetryConfig retryConfig;
     private final String githubToken;
     private final AtomicReference<String> copilotToken = new AtomicReference<>();
+    private final Path cachePath;
+    private CompletableFuture<String> refresh;
+    private ScheduledFuture<?> nextRefresh;
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
         final var t = new Thread(r, "copilot-token-refresh");
         t.setDaemon(true);
         return t;
     });
+    private final ExecutorService catalogExecutor = Executors.newSingleThreadExecutor(r -> {
+        final var t = new Thread(r, "copilot-models-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+    private final CopilotModelCatalog modelCatalog;
 
     /**
      * Creates and initialises a {@code CopilotDirectProvider}.
@@ -112,7 +150,7 @@ public class CopilotDirectProvider implements ChatCompletionServiceFactory, Auto
      * @param baseHttpClient the application-wide HTTP client (timeouts already configured)
      * @param retryConfig    retry settings for the chat-completion client
      * @throws IOException           if the GitHub token file cannot be read
-     * @throws IllegalStateException if the GitHub token file is empty or token exchange fails
+     * @throws IllegalStateException if the GitHub token file is empty
      */
     public CopilotDirectProvider(ObjectMapper mapper,
                                  OkHttpClient baseHttpClient,
@@ -121,54 +159,37 @@ public class CopilotDirectProvider implements ChatCompletionServiceFactory, Auto
         this.baseHttpClient = baseHttpClient;
         this.retryConfig = retryConfig;
         this.githubToken = readGithubToken();
+        this.copilotHttpClient = buildCopilotHttpClient();
+
+        this.cachePath = Path.of(resolveCachedTokenPath());
 
-        final var cachePath = Path.of(resolveCachedTokenPath());
         final var cached = loadCachedToken(cachePath, mapper);
         if (cached != null) {
             log.info("Loaded Copilot token from cache (expires at {})", Instant.ofEpochSecond(cached.expiresAt()));
             copilotToken.set(cached.token());
-            scheduleRefresh(cached.refreshIn());
+            scheduleRefresh(cached);
         }
         else {
-            final var tokenResponse = fetchAndPersistToken(cachePath);
-            copilotToken.set(tokenResponse.token());
-            scheduleRefresh(tokenResponse.refreshIn());
+            refresh(null);
         }
+        // Its own thread: a fetch waits for the token, which is refreshed on the scheduler
+        this.modelCatalog = new CopilotModelCatalog(CopilotModelCatalog.defaultCachePath(),
+                                                    mapper,
+                                                    CopilotModelCatalog.DEFAULT_TTL,
+                                                    () -> new CopilotModelsService(baseHttpClient, mapper)
+                                                            .listModels(currentToken()),
+                                                    catalogExecutor);
+        modelCatalog.refreshIfStale();
         log.info("Copilot direct provider initialised");
     }
 
     @Override
     public ChatCompletionServices get(String modelName) {
-        final var interceptedClient = baseHttpClient.newBuilder()
-                .addInterceptor(chain -> {
-                    // SimpleOpenAI uses @Resource("/v1/chat/completions") but the Copilot
-                    // API endpoint has no /v1 prefix — rewrite the path before sending.
-                    final var original = chain.request();
-                    final var originalUrl = original.url();
-                    final var rewrittenUrl = originalUrl.newBuilder()
-                            .encodedPath(originalUrl.encodedPath().replaceFirst("^/v1", ""))
-                            .build();
-                    return chain.proceed(original.newBuilder().url(rewrittenUrl).build());
-                })
-                .addInterceptor(chain -> {
-                    final var original = chain.request();
-                    final var response = chain.proceed(buildCopilotRequest(original));
-                    if (response.code() == 401 || response.code() == 404) {
-                        response.close();
-                        log.warn("Copilot token rejected (HTTP {}), refreshing token and retrying...",
-                                 response.code());
-                        forceRefreshToken();
-                        return chain.proceed(buildCopilotRequest(original));
-                    }
-                    return response;
-                })
-                .build();
-
         return SimpleOpenAI.builder()
                 .baseUrl(COPILOT_API_BASE_URL)
                 .apiKey("dummy") // replaced by interceptor
                 .objectMapper(mapper)
-                .clientAdapter(new OkHttpClientAdapter(interceptedClient))
+                .clientAdapter(new OkHttpClientAdapter(copilotHttpClient))
                 .retryConfig(retryConfig)
                 .build();
     }
@@ -176,6 +197,17 @@ public class CopilotDirectProvider implements ChatCompletionServiceFactory, Auto
     @Override
     public void close() {
         scheduler.shutdownNow();
+        catalogExecutor.shutdownNow();
+    }
+
+    /**
+     * Looks {@code modelName} up in the cached model catalogue.
+     *
+     * @param modelName the API model id
+     * @return the catalogue entry with the model's limits, or empty if it is unknown
+     */
+    public Optional<CopilotModel> describeModel(String modelName) {
+        return modelCatalog.find(modelName);
     }
 
     @VisibleForTesting
@@ -222,11 +254,22 @@ public class CopilotDirectProvider implements ChatCompletionServiceFactory, Auto
         }
     }
 
+    /**
+     * Writes the token to a temporary file next to {@code cachePath} and renames it into place,
+     * so that concurrent readers see either the old or the new token, never a partial file.
+     */
     @VisibleForTesting
     static void persistToken(CopilotTokenResponse tokenResponse, Path cachePath, ObjectMapper mapper) {
         try {
             Files.createDirectories(cachePath.getParent());
-            mapper.writeValue(cachePath.toFile(), tokenResponse);
+            final var tmp = Files.createTempFile(cachePath.getParent(), cachePath.getFileName().toString(), ".tmp");
+            try {
+                mapper.writeValue(tmp.toFile(), tokenResponse);
+                Files.move(tmp, cachePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            finally {
+                Files.deleteIfExists(tmp);
+            }
             log.debug("Persisted Copilot token to cache (expires at {})",
                       Instant.ofEpochSecond(tokenResponse.expiresAt()));
         }
@@ -235,6 +278,49 @@ public class CopilotDirectProvider implements ChatCompletionServiceFactory, Auto
         }
     }
 
+    /**
+     * Returns a token from the shared cache, or fetches and persists a new one, while holding the
+     * cache's lock file. A cached token is only used if it is valid and is not
+     * {@code rejectedToken}, the token that is being replaced; if another process has refreshed
+     * the cache while this one waited for the lock, its token is returned without a fetch.
+     *
+     * @param cachePath     the shared cache file
+     * @param mapper        mapper for the cache file
+     * @param rejectedToken token known to be expired or rejected, or {@code null}
+     * @param fetcher       fetches a new token
+     * @return a token that is not {@code rejectedToken}
+     */
+    @VisibleForTesting
+    static CopilotTokenResponse refreshShared(Path cachePath,
+                                              ObjectMapper mapper,
+                                              @Nullable String rejectedToken,
+                                              Supplier<CopilotTokenResponse> fetcher) throws IOException {
+        Files.createDirectories(cachePath.getParent());
+        final var lockPath = cachePath.resolveSibling(cachePath.getFileName() + ".lock");
+        synchronized (SHARED_REFRESH_LOCK) {
+            try (var channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 var ignored = channel.lock()) {
+                final var cached = loadCachedToken(cachePath, mapper);
+                if (cached != null && !cached.token().equals(rejectedToken)) {
+                    log.debug("Using Copilot token refreshed by another process");
+                    return cached;
+                }
+                final var tokenResponse = fetcher.get();
+                persistToken(tokenResponse, cachePath, mapper);
+                return tokenResponse;
+            }
+        }
+    }
+
+    private static String await(CompletableFuture<String> token) throws IOException {
+        try {
+            return token.join();
+        }
+        catch (CompletionException e) {
+            throw new IOException("Failed to fetch Copilot token", e.getCause());
+        }
+    }
+
     private String readGithubToken() throws IOException {
         final var tokenPath = resolveTokenPath();
         log.debug("Reading GitHub token from: {}", tokenPath);
@@ -271,29 +357,44 @@ public class CopilotDirectProvider implements ChatCompletionServiceFactory, Auto
         }
     }
 
-    private CopilotTokenResponse fetchAndPersistToken(Path cachePath) {
-        final var tokenResponse = fetchCopilotToken();
-        persistToken(tokenResponse, cachePath, mapper);
-        return tokenResponse;
-    }
-
-    private void forceRefreshToken() {
-        try {
-            final var tokenResponse = fetchAndPersistToken(Path.of(resolveCachedTokenPath()));
-            copilotToken.set(tokenResponse.token());
-            log.info("Copilot token refreshed successfully");
-        }
-        catch (Exception e) {
-            log.error("Failed to force-refresh Copilot token", e);
-        }
+    /**
+     * Derives the client used for chat completions from the base client. It is built once per
+     * provider, so every model served by this provider shares it and the base client's
+     * connection pool.
+     */
+    private OkHttpClient buildCopilotHttpClient() {
+        return baseHttpClient.newBuilder()
+                .addInterceptor(chain -> {
+                    // SimpleOpenAI uses @Resource("/v1/chat/completions") but the Copilot
+                    // API endpoint has no /v1 prefix — rewrite the path before sending.
+                    final var original = chain.request();
+                    final var originalUrl = original.url();
+                    final var rewrittenUrl = originalUrl.newBuilder()
+                            .encodedPath(originalUrl.encodedPath().replaceFirst("^/v1", ""))
+                            .build();
+                    return chain.proceed(original.newBuilder().url(rewrittenUrl).build());
+                })
+                .addInterceptor(chain -> {
+                    final var original = chain.request();
+                    final var token = currentToken();
+                    final var response = chain.proceed(buildCopilotRequest(original, token));
+                    if (response.code() == 401 || response.code() == 404) {
+                        response.close();
+                        log.warn("Copilot token rejected (HTTP {}), refreshing token and retrying...",
+                                 response.code());
+                        return chain.proceed(buildCopilotRequest(original, await(refresh(token))));
+                    }
+                    return response;
+                })
+                .build();
     }
 
-    private Request buildCopilotRequest(Request original) {
+    private Request buildCopilotRequest(Request original, String token) {
         final var requestId = UUID.randomUUID().toString();
         final var isAgentCall = original.header(INITIATOR_HEADER) != null;
         final var initiator = isAgentCall ? original.header(INITIATOR_HEADER) : "user";
         return original.newBuilder()
-                .header("Authorization", "Bearer " + copilotToken.get())
+                .header("Authorization", "Bearer " + token)
                 .header("content-type", MediaType.JSON_UTF_8.toString())
                 .header("copilot-integration-id", "vscode-chat")
                 .header("editor-version", "vscode/1.104.3")
@@ -307,24 +408,81 @@ public class CopilotDirectProvider implements ChatCompletionServiceFactory, Auto
                 .build();
     }
 
-    private void scheduleRefresh(int refreshInSeconds) {
-        final var delaySeconds = Math.max(1L, (long) refreshInSeconds - REFRESH_BUFFER_SECONDS);
-        log.debug("Scheduling Copilot token refresh in {} s", delaySeconds);
-        scheduler.schedule(this::refreshToken, delaySeconds, TimeUnit.SECONDS);
+    /**
+     * @return the current token, waiting for the initial fetch if it is still running
+     */
+    private String currentToken() throws IOException {
+        final var token = copilotToken.get();
+        if (token != null) {
+            return token;
+        }
+        final CompletableFuture<String> pending;
+        synchronized (this) {
+            pending = refresh;
+        }
+        // A failed initial fetch is retried by the next request
+        return pending == null || pending.isCompletedExceptionally() ? await(refresh(null)) : await(pending);
     }
 
-    private void refreshToken() {
-        log.debug("Refreshing Copilot token");
-        try {
-            final var tokenResponse = fetchAndPersistToken(Path.of(resolveCachedTokenPath()));
-            copilotToken.set(tokenResponse.token());
-            log.debug("Copilot token refreshed successfully");
-            scheduleRefresh(tokenResponse.refreshIn());
+    /**
+     * Replaces {@code rejectedToken} with a fresh token. Concurrent callers share one refresh; a
+     * caller whose rejected token has already been replaced gets the replacement straight away.
+     *
+     * @param rejectedToken the token to replace, or {@code null} to fetch the initial token
+     * @return the new token
+     */
+    private synchronized CompletableFuture<String> refresh(@Nullable String rejectedToken) {
+        if (refresh != null && !refresh.isDone()) {
+            return refresh;
+        }
+        final var current = copilotToken.get();
+        if (current != null && !current.equals(rejectedToken)) {
+            return CompletableFuture.completedFuture(current);
         }
-        catch (Exception e) {
-            log.error("Failed to refresh Copilot token; retrying in 30 s", e);
-            scheduler.schedule(this::refreshToken, 30, TimeUnit.SECONDS);
+        refresh = CompletableFuture.supplyAsync(() -> {
+            try {
+                final var tokenResponse = refreshShared(cachePath, mapper, rejectedToken, this::fetchCopilotToken);
+                copilotToken.set(tokenResponse.token());
+                scheduleRefresh(tokenResponse);
+                log.info("Copilot token refreshed successfully");
+                return tokenResponse.token();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, scheduler);
+        refresh.whenComplete((token, error) -> {
+            if (error != null) {
+                log.error("Failed to refresh Copilot token", error);
+            }
+        });
+        return refresh;
+    }
+
+    /**
+     * Schedules a refresh {@value #REFRESH_BUFFER_SECONDS} seconds before the token should be
+     * refreshed or expires, whichever is earlier, replacing any refresh scheduled before.
+     */
+    private synchronized void scheduleRefresh(CopilotTokenResponse tokenResponse) {
+        final var remaining = tokenResponse.expiresAt() - Instant.now().getEpochSecond();
+        final var delaySeconds = Math.max(1L, Math.min(tokenResponse.refreshIn(), remaining) - REFRESH_BUFFER_SECONDS);
+        log.debug("Scheduling Copilot token refresh in {} s", delaySeconds);
+        if (nextRefresh != null) {
+            nextRefresh.cancel(false);
         }
+        nextRefresh = scheduler.schedule(() -> refreshToken(tokenResponse.token()), delaySeconds, TimeUnit.SECONDS);
+    }
+
+    private void refreshToken(String expiringToken) {
+        log.debug("Refreshing Copilot token");
+        refresh(expiringToken).whenComplete((token, error) -> {
+            if (error != null) {
+                log.warn("Retrying Copilot token refresh in 30 s");
+                synchronized (this) {
+                    nextRefresh = scheduler.schedule(() -> refreshToken(expiringToken), 30, TimeUnit.SECONDS);
+                }
+            }
+        });
     }
 
     /**
@@ -47,8 +47,12 @@ import org.commonmark.parser.Parser;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 import lombok.experimental.UtilityClass;
 
@@ -69,12 +73,45 @@ import lombok.experimental.UtilityClass;
  * {@code visitor.visit(CustomNode)} respectively — NOT to type-specific
  * overloads. We therefore override those two methods and use {@code instanceof}
  * pattern matching to reach our table logic.
+ *
+ * <h3>Hot path</h3>
+ * {@link #toAnsi(String)} is called for every streamed sentence and line. Single lines that carry
+ * no block markers and no inline markup (the bulk of streamed prose) are emitted directly without
+ * running the commonmark parser. Everything else is parsed, and the rendered result is kept in a
+ * small LRU so that replaying a resumed session does not re-render repeated blocks.
  */
 @UtilityClass
 public class MarkdownRenderer {
 
     private static final Parser PARSER = Parser.builder().extensions(Arrays.asList(TablesExtension.create())).build();
 
+    /** Matches SGR escape sequences such as {@code ESC[1;37m}. */
+    static final Pattern ANSI_ESCAPE = Pattern.compile("\u001B\\[[0-9;]*m");
+
+    /** Characters that may start inline markup (emphasis, code, links, html, escapes, entities). */
+    private static final String INLINE_MARKUP_CHARS = "*_`[]<>\\&|";
+
+    private static final int CACHE_MAX_ENTRIES = 256;
+
+    /** Inputs longer than this are rendered but not cached. */
+    private static final int CACHE_MAX_INPUT_LENGTH = 64 * 1024;
+
+    private static final Map<String, String> RENDER_CACHE = Collections.synchronizedMap(new RenderCache());
+
+    /** Access-ordered map that evicts the least recently used rendering once full. */
+    private static final class RenderCache extends LinkedHashMap<String, String> {
+        private static final long serialVersionUID = 1L;
+
+        RenderCache() {
+            super(CACHE_MAX_ENTRIES, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > CACHE_MAX_ENTRIES;
+        }
+    }
+
     private static final class AnsiVisitor extends AbstractVisitor {
 
         private final StringBuilder sb = new StringBuilder();
@@ -85,10 +122,6 @@ public class MarkdownRenderer {
         private List<String> currentRow = null;
         private StringBuilder currentCell = null;
 
-        private static String stripAnsi(String s) {
-            return s.replaceAll("\u001B\\[[0-9;]*m", "");
-        }
-
         @Override
         public void visit(BlockQuote blockQuote) {
             sb.append(Printer.Colours.CYAN).append("▌ ");
@@ -332,10 +365,16 @@ public class MarkdownRenderer {
             }
             final var numCols = rows.get(0).size();
             final var colWidths = new int[numCols];
-            for (final var row : rows) {
+            // Visible widths are computed once per cell and reused for the padding below
+            final var cellWidths = new int[rows.size()][];
+            for (int rowIdx = 0; rowIdx < rows.size(); rowIdx++) {
+                final var row = rows.get(rowIdx);
+                final var widths = new int[numCols];
                 for (int i = 0; i < Math.min(row.size(), numCols); i++) {
-                    colWidths[i] = Math.max(colWidths[i], stripAnsi(row.get(i)).length());
+                    widths[i] = visibleLength(row.get(i));
+                    colWidths[i] = Math.max(colWidths[i], widths[i]);
                 }
+                cellWidths[rowIdx] = widths;
             }
 
             sb.append(Printer.Colours.GRAY);
@@ -352,7 +391,7 @@ public class MarkdownRenderer {
                 sb.append("│");
                 for (int i = 0; i < numCols; i++) {
                     final var cell = i < row.size() ? row.get(i) : "";
-                    final var padding = colWidths[i] - stripAnsi(cell).length();
+                    final var padding = colWidths[i] - cellWidths[rowIdx][i];
                     sb.append(" ");
                     if (rowIdx == 0) {
                         sb.append(Printer.Colours.CYAN).append("\u001B[1m");
@@ -389,6 +428,13 @@ public class MarkdownRenderer {
 
     // -------------------------------------------------------------------------
 
+    /**
+     * Returns {@code s} with all SGR escape sequences removed.
+     */
+    public static String stripAnsi(String s) {
+        return ANSI_ESCAPE.matcher(s).replaceAll("");
+    }
+
     /**
      * Parse {@code markdown} and return an ANSI-escaped string ready for
      * {@link Printer#assistantMessage(String)}.
@@ -397,8 +443,95 @@ public class MarkdownRenderer {
         if (markdown == null || markdown.isBlank()) {
             return markdown;
         }
+        final var plain = plainLine(markdown);
+        if (plain != null) {
+            return plain + "\n";
+        }
+        if (markdown.length() > CACHE_MAX_INPUT_LENGTH) {
+            return render(markdown);
+        }
+        final var cached = RENDER_CACHE.get(markdown);
+        if (cached != null) {
+            return cached;
+        }
+        final var rendered = render(markdown);
+        RENDER_CACHE.put(markdown, rendered);
+        return rendered;
+    }
+
+    /**
+     * Returns the number of characters in {@code s} that are visible on a terminal, skipping SGR
+     * escape sequences in a single pass.
+     */
+    static int visibleLength(String s) {
+        int length = 0;
+        final int n = s.length();
+        int i = 0;
+        while (i < n) {
+            final char c = s.charAt(i);
+            if (c == '\u001B' && i + 1 < n && s.charAt(i + 1) == '[') {
+                int j = i + 2;
+                while (j < n && (Character.isDigit(s.charAt(j)) || s.charAt(j) == ';')) {
+                    j++;
+                }
+                if (j < n && s.charAt(j) == 'm') {
+                    i = j + 1;
+                    continue;
+                }
+            }
+            length++;
+            i++;
+        }
+        return length;
+    }
+
+    /**
+     * Full commonmark render, bypassing both the plain-line fast path and the cache.
+     */
+    static String render(String markdown) {
         final var visitor = new AnsiVisitor();
         PARSER.parse(markdown).accept(visitor);
         return visitor.build();
     }
+
+    /**
+     * Returns the paragraph text commonmark would produce for {@code markdown} when it is a single
+     * line without any block marker or inline markup, or {@code null} if the full parser is needed.
+     * Mirrors commonmark paragraph handling: up to three leading spaces and all trailing spaces or
+     * tabs are dropped.
+     */
+    static String plainLine(String markdown) {
+        final int n = markdown.length();
+        int start = 0;
+        while (start < n && markdown.charAt(start) == ' ') {
+            start++;
+        }
+        if (start >= 4 || start == n || markdown.charAt(start) == '\t') {
+            return null; // indented code block or blank
+        }
+        int end = n;
+        while (end > start && (markdown.charAt(end - 1) == ' ' || markdown.charAt(end - 1) == '\t')) {
+            end--;
+        }
+        final char first = markdown.charAt(start);
+        if (first == '#' || first == '>' || first == '-' || first == '+' || first == '=' || first == '~') {
+            return null; // heading, quote, bullet list, thematic break, setext underline or fence
+        }
+        if (Character.isDigit(first)) {
+            int i = start;
+            while (i < end && Character.isDigit(markdown.charAt(i))) {
+                i++;
+            }
+            if (i < end && (markdown.charAt(i) == '.' || markdown.charAt(i) == ')')) {
+                return null; // ordered list marker
+            }
+        }
+        for (int i = start; i < end; i++) {
+            final char c = markdown.charAt(i);
+            if (c == '\n' || c == '\r' || INLINE_MARKUP_CHARS.indexOf(c) >= 0) {
+                return null;
+            }
+        }
+        return markdown.substring(start, end);
+    }
 }
@@ -32,6 +32,7 @@ import org.jline.terminal.Terminal;
 import org.jline.terminal.Terminal.Signal;
 import org.jline.terminal.TerminalBuilder;
 import org.jline.utils.AttributedString;
+import org.jline.utils.Status;
 
 import java.io.IOException;
 import java.io.PrintWriter;
@@ -235,6 +236,13 @@ public class Printer implements AutoCloseable {
         contextInfo.set(info);
     }
 
+    /**
+     * @return {@code true} when output goes to a dumb terminal and only important updates are shown
+     */
+    public boolean isHeadless() {
+        return settings.isHeadless();
+    }
+
     /**
      * Builds the JLine prompt string. When context info is set the prompt spans two lines:
      * the first line shows the persona + model and the second line carries the {@code > } cursor.
@@ -272,6 +280,7 @@ public class Printer implements AutoCloseable {
                             return;
                         }
                         if (printable.isStatusUpdate()) {
+                            showStatus(printable.getData());
                             return;
                         }
                         if (printable.isRaw()) {
@@ -295,6 +304,17 @@ public class Printer implements AutoCloseable {
             }
     }
 
+    /**
+     * Shows {@code data} in the terminal's status line at the bottom of the screen. Terminals that
+     * cannot reserve a status line ignore it.
+     */
+    private void showStatus(String data) {
+        final var status = Status.getStatus(terminal);
+        if (status != null) {
+            status.update(List.of(AttributedString.fromAnsi(data)));
+        }
+    }
+
     public static Update markIdleStatus() {
         return statusUpdate(" Idle " + Colours.GRAY + "(Waiting for input)");
     }
@@ -377,6 +397,10 @@ public class Printer implements AutoCloseable {
             printerTask.cancel(true);
         }
         if (!settings.isHeadless()) {
+            final var status = Status.getStatus(terminal, false);
+            if (status != null) {
+                status.update(List.of());
+            }
             lineReader.printAbove(Colours.RESET);
             terminal.close();
         }
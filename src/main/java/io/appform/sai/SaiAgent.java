@@ -18,6 +18,7 @@ package io.appform.sai;
 import com.phonepe.sentinelai.core.agent.Agent;
 import com.phonepe.sentinelai.core.agent.AgentExtension;
 import com.phonepe.sentinelai.core.agent.AgentSetup;
+import com.phonepe.sentinelai.core.model.ModelAttributes;
 import com.phonepe.sentinelai.core.tools.ExecutableTool;
 
 import java.util.List;
@@ -44,6 +45,7 @@ public class SaiAgent extends Agent<String, String, SaiAgent> {
             """;
 
     private final String name;
+    private final int contextWindowSize;
 
     public SaiAgent(
                     final String name,
@@ -61,6 +63,7 @@ public class SaiAgent extends Agent<String, String, SaiAgent> {
               knownTools
         );
         this.name = name;
+        this.contextWindowSize = resolveContextWindowSize(setup);
     }
 
     private static String augmentPrompt(String systemPrompt, final AgentConfig config, final Settings settings) {
@@ -77,6 +80,20 @@ public class SaiAgent extends Agent<String, String, SaiAgent> {
         // IMPORTANT: use 'core_tool_box_print' tool to provide updates, information and visibility into your thought process and actions on the terminal as you go.
     }
 
+    private static int resolveContextWindowSize(AgentSetup setup) {
+        final var modelSettings = setup.getModelSettings();
+        final var attributes = modelSettings == null ? null : modelSettings.getModelAttributes();
+        final Integer size = attributes == null ? null : attributes.getContextWindowSize();
+        return size == null || size <= 0 ? ModelAttributes.DEFAULT_WINDOW_SIZE : size;
+    }
+
+    /**
+     * @return the context window size of the configured model, in tokens
+     */
+    public int contextWindowSize() {
+        return contextWindowSize;
+    }
+
     @Override
     public String name() {
         return name;
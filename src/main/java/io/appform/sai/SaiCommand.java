@@ -24,8 +24,8 @@ import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
 import com.phonepe.sentinelai.filesystem.skills.AgentSkillsExtension;
 import com.phonepe.sentinelai.models.ChatCompletionServiceFactory;
 import com.phonepe.sentinelai.session.AgentSessionExtension;
-import com.phonepe.sentinelai.session.QueryDirection;
 import com.phonepe.sentinelai.session.SessionExtraDataOperator;
+import com.phonepe.sentinelai.session.SessionStore;
 import com.phonepe.sentinelai.session.SessionSummary;
 
 import io.appform.sai.CommandProcessor.CommandType;
@@ -40,16 +40,33 @@ import io.appform.sai.cli.slash.SlashCommandDispatcher;
 import io.appform.sai.commands.CopilotCommand;
 import io.appform.sai.commands.DeleteSessionsCommand;
 import io.appform.sai.commands.ExportSessionCommand;
+import io.appform.sai.commands.ForkSessionCommand;
 import io.appform.sai.commands.ListProvidersCommand;
 import io.appform.sai.commands.ListSessionsCommand;
+import io.appform.sai.commands.MigrateSessionsCommand;
 import io.appform.sai.commands.PruneSessionsCommand;
+import io.appform.sai.commands.RebuildSessionStatsCommand;
+import io.appform.sai.commands.SearchSessionsCommand;
+import io.appform.sai.commands.UsageCommand;
 import io.appform.sai.config.AgentConfigLoader;
 import io.appform.sai.config.ModelEntry;
 import io.appform.sai.config.ProviderEntry;
+import io.appform.sai.config.SessionStoreConfig;
 import io.appform.sai.config.SettingsConfig;
 import io.appform.sai.config.SettingsConfigLoader;
+import io.appform.sai.http.ConnectionPrewarmer;
+import io.appform.sai.http.HttpClientRegistry;
 import io.appform.sai.models.Actor;
 import io.appform.sai.models.Severity;
+import io.appform.sai.session.BackgroundSearchIndexer;
+import io.appform.sai.session.BackgroundSessionPruner;
+import io.appform.sai.session.SessionBlobStore;
+import io.appform.sai.session.SessionCatalog;
+import io.appform.sai.session.SessionCodec;
+import io.appform.sai.session.SessionSearchIndex;
+import io.appform.sai.session.SessionStatsStore;
+import io.appform.sai.session.TurnTimingStore;
+import io.appform.sai.session.WriteBehindSessionStore;
 import io.appform.sai.tools.CoreToolBox;
 
 import org.jline.reader.EndOfFileException;
@@ -62,7 +79,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -74,10 +91,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 import lombok.Getter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.OkHttpClient;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
@@ -87,7 +105,12 @@ import picocli.CommandLine.Option;
         ListSessionsCommand.class,
         DeleteSessionsCommand.class,
         PruneSessionsCommand.class,
+        MigrateSessionsCommand.class,
+        RebuildSessionStatsCommand.class,
         ExportSessionCommand.class,
+        ForkSessionCommand.class,
+        SearchSessionsCommand.class,
+        UsageCommand.class,
         io.appform.sai.commands.SessionSummaryCommand.class,
         CopilotCommand.class,
         ListProvidersCommand.class
@@ -98,6 +121,11 @@ public class SaiCommand implements Callable<Integer> {
     }, description = "Resume a specific session")
     private String sessionId;
 
+    @Option(names = {
+            "--resume-turns"
+    }, defaultValue = "5", description = "Number of most recent turns to replay when resuming a session. Older turns can be loaded with /history.")
+    private int resumeTurns;
+
     @Option(names = {
             "-d", "--debug"
     }, description = "Enable debug mode")
@@ -108,6 +136,11 @@ public class SaiCommand implements Callable<Integer> {
     }, description = "Run in headless mode")
     private boolean headless;
 
+    @Option(names = {
+            "--no-stream"
+    }, description = "Disable response streaming. The final answer is printed once when the turn completes.")
+    private boolean noStream;
+
     @Option(names = {
             "--data-dir"
     }, description = "Override data directory")
@@ -118,6 +151,11 @@ public class SaiCommand implements Callable<Integer> {
     }, description = "Override config directory")
     private String configDir;
 
+    @Option(names = {
+            "--session-codec"
+    }, description = "Encoding of newly written session files: 'json' or 'gzip'. Overrides sessionStore.codec in settings.yaml (default 'json'). Sessions in either encoding can always be read.")
+    private String sessionCodec;
+
     @Option(names = {
             "-i", "--input"
     }, description = "Execute a single input and exit. If the value starts with '@', read input from the specified file.")
@@ -140,7 +178,8 @@ public class SaiCommand implements Callable<Integer> {
 
     /**
      * Resolves a {@link Settings} instance from a parent {@link SaiCommand}, applying the
-     * {@code --data-dir} override if provided.
+     * {@code --data-dir}, {@code --config-dir} and {@code --session-codec} overrides if provided.
+     * Without {@code --session-codec}, the codec configured in {@code settings.yaml} is used.
      *
      * @param parent the parent picocli command carrying global option values
      * @return a fully-built {@code Settings} object
@@ -153,7 +192,8 @@ public class SaiCommand implements Callable<Integer> {
         if (!Strings.isNullOrEmpty(parent.getConfigDir())) {
             builder.configDir(parent.getConfigDir());
         }
-        return builder.build();
+        final var settings = builder.build();
+        return settings.withSessionCodec(sessionCodec(parent.getSessionCodec(), settings.getConfigDir()));
     }
 
     @Override
@@ -215,11 +255,17 @@ public class SaiCommand implements Callable<Integer> {
                  persona,
                  modelPointer,
                  modelDetails.mode());
-
-        final var sessionStore = FileSystemSessionStore.builder()
+        // Open the provider connection while the session store, agent and terminal are set up
+        final var currentModel = new AtomicReference<>(modelPointer);
+        final var prewarmer = new ConnectionPrewarmer(modelDetails.httpClientRegistry().baseClient(),
+                                                      () -> providerBaseUrl(currentModel.get(), settingsConfig));
+        prewarmer.warm();
+
+        final var sessionStoreConfig = settingsConfig.sessionStoreConfig();
+        final var fileSessionStore = FileSystemSessionStore.builder()
                 .baseDir(sessionDataPath.toString())
-                .mapper(mapper)
-                .cacheSize(1)
+                .mapper(new SessionBlobStore(sessionDataPath).mapper(settings.getSessionCodec().mapper(mapper)))
+                .cacheSize(sessionStoreConfig.getCacheSize())
                 .extraDataOperator(SessionExtraDataOperator.fixed(Map.of(
                                                                          "workDir",
                                                                          settings.getWorkDir(),
@@ -231,6 +277,15 @@ public class SaiCommand implements Callable<Integer> {
                                                                          "persona",
                                                                          Objects.requireNonNullElse(persona, ""))))
                 .build();
+        // Messages a crashed run had not yet written go in before anything reads the sessions
+        WriteBehindSessionStore.recover(fileSessionStore, sessionDataPath, mapper);
+        final var writeBehindStore = Boolean.TRUE.equals(sessionStoreConfig.getWriteBehind())
+                ? openWriteBehindStore(fileSessionStore, sessionDataPath, mapper, sessionStoreConfig)
+                : null;
+        final SessionStore sessionStore = writeBehindStore != null ? writeBehindStore : fileSessionStore;
+        if (writeBehindStore != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(writeBehindStore::close, "session-write-flush"));
+        }
         if (settings.isNoSession()) {
             sessionStore.saveSession(SessionSummary.builder()
                     .sessionId(effectiveSessionId)
@@ -238,6 +293,18 @@ public class SaiCommand implements Callable<Integer> {
                     .updatedAt(System.currentTimeMillis())
                     .build());
         }
+        final var sessionCatalog = new SessionCatalog(sessionDataPath, mapper);
+        final var catalogRecorder = new SessionCatalogRecorder(effectiveSessionId, sessionStore, sessionCatalog);
+        // Background jobs use the file store directly so that they don't flush the running turn's writes
+        final var backgroundPruner = new BackgroundSessionPruner(sessionDataPath,
+                                                                 sessionCatalog,
+                                                                 fileSessionStore,
+                                                                 settingsConfig.retentionPolicy(),
+                                                                 effectiveSessionId);
+        backgroundPruner.start();
+        final var searchIndex = new SessionSearchIndex(sessionDataPath, mapper);
+        final var backgroundIndexer = new BackgroundSearchIndexer(searchIndex, sessionCatalog, fileSessionStore);
+        backgroundIndexer.start();
         final var sessionExtension = AgentSessionExtension.<String, String, SaiAgent>builder()
                 .sessionStore(sessionStore)
                 .mapper(mapper)
@@ -249,7 +316,7 @@ public class SaiCommand implements Callable<Integer> {
                                                   modelDetails.factory(),
                                                   mapper,
                                                   eventBus,
-                                                  modelDetails.httpClient(),
+                                                  modelDetails.httpClientRegistry(),
                                                   settingsConfig);
 
         final var agent = agentFactory.createAgent(modelDetails.provider(),
@@ -267,17 +334,49 @@ public class SaiCommand implements Callable<Integer> {
             agent.registerToolbox(new CoreToolBox(printer));
             printer.updateContextInfo(agentConfig.getName(), modelPointer);
             final var eventPrinter = new EventPrinter(printer, mapper);
+            // Headless non-streaming runs discard everything the event printer produces, so don't
+            // pay for rendering it in the first place
+            if (!settings.isNoStream() || !settings.isHeadless() || settings.isDebug()) {
+                eventBus.onEvent().connect(event -> {
+                    final var eventSessionId = event.getSessionId();
+                    // There might be events for other LLM events like for example compaction,
+                    // memory extraction etc, so we filter based on session id to avoid printing irrelevant events
+                    if (!Strings.isNullOrEmpty(eventSessionId) && effectiveSessionId.equals(eventSessionId)) {
+                        event.accept(eventPrinter);
+                    }
+                });
+            }
+
+            final var statusTracker = new TurnStatusTracker(printer, () -> agentRef.get().contextWindowSize());
+            if (!settings.isHeadless()) {
+                eventBus.onEvent().connect(event -> {
+                    if (effectiveSessionId.equals(event.getSessionId())) {
+                        event.accept(statusTracker);
+                    }
+                });
+            }
+
+            final var timingRecorder = new TurnTimingRecorder(effectiveSessionId,
+                                                              new TurnTimingStore(sessionDataPath, mapper),
+                                                              currentModel::get,
+                                                              persona);
             eventBus.onEvent().connect(event -> {
-                final var eventSessionId = event.getSessionId();
-                // There might be events for other LLM events like for example compaction,
-                // memory extraction etc, so we filter based on session id to avoid printing irrelevant events
-                if (!Strings.isNullOrEmpty(eventSessionId) && effectiveSessionId.equals(eventSessionId)) {
-                    event.accept(eventPrinter);
+                if (effectiveSessionId.equals(event.getSessionId())) {
+                    event.accept(timingRecorder);
                 }
             });
 
+            final var statsRecorder = new SessionStatsRecorder(effectiveSessionId,
+                                                               sessionStore,
+                                                               new SessionStatsStore(sessionDataPath, mapper),
+                                                               timingRecorder);
+            final var searchRecorder = new SessionSearchRecorder(effectiveSessionId, backgroundIndexer);
+
+            final var transcriptPager = sessionIdProvided
+                    ? new TranscriptPager(sessionStore, effectiveSessionId)
+                    : null;
             final var slashContext = SlashCommandContext.builder()
-                    .currentModel(new AtomicReference<>(modelPointer))
+                    .currentModel(currentModel)
                     .currentMode(new AtomicReference<>(modelDetails.mode()))
                     .currentAgentConfig(new AtomicReference<>(agentConfig))
                     .currentAgent(agentRef)
@@ -287,6 +386,9 @@ public class SaiCommand implements Callable<Integer> {
                     .mapper(mapper)
                     .agentSkillsExtension(agentSkillsExtension)
                     .sessionExtension(sessionExtension)
+                    .sessionStore(sessionStore)
+                    .transcriptPager(transcriptPager)
+                    .httpClientRegistry(modelDetails.httpClientRegistry())
                     .build();
             slashContext.setOnAgentRebuilt(newAgent -> {
                 newAgent.registerToolbox(new CoreToolBox(printer));
@@ -294,7 +396,13 @@ public class SaiCommand implements Callable<Integer> {
                                           slashContext.getCurrentModel().get());
             });
 
-            var commandProcessor = buildCommandProcessor(agentRef.get(), settings, printer);
+            // The held-back session writes must be saved before the recorders that read them
+            final var turnObservers = new ArrayList<TurnObserver>(List.of(statusTracker, timingRecorder));
+            if (writeBehindStore != null) {
+                turnObservers.add(new SessionWriteFlusher(writeBehindStore));
+            }
+            turnObservers.addAll(List.of(catalogRecorder, statsRecorder, searchRecorder));
+            var commandProcessor = buildCommandProcessor(agentRef.get(), settings, printer, turnObservers);
             final var interruptMonitor = new InterruptMonitor(commandProcessor, printer);
             try {
                 if (!settings.isHeadless()) {
@@ -318,16 +426,16 @@ public class SaiCommand implements Callable<Integer> {
                                                    Strings.isNullOrEmpty(persona) ? "(default)" : persona))
                                 .build());
                     }
-                    final var response = sessionStore.readMessages(effectiveSessionId,
-                                                                   Integer.MAX_VALUE,
-                                                                   true,
-                                                                   null,
-                                                                   QueryDirection.OLDER);
+                    // Only the latest turns are read and rendered here, /history pages further back
                     final var messagePrinter = new MessagePrinter(printer, mapper, true);
-                    response.getItems().forEach(message -> {
-                        final var updates = message.accept(messagePrinter);
-                        printer.print(updates);
-                    });
+                    transcriptPager.previousTurns(Math.max(resumeTurns, 0))
+                            .forEach(message -> printer.print(message.accept(messagePrinter)));
+                    if (!settings.isHeadless() && transcriptPager.hasMore()) {
+                        printer.print(Printer.systemMessage(
+                                                            Printer.Colours.GRAY
+                                                                    + "Earlier turns are hidden. Type /history to show them."
+                                                                    + Printer.Colours.RESET));
+                    }
                 }
 
                 var userInput = effectiveInput;
@@ -337,14 +445,19 @@ public class SaiCommand implements Callable<Integer> {
                 printer.addCompleter(new SlashCommandCompleter(dispatcher.getCommandLine()));
                 while (Strings.isNullOrEmpty(userInput) || !userInput.equalsIgnoreCase("exit")) {
                     if (Strings.isNullOrEmpty(userInput)) {
+                        prewarmer.onIdle();
                         userInput = readInput(printer).orElse("exit");
+                        prewarmer.onBusy();
                     }
                     else {
                         // Check for client-side CLI commands (e.g. ! for shell, / for slash) before forwarding to agent
                         if (cliCommandRegistry.tryHandle(userInput, printer)) {
                             if (slashContext.isAgentChanged()) {
                                 commandProcessor.close();
-                                commandProcessor = buildCommandProcessor(agentRef.get(), settings, printer);
+                                commandProcessor = buildCommandProcessor(agentRef.get(),
+                                                                         settings,
+                                                                         printer,
+                                                                         turnObservers);
                                 slashContext.resetAgentChanged();
                             }
                             userInput = !Strings.isNullOrEmpty(effectiveInput) ? "exit" : null;
@@ -385,8 +498,19 @@ public class SaiCommand implements Callable<Integer> {
             catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
+            prewarmer.close();
+            backgroundPruner.close();
+            backgroundIndexer.close();
+            modelDetails.httpClientRegistry().close();
             if (settings.isNoSession()) {
                 sessionStore.deleteSession(effectiveSessionId);
+                sessionCatalog.remove(List.of(effectiveSessionId));
+            }
+            else {
+                catalogRecorder.record();
+            }
+            if (writeBehindStore != null) {
+                writeBehindStore.close();
             }
         }
         return 0;
@@ -396,7 +520,7 @@ public class SaiCommand implements Callable<Integer> {
             String provider,
             String modelName,
             String mode,
-            OkHttpClient httpClient,
+            HttpClientRegistry httpClientRegistry,
             ChatCompletionServiceFactory factory
     ) {
     }
@@ -429,28 +553,20 @@ public class SaiCommand implements Callable<Integer> {
 
     }
 
-    private CommandProcessor buildCommandProcessor(SaiAgent saiAgent, Settings currentSettings, Printer printer) {
+    private CommandProcessor buildCommandProcessor(SaiAgent saiAgent,
+                                                   Settings currentSettings,
+                                                   Printer printer,
+                                                   List<TurnObserver> turnObservers) {
         return CommandProcessor.builder()
                 .sessionId(currentSettings.getSessionId())
                 .agent(saiAgent)
                 .printer(printer)
+                .streaming(!currentSettings.isNoStream())
+                .turnObservers(turnObservers)
                 .build()
                 .start();
     }
 
-    /**
-     * Builds the shared {@link OkHttpClient} with project-standard timeouts.
-     *
-     * @return a configured {@code OkHttpClient}
-     */
-    private OkHttpClient buildOkHttpClient() {
-        return new OkHttpClient.Builder()
-                .readTimeout(Duration.ofSeconds(300))
-                .callTimeout(Duration.ofSeconds(300))
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
-    }
-
     /**
      * Constructs the {@link Settings} object for this invocation, applying CLI overrides and
      * routing to a temporary data directory when a one-shot {@code effectiveInput} is provided.
@@ -466,7 +582,8 @@ public class SaiCommand implements Callable<Integer> {
                 .sessionId(effectiveSessionId)
                 .debug(debug)
                 .headless(headless || !Strings.isNullOrEmpty(effectiveInput))
-                .noSession(!Strings.isNullOrEmpty(effectiveInput));
+                .noSession(!Strings.isNullOrEmpty(effectiveInput))
+                .noStream(noStream);
         if (!Strings.isNullOrEmpty(configDir)) {
             settingsBuilder.configDir(configDir);
         }
@@ -485,7 +602,8 @@ public class SaiCommand implements Callable<Integer> {
                     .toString();
             settingsBuilder.dataDir(tempDataDir);
         }
-        return settingsBuilder.build();
+        final var settings = settingsBuilder.build();
+        return settings.withSessionCodec(sessionCodec(sessionCodec, settings.getConfigDir()));
     }
 
     private SettingsConfig loadSettings(final String configDir,
@@ -513,7 +631,7 @@ public class SaiCommand implements Callable<Integer> {
                                          final Settings settings) {
         final var probeStore = FileSystemSessionStore.builder()
                 .baseDir(sessionDataPath.toString())
-                .mapper(mapper)
+                .mapper(new SessionBlobStore(sessionDataPath).mapper(settings.getSessionCodec().mapper(mapper)))
                 .cacheSize(1)
                 .build(); // no extraDataOperator — read-only probe
         final var existingSession = probeStore.session(sessionId)
@@ -613,6 +731,28 @@ public class SaiCommand implements Callable<Integer> {
         printer.print(Printer.raw(sb.toString()));
     }
 
+    private static WriteBehindSessionStore openWriteBehindStore(SessionStore sessionStore,
+                                                                Path sessionDataPath,
+                                                                ObjectMapper mapper,
+                                                                SessionStoreConfig config) {
+        try {
+            return new WriteBehindSessionStore(sessionStore,
+                                               sessionDataPath,
+                                               mapper,
+                                               config.getQueueSize(),
+                                               config.getFlushTimeout());
+        }
+        catch (IOException e) {
+            log.warn("Failed to open session journal, session messages are saved directly: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Optional<String> providerBaseUrl(String modelPointer, SettingsConfig settingsConfig) {
+        final var provider = modelPointer.split("/", 2)[0].toLowerCase();
+        return ConfigurableProviderFactory.baseUrl(provider, settingsConfig);
+    }
+
     private Optional<String> readInput(final Printer printer) {
         try {
             printer.getTerminal().writer().print("\007");
@@ -699,14 +839,24 @@ public class SaiCommand implements Callable<Integer> {
         }
         log.debug("Loaded settings config: {}", settingsConfig);
         log.info("Using model provider: {}, model name: {}, mode: {}", provider, modelName, mode);
-        final var okHttpClient = buildOkHttpClient();
+        final var httpClientRegistry = new HttpClientRegistry();
         return new ResolvedModelDetails(provider,
                                         modelName,
                                         mode,
-                                        okHttpClient,
+                                        httpClientRegistry,
                                         new ConfigurableProviderFactory(provider,
                                                                         mapper,
-                                                                        okHttpClient,
+                                                                        httpClientRegistry.baseClient(),
                                                                         settingsConfig));
     }
+
+    /**
+     * @return the codec given with {@code --session-codec}, or else the one configured under
+     *         {@code sessionStore} in the {@code settings.yaml} of {@code configDir}
+     */
+    private static SessionCodec sessionCodec(@Nullable String option, String configDir) {
+        return Strings.isNullOrEmpty(option)
+                ? SettingsConfigLoader.load(configDir).sessionStoreConfig().getCodec()
+                : SessionCodec.parse(option);
+    }
 }
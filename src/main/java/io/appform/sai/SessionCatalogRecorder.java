@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai;
+
+import com.phonepe.sentinelai.session.SessionStore;
+
+import io.appform.sai.session.SessionCatalog;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Copies the session's summary into the {@link SessionCatalog} after every turn, once the session
+ * extension has saved it, so that {@code list-sessions} sees the session's latest title and
+ * update time without opening its directory.
+ */
+@Slf4j
+public class SessionCatalogRecorder implements TurnObserver {
+    private final String sessionId;
+    private final SessionStore sessionStore;
+    private final SessionCatalog catalog;
+
+    public SessionCatalogRecorder(String sessionId, SessionStore sessionStore, SessionCatalog catalog) {
+        this.sessionId = sessionId;
+        this.sessionStore = sessionStore;
+        this.catalog = catalog;
+    }
+
+    @Override
+    public void endTurn() {
+        record();
+    }
+
+    @Override
+    public void onStreamed(String chunk) {
+        // Only the end of the turn matters
+    }
+
+    @Override
+    public void startTurn(String runId) {
+        // Only the end of the turn matters
+    }
+
+    /**
+     * Records the session's current summary, if it has been saved.
+     */
+    public void record() {
+        try {
+            sessionStore.session(sessionId).ifPresent(catalog::record);
+        }
+        catch (Exception e) {
+            log.warn("Failed to update session catalogue for {}: {}", sessionId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai;
+
+import io.appform.sai.session.BackgroundSearchIndexer;
+import io.appform.sai.session.SessionSearchIndex;
+
+/**
+ * Adds every finished turn to the {@link SessionSearchIndex}, once the session extension has
+ * saved the turn's messages, so that {@code search-sessions} finds the session without
+ * re-indexing it. The turn is indexed on the {@link BackgroundSearchIndexer}'s thread, not during
+ * {@link #endTurn()}.
+ */
+public class SessionSearchRecorder implements TurnObserver {
+    private final String sessionId;
+    private final BackgroundSearchIndexer indexer;
+
+    private String runId;
+
+    public SessionSearchRecorder(String sessionId, BackgroundSearchIndexer indexer) {
+        this.sessionId = sessionId;
+        this.indexer = indexer;
+    }
+
+    @Override
+    public void endTurn() {
+        final String finishedRunId;
+        synchronized (this) {
+            finishedRunId = runId;
+            runId = null;
+        }
+        if (finishedRunId == null) {
+            return;
+        }
+        indexer.recordRun(sessionId, finishedRunId);
+    }
+
+    @Override
+    public void onStreamed(String chunk) {
+        // Only the end of the turn matters
+    }
+
+    @Override
+    public synchronized void startTurn(String runId) {
+        this.runId = runId;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai;
+
+import com.phonepe.sentinelai.session.SessionStore;
+
+import io.appform.sai.session.SessionStatsStore;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Adds every finished turn to the session's {@link SessionStatsStore} record, once the session
+ * extension has saved the turn's messages. Tool time comes from the {@link TurnTimingRecorder},
+ * which must be notified of the end of the turn first.
+ */
+@Slf4j
+public class SessionStatsRecorder implements TurnObserver {
+    private final String sessionId;
+    private final SessionStore sessionStore;
+    private final SessionStatsStore statsStore;
+    private final TurnTimingRecorder timingRecorder;
+
+    private String runId;
+
+    public SessionStatsRecorder(String sessionId,
+                                SessionStore sessionStore,
+                                SessionStatsStore statsStore,
+                                TurnTimingRecorder timingRecorder) {
+        this.sessionId = sessionId;
+        this.sessionStore = sessionStore;
+        this.statsStore = statsStore;
+        this.timingRecorder = timingRecorder;
+    }
+
+    @Override
+    public void endTurn() {
+        final String finishedRunId;
+        synchronized (this) {
+            finishedRunId = runId;
+            runId = null;
+        }
+        if (finishedRunId == null) {
+            return;
+        }
+        final var timing = timingRecorder.lastTiming();
+        try {
+            statsStore.recordRun(sessionId,
+                                 finishedRunId,
+                                 sessionStore,
+                                 timing != null && finishedRunId.equals(timing.getRunId()) ? timing : null);
+        }
+        catch (Exception e) {
+            log.warn("Failed to update session stats for {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onStreamed(String chunk) {
+        // Only the end of the turn matters
+    }
+
+    @Override
+    public synchronized void startTurn(String runId) {
+        this.runId = runId;
+    }
+}
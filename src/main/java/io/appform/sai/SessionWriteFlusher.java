@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai;
+
+import io.appform.sai.session.WriteBehindSessionStore;
+
+/**
+ * Writes the messages held back by the {@link WriteBehindSessionStore} at the end of every turn.
+ * Must be notified before the observers that read the turn's messages from the session store.
+ */
+public class SessionWriteFlusher implements TurnObserver {
+    private final WriteBehindSessionStore writeBehindStore;
+
+    public SessionWriteFlusher(WriteBehindSessionStore writeBehindStore) {
+        this.writeBehindStore = writeBehindStore;
+    }
+
+    @Override
+    public void endTurn() {
+        writeBehindStore.flush();
+    }
+
+    @Override
+    public void onStreamed(String chunk) {
+        // Only the end of the turn matters
+    }
+
+    @Override
+    public void startTurn(String runId) {
+        // Only the end of the turn matters
+    }
+}
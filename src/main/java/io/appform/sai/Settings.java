@@ -15,6 +15,8 @@
  */
 package io.appform.sai;
 
+import io.appform.sai.session.SessionCodec;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.Optional;
@@ -36,7 +38,8 @@ import lombok.With;
  * <p>The {@code headless} flag suppresses interactive prompts and welcome banners; it is set
  * automatically when a one-shot {@code --input} or piped stdin input is detected.
  * The {@code noSession} flag causes session data to be stored in a temporary directory and
- * deleted after the run completes.
+ * deleted after the run completes. The {@code noStream} flag switches agent execution to the
+ * non-streaming path so that only the final answer is rendered, once.
  */
 @Value
 @Builder
@@ -54,6 +57,14 @@ public class Settings {
 
     boolean noSession;
 
+    boolean noStream;
+
+    /**
+     * Encoding of newly written session files; files of every codec can be read.
+     */
+    @Builder.Default
+    SessionCodec sessionCodec = SessionCodec.JSON;
+
     @Builder.Default
     String sessionId = UUID.randomUUID().toString();
 
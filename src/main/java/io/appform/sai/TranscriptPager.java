@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai;
+
+import com.google.common.base.Preconditions;
+import com.phonepe.sentinelai.core.agentmessages.AgentMessage;
+import com.phonepe.sentinelai.core.agentmessages.AgentMessageType;
+import com.phonepe.sentinelai.session.BiScrollable;
+import com.phonepe.sentinelai.session.QueryDirection;
+import com.phonepe.sentinelai.session.SessionStore;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Walks a session transcript backwards, one turn at a time, so that a resumed session only has to
+ * read and render the turns that are actually shown.
+ *
+ * <p>Messages are fetched from the {@link SessionStore} in fixed-size pages in
+ * {@link QueryDirection#OLDER} order, using the pointer returned with each page to seek to the
+ * next older page. A turn starts at a user prompt; messages read beyond the oldest turn handed out
+ * so far are held back and served first on the next call.
+ *
+ * <p>Instances are stateful (each call continues from where the previous one stopped) and safe to
+ * share between the REPL loop and the {@code /history} slash command.
+ */
+@Slf4j
+public class TranscriptPager {
+    public static final int DEFAULT_PAGE_SIZE = 32;
+
+    private final SessionStore sessionStore;
+    private final String sessionId;
+    private final int pageSize;
+
+    /** Messages already read from the store but not handed out yet, oldest first. */
+    private final Deque<AgentMessage> pending = new ArrayDeque<>();
+    private BiScrollable.DataPointer pointer;
+    private boolean exhausted;
+
+    public TranscriptPager(SessionStore sessionStore, String sessionId) {
+        this(sessionStore, sessionId, DEFAULT_PAGE_SIZE);
+    }
+
+    public TranscriptPager(SessionStore sessionStore, String sessionId, int pageSize) {
+        Preconditions.checkArgument(pageSize > 0, "Page size must be positive");
+        this.sessionStore = sessionStore;
+        this.sessionId = sessionId;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @return {@code true} if there are messages older than the ones returned so far
+     */
+    public synchronized boolean hasMore() {
+        return !pending.isEmpty() || !exhausted;
+    }
+
+    /**
+     * Returns up to {@code turns} turns immediately preceding the ones returned by earlier calls.
+     * When the start of the session is reached, any messages before the first user prompt are
+     * included as well.
+     *
+     * @param turns number of turns to return
+     * @return messages of the requested turns in chronological order, empty once the start of the
+     *         session has been reached
+     */
+    public synchronized List<AgentMessage> previousTurns(int turns) {
+        final var collected = new ArrayDeque<AgentMessage>();
+        var found = 0;
+        while (found < turns && (!pending.isEmpty() || fetchOlderPage())) {
+            final var message = pending.pollLast();
+            collected.addFirst(message);
+            if (message.getMessageType() == AgentMessageType.USER_PROMPT_REQUEST_MESSAGE) {
+                found++;
+            }
+        }
+        return List.copyOf(collected);
+    }
+
+    private boolean fetchOlderPage() {
+        if (exhausted) {
+            return false;
+        }
+        final var page = sessionStore.readMessages(sessionId, pageSize, true, pointer, QueryDirection.OLDER);
+        final var items = page.getItems();
+        if (items == null || items.isEmpty()) {
+            exhausted = true;
+            return false;
+        }
+        log.debug("Read {} older messages for session {}", items.size(), sessionId);
+        for (int i = items.size() - 1; i >= 0; i--) {
+            pending.addFirst(items.get(i));
+        }
+        // Pages can come back short when system prompts are skipped, so only an empty page or a
+        // missing pointer marks the start of the session
+        pointer = page.getPointer();
+        exhausted = pointer == null;
+        return true;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai;
+
+/**
+ * Receives the lifecycle of each turn run by {@link CommandProcessor} and the chunks streamed by
+ * the model during it. Agent events of the turn are delivered separately through the event bus.
+ */
+public interface TurnObserver {
+
+    /**
+     * Called after the turn has run, whether it succeeded, failed or was interrupted.
+     */
+    void endTurn();
+
+    /**
+     * Called for every non-empty chunk of streamed reasoning or content.
+     *
+     * @param chunk the streamed text
+     */
+    void onStreamed(String chunk);
+
+    /**
+     * Called when a model call of the turn failed because the watchdog aborted its stream, before
+     * {@link #endTurn()}. The counts cover that call only, including the requests re-issued for it.
+     *
+     * @param stalls        number of streams aborted
+     * @param stalledMillis time spent waiting on them
+     */
+    default void onStalled(long stalls, long stalledMillis) {
+    }
+
+    /**
+     * Called before the agent is invoked for a new turn.
+     *
+     * @param runId run ID of the turn
+     */
+    void startTurn(String runId);
+}
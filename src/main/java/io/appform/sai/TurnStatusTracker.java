@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai;
+
+import com.phonepe.sentinelai.core.agentmessages.AgentMessage;
+import com.phonepe.sentinelai.core.agentmessages.responses.StructuredOutput;
+import com.phonepe.sentinelai.core.agentmessages.responses.Text;
+import com.phonepe.sentinelai.core.events.AgentEventVisitor;
+import com.phonepe.sentinelai.core.events.CompactionCompletedEvent;
+import com.phonepe.sentinelai.core.events.CompactionStartedEvent;
+import com.phonepe.sentinelai.core.events.InputReceivedAgentEvent;
+import com.phonepe.sentinelai.core.events.MessageReceivedAgentEvent;
+import com.phonepe.sentinelai.core.events.MessageSentAgentEvent;
+import com.phonepe.sentinelai.core.events.OutputErrorAgentEvent;
+import com.phonepe.sentinelai.core.events.OutputGeneratedAgentEvent;
+import com.phonepe.sentinelai.core.events.ToolCallApprovalDeniedAgentEvent;
+import com.phonepe.sentinelai.core.events.ToolCallCompletedAgentEvent;
+import com.phonepe.sentinelai.core.events.ToolCalledAgentEvent;
+import com.phonepe.sentinelai.core.model.ModelUsageStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the progress of the running turn and publishes it as a one-line status through
+ * {@link Printer#statusUpdate(String)}.
+ *
+ * <p>The status shows the elapsed time, time to first token, output throughput, time spent in
+ * tools versus waiting on the model, and how much of the model's context window the last request
+ * used. Streamed chunks are reported by {@link AgentStreamConsumer}; tool and model timings come
+ * from the event bus, for which this class is registered as a visitor.
+ *
+ * <p>Output tokens are estimated from the streamed character count, or taken from the usage the
+ * provider reports with each response when that is higher (as it is for non-streamed runs). Status
+ * updates are published at most once every {@code minUpdateIntervalMillis} so that fast streams
+ * do not flood the printer queue. Nothing is published in headless mode, where status lines are
+ * not shown anyway.
+ */
+public class TurnStatusTracker implements TurnObserver, AgentEventVisitor<Void> {
+    public static final long DEFAULT_MIN_UPDATE_INTERVAL_MS = 250;
+
+    /** Rough average for English text and code with current BPE encodings. */
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final Printer printer;
+    private final IntSupplier contextWindowSize;
+    private final LongSupplier nanoClock;
+    private final long minUpdateIntervalNanos;
+
+    private boolean active;
+    private long turnStartNanos;
+    private long firstTokenNanos;
+    private long lastPublishedNanos;
+    private long streamedChars;
+    private long reportedOutputTokens;
+    private int contextTokens;
+    private int toolsInFlight;
+    private long toolStartNanos;
+    private long toolNanos;
+
+    public TurnStatusTracker(Printer printer, IntSupplier contextWindowSize) {
+        this(printer, contextWindowSize, System::nanoTime, DEFAULT_MIN_UPDATE_INTERVAL_MS);
+    }
+
+    TurnStatusTracker(Printer printer,
+                      IntSupplier contextWindowSize,
+                      LongSupplier nanoClock,
+                      long minUpdateIntervalMillis) {
+        this.printer = printer;
+        this.contextWindowSize = contextWindowSize;
+        this.nanoClock = nanoClock;
+        this.minUpdateIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minUpdateIntervalMillis);
+    }
+
+    private static String formatTokens(long tokens) {
+        return tokens >= 1000 ? "%.1fk".formatted(tokens / 1000.0) : Long.toString(tokens);
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private static ModelUsageStats statsOf(AgentMessage message) {
+        if (message instanceof Text text) {
+            return text.getStats();
+        }
+        if (message instanceof StructuredOutput structuredOutput) {
+            return structuredOutput.getStats();
+        }
+        return null;
+    }
+
+    /**
+     * Marks the running turn as finished. Later stream chunks and events are ignored until the
+     * next {@link #startTurn(String)}.
+     */
+    @Override
+    public synchronized void endTurn() {
+        active = false;
+    }
+
+    @Override
+    public void onStreamed(String chunk) {
+        final String status;
+        synchronized (this) {
+            if (!active) {
+                return;
+            }
+            final var now = nanoClock.getAsLong();
+            markFirstToken(now);
+            streamedChars += chunk.length();
+            status = dueStatus(now);
+        }
+        publish(status);
+    }
+
+    /**
+     * Resets all counters and publishes the initial status for a new turn.
+     */
+    @Override
+    public void startTurn(String runId) {
+        final String status;
+        synchronized (this) {
+            active = true;
+            turnStartNanos = nanoClock.getAsLong();
+            firstTokenNanos = -1;
+            streamedChars = 0;
+            reportedOutputTokens = 0;
+            contextTokens = 0;
+            toolsInFlight = 0;
+            toolNanos = 0;
+            lastPublishedNanos = turnStartNanos;
+            status = printer.isHeadless() ? null : render(turnStartNanos);
+        }
+        publish(status);
+    }
+
+    @Override
+    public Void visit(CompactionCompletedEvent compactionCompleted) {
+        return null;
+    }
+
+    @Override
+    public Void visit(CompactionStartedEvent compactionStarted) {
+        return null;
+    }
+
+    @Override
+    public Void visit(InputReceivedAgentEvent inputReceived) {
+        return null;
+    }
+
+    @Override
+    public Void visit(MessageReceivedAgentEvent messageReceived) {
+        final String status;
+        synchronized (this) {
+            if (!active) {
+                return null;
+            }
+            final var now = nanoClock.getAsLong();
+            markFirstToken(now);
+            for (final var message : messageReceived.getNewMessages()) {
+                final var stats = statsOf(message);
+                if (stats != null) {
+                    reportedOutputTokens += stats.getResponseTokens();
+                    if (stats.getRequestTokens() > 0) {
+                        contextTokens = stats.getRequestTokens();
+                    }
+                }
+            }
+            status = dueStatus(now);
+        }
+        publish(status);
+        return null;
+    }
+
+    @Override
+    public Void visit(MessageSentAgentEvent messageSent) {
+        return null;
+    }
+
+    @Override
+    public Void visit(OutputErrorAgentEvent outputErrorAgentEvent) {
+        return null;
+    }
+
+    @Override
+    public Void visit(OutputGeneratedAgentEvent outputGeneratedAgentEvent) {
+        return null;
+    }
+
+    @Override
+    public Void visit(ToolCallApprovalDeniedAgentEvent toolCallApprovalDenied) {
+        return null;
+    }
+
+    @Override
+    public Void visit(ToolCallCompletedAgentEvent toolCallCompleted) {
+        final String status;
+        synchronized (this) {
+            if (!active || toolsInFlight == 0) {
+                return null;
+            }
+            final var now = nanoClock.getAsLong();
+            if (--toolsInFlight == 0) {
+                toolNanos += now - toolStartNanos;
+            }
+            status = dueStatus(now);
+        }
+        publish(status);
+        return null;
+    }
+
+    @Override
+    public Void visit(ToolCalledAgentEvent toolCalled) {
+        final String status;
+        synchronized (this) {
+            if (!active) {
+                return null;
+            }
+            final var now = nanoClock.getAsLong();
+            if (toolsInFlight++ == 0) {
+                toolStartNanos = now;
+            }
+            status = dueStatus(now);
+        }
+        publish(status);
+        return null;
+    }
+
+    /**
+     * Renders the status line for the given instant.
+     */
+    synchronized String render(long nowNanos) {
+        final var C = Printer.Colours.CYAN;
+        final var G = Printer.Colours.GRAY;
+        final var W = Printer.Colours.WHITE;
+        final var Y = Printer.Colours.YELLOW;
+
+        final var elapsed = nowNanos - turnStartNanos;
+        final var currentToolNanos = toolNanos + (toolsInFlight > 0 ? nowNanos - toolStartNanos : 0);
+        final var sb = new StringBuilder(" ⏱ ").append(W).append("%.1fs".formatted(seconds(elapsed)));
+
+        sb.append(G).append(" │ TTFT ").append(W);
+        if (firstTokenNanos < 0) {
+            sb.append("…");
+        }
+        else {
+            sb.append("%.2fs".formatted(seconds(firstTokenNanos - turnStartNanos)));
+            final var outputTokens = Math.max(streamedChars / CHARS_PER_TOKEN, reportedOutputTokens);
+            final var generationNanos = nowNanos - firstTokenNanos - currentToolNanos;
+            if (outputTokens > 0 && generationNanos > 0) {
+                sb.append(G).append(" │ ").append(W)
+                        .append("%.0f".formatted(outputTokens / seconds(generationNanos)))
+                        .append(G).append(" tok/s");
+            }
+        }
+
+        sb.append(G).append(" │ ").append(C).append("🤖 ").append(W)
+                .append("%.1fs".formatted(seconds(elapsed - currentToolNanos)))
+                .append(' ').append(C).append("🔧 ").append(toolsInFlight > 0 ? Y : W)
+                .append("%.1fs".formatted(seconds(currentToolNanos)));
+
+        final var window = contextWindowSize.getAsInt();
+        if (contextTokens > 0 && window > 0) {
+            final var usage = contextTokens * 100.0 / window;
+            sb.append(G).append(" │ ctx ").append(usage >= 80.0 ? Y : W)
+                    .append(formatTokens(contextTokens)).append(G).append('/').append(formatTokens(window))
+                    .append(" (%.0f%%)".formatted(usage));
+        }
+        return sb.toString();
+    }
+
+    private String dueStatus(long nowNanos) {
+        if (printer.isHeadless() || nowNanos - lastPublishedNanos < minUpdateIntervalNanos) {
+            return null;
+        }
+        lastPublishedNanos = nowNanos;
+        return render(nowNanos);
+    }
+
+    private void markFirstToken(long nowNanos) {
+        if (firstTokenNanos < 0) {
+            firstTokenNanos = nowNanos;
+        }
+    }
+
+    private void publish(String status) {
+        if (status != null) {
+            printer.print(Printer.statusUpdate(status));
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai;
+
+import io.appform.sai.models.TurnTiming;
+import io.appform.sai.models.TurnTiming.ToolTiming;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Formats recorded {@link TurnTiming}s as a per-turn latency table followed by aggregates across
+ * all turns of the session: turn time percentiles, average time to first token, model versus tool
+ * time, stalled streams and the tools that took the longest in total.
+ *
+ * <p>Output is ANSI-coloured for the interactive {@code /info} command, or plain for
+ * {@code session-summary} which writes to stdout.
+ */
+public final class TurnTimingFormatter {
+    public static final int DEFAULT_RECENT_TURNS = 10;
+
+    private static final int RUN_ID_WIDTH = 14;
+    private static final int MAX_TOOLS_SHOWN = 5;
+
+    private record ToolAggregate(
+            String toolName,
+            long calls,
+            long totalMs,
+            long maxMs
+    ) {
+    }
+
+    private final String label;
+    private final String text;
+    private final String dim;
+    private final String reset;
+
+    public TurnTimingFormatter(boolean colour) {
+        this.label = colour ? Printer.Colours.YELLOW : "";
+        this.text = colour ? Printer.Colours.WHITE : "";
+        this.dim = colour ? Printer.Colours.GRAY : "";
+        this.reset = colour ? Printer.Colours.RESET : "";
+    }
+
+    private static String abbreviate(String runId) {
+        final var value = Objects.requireNonNullElse(runId, "?");
+        return value.length() <= RUN_ID_WIDTH ? value : value.substring(0, RUN_ID_WIDTH - 1) + "…";
+    }
+
+    /**
+     * Nearest-rank percentile of an ascending list.
+     */
+    private static long percentile(List<Long> sorted, int percentile) {
+        final var rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    private static String seconds(long millis) {
+        return "%.1fs".formatted(millis / 1000.0);
+    }
+
+    private static long sum(List<TurnTiming> timings, ToLongFunction<TurnTiming> field) {
+        return timings.stream().mapToLong(field).sum();
+    }
+
+    private static List<ToolAggregate> toolAggregates(List<TurnTiming> timings) {
+        final Map<String, List<ToolTiming>> byTool = timings.stream()
+                .flatMap(timing -> timing.getToolCalls().stream())
+                .collect(Collectors.groupingBy(tool -> Objects.requireNonNullElse(tool.getToolName(), "?")));
+        return byTool.entrySet()
+                .stream()
+                .map(entry -> new ToolAggregate(entry.getKey(),
+                                                entry.getValue().size(),
+                                                entry.getValue().stream().mapToLong(ToolTiming::getDurationMs).sum(),
+                                                entry.getValue()
+                                                        .stream()
+                                                        .mapToLong(ToolTiming::getDurationMs)
+                                                        .max()
+                                                        .orElse(0)))
+                .sorted(Comparator.comparingLong(ToolAggregate::totalMs).reversed())
+                .toList();
+    }
+
+    /**
+     * Appends aggregates across all {@code timings}. Nothing is appended when there are none.
+     *
+     * @param sb      target buffer
+     * @param timings all recorded timings of the session
+     */
+    public void appendAggregates(StringBuilder sb, List<TurnTiming> timings) {
+        if (timings.isEmpty()) {
+            return;
+        }
+        final var totals = timings.stream().map(TurnTiming::getTotalMs).sorted().toList();
+        final var ttfts = timings.stream()
+                .map(TurnTiming::getTimeToFirstTokenMs)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .average();
+        final var modelCalls = timings.stream().mapToInt(TurnTiming::getModelCalls).sum();
+        final var toolCalls = timings.stream().mapToInt(timing -> timing.getToolCalls().size()).sum();
+
+        sb.append('\n');
+        sb.append(label).append("Latency Totals:").append(reset).append('\n');
+        line(sb, "Turns:", Integer.toString(timings.size()));
+        line(sb,
+             "Turn Time:",
+             "avg %s  p50 %s  p95 %s  max %s".formatted(seconds(sum(timings, TurnTiming::getTotalMs)
+                     / timings.size()),
+                                                        seconds(percentile(totals, 50)),
+                                                        seconds(percentile(totals, 95)),
+                                                        seconds(totals.get(totals.size() - 1))));
+        if (ttfts.isPresent()) {
+            line(sb, "Time To First Token:", "avg " + seconds((long) ttfts.getAsDouble()));
+        }
+        line(sb, "Queue:", seconds(sum(timings, TurnTiming::getQueueMs)));
+        line(sb,
+             "Model:",
+             "%s in %d calls (streaming %s)".formatted(seconds(sum(timings, TurnTiming::getModelMs)),
+                                                       modelCalls,
+                                                       seconds(sum(timings, TurnTiming::getStreamingMs))));
+        final var stalls = timings.stream().mapToInt(TurnTiming::getStalls).sum();
+        if (stalls > 0) {
+            line(sb,
+                 "Stalled Streams:",
+                 "%d, %s waiting".formatted(stalls, seconds(sum(timings, TurnTiming::getStallMs))));
+        }
+        line(sb, "Tools:", "%s in %d calls".formatted(seconds(sum(timings, TurnTiming::getToolMs)), toolCalls));
+        line(sb, "Compaction:", seconds(sum(timings, TurnTiming::getCompactionMs)));
+        line(sb, "Overhead:", seconds(sum(timings, TurnTiming::overheadMs)));
+
+        final var tools = toolAggregates(timings);
+        if (!tools.isEmpty()) {
+            sb.append(dim).append("  Slowest Tools:").append(reset).append('\n');
+            tools.stream()
+                    .limit(MAX_TOOLS_SHOWN)
+                    .forEach(tool -> sb.append(text)
+                            .append("    %-28s".formatted(tool.toolName()))
+                            .append(dim)
+                            .append("%4d calls  total %s  max %s".formatted(tool.calls(),
+                                                                            seconds(tool.totalMs()),
+                                                                            seconds(tool.maxMs())))
+                            .append(reset)
+                            .append('\n'));
+        }
+    }
+
+    /**
+     * Appends a table with the breakdown of the last {@code recentTurns} turns. Nothing is appended
+     * when there are no timings.
+     *
+     * @param sb          target buffer
+     * @param timings     all recorded timings of the session, oldest first
+     * @param recentTurns maximum number of turns to list
+     */
+    public void appendRecentTurns(StringBuilder sb, List<TurnTiming> timings, int recentTurns) {
+        if (timings.isEmpty()) {
+            return;
+        }
+        final var shown = timings.subList(Math.max(0, timings.size() - recentTurns), timings.size());
+        sb.append('\n');
+        sb.append(label)
+                .append("Turn Latency (last %d of %d):".formatted(shown.size(), timings.size()))
+                .append(reset)
+                .append('\n');
+        sb.append(dim)
+                .append("  %-14s %8s %8s %8s %8s %8s %8s %8s".formatted("Run",
+                                                                       "Total",
+                                                                       "Queue",
+                                                                       "TTFT",
+                                                                       "Model",
+                                                                       "Stream",
+                                                                       "Tools",
+                                                                       "Compact"))
+                .append(reset)
+                .append('\n');
+        for (final var timing : shown) {
+            final var ttft = timing.getTimeToFirstTokenMs();
+            sb.append(text)
+                    .append("  %-14s %8s %8s %8s %8s %8s %8s %8s".formatted(abbreviate(timing.getRunId()),
+                                                                           seconds(timing.getTotalMs()),
+                                                                           seconds(timing.getQueueMs()),
+                                                                           ttft == null ? "-" : seconds(ttft),
+                                                                           seconds(timing.getModelMs()),
+                                                                           seconds(timing.getStreamingMs()),
+                                                                           seconds(timing.getToolMs()),
+                                                                           seconds(timing.getCompactionMs())));
+            if (timing.getStalls() > 0) {
+                sb.append(label)
+                        .append("  ⚠ %d stalled (%s)".formatted(timing.getStalls(), seconds(timing.getStallMs())));
+            }
+            sb.append(reset).append('\n');
+        }
+    }
+
+    private void line(StringBuilder sb, String name, String value) {
+        sb.append(dim).append("  %-23s".formatted(name)).append(reset)
+                .append(text).append(value).append(reset).append('\n');
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai;
+
+import com.phonepe.sentinelai.core.events.AgentEventVisitor;
+import com.phonepe.sentinelai.core.events.CompactionCompletedEvent;
+import com.phonepe.sentinelai.core.events.CompactionStartedEvent;
+import com.phonepe.sentinelai.core.events.InputReceivedAgentEvent;
+import com.phonepe.sentinelai.core.events.MessageReceivedAgentEvent;
+import com.phonepe.sentinelai.core.events.MessageSentAgentEvent;
+import com.phonepe.sentinelai.core.events.OutputErrorAgentEvent;
+import com.phonepe.sentinelai.core.events.OutputGeneratedAgentEvent;
+import com.phonepe.sentinelai.core.events.ToolCallApprovalDeniedAgentEvent;
+import com.phonepe.sentinelai.core.events.ToolCallCompletedAgentEvent;
+import com.phonepe.sentinelai.core.events.ToolCalledAgentEvent;
+
+import io.appform.sai.models.SessionStats;
+import io.appform.sai.models.TurnTiming;
+import io.appform.sai.models.TurnTiming.ToolTiming;
+import io.appform.sai.session.SessionStatsStore;
+import io.appform.sai.session.TurnTimingStore;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds a {@link TurnTiming} for every turn from the turn lifecycle, the streamed chunks and the
+ * agent events of the session, and appends it to the {@link TurnTimingStore} when the turn ends.
+ *
+ * <p>A model call spans a {@link MessageSentAgentEvent} and the following
+ * {@link MessageReceivedAgentEvent}; tool calls are matched by tool call ID between
+ * {@link ToolCalledAgentEvent} and {@link ToolCallCompletedAgentEvent}. Compaction time is taken
+ * from {@link CompactionCompletedEvent#getElapsedTimeMs()}. Token usage is added up from the
+ * messages of every {@link MessageReceivedAgentEvent}, and the model is the one current when the
+ * turn starts. Events arriving outside a turn are ignored.
+ */
+@Slf4j
+public class TurnTimingRecorder implements TurnObserver, AgentEventVisitor<Void> {
+    private final String sessionId;
+    private final TurnTimingStore store;
+    private final Supplier<String> model;
+    @Nullable
+    private final String persona;
+    private final LongSupplier nanoClock;
+
+    private boolean active;
+    private String runId;
+    private String turnModel;
+    private long startedAt;
+    private long turnStartNanos;
+    private long firstRequestNanos;
+    private long firstTokenNanos;
+    private long callSentNanos;
+    private long callFirstChunkNanos;
+    private long modelNanos;
+    private long streamingNanos;
+    private int modelCalls;
+    private long compactionMs;
+    private int stalls;
+    private long stallMs;
+    private SessionStats usage = SessionStats.EMPTY;
+    private final Map<String, Long> toolStartNanos = new HashMap<>();
+    private final List<ToolTiming> toolCalls = new ArrayList<>();
+    private TurnTiming lastTiming;
+
+    /**
+     * @param sessionId session whose turns are recorded
+     * @param store     store the timings are appended to
+     * @param model     current model pointer, which may change between turns
+     * @param persona   persona file of the session, {@code null} or empty for the default
+     */
+    public TurnTimingRecorder(String sessionId,
+                              TurnTimingStore store,
+                              Supplier<String> model,
+                              @Nullable String persona) {
+        this(sessionId, store, model, persona, System::nanoTime);
+    }
+
+    TurnTimingRecorder(String sessionId,
+                       TurnTimingStore store,
+                       Supplier<String> model,
+                       @Nullable String persona,
+                       LongSupplier nanoClock) {
+        this.sessionId = sessionId;
+        this.store = store;
+        this.model = model;
+        this.persona = persona;
+        this.nanoClock = nanoClock;
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public void endTurn() {
+        final TurnTiming timing;
+        synchronized (this) {
+            if (!active) {
+                return;
+            }
+            active = false;
+            timing = buildTiming(nanoClock.getAsLong());
+            lastTiming = timing;
+        }
+        try {
+            store.append(sessionId, timing);
+        }
+        catch (IOException e) {
+            log.warn("Failed to save turn timing for run {}: {}", timing.getRunId(), e.getMessage());
+        }
+    }
+
+    /**
+     * @return the timing of the most recently finished turn, {@code null} before the first one
+     */
+    @Nullable
+    public synchronized TurnTiming lastTiming() {
+        return lastTiming;
+    }
+
+    /**
+     * Counts the stalls and closes the model call they aborted, since a failed call is not
+     * followed by a {@link MessageReceivedAgentEvent}.
+     */
+    @Override
+    public synchronized void onStalled(long stalls, long stalledMillis) {
+        if (!active) {
+            return;
+        }
+        this.stalls += (int) stalls;
+        stallMs += stalledMillis;
+        if (callSentNanos >= 0) {
+            modelNanos += nanoClock.getAsLong() - callSentNanos;
+            callSentNanos = -1;
+        }
+    }
+
+    @Override
+    public synchronized void onStreamed(String chunk) {
+        if (!active || callSentNanos < 0) {
+            return;
+        }
+        final var now = nanoClock.getAsLong();
+        if (callFirstChunkNanos < 0) {
+            callFirstChunkNanos = now;
+        }
+        if (firstTokenNanos < 0) {
+            firstTokenNanos = now;
+        }
+    }
+
+    @Override
+    public synchronized void startTurn(String runId) {
+        active = true;
+        this.runId = runId;
+        turnModel = model.get();
+        startedAt = System.currentTimeMillis();
+        turnStartNanos = nanoClock.getAsLong();
+        firstRequestNanos = -1;
+        firstTokenNanos = -1;
+        callSentNanos = -1;
+        callFirstChunkNanos = -1;
+        modelNanos = 0;
+        streamingNanos = 0;
+        modelCalls = 0;
+        compactionMs = 0;
+        stalls = 0;
+        stallMs = 0;
+        usage = SessionStats.EMPTY;
+        toolStartNanos.clear();
+        toolCalls.clear();
+    }
+
+    @Override
+    public synchronized Void visit(CompactionCompletedEvent compactionCompleted) {
+        if (active) {
+            compactionMs += compactionCompleted.getElapsedTimeMs();
+        }
+        return null;
+    }
+
+    @Override
+    public Void visit(CompactionStartedEvent compactionStarted) {
+        return null;
+    }
+
+    @Override
+    public Void visit(InputReceivedAgentEvent inputReceived) {
+        return null;
+    }
+
+    @Override
+    public synchronized Void visit(MessageReceivedAgentEvent messageReceived) {
+        if (!active) {
+            return null;
+        }
+        usage = SessionStatsStore.add(usage, messageReceived.getNewMessages());
+        if (callSentNanos < 0) {
+            return null;
+        }
+        final var now = nanoClock.getAsLong();
+        modelNanos += now - callSentNanos;
+        if (callFirstChunkNanos >= 0) {
+            streamingNanos += now - callFirstChunkNanos;
+        }
+        if (firstTokenNanos < 0) {
+            firstTokenNanos = now;
+        }
+        callSentNanos = -1;
+        return null;
+    }
+
+    @Override
+    public synchronized Void visit(MessageSentAgentEvent messageSent) {
+        if (!active) {
+            return null;
+        }
+        final var now = nanoClock.getAsLong();
+        if (firstRequestNanos < 0) {
+            firstRequestNanos = now;
+        }
+        callSentNanos = now;
+        callFirstChunkNanos = -1;
+        modelCalls++;
+        return null;
+    }
+
+    @Override
+    public Void visit(OutputErrorAgentEvent outputErrorAgentEvent) {
+        return null;
+    }
+
+    @Override
+    public Void visit(OutputGeneratedAgentEvent outputGeneratedAgentEvent) {
+        return null;
+    }
+
+    @Override
+    public Void visit(ToolCallApprovalDeniedAgentEvent toolCallApprovalDenied) {
+        return null;
+    }
+
+    @Override
+    public synchronized Void visit(ToolCallCompletedAgentEvent toolCallCompleted) {
+        if (!active) {
+            return null;
+        }
+        final var started = toolStartNanos.remove(toolCallCompleted.getToolCallId());
+        if (started != null) {
+            toolCalls.add(ToolTiming.builder()
+                    .toolName(toolCallCompleted.getToolCallName())
+                    .durationMs(millis(nanoClock.getAsLong() - started))
+                    .build());
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized Void visit(ToolCalledAgentEvent toolCalled) {
+        if (active) {
+            toolStartNanos.put(toolCalled.getToolCallId(), nanoClock.getAsLong());
+        }
+        return null;
+    }
+
+    private TurnTiming buildTiming(long nowNanos) {
+        // A call still in flight (interrupted turn) counts as model time up to now
+        if (callSentNanos >= 0) {
+            modelNanos += nowNanos - callSentNanos;
+        }
+        return TurnTiming.builder()
+                .runId(runId)
+                .startedAt(startedAt)
+                .model(turnModel)
+                .persona(Objects.requireNonNullElse(persona, ""))
+                .totalMs(millis(nowNanos - turnStartNanos))
+                .queueMs(firstRequestNanos < 0 ? 0 : millis(firstRequestNanos - turnStartNanos))
+                .timeToFirstTokenMs(firstRequestNanos < 0 || firstTokenNanos < 0
+                        ? null
+                        : millis(firstTokenNanos - firstRequestNanos))
+                .modelMs(millis(modelNanos))
+                .streamingMs(millis(streamingNanos))
+                .modelCalls(modelCalls)
+                .toolMs(toolCalls.stream().mapToLong(ToolTiming::getDurationMs).sum())
+                .toolCalls(List.copyOf(toolCalls))
+                .compactionMs(compactionMs)
+                .stalls(stalls)
+                .stallMs(stallMs)
+                .requestTokens(usage.getRequestTokens())
+                .responseTokens(usage.getResponseTokens())
+                .cachedTokens(usage.getCachedTokens())
+                .build();
+    }
+}
@@ -16,6 +16,7 @@
 package io.appform.sai.agent;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
 import com.knuddels.jtokkit.api.EncodingType;
 import com.phonepe.sentinelai.core.agent.AgentExtension;
 import com.phonepe.sentinelai.core.agent.AgentSetup;
@@ -38,22 +39,29 @@ import io.appform.sai.ConfigurableProviderFactory;
 import io.appform.sai.SaiAgent;
 import io.appform.sai.Settings;
 import io.appform.sai.config.ModelTuning;
+import io.appform.sai.config.ProviderEntry;
 import io.appform.sai.config.SettingsConfig;
 import io.appform.sai.config.SettingsResolver;
+import io.appform.sai.copilot.CopilotModel;
+import io.appform.sai.http.HttpClientRegistry;
+import io.appform.sai.transform.PromptCacheInterceptor;
 import io.appform.sai.transform.ReasoningNormalizationInterceptor;
 import io.appform.sai.transform.RequestTransformInterceptor;
 
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 
 import javax.annotation.Nullable;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.OkHttpClient;
+import okhttp3.Interceptor;
 
 @Slf4j
 @AllArgsConstructor
@@ -79,8 +87,9 @@ public class AgentFactory {
     private final ChatCompletionServiceFactory modelProviderFactory;
     private final ObjectMapper mapper;
     private final EventBus eventBus;
-    private final OkHttpClient httpClient;
+    private final HttpClientRegistry httpClientRegistry;
     private final SettingsConfig settingsConfig;
+    private final Map<String, ChatCompletionServiceFactory> providerFactories = new ConcurrentHashMap<>();
 
     /**
      * Creates a new {@link SaiAgent} configured for the given provider/model/mode and agent config.
@@ -93,7 +102,9 @@ public class AgentFactory {
      * <p>Effective model settings are resolved through {@link SettingsResolver} using the
      * provider → model → mode hierarchy from {@code settings.yaml}, merged with the persona's
      * inline tuning. If the resolver returns no settings, the agent config's
-     * {@code modelSettings}/{@code modelOptions} (or framework defaults) are used.
+     * {@code modelSettings}/{@code modelOptions} (or framework defaults) are used. A context window
+     * or output limit left unset is taken from the provider's model catalogue, if it has one (see
+     * {@link #withModelLimits(ModelSettings, CopilotModel)}).
      *
      * @param provider  the provider name (e.g. {@code "copilot"}, {@code "openai"})
      * @param modelName the bare model name (without provider prefix, e.g. {@code "claude-haiku-4.5"})
@@ -108,16 +119,11 @@ public class AgentFactory {
                                                       settingsConfig,
                                                       config.getTuning());
 
-        final var modelSettings = Objects.requireNonNullElseGet(resolved.getModelSettings(),
-                                                                () -> Objects.requireNonNullElseGet(
-                                                                                                    config.getModelSettings(),
-                                                                                                    this::defaultModelSettings))
-                .withParallelToolCalls(false); //To keep context usage and console output sane
         final var modelOptions = Objects.requireNonNullElse(resolved.getModelOptions(),
                                                             Objects.requireNonNullElse(config.getModelOptions(),
                                                                                        SimpleOpenAIModelOptions.DEFAULT));
 
-        final var effectiveProviderFactory = resolveProviderFactory(config, resolved.getTuning());
+        final var effectiveProviderFactory = resolveProviderFactory(provider, config, resolved.getTuning());
 
         // If the ModelEntry defines an effectiveModelId (e.g. "moonshotai/kimi-k3" for an
         // OpenRouter model keyed as "kimi-k3"), use it as the API model ID; otherwise fall back
@@ -127,6 +133,15 @@ public class AgentFactory {
             log.info("Overriding API model ID: '{}' -> '{}'", modelName, apiModelId);
         }
 
+        final var configuredSettings = Objects.requireNonNullElseGet(resolved.getModelSettings(),
+                                                                     () -> Objects.requireNonNullElseGet(
+                                                                                                         config.getModelSettings(),
+                                                                                                         this::defaultModelSettings));
+        final var modelSettings = describeModel(effectiveProviderFactory, apiModelId)
+                .map(model -> withModelLimits(configuredSettings, model))
+                .orElse(configuredSettings)
+                .withParallelToolCalls(false); //To keep context usage and console output sane
+
         final var compactionOutputGenerationMode = resolved.getTuning() != null
                 && resolved.getTuning().getCompactionOutputGenerationMode() != null
                         ? resolved.getTuning().getCompactionOutputGenerationMode()
@@ -166,6 +181,50 @@ public class AgentFactory {
         return saiAgent;
     }
 
+    /**
+     * Fills in the context window and output limit from the provider's model catalogue where the
+     * settings leave them unset. A context window is unset when it is missing or still the
+     * framework default {@link ModelAttributes#DEFAULT_WINDOW_SIZE}, the same sentinel
+     * {@code ModelAttributes.merge} uses. The window is the model's prompt limit where the
+     * catalogue reports one, as that is what the provider enforces, and its full context window
+     * otherwise; auto-compaction triggers at a percentage of it.
+     *
+     * @param settings the resolved model settings
+     * @param model    the model's catalogue entry
+     * @return settings with the catalogue limits applied
+     */
+    @VisibleForTesting
+    static ModelSettings withModelLimits(ModelSettings settings, CopilotModel model) {
+        final var limits = model.getCapabilities() == null ? null : model.getCapabilities().getLimits();
+        if (limits == null) {
+            return settings;
+        }
+        var result = settings;
+        if (result.getMaxTokens() == null && limits.getMaxOutputTokens() > 0) {
+            result = result.withMaxTokens(limits.getMaxOutputTokens());
+        }
+        final var window = limits.getMaxPromptTokens() > 0
+                ? limits.getMaxPromptTokens()
+                : limits.getMaxContextWindowTokens();
+        final var attributes = result.getModelAttributes();
+        final var configuredWindow = attributes == null ? null : attributes.getContextWindowSize();
+        if (window > 0 && (configuredWindow == null || configuredWindow == ModelAttributes.DEFAULT_WINDOW_SIZE)) {
+            result = result.withModelAttributes(ModelAttributes.builder()
+                    .contextWindowSize(window)
+                    .encodingType(attributes == null || attributes.getEncodingType() == null
+                            ? EncodingType.O200K_BASE
+                            : attributes.getEncodingType())
+                    .build());
+        }
+        return result;
+    }
+
+    private static Optional<CopilotModel> describeModel(ChatCompletionServiceFactory factory, String modelName) {
+        return factory instanceof ConfigurableProviderFactory configurable
+                ? configurable.describeModel(modelName)
+                : Optional.empty();
+    }
+
     private TemplatizedHttpTool createTool(ConfiguredHttpTool tool) {
         return new TemplatizedHttpTool(tool.metadata(),
                                        tool.definition(),
@@ -197,7 +256,7 @@ public class AgentFactory {
                                                                                             .toList()));
         saiAgent.registerToolbox(HttpToolBox.builder()
                 .httpToolSource(httpToolSource)
-                .httpClient(httpClient)
+                .httpClient(httpClientRegistry.baseClient())
                 .mapper(mapper)
                 .build());
     }
@@ -212,39 +271,47 @@ public class AgentFactory {
     /**
      * Resolves the {@link ChatCompletionServiceFactory} to use for this agent.
      *
-     * <p>Always wraps the shared {@link OkHttpClient} with a
-     * {@link ReasoningNormalizationInterceptor} so that reasoning/thinking fields
-     * from different providers are normalised to {@code reasoning_content}.
+     * <p>The provider's HTTP client always carries a {@link ReasoningNormalizationInterceptor} so
+     * that reasoning/thinking fields from different providers are normalised to
+     * {@code reasoning_content}. If the tuning additionally contains {@code requestTransforms}, a
+     * {@link RequestTransformInterceptor} is added after it. A {@link PromptCacheInterceptor}
+     * comes last, so that its {@code cache_control} breakpoints are not undone by the transforms.
      *
-     * <p>If the agent config additionally contains {@code requestTransforms}, a
-     * {@link RequestTransformInterceptor} is also added, and a fresh
-     * {@link ConfigurableProviderFactory} is created.
+     * <p>Factories are cached per provider and interceptor chain, and their clients come from the
+     * shared {@link HttpClientRegistry}, so switching models or personas reuses both the provider
+     * setup (e.g. the Copilot token) and the pooled connections.
      */
-    private ChatCompletionServiceFactory resolveProviderFactory(AgentConfig config,
+    private ChatCompletionServiceFactory resolveProviderFactory(String provider,
+                                                                AgentConfig config,
                                                                 ModelTuning tuning) {
-        if (modelProviderFactory instanceof ConfigurableProviderFactory factory) {
-            log.trace("Using ConfigurableProviderFactory for agent {}: {}", config.getAgentId(), factory);
-        }
-        else {
+        if (!(modelProviderFactory instanceof ConfigurableProviderFactory)) {
             log.warn("modelProviderFactory is not a ConfigurableProviderFactory; request transforms may not be applied");
             return modelProviderFactory;
         }
         final var requestTransforms = tuning == null ? null : tuning.getRequestTransforms();
         final var hasRequestTransforms = requestTransforms != null && !requestTransforms.isEmpty();
-
-        var clientBuilder = httpClient.newBuilder()
-                .addInterceptor(new ReasoningNormalizationInterceptor(mapper));
-
         if (hasRequestTransforms) {
             log.info("Applying {} request transform(s) for agent {}",
                      requestTransforms.size(),
                      config.getAgentId());
-            clientBuilder.addInterceptor(new RequestTransformInterceptor(mapper, requestTransforms));
         }
-
-        return new ConfigurableProviderFactory(factory.getProvider(),
-                                               mapper,
-                                               clientBuilder.build(),
-                                               settingsConfig);
+        final var promptCache = settingsConfig == null
+                ? null
+                : settingsConfig.getProvider(provider).map(ProviderEntry::getPromptCache).orElse(null);
+        final var endpointKey = hasRequestTransforms
+                ? provider + "#transforms=" + requestTransforms
+                : provider;
+        return providerFactories.computeIfAbsent(endpointKey, key -> {
+            final var httpClient = httpClientRegistry.client(key, () -> {
+                final var interceptors = new ArrayList<Interceptor>();
+                interceptors.add(new ReasoningNormalizationInterceptor(mapper));
+                if (hasRequestTransforms) {
+                    interceptors.add(new RequestTransformInterceptor(mapper, requestTransforms));
+                }
+                interceptors.add(new PromptCacheInterceptor(mapper, promptCache));
+                return interceptors;
+            });
+            return new ConfigurableProviderFactory(provider, mapper, httpClient, settingsConfig);
+        });
     }
 }
@@ -18,12 +18,15 @@ package io.appform.sai.cli.slash;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.phonepe.sentinelai.filesystem.skills.AgentSkillsExtension;
 import com.phonepe.sentinelai.session.AgentSessionExtension;
+import com.phonepe.sentinelai.session.SessionStore;
 
 import io.appform.sai.AgentConfig;
 import io.appform.sai.Printer;
 import io.appform.sai.SaiAgent;
 import io.appform.sai.Settings;
+import io.appform.sai.TranscriptPager;
 import io.appform.sai.agent.AgentFactory;
+import io.appform.sai.http.HttpClientRegistry;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -98,6 +101,28 @@ public class SlashCommandContext {
      */
     @Nullable
     private final AgentSessionExtension<String, String, SaiAgent> sessionExtension;
+
+    /**
+     * Store the running session is saved to, used by {@code /fork} so that pending writes are
+     * saved before the session is forked. May be {@code null} in test contexts.
+     */
+    @Nullable
+    private final SessionStore sessionStore;
+
+    /**
+     * Pager over the turns of a resumed session that have not been replayed yet, used by
+     * {@code /history}. {@code null} for new sessions.
+     */
+    @Nullable
+    private final TranscriptPager transcriptPager;
+
+    /**
+     * Registry owning the shared HTTP connection pool, used by {@code /info} to show connection
+     * reuse. May be {@code null} in test contexts.
+     */
+    @Nullable
+    private final HttpClientRegistry httpClientRegistry;
+
     /**
      * Callback invoked after {@link #rebuildAgent()} creates a new agent. The REPL loop uses this
      * to register toolboxes on the new instance (e.g., {@code CoreToolBox}).
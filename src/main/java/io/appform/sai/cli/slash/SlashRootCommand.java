@@ -16,7 +16,9 @@
 package io.appform.sai.cli.slash;
 
 import io.appform.sai.cli.slash.commands.CompactCommand;
+import io.appform.sai.cli.slash.commands.ForkCommand;
 import io.appform.sai.cli.slash.commands.HelpCommand;
+import io.appform.sai.cli.slash.commands.HistoryCommand;
 import io.appform.sai.cli.slash.commands.InfoCommand;
 import io.appform.sai.cli.slash.commands.ModeCommand;
 import io.appform.sai.cli.slash.commands.ModelCommand;
@@ -34,13 +36,15 @@ import picocli.CommandLine.Command;
  * dispatched.
  *
  * <p>The root command itself is a no-op {@link Runnable}; all real work is done by its subcommands
- * ({@code /compact}, {@code /help}, {@code /info}, {@code /model}, {@code /mode}, {@code /persona},
- * {@code /providers}, {@code /skills}).
+ * ({@code /compact}, {@code /fork}, {@code /help}, {@code /history}, {@code /info}, {@code /model},
+ * {@code /mode}, {@code /persona}, {@code /providers}, {@code /skills}).
  */
 @Getter
 @Command(name = "", mixinStandardHelpOptions = false, subcommands = {
         CompactCommand.class,
+        ForkCommand.class,
         HelpCommand.class,
+        HistoryCommand.class,
         InfoCommand.class,
         ModeCommand.class,
         ModelCommand.class,
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.cli.slash.commands;
+
+import com.google.common.base.Strings;
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+
+import io.appform.sai.Printer;
+import io.appform.sai.cli.slash.SlashRootCommand;
+import io.appform.sai.session.SessionBlobStore;
+import io.appform.sai.session.SessionForker;
+
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.UUID;
+
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * {@code /fork [title]} — fork the current session into a new one that can be resumed with
+ * {@code sai -s <id>}.
+ *
+ * <p>The new session gets a copy of the history saved so far, or hard links to it with
+ * {@code --link}, and records the current model and mode, so resuming it continues where the fork
+ * was made. The current session is not affected and stays
+ * active.
+ */
+@Slf4j
+@Command(name = "fork", description = "Fork the current session into a new one")
+public class ForkCommand implements Runnable {
+
+    @ParentCommand
+    private SlashRootCommand parent;
+
+    @Parameters(index = "0", arity = "0..1", description = "Title of the new session")
+    private String title;
+
+    @Option(names = "--link", description = "Share the history through hard links instead of copying it")
+    private boolean link;
+
+    /**
+     * Model pointer with the mode switched to by {@code /mode}, if any.
+     */
+    static String modelPointer(String currentModel, String currentMode) {
+        final var parts = currentModel.split("/", 3);
+        if (parts.length < 2 || Strings.isNullOrEmpty(currentMode)) {
+            return currentModel;
+        }
+        return parts[0] + "/" + parts[1] + "/" + currentMode;
+    }
+
+    @Override
+    public void run() {
+        final var context = parent.getContext();
+        final var printer = context.getPrinter();
+        final var settings = context.getSettings();
+        final var sessionId = settings.getSessionId();
+
+        // Reading through the live store saves the messages it still holds back
+        final var liveStore = context.getSessionStore();
+        if (liveStore != null && liveStore.session(sessionId).isEmpty()) {
+            printer.print(Printer.systemMessage(
+                                                Printer.Colours.YELLOW
+                                                        + "Nothing to fork yet: the session has not been saved."
+                                                        + Printer.Colours.RESET));
+            return;
+        }
+
+        final var dataDirPath = Paths.get(settings.getDataDir(), "sessions");
+        final var mapper = JsonUtils.createMapper();
+        final var sessionStore = FileSystemSessionStore.builder()
+                .baseDir(dataDirPath.toAbsolutePath().normalize().toString())
+                .mapper(new SessionBlobStore(dataDirPath).mapper(settings.getSessionCodec().mapper(mapper)))
+                .cacheSize(1)
+                .build();
+        final var currentMode = context.getCurrentMode() == null ? null : context.getCurrentMode().get();
+        final var extra = Map.of("model",
+                                 modelPointer(context.getCurrentModel().get(), currentMode),
+                                 "mode",
+                                 Strings.nullToEmpty(currentMode));
+        try {
+            final var result = new SessionForker(dataDirPath, mapper).fork(sessionStore,
+                                                                           sessionId,
+                                                                           UUID.randomUUID().toString(),
+                                                                           title,
+                                                                           extra,
+                                                                           link);
+            printer.print(Printer.systemMessage(
+                                                Printer.Colours.GREEN + "Forked session into: " + Printer.Colours.WHITE
+                                                        + result.sessionId() + Printer.Colours.GRAY
+                                                        + " (%d file(s) shared, %d copied)".formatted(result.linked(),
+                                                                                                       result.copied())
+                                                        + Printer.Colours.RESET));
+            printer.print(Printer.systemMessage(
+                                                Printer.Colours.GRAY + "Resume it with: sai -s " + result.sessionId()
+                                                        + Printer.Colours.RESET));
+        }
+        catch (Exception e) {
+            log.warn("Failed to fork session {}: {}", sessionId, e.getMessage());
+            printer.print(Printer.systemMessage(
+                                                Printer.Colours.RED + "Failed to fork session: " + e.getMessage()
+                                                        + Printer.Colours.RESET));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.cli.slash.commands;
+
+import io.appform.sai.MessagePrinter;
+import io.appform.sai.Printer;
+import io.appform.sai.cli.slash.SlashRootCommand;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * {@code /history [turns]} — print turns of a resumed session that are older than the ones already
+ * shown.
+ *
+ * <p>On resume only the most recent turns are replayed. Each invocation of this command continues
+ * backwards from the oldest turn shown so far using the session's
+ * {@link io.appform.sai.TranscriptPager}, so only the requested turns are read and rendered.
+ */
+@Command(name = "history", description = "Show earlier turns of a resumed session")
+public class HistoryCommand implements Runnable {
+
+    public static final int DEFAULT_TURNS = 5;
+
+    @ParentCommand
+    private SlashRootCommand parent;
+
+    @Parameters(index = "0", arity = "0..1", defaultValue = "" + DEFAULT_TURNS, description = "Number of earlier turns to show (default: "
+            + DEFAULT_TURNS + ")")
+    private int turns;
+
+    @Override
+    public void run() {
+        final var context = parent.getContext();
+        final var printer = context.getPrinter();
+        final var transcriptPager = context.getTranscriptPager();
+
+        if (transcriptPager == null) {
+            printer.print(Printer.systemMessage(
+                                                Printer.Colours.YELLOW
+                                                        + "No earlier history: this session was not resumed."
+                                                        + Printer.Colours.RESET));
+            return;
+        }
+        if (turns <= 0) {
+            printer.print(Printer.systemMessage(
+                                                Printer.Colours.RED + "Number of turns must be positive."
+                                                        + Printer.Colours.RESET));
+            return;
+        }
+
+        final var messages = transcriptPager.previousTurns(turns);
+        if (messages.isEmpty()) {
+            printer.print(Printer.systemMessage(
+                                                Printer.Colours.YELLOW + "Reached the start of the session."
+                                                        + Printer.Colours.RESET));
+            return;
+        }
+
+        printer.print(Printer.raw(Printer.Colours.GRAY + "── Earlier history ──"
+                + Printer.Colours.RESET));
+        final var messagePrinter = new MessagePrinter(printer, context.getMapper(), true);
+        messages.forEach(message -> printer.print(message.accept(messagePrinter)));
+        printer.print(Printer.raw(Printer.Colours.GRAY + "── End of earlier history"
+                + (transcriptPager.hasMore() ? " (/history for more)" : "") + " ──"
+                + Printer.Colours.RESET));
+    }
+}
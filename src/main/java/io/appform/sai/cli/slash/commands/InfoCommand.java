@@ -15,25 +15,27 @@
  */
 package io.appform.sai.cli.slash.commands;
 
-import com.phonepe.sentinelai.core.agentmessages.AgentMessage;
-import com.phonepe.sentinelai.core.agentmessages.AgentMessageType;
-import com.phonepe.sentinelai.core.agentmessages.responses.StructuredOutput;
-import com.phonepe.sentinelai.core.agentmessages.responses.Text;
-import com.phonepe.sentinelai.core.model.ModelUsageStats;
 import com.phonepe.sentinelai.core.utils.JsonUtils;
 import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
-import com.phonepe.sentinelai.session.QueryDirection;
 import com.phonepe.sentinelai.session.SessionSummary;
 
 import io.appform.sai.Printer;
+import io.appform.sai.TurnTimingFormatter;
 import io.appform.sai.cli.slash.SlashRootCommand;
+import io.appform.sai.http.HttpClientRegistry;
+import io.appform.sai.http.RequestCompressionInterceptor;
+import io.appform.sai.models.SessionStats;
+import io.appform.sai.session.SessionBlobStore;
+import io.appform.sai.session.SessionStatsStore;
+import io.appform.sai.session.TurnTimingStore;
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+
+import javax.annotation.Nullable;
 
 import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine.Command;
@@ -41,9 +43,10 @@ import picocli.CommandLine.ParentCommand;
 
 /**
  * {@code /info} — pretty-print a summary of the current interactive session, including metadata,
- * keywords, per-type message counts, and aggregate token usage (input/output/cached tokens and
- * cache hit rate). This is the interactive counterpart of the {@code session-summary} CLI
- * subcommand, scoped to the current session ID from the active {@link io.appform.sai.Settings}.
+ * keywords, per-type message counts, aggregate token usage (input/output/cached tokens and
+ * cache hit rate), the latency breakdown of recent turns and HTTP connection reuse. This is the
+ * interactive counterpart of the {@code session-summary} CLI subcommand, scoped to the current
+ * session ID from the active {@link io.appform.sai.Settings}.
  */
 @Slf4j
 @Command(name = "info", description = "Show a summary of the current session")
@@ -55,20 +58,6 @@ public class InfoCommand implements Runnable {
     @ParentCommand
     private SlashRootCommand parent;
 
-    /**
-     * Extracts usage stats from a stored message when it is a response type that carries them
-     * ({@link Text} or {@link StructuredOutput}); returns {@code null} otherwise.
-     */
-    private static ModelUsageStats statsOf(AgentMessage message) {
-        if (message instanceof Text text) {
-            return text.getStats();
-        }
-        if (message instanceof StructuredOutput structuredOutput) {
-            return structuredOutput.getStats();
-        }
-        return null;
-    }
-
     @Override
     public void run() {
         final var context = parent.getContext();
@@ -88,7 +77,7 @@ public class InfoCommand implements Runnable {
         final var mapper = JsonUtils.createMapper();
         final var sessionStore = FileSystemSessionStore.builder()
                 .baseDir(dataDirPath.toAbsolutePath().normalize().toString())
-                .mapper(mapper)
+                .mapper(new SessionBlobStore(dataDirPath).mapper(settings.getSessionCodec().mapper(mapper)))
                 .cacheSize(1)
                 .build();
 
@@ -104,19 +93,21 @@ public class InfoCommand implements Runnable {
         final var summary = sessionSummaryOpt.get();
         final var sb = new StringBuilder();
         appendSessionMetadata(sb, summary);
-        appendMessageStats(sb, sessionStore, summary.getSessionId());
+        appendMessageStats(sb, new SessionStatsStore(dataDirPath, mapper).readOrRebuild(summary.getSessionId(),
+                                                                                         sessionStore));
+        final var timings = new TurnTimingStore(dataDirPath, mapper).read(summary.getSessionId());
+        final var timingFormatter = new TurnTimingFormatter(true);
+        timingFormatter.appendRecentTurns(sb, timings, TurnTimingFormatter.DEFAULT_RECENT_TURNS);
+        timingFormatter.appendAggregates(sb, timings);
+        appendConnectionStats(sb, context.getHttpClientRegistry());
+        appendCompressionStats(sb);
         sb.append(Printer.Colours.GRAY).append("-".repeat(80)).append(Printer.Colours.RESET);
         printer.print(Printer.raw(sb.toString()));
     }
 
-    private void appendMessageStats(StringBuilder sb, FileSystemSessionStore sessionStore, String sessionId) {
-        final var messagesScrollable = sessionStore.readMessages(sessionId,
-                                                                 Integer.MAX_VALUE,
-                                                                 false,
-                                                                 null,
-                                                                 QueryDirection.OLDER);
-        final var messages = messagesScrollable.getItems();
-        if (messages == null || messages.isEmpty()) {
+    private void appendCompressionStats(StringBuilder sb) {
+        final var stats = RequestCompressionInterceptor.stats();
+        if (stats.requests() == 0) {
             return;
         }
 
@@ -126,26 +117,72 @@ public class InfoCommand implements Runnable {
         final var R = Printer.Colours.RESET;
 
         sb.append('\n');
-        sb.append(Y).append("Message Stats:").append(R).append('\n');
-        long userPrompts = countByType(messages, AgentMessageType.USER_PROMPT_REQUEST_MESSAGE);
-        long systemPrompts = countByType(messages, AgentMessageType.SYSTEM_PROMPT_REQUEST_MESSAGE);
-        long toolCallReqs = countByType(messages, AgentMessageType.TOOL_CALL_REQUEST_MESSAGE);
-        long toolCallResps = countByType(messages, AgentMessageType.TOOL_CALL_RESPONSE_MESSAGE);
-        long textResps = countByType(messages, AgentMessageType.TEXT_RESPONSE_MESSAGE);
+        sb.append(Y).append("Request Compression:").append(R).append('\n');
+        sb.append(G).append("  Requests:              ").append(R).append(W).append(stats.requests()).append(R)
+                .append('\n');
+        sb.append(G).append("  Original / Sent:       ").append(R).append(W).append(stats.originalBytes()).append(G)
+                .append(" / ").append(W).append(stats.compressedBytes()).append(G)
+                .append(String.format(" bytes (ratio %.2f)", stats.ratio())).append(R).append('\n');
+        sb.append(G).append("  Time Compressing:      ").append(R).append(W)
+                .append(String.format("%.1f ms", stats.compressNanos() / 1_000_000.0)).append(R).append('\n');
+    }
+
+    private void appendConnectionStats(StringBuilder sb, @Nullable HttpClientRegistry httpClientRegistry) {
+        if (httpClientRegistry == null) {
+            return;
+        }
+        final var stats = httpClientRegistry.stats();
+        if (stats.getHits() + stats.getMisses() == 0) {
+            return;
+        }
+
+        final var G = Printer.Colours.GRAY;
+        final var W = Printer.Colours.WHITE;
+        final var Y = Printer.Colours.YELLOW;
+        final var R = Printer.Colours.RESET;
 
-        sb.append(G).append("  Total Messages:        ").append(R).append(W).append(messages.size()).append(R)
+        sb.append('\n');
+        sb.append(Y).append("HTTP Connections:").append(R).append('\n');
+        sb.append(G).append("  Reused / New:          ").append(R).append(W).append(stats.getHits()).append(G)
+                .append(" / ").append(W).append(stats.getMisses()).append(G)
+                .append(String.format(" (%.1f%% reused)", stats.hitRate() * 100)).append(R).append('\n');
+        sb.append(G).append("  Pooled (Idle):         ").append(R).append(W).append(stats.getConnections()).append(G)
+                .append(" (").append(W).append(stats.getIdleConnections()).append(G).append(")").append(R)
+                .append('\n');
+        sb.append(G).append("  Endpoint Clients:      ").append(R).append(W).append(stats.getEndpoints()).append(R)
                 .append('\n');
-        sb.append(G).append("  User Prompts:          ").append(R).append(W).append(userPrompts).append(R)
+    }
+
+    private void appendMessageStats(StringBuilder sb, SessionStats stats) {
+        if (stats.getTotalMessages() == 0) {
+            return;
+        }
+
+        final var G = Printer.Colours.GRAY;
+        final var W = Printer.Colours.WHITE;
+        final var Y = Printer.Colours.YELLOW;
+        final var R = Printer.Colours.RESET;
+
+        sb.append('\n');
+        sb.append(Y).append("Message Stats:").append(R).append('\n');
+        sb.append(G).append("  Turns:                 ").append(R).append(W).append(stats.getTurns()).append(R)
                 .append('\n');
-        sb.append(G).append("  System Prompts:        ").append(R).append(W).append(systemPrompts).append(R)
+        sb.append(G).append("  Total Messages:        ").append(R).append(W).append(stats.getTotalMessages()).append(R)
                 .append('\n');
-        sb.append(G).append("  Tool Call Requests:    ").append(R).append(W).append(toolCallReqs).append(R)
+        sb.append(G).append("  User Prompts:          ").append(R).append(W).append(stats.getUserPrompts()).append(R)
                 .append('\n');
-        sb.append(G).append("  Tool Call Responses:   ").append(R).append(W).append(toolCallResps).append(R)
+        sb.append(G).append("  System Prompts:        ").append(R).append(W).append(stats.getSystemPrompts()).append(R)
                 .append('\n');
-        sb.append(G).append("  Text Responses:        ").append(R).append(W).append(textResps).append(R).append('\n');
+        sb.append(G).append("  Tool Call Requests:    ").append(R).append(W).append(stats.getToolCallRequests())
+                .append(R).append('\n');
+        sb.append(G).append("  Tool Call Responses:   ").append(R).append(W).append(stats.getToolCallResponses())
+                .append(R).append('\n');
+        sb.append(G).append("  Text Responses:        ").append(R).append(W).append(stats.getTextResponses())
+                .append(R).append('\n');
+        sb.append(G).append("  Tool Time:             ").append(R).append(W)
+                .append(String.format("%.1fs", stats.getToolMs() / 1000.0)).append(R).append('\n');
 
-        appendTokenUsage(sb, messages);
+        appendTokenUsage(sb, stats);
     }
 
     private void appendSessionMetadata(StringBuilder sb, SessionSummary summary) {
@@ -183,20 +220,8 @@ public class InfoCommand implements Runnable {
         sb.append(G).append("Updated At:              ").append(R).append(W).append(updatedAt).append(R).append('\n');
     }
 
-    private void appendTokenUsage(StringBuilder sb, List<AgentMessage> messages) {
-        long requestTokens = 0;
-        long responseTokens = 0;
-        long cachedTokens = 0;
-        for (var message : messages) {
-            final var stats = statsOf(message);
-            if (stats == null) {
-                continue;
-            }
-            requestTokens += stats.getRequestTokens();
-            responseTokens += stats.getResponseTokens();
-            cachedTokens += stats.getRequestTokenDetails().getCachedTokens();
-        }
-        if (requestTokens <= 0 && responseTokens <= 0) {
+    private void appendTokenUsage(StringBuilder sb, SessionStats stats) {
+        if (stats.getRequestTokens() <= 0 && stats.getResponseTokens() <= 0) {
             return;
         }
 
@@ -205,20 +230,15 @@ public class InfoCommand implements Runnable {
         final var Y = Printer.Colours.YELLOW;
         final var R = Printer.Colours.RESET;
 
-        final double hitRate = requestTokens > 0 ? (cachedTokens * 100.0 / requestTokens) : 0.0;
         sb.append('\n');
         sb.append(Y).append("Token Usage:").append(R).append('\n');
-        sb.append(G).append("  Input Tokens:          ").append(R).append(W).append(requestTokens).append(R)
+        sb.append(G).append("  Input Tokens:          ").append(R).append(W).append(stats.getRequestTokens()).append(R)
                 .append('\n');
-        sb.append(G).append("  Output Tokens:         ").append(R).append(W).append(responseTokens).append(R)
+        sb.append(G).append("  Output Tokens:         ").append(R).append(W).append(stats.getResponseTokens())
+                .append(R).append('\n');
+        sb.append(G).append("  Cached Tokens:         ").append(R).append(W).append(stats.getCachedTokens()).append(R)
                 .append('\n');
-        sb.append(G).append("  Cached Tokens:         ").append(R).append(W).append(cachedTokens).append(R).append(
-                                                                                                                   '\n');
         sb.append(G).append("  Cache Hit Rate:        ").append(R).append(W)
-                .append(String.format("%.1f%%", hitRate)).append(R).append('\n');
-    }
-
-    private long countByType(List<AgentMessage> messages, AgentMessageType type) {
-        return messages.stream().filter(m -> m.getMessageType() == type).count();
+                .append(String.format("%.1f%%", stats.cacheHitRate())).append(R).append('\n');
     }
 }
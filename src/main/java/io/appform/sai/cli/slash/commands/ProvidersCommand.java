@@ -17,7 +17,9 @@ package io.appform.sai.cli.slash.commands;
 
 import io.appform.sai.Printer;
 import io.appform.sai.cli.slash.SlashRootCommand;
+import io.appform.sai.config.ProviderEntry;
 import io.appform.sai.config.SettingsConfigLoader;
+import io.appform.sai.http.EndpointRouter;
 
 import java.util.Map;
 import java.util.Objects;
@@ -36,6 +38,9 @@ import picocli.CommandLine.ParentCommand;
  * openrouter/kimi-k3
  * openrouter/kimi-k3/coding
  * </pre>
+ *
+ * <p>Providers with several endpoints are followed by the routing state of each endpoint: its
+ * circuit state, average time to first byte, recent error rate and request count.
  */
 @Command(name = "providers", description = "List valid -m (provider/model[/mode]) values from settings.yaml")
 public class ProvidersCommand implements Runnable {
@@ -73,12 +78,13 @@ public class ProvidersCommand implements Runnable {
         }
         else {
             final var providers = Objects.requireNonNullElse(settings.getProviders(),
-                                                             Map.<String, io.appform.sai.config.ProviderEntry>of());
+                                                             Map.<String, ProviderEntry>of());
             new TreeMap<>(providers).forEach((providerName, entry) -> {
                 if ("copilot".equalsIgnoreCase(providerName)) {
                     return;
                 }
                 appendModels(sb, providerName, entry.getModels(), C, D, R);
+                appendRouting(sb, providerName, entry, D, R);
             });
         }
 
@@ -104,4 +110,31 @@ public class ProvidersCommand implements Runnable {
             }
         });
     }
+
+    private void appendRouting(StringBuilder sb, String providerName, ProviderEntry entry, String D, String R) {
+        final var endpoints = entry.allEndpoints();
+        if (endpoints.size() < 2) {
+            return;
+        }
+        sb.append(D).append("  routing between ").append(endpoints.size()).append(" endpoints:").append(R).append('\n');
+        final var router = EndpointRouter.routers().get(providerName);
+        if (router == null) {
+            endpoints.forEach(endpoint -> sb.append("    ").append(endpoint.getUrl()).append(D)
+                    .append("  (no requests yet)").append(R).append('\n'));
+            return;
+        }
+        router.stats().forEach(stats -> {
+            final var colour = switch (stats.getState()) {
+                case CLOSED -> Printer.Colours.GREEN;
+                case HALF_OPEN -> Printer.Colours.YELLOW;
+                case OPEN -> Printer.Colours.RED;
+            };
+            sb.append("    ").append(colour).append("● ").append(R).append(stats.getUrl())
+                    .append(D).append("  ").append(stats.getState().name().toLowerCase().replace('_', '-'))
+                    .append("  ttfb ")
+                    .append(stats.getTtfbMillis() < 0 ? "-" : "%.0fms".formatted(stats.getTtfbMillis()))
+                    .append("  errors %.0f%%".formatted(stats.getErrorRate() * 100))
+                    .append("  ").append(stats.getRequests()).append(" requests").append(R).append('\n');
+        });
+    }
 }
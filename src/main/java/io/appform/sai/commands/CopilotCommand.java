@@ -18,12 +18,16 @@ package io.appform.sai.commands;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.appform.sai.SaiCommand;
+import io.appform.sai.copilot.CopilotModel;
+import io.appform.sai.copilot.CopilotModelCatalog;
 import io.appform.sai.copilot.CopilotModelsService;
 import io.appform.sai.copilot.CopilotTokenExchanger;
 import io.appform.sai.copilot.auth.GitHubOAuthService;
 
 import java.nio.file.Files;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
 
 import okhttp3.OkHttpClient;
 import picocli.CommandLine.Command;
@@ -39,7 +43,7 @@ import picocli.CommandLine.ParentCommand;
  * sai copilot --auth --force # Force re-authentication
  * sai copilot --auth --show-token # Display token after authentication
  * sai copilot --remove # Remove the stored token
- * sai copilot --list # List available Copilot models
+ * sai copilot --list # List available Copilot models and refresh the cached catalogue
  * </pre>
  */
 @Command(name = "copilot", description = "Manage GitHub Copilot authentication and settings")
@@ -73,6 +77,10 @@ public class CopilotCommand implements Callable<Integer> {
     }, description = "List available GitHub Copilot models")
     private boolean list;
 
+    private static String formatLimit(int tokens) {
+        return tokens > 0 ? tokens / 1000 + "k" : "";
+    }
+
     @Override
     @SuppressWarnings("java:S106")
     public Integer call() {
@@ -167,21 +175,38 @@ public class CopilotCommand implements Callable<Integer> {
             final var mapper = new ObjectMapper();
             final var copilotToken = CopilotTokenExchanger.fetchCopilotToken(githubToken, httpClient, mapper);
             final var modelsService = new CopilotModelsService(httpClient, mapper);
-            final var models = modelsService.listModels(copilotToken);
+            final var executor = Executors.newSingleThreadExecutor();
+            final List<CopilotModel> models;
+            try {
+                // Goes through the catalogue so that the listing also refreshes its disk cache
+                models = new CopilotModelCatalog(CopilotModelCatalog.defaultCachePath(),
+                                                 mapper,
+                                                 CopilotModelCatalog.DEFAULT_TTL,
+                                                 () -> modelsService.listModels(copilotToken),
+                                                 executor)
+                        .refreshNow();
+            }
+            finally {
+                executor.shutdownNow();
+            }
 
             if (models.isEmpty()) {
                 System.out.println("No models available.");
                 return 0;
             }
 
-            System.out.printf("%-45s %-20s %-12s %s%n", "Model ID", "Vendor", "Type", "Name");
-            System.out.println("-".repeat(100));
+            System.out.printf("%-45s %-20s %-12s %9s %9s %s%n",
+                              "Model ID", "Vendor", "Type", "Prompt", "Output", "Name");
+            System.out.println("-".repeat(120));
             for (final var model : models) {
                 final var type = model.getCapabilities() != null ? model.getCapabilities().getType() : "";
-                System.out.printf("%-45s %-20s %-12s %s%n",
+                final var limits = model.getCapabilities() != null ? model.getCapabilities().getLimits() : null;
+                System.out.printf("%-45s %-20s %-12s %9s %9s %s%n",
                                   model.getId(),
                                   model.getVendor() != null ? model.getVendor() : "",
                                   type != null ? type : "",
+                                  limits != null ? formatLimit(limits.getMaxPromptTokens()) : "",
+                                  limits != null ? formatLimit(limits.getMaxOutputTokens()) : "",
                                   model.getName() != null ? model.getName() : "");
             }
             System.out.println();
@@ -15,12 +15,17 @@
  */
 package io.appform.sai.commands;
 
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+
 import io.appform.sai.SaiCommand;
+import io.appform.sai.session.SessionBlobStore;
+import io.appform.sai.session.SessionCatalog;
 
 import org.apache.commons.io.FileUtils;
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 import lombok.SneakyThrows;
@@ -56,7 +61,12 @@ public class DeleteSessionsCommand implements Callable<Integer> {
         }
 
         try {
+            final var blobStore = new SessionBlobStore(sessionDirPath.getParent());
+            final var blobs = blobStore.references(sessionId);
             FileUtils.deleteDirectory(sessionDirPath.toFile());
+            blobStore.release(sessionId, blobs);
+            new SessionCatalog(sessionDirPath.getParent(), JsonUtils.createMapper()).remove(List.of(sessionId));
+            blobStore.sweep();
             System.out.println("Session deleted: " + sessionId);
         }
         catch (Exception e) {
@@ -15,51 +15,58 @@
  */
 package io.appform.sai.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Strings;
-import com.phonepe.sentinelai.core.agentmessages.AgentMessage;
+import com.phonepe.sentinelai.core.agentmessages.AgentMessageType;
 import com.phonepe.sentinelai.core.utils.AgentUtils;
 import com.phonepe.sentinelai.core.utils.JsonUtils;
 import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
-import com.phonepe.sentinelai.session.QueryDirection;
-import com.phonepe.sentinelai.session.SessionStore;
-import com.phonepe.sentinelai.session.SessionSummary;
 
 import io.appform.sai.SaiCommand;
-
-import org.commonmark.node.Document;
-import org.commonmark.node.FencedCodeBlock;
-import org.commonmark.node.Heading;
-import org.commonmark.node.Node;
-import org.commonmark.node.Paragraph;
-import org.commonmark.node.SoftLineBreak;
-import org.commonmark.node.StrongEmphasis;
-import org.commonmark.node.Text;
-import org.commonmark.renderer.markdown.MarkdownRenderer;
-
+import io.appform.sai.session.SessionBlobStore;
+import io.appform.sai.session.SessionExporter;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.util.Date;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.Callable;
-import java.util.concurrent.TimeUnit;
 
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 import picocli.CommandLine.ParentCommand;
 
 /**
  * {@code export-session <sessionId> [outputFile]} — exports a session's messages and metadata
- * to a Markdown document. Writes to stdout when no output file is given.
+ * as a Markdown document or as JSON lines. Writes to stdout when no output file is given.
+ *
+ * <p>Messages are streamed page by page through a {@link SessionExporter} into a buffered writer,
+ * so large sessions are exported in constant memory. Messages can be restricted by type and time
+ * range.
  */
 @Slf4j
-@Command(name = "export-session", description = "Export a session to a markdown file")
+@Command(name = "export-session", description = "Export a session to a markdown or JSON lines file")
 public class ExportSessionCommand implements Callable<Integer> {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     @ParentCommand
     private SaiCommand parent;
 
@@ -69,60 +76,53 @@ public class ExportSessionCommand implements Callable<Integer> {
     @Parameters(index = "1", description = "The output file path to export the session to", arity = "0..1")
     private String filePath;
 
-    private static Node bold(Node root, String text) {
-        final var strongEmphasis = new StrongEmphasis();
-        strongEmphasis.appendChild(new Text(text));
-        root.appendChild(strongEmphasis);
-        return root;
-    }
+    @Option(names = {
+            "-f", "--format"
+    }, defaultValue = "markdown", description = "Export format: markdown or jsonl (default: markdown)")
+    private String format;
 
-    private static Node code(Node root, String text) {
-        final var code = new FencedCodeBlock();
-        code.setInfo("json");
-        code.setLiteral(text);
-        root.appendChild(code);
-        return root;
-    }
-
-    private static Node h1(Node root, String text) {
-        final var heading = new Heading();
-        heading.setLevel(1);
-        heading.appendChild(new Text(text));
-        root.appendChild(heading);
-        return root;
-    }
+    @Option(names = {
+            "-t", "--type"
+    }, description = "Only export messages of this type, e.g. USER_PROMPT_REQUEST_MESSAGE (repeatable)")
+    private List<String> types = new ArrayList<>();
 
+    @Option(names = "--since", description = "Only export messages at or after this time (ISO-8601, e.g. 2024-01-15 or 2024-01-15T10:00)")
+    private String since;
 
-    private static Node lineBreak(Node root) {
-        root.appendChild(new SoftLineBreak());
-        return root;
-    }
+    @Option(names = "--until", description = "Only export messages at or before this time (ISO-8601, e.g. 2024-01-15T18:00)")
+    private String until;
 
-    private static Node paragraph(Node root) {
-        final var paragraph = new Paragraph();
-        root.appendChild(paragraph);
-        return paragraph;
-    }
-
-    @SneakyThrows
-    private static void printMessage(Document document, AgentMessage message, ObjectMapper mapper) {
-        final var messageNode = paragraph(document);
-        bold(messageNode, "Type:");
-        text(messageNode, " " + message.getMessageType());
-        lineBreak(messageNode);
-        bold(messageNode, "Timestamp:");
-        text(messageNode,
-             " " + DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss.SSS")
-                     .withZone(ZoneId.systemDefault())
-                     .format(new Date(TimeUnit.NANOSECONDS.toMillis(message.getTimestamp()))
-                             .toInstant()));
-        lineBreak(messageNode);
-        code(messageNode, mapper.writerWithDefaultPrettyPrinter().writeValueAsString(message));
+    private static Instant parseTime(String value, boolean endOfDay) {
+        if (Strings.isNullOrEmpty(value)) {
+            return null;
+        }
+        final var zone = ZoneId.systemDefault();
+        try {
+            return Instant.parse(value);
+        }
+        catch (DateTimeParseException e) {
+            // Not an instant, try local forms below
+        }
+        try {
+            return LocalDateTime.parse(value).atZone(zone).toInstant();
+        }
+        catch (DateTimeParseException e) {
+            // Not a local date-time, try a date below
+        }
+        final var date = LocalDate.parse(value);
+        return endOfDay
+                ? date.plusDays(1).atStartOfDay(zone).toInstant().minusNanos(1)
+                : date.atStartOfDay(zone).toInstant();
     }
 
-    private static Node text(Node root, String text) {
-        root.appendChild(new Text(text));
-        return root;
+    private static AgentMessageType parseType(String value) {
+        try {
+            return AgentMessageType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown message type '" + value + "'. Valid types: "
+                    + Arrays.toString(AgentMessageType.values()), e);
+        }
     }
 
     @Override
@@ -133,6 +133,19 @@ public class ExportSessionCommand implements Callable<Integer> {
             return 1;
         }
 
+        final SessionExporter.Format exportFormat;
+        final SessionExporter.Filter filter;
+        try {
+            exportFormat = SessionExporter.Format.parse(format);
+            final var typeSet = EnumSet.noneOf(AgentMessageType.class);
+            types.forEach(type -> typeSet.add(parseType(type)));
+            filter = new SessionExporter.Filter(typeSet, parseTime(since, false), parseTime(until, true));
+        }
+        catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println(e.getMessage());
+            return 1;
+        }
+
         final var settings = SaiCommand.resolveSettings(parent);
 
         final var dataDirPath = Paths.get(settings.getDataDir(), "sessions");
@@ -144,7 +157,7 @@ public class ExportSessionCommand implements Callable<Integer> {
         final var mapper = JsonUtils.createMapper();
         final var sessionStore = FileSystemSessionStore.builder()
                 .baseDir(dataDirPath.toAbsolutePath().normalize().toString())
-                .mapper(mapper)
+                .mapper(new SessionBlobStore(dataDirPath).mapper(settings.getSessionCodec().mapper(mapper)))
                 .cacheSize(1)
                 .build();
 
@@ -155,50 +168,37 @@ public class ExportSessionCommand implements Callable<Integer> {
             return 1;
         }
 
-        final var summary = sessionSummaryOpt.get();
-        final var document = new Document();
-        addSessionDetails(document, summary);
-        addMessages(document, sessionId, sessionStore, mapper);
-        final var renderer = MarkdownRenderer.builder()
-                .build();
-
-        final var output = renderer.render(document);
+        final var exporter = new SessionExporter(sessionStore, mapper);
         if (Strings.isNullOrEmpty(filePath)) {
-            System.out.println(output);
-        }
-        else {
             try {
-                Files.writeString(Path.of(filePath), output);
+                final Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8),
+                                                      BUFFER_SIZE);
+                exporter.export(sessionSummaryOpt.get(), exportFormat, filter, out);
+                out.flush();
             }
             catch (Exception e) {
-                final var rootCause = AgentUtils.rootCause(e);
-                System.err.println("Failed to export session: to file %s. Reason: %s"
-                        .formatted(filePath, rootCause.getMessage()));
+                System.err.println("Failed to export session: " + AgentUtils.rootCause(e).getMessage());
                 return 1;
             }
+            return 0;
         }
-        return 0;
-    }
-
-    private void addMessages(Document document, String sessionId, SessionStore sessionStore, ObjectMapper mapper) {
-        sessionStore.readMessages(sessionId, Integer.MAX_VALUE, false, null, QueryDirection.NEWER)
-                .getItems()
-                .forEach(message -> printMessage(document, message, mapper));
-    }
 
-    private void addSessionDetails(Document document, SessionSummary summary) {
-        h1(document, summary.getTitle());
-        final var summaryText = paragraph(document);
-        bold(summaryText, "Session ID:");
-        text(summaryText, " " + summary.getSessionId());
-        lineBreak(summaryText);
-        bold(summaryText, "Updated At:");
-        text(summaryText,
-             " " + DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")
-                     .format(new Date(TimeUnit.NANOSECONDS.toMillis(summary.getUpdatedAt())).toInstant()));
-        lineBreak(summaryText);
-        bold(summaryText, "Summary:");
-        text(summaryText, " " + summary.getSummary());
-        document.appendChild(summaryText);
+        final SessionExporter.Result result;
+        try (var channel = FileChannel.open(Path.of(filePath),
+                                            StandardOpenOption.CREATE,
+                                            StandardOpenOption.TRUNCATE_EXISTING,
+                                            StandardOpenOption.WRITE);
+             var out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            result = exporter.export(sessionSummaryOpt.get(), exportFormat, filter, out);
+        }
+        catch (Exception e) {
+            final var rootCause = AgentUtils.rootCause(e);
+            System.err.println("Failed to export session: to file %s. Reason: %s"
+                    .formatted(filePath, rootCause.getMessage()));
+            return 1;
+        }
+        // Only report once the writer and channel have been flushed and closed
+        System.out.printf("Exported %d of %d message(s) to %s%n", result.written(), result.read(), filePath);
+        return 0;
     }
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.commands;
+
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+
+import io.appform.sai.SaiCommand;
+import io.appform.sai.session.SessionBlobStore;
+import io.appform.sai.session.SessionForker;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * {@code fork-session <sessionId>} — creates a new session with the history of an existing one.
+ * The history is copied, or hard-linked with {@code --link}; resuming the fork restores the
+ * parent's model, mode and persona.
+ */
+@Slf4j
+@Command(name = "fork-session", description = "Create a new session that continues from the history of an existing one")
+@SuppressWarnings("java:S106")
+public class ForkSessionCommand implements Callable<Integer> {
+
+    @ParentCommand
+    private SaiCommand parent;
+
+    @Parameters(index = "0", description = "The session ID to fork")
+    private String sessionId;
+
+    @Option(names = {
+            "-t", "--title"
+    }, description = "Title of the new session (default: the parent's title with ' (fork)' appended)")
+    private String title;
+
+    @Option(names = "--link", description = "Share the history with the parent through hard links instead of copying it")
+    private boolean link;
+
+    @Override
+    @SneakyThrows
+    public Integer call() {
+        final var settings = SaiCommand.resolveSettings(parent);
+
+        final var dataDirPath = Paths.get(settings.getDataDir(), "sessions");
+        if (!Files.exists(dataDirPath.resolve(sessionId))) {
+            System.err.println("Session not found: " + sessionId);
+            return -1;
+        }
+
+        final var mapper = JsonUtils.createMapper();
+        final var sessionStore = FileSystemSessionStore.builder()
+                .baseDir(dataDirPath.toAbsolutePath().normalize().toString())
+                .mapper(new SessionBlobStore(dataDirPath).mapper(settings.getSessionCodec().mapper(mapper)))
+                .cacheSize(1)
+                .build();
+        try {
+            final var result = new SessionForker(dataDirPath, mapper).fork(sessionStore,
+                                                                           sessionId,
+                                                                           UUID.randomUUID().toString(),
+                                                                           title,
+                                                                           Map.of(),
+                                                                           link);
+            System.out.printf("Forked session %s into %s: %d file(s) shared, %d copied (%.1f KB).%n",
+                              sessionId,
+                              result.sessionId(),
+                              result.linked(),
+                              result.copied(),
+                              result.copiedBytes() / 1024.0);
+            System.out.println("Resume it with: sai -s " + result.sessionId());
+        }
+        catch (Exception e) {
+            log.warn("Failed to fork session {}", sessionId, e);
+            System.err.println("Failed to fork session: " + e.getMessage());
+            return -1;
+        }
+        return 0;
+    }
+}
@@ -15,20 +15,19 @@
  */
 package io.appform.sai.commands;
 
-import com.google.common.base.Strings;
 import com.phonepe.sentinelai.core.utils.JsonUtils;
 import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
-import com.phonepe.sentinelai.session.QueryDirection;
-import com.phonepe.sentinelai.session.SessionSummary;
 
 import io.appform.sai.SaiCommand;
+import io.appform.sai.session.SessionBlobStore;
+import io.appform.sai.session.SessionCatalog;
+import io.appform.sai.session.SessionStatsStore;
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 
@@ -42,6 +41,10 @@ import picocli.CommandLine.ParentCommand;
  * {@code list-sessions} — lists sessions with ID, timestamp, and title.
  * By default only sessions from the current working directory are shown.
  * Use {@code --all} to list sessions from all directories.
+ *
+ * <p>Sessions are read from the {@link SessionCatalog}, newest first, which is rebuilt from the
+ * session directories if it is missing. With {@code --stats} each row also shows the totals from
+ * the session's {@link SessionStatsStore} record.
  */
 @Slf4j
 @Command(name = "list-sessions", description = "List available sessions")
@@ -59,6 +62,18 @@ public class ListSessionsCommand implements Callable<Integer> {
     }, description = "List sessions from all directories (default: current directory only)")
     private boolean all;
 
+    @Option(names = "--limit", description = "Show at most this many sessions (default: all)")
+    private int limit = Integer.MAX_VALUE;
+
+    @Option(names = "--offset", description = "Skip this many of the most recent sessions (default: 0)")
+    private int offset;
+
+    @Option(names = "--rebuild-index", description = "Rebuild the session catalogue from the session directories first")
+    private boolean rebuildIndex;
+
+    @Option(names = "--stats", description = "Show turns, messages and tokens of each session")
+    private boolean stats;
+
     private static String abbreviate(String s, int maxLen) {
         if (s.length() <= maxLen) {
             return s;
@@ -66,27 +81,13 @@ public class ListSessionsCommand implements Callable<Integer> {
         return "..." + s.substring(s.length() - (maxLen - 3));
     }
 
-    private static String resolveTitle(SessionSummary session) {
-        String title = session.getTitle();
-        if (Strings.isNullOrEmpty(title)) {
-            title = session.getSummary();
-            if (title != null && title.length() > 50) {
-                title = title.substring(0, 47) + "...";
-            }
-        }
-        if (Strings.isNullOrEmpty(title)) {
-            title = "No Title";
-        }
-        return title;
-    }
-
-    private static String sessionWorkDir(SessionSummary session) {
-        final var extra = session.getExtra();
-        if (extra == null || extra.isEmpty()) {
-            return null;
-        }
-        final var val = extra.get("workDir");
-        return val != null ? val.toString() : null;
+    private static String statsColumns(SessionStatsStore statsStore, String sessionId) {
+        // Only stored records are shown; sessions without one are rebuilt by rebuild-session-stats
+        return statsStore.read(sessionId)
+                .map(s -> "%6d %9d %12d".formatted(s.getTurns(),
+                                                   s.getTotalMessages(),
+                                                   s.getRequestTokens() + s.getResponseTokens()))
+                .orElse("%6s %9s %12s".formatted("-", "-", "-"));
     }
 
     @Override
@@ -103,59 +104,65 @@ public class ListSessionsCommand implements Callable<Integer> {
         final var mapper = JsonUtils.createMapper();
         final var sessionStore = FileSystemSessionStore.builder()
                 .baseDir(dataDirPath.toAbsolutePath().normalize().toString())
-                .mapper(mapper)
+                .mapper(new SessionBlobStore(dataDirPath).mapper(settings.getSessionCodec().mapper(mapper)))
                 .cacheSize(1)
                 .build();
 
-        final var sessionsScrollable = sessionStore.sessions(Integer.MAX_VALUE, null, QueryDirection.NEWER);
-        final var allSessions = sessionsScrollable.getItems();
-
-        if (allSessions.isEmpty()) {
-            System.out.println("No sessions found.");
-            return 0;
-        }
-
-        final List<SessionSummary> sessions;
-        if (all) {
-            sessions = allSessions;
-        }
-        else {
-            final var currentWorkDir = settings.getWorkDir();
-            sessions = allSessions.stream()
-                    .filter(s -> currentWorkDir.equals(sessionWorkDir(s)))
-                    .toList();
+        final var catalog = new SessionCatalog(dataDirPath, mapper);
+        if (rebuildIndex) {
+            catalog.rebuild(sessionStore);
         }
+        final var sessions = catalog.page(sessionStore,
+                                          all ? null : settings.getWorkDir(),
+                                          Math.max(0, offset),
+                                          Math.max(0, limit));
 
         if (sessions.isEmpty()) {
-            System.out.printf("No sessions found in current directory. Use --all to list all sessions.%n");
+            if (all || offset > 0) {
+                System.out.println("No sessions found.");
+            }
+            else {
+                System.out.printf("No sessions found in current directory. Use --all to list all sessions.%n");
+            }
             return 0;
         }
 
+        final var statsStore = stats ? new SessionStatsStore(dataDirPath, mapper) : null;
+        final var statsHeader = stats ? "%6s %9s %12s ".formatted("TURNS", "MESSAGES", "TOKENS") : "";
+        final var statsWidth = statsHeader.length();
         if (all) {
-            System.out.printf("%-40s %-25s %-35s %-50s%n", "SESSION ID", "UPDATED AT", "DIRECTORY", "TITLE");
-            System.out.println("-".repeat(150));
+            System.out.printf("%-40s %-25s %-35s %s%-50s%n",
+                              "SESSION ID",
+                              "UPDATED AT",
+                              "DIRECTORY",
+                              statsHeader,
+                              "TITLE");
+            System.out.println("-".repeat(150 + statsWidth));
         }
         else {
-            System.out.printf("%-40s %-25s %-50s%n", "SESSION ID", "UPDATED AT", "TITLE");
-            System.out.println("-".repeat(115));
+            System.out.printf("%-40s %-25s %s%-50s%n", "SESSION ID", "UPDATED AT", statsHeader, "TITLE");
+            System.out.println("-".repeat(115 + statsWidth));
         }
 
-        for (SessionSummary session : sessions) {
-            final var title = resolveTitle(session);
-            final var timestamp = DATE_FORMATTER.format(Instant.ofEpochMilli(session.getUpdatedAt() / 1000));
+        for (final var session : sessions) {
+            final var title = Objects.requireNonNullElse(session.title(), "No Title");
+            final var timestamp = DATE_FORMATTER.format(Instant.ofEpochMilli(session.updatedAt() / 1000));
+            final var sessionStats = statsStore != null ? statsColumns(statsStore, session.sessionId()) + " " : "";
 
             if (all) {
-                final var workDir = Objects.requireNonNullElse(sessionWorkDir(session), "(unknown)");
-                System.out.printf("%-40s %-25s %-35s %-50s%n",
-                                  session.getSessionId(),
+                final var workDir = Objects.requireNonNullElse(session.workDir(), "(unknown)");
+                System.out.printf("%-40s %-25s %-35s %s%-50s%n",
+                                  session.sessionId(),
                                   timestamp,
                                   abbreviate(workDir, 33),
+                                  sessionStats,
                                   title);
             }
             else {
-                System.out.printf("%-40s %-25s %-50s%n",
-                                  session.getSessionId(),
+                System.out.printf("%-40s %-25s %s%-50s%n",
+                                  session.sessionId(),
                                   timestamp,
+                                  sessionStats,
                                   title);
             }
         }
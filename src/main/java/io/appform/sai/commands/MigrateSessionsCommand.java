@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.commands;
+
+import io.appform.sai.SaiCommand;
+import io.appform.sai.session.SessionCodec;
+import io.appform.sai.session.SessionMigrator;
+
+import org.apache.commons.io.FileUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.Callable;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * {@code migrate-sessions} — re-encodes stored sessions with the codec given by
+ * {@code --session-codec}, e.g. to compress existing sessions after switching to {@code gzip}, or
+ * to turn them back into plain JSON. Sessions can be read in either encoding, so migrating is
+ * optional.
+ */
+@Slf4j
+@Command(name = "migrate-sessions", description = "Re-encode stored sessions with the codec given by --session-codec")
+@SuppressWarnings("java:S106")
+public class MigrateSessionsCommand implements Callable<Integer> {
+
+    @ParentCommand
+    private SaiCommand parent;
+
+    @Option(names = {
+            "-s", "--session-id"
+    }, description = "Only migrate this session (default: all sessions)")
+    private String sessionId;
+
+    @Option(names = "--dry-run", description = "Show how much space the migration would save, without changing files")
+    private boolean dryRun;
+
+    @Override
+    @SneakyThrows
+    public Integer call() {
+        final var settings = SaiCommand.resolveSettings(parent);
+        final var codec = settings.getSessionCodec();
+
+        final var dataDirPath = Paths.get(settings.getDataDir(), "sessions");
+        if (!Files.exists(dataDirPath)) {
+            System.out.println("No sessions found to migrate.");
+            return 0;
+        }
+
+        final var result = new SessionMigrator(dataDirPath, codec).migrate(sessionId, dryRun);
+        if (result.files() == 0) {
+            System.out.println(sessionId == null ? "No sessions found to migrate." : "Session not found: " + sessionId);
+            return sessionId == null ? 0 : -1;
+        }
+        System.out.printf("%s %d of %d file(s) to %s: %s -> %s%n",
+                          dryRun ? "Would re-encode" : "Re-encoded",
+                          result.converted(),
+                          result.files(),
+                          codec.name().toLowerCase(),
+                          FileUtils.byteCountToDisplaySize(result.bytesBefore()),
+                          FileUtils.byteCountToDisplaySize(result.bytesAfter()));
+        return 0;
+    }
+}
@@ -17,30 +17,41 @@ package io.appform.sai.commands;
 
 import com.phonepe.sentinelai.core.utils.JsonUtils;
 import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
-import com.phonepe.sentinelai.session.QueryDirection;
-import com.phonepe.sentinelai.session.SessionSummary;
 
 import io.appform.sai.SaiCommand;
+import io.appform.sai.config.RetentionPolicy;
+import io.appform.sai.config.SettingsConfigLoader;
+import io.appform.sai.session.SessionBlobStore;
+import io.appform.sai.session.SessionCatalog;
+import io.appform.sai.session.SessionRetention;
 
 import org.apache.commons.io.FileUtils;
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.Duration;
-import java.time.Instant;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 import picocli.CommandLine.ParentCommand;
 
 /**
- * {@code prune-sessions <duration>} — deletes sessions older than the given duration.
+ * {@code prune-sessions [duration]} — deletes sessions according to a retention policy: older
+ * than the given duration, beyond {@code --keep-per-dir} sessions per working directory, or
+ * beyond {@code --max-total-mb} in total. Without any of these, the {@code sessionRetention}
+ * policy from {@code settings.yaml} is used.
  *
  * <p>Accepts ISO-8601 durations (e.g. {@code PT1H30M}) or shorthand strings:
  * {@code 1d} (1 day), {@code 3h} (3 hours), {@code 30m} (30 minutes).
+ *
+ * <p>Every session in the {@link SessionCatalog} is considered, not just the most recent ones.
+ * Sessions are deleted in parallel; {@code --dry-run} only reports what would be deleted and how
+ * much space that would reclaim.
  */
 @Slf4j
 @Command(name = "prune-sessions", description = "Prune older sessions. Provide a duration string like '1d', '3h', '30m'")
@@ -50,21 +61,50 @@ public class PruneSessionsCommand implements Callable<Integer> {
     @ParentCommand
     private SaiCommand parent;
 
-    @Parameters(index = "0", description = "The duration string to keep. e.g., '1d' (1 day), '3h' (3 hours), '30m' (30 minutes)")
+    @Parameters(index = "0",
+                arity = "0..1",
+                description = "The duration string to keep. e.g., '1d' (1 day), '3h' (3 hours), '30m' (30 minutes)")
     private String durationString;
 
+    @Option(names = "--keep-per-dir", description = "Keep only this many most recent sessions per working directory")
+    private Integer keepPerDir;
+
+    @Option(names = "--max-total-mb", description = "Keep only the most recent sessions that fit in this many MB")
+    private Long maxTotalMb;
+
+    @Option(names = "--parallelism", description = "Number of sessions measured and deleted concurrently")
+    private Integer parallelism;
+
+    @Option(names = "--dry-run", description = "Show what would be deleted and the space reclaimed, without deleting")
+    private boolean dryRun;
+
     @Override
     @SneakyThrows
     public Integer call() {
-        final var durationOpt = parseDuration(durationString);
-        if (durationOpt == null) {
-            System.err.println("Invalid duration format: " + durationString + ". Valid formats: '1d', '3h', '30m'");
-            return -1;
+        Duration maxAge = null;
+        if (durationString != null) {
+            maxAge = parseDuration(durationString);
+            if (maxAge == null) {
+                System.err.println("Invalid duration format: " + durationString + ". Valid formats: '1d', '3h', '30m'");
+                return -1;
+            }
         }
 
-        final var cutoffEpochMicros = Instant.now().minus(durationOpt).toEpochMilli() * 1000L;
-
         final var settings = SaiCommand.resolveSettings(parent);
+        final var requested = RetentionPolicy.builder()
+                .maxAge(maxAge)
+                .maxSessionsPerWorkDir(keepPerDir)
+                .maxTotalMb(maxTotalMb)
+                .parallelism(parallelism)
+                .build();
+        final var configured = SettingsConfigLoader.load(settings.getConfigDir()).retentionPolicy();
+        // Limits given on the command line replace the configured ones rather than adding to them
+        final var policy = requested.withDefaults(requested.hasLimits() ? RetentionPolicy.DEFAULT : configured);
+        if (!policy.hasLimits()) {
+            System.err.println("Nothing to prune by. Provide a duration, --keep-per-dir or --max-total-mb, "
+                    + "or configure sessionRetention in settings.yaml.");
+            return -1;
+        }
 
         final var dataDirPath = Paths.get(settings.getDataDir(), "sessions");
         if (!Files.exists(dataDirPath)) {
@@ -75,36 +115,41 @@ public class PruneSessionsCommand implements Callable<Integer> {
         final var mapper = JsonUtils.createMapper();
         final var sessionStore = FileSystemSessionStore.builder()
                 .baseDir(dataDirPath.toAbsolutePath().normalize().toString())
-                .mapper(mapper)
+                .mapper(new SessionBlobStore(dataDirPath).mapper(settings.getSessionCodec().mapper(mapper)))
                 .cacheSize(1)
                 .build();
 
-        final var sessionsScrollable = sessionStore.sessions(1000, null, QueryDirection.NEWER);
-        final var sessions = sessionsScrollable.getItems();
+        final var catalog = new SessionCatalog(dataDirPath, mapper);
+        final var sessions = catalog.all(sessionStore);
 
         if (sessions.isEmpty()) {
             System.out.println("No sessions found to prune.");
             return 0;
         }
 
-        int prunedCount = 0;
-        for (SessionSummary session : sessions) {
-            if (session.getUpdatedAt() < cutoffEpochMicros) {
-                final var sessionDirPath = Paths.get(settings.getDataDir(), "sessions", session.getSessionId());
-                try {
-                    FileUtils.deleteDirectory(sessionDirPath.toFile());
-                    System.out.println("Deleted session: " + session.getSessionId());
-                    prunedCount++;
-                }
-                catch (Exception e) {
-                    System.err.println("Failed to delete session: " + session.getSessionId() + " (" + e.getMessage()
-                            + ")");
-                }
+        try (var retention = new SessionRetention(dataDirPath, catalog, policy.getParallelism())) {
+            final var plan = retention.plan(sessions, policy, Set.of());
+            if (dryRun) {
+                plan.deletions().forEach(deletion -> System.out.printf("Would delete session: %s (%s, %s)%n",
+                                                                       deletion.session().sessionId(),
+                                                                       deletion.reason().description(),
+                                                                       FileUtils.byteCountToDisplaySize(deletion.bytes())));
+                System.out.printf("Would prune %d of %d session(s), reclaiming %s.%n",
+                                  plan.deletions().size(),
+                                  plan.sessions(),
+                                  FileUtils.byteCountToDisplaySize(plan.reclaimableBytes()));
+                return 0;
             }
+            final var result = retention.execute(plan);
+            result.deleted().forEach(sessionId -> System.out.println("Deleted session: " + sessionId));
+            result.failed().forEach((sessionId, error) -> System.err.println("Failed to delete session: " + sessionId
+                    + " (" + error + ")"));
+            System.out.printf("Pruned %d of %d session(s), reclaimed %s.%n",
+                              result.deleted().size(),
+                              plan.sessions(),
+                              FileUtils.byteCountToDisplaySize(result.reclaimedBytes()));
+            return result.failed().isEmpty() ? 0 : -1;
         }
-
-        System.out.println("Pruned " + prunedCount + " session(s) older than " + durationString + ".");
-        return 0;
     }
 
     private Duration parseDuration(String s) {
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.commands;
+
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+
+import io.appform.sai.SaiCommand;
+import io.appform.sai.session.SessionBlobStore;
+import io.appform.sai.session.SessionCatalog;
+import io.appform.sai.session.SessionStatsStore;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * {@code rebuild-session-stats} — recomputes the per-session stats record from the full transcript,
+ * for sessions written before the record existed or whose record is out of date. SAI updates the
+ * record after every turn, so this is only needed once for older sessions.
+ */
+@Slf4j
+@Command(name = "rebuild-session-stats", description = "Recompute the stored stats of sessions from their transcripts")
+@SuppressWarnings("java:S106")
+public class RebuildSessionStatsCommand implements Callable<Integer> {
+
+    @ParentCommand
+    private SaiCommand parent;
+
+    @Option(names = {
+            "-s", "--session-id"
+    }, description = "Only rebuild this session (default: all sessions)")
+    private String sessionId;
+
+    @Override
+    @SneakyThrows
+    public Integer call() {
+        final var settings = SaiCommand.resolveSettings(parent);
+
+        final var dataDirPath = Paths.get(settings.getDataDir(), "sessions");
+        if (!Files.exists(dataDirPath)) {
+            System.out.println("No sessions found.");
+            return 0;
+        }
+
+        final var mapper = JsonUtils.createMapper();
+        final var sessionStore = FileSystemSessionStore.builder()
+                .baseDir(dataDirPath.toAbsolutePath().normalize().toString())
+                .mapper(new SessionBlobStore(dataDirPath).mapper(settings.getSessionCodec().mapper(mapper)))
+                .cacheSize(1)
+                .build();
+
+        final List<String> sessionIds;
+        if (sessionId != null) {
+            if (sessionStore.session(sessionId).isEmpty()) {
+                System.err.println("Session not found: " + sessionId);
+                return -1;
+            }
+            sessionIds = List.of(sessionId);
+        }
+        else {
+            sessionIds = new SessionCatalog(dataDirPath, mapper).all(sessionStore)
+                    .stream()
+                    .map(SessionCatalog.Entry::sessionId)
+                    .toList();
+        }
+
+        final var statsStore = new SessionStatsStore(dataDirPath, mapper);
+        var failed = 0;
+        for (final var id : sessionIds) {
+            try {
+                final var stats = statsStore.rebuild(id, sessionStore);
+                System.out.printf("%-40s %6d turn(s) %8d message(s)%n", id, stats.getTurns(), stats.getTotalMessages());
+            }
+            catch (Exception e) {
+                log.warn("Failed to rebuild stats of session {}", id, e);
+                System.err.println("Failed to rebuild stats of session " + id + ": " + e.getMessage());
+                failed++;
+            }
+        }
+        System.out.printf("Rebuilt stats of %d of %d session(s).%n", sessionIds.size() - failed, sessionIds.size());
+        return failed == 0 ? 0 : -1;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.commands;
+
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+
+import io.appform.sai.SaiCommand;
+import io.appform.sai.session.SessionBlobStore;
+import io.appform.sai.session.SessionCatalog;
+import io.appform.sai.session.SessionSearchIndex;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * {@code search-sessions} — finds the sessions whose prompts, answers or tool calls contain the
+ * query, best match first, with a snippet of the matching text.
+ *
+ * <p>Results come from the {@link SessionSearchIndex}, which is built on first use and kept up to
+ * date by every turn. Sessions that changed without updating the index are re-indexed after the
+ * results have been printed, so that the search itself never waits for them.
+ */
+@Slf4j
+@Command(name = "search-sessions", description = "Search the text of all sessions")
+@SuppressWarnings("java:S106")
+public class SearchSessionsCommand implements Callable<Integer> {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+
+    @ParentCommand
+    private SaiCommand parent;
+
+    @Parameters(arity = "1..*", paramLabel = "QUERY", description = "Words to search for")
+    private List<String> query;
+
+    @Option(names = {
+            "-n", "--limit"
+    }, description = "Show at most this many sessions (default: 10)")
+    private int limit = 10;
+
+    @Option(names = "--rebuild-index", description = "Rebuild the search index from the session directories first")
+    private boolean rebuildIndex;
+
+    @Override
+    @SneakyThrows
+    public Integer call() {
+        final var settings = SaiCommand.resolveSettings(parent);
+
+        final var dataDirPath = Paths.get(settings.getDataDir(), "sessions");
+        if (!Files.exists(dataDirPath)) {
+            System.out.println("No sessions found.");
+            return 0;
+        }
+
+        final var mapper = JsonUtils.createMapper();
+        final var sessionStore = FileSystemSessionStore.builder()
+                .baseDir(dataDirPath.toAbsolutePath().normalize().toString())
+                .mapper(new SessionBlobStore(dataDirPath).mapper(settings.getSessionCodec().mapper(mapper)))
+                .cacheSize(1)
+                .build();
+
+        final var catalog = new SessionCatalog(dataDirPath, mapper);
+        final var searchIndex = new SessionSearchIndex(dataDirPath, mapper);
+        final var sessions = catalog.all(sessionStore);
+        if (rebuildIndex || !searchIndex.exists()) {
+            System.out.printf("Indexing %d session(s)...%n", sessions.size());
+            searchIndex.rebuild(sessionStore, sessions);
+        }
+
+        final var start = System.nanoTime();
+        final var hits = searchIndex.search(String.join(" ", query), Math.max(0, limit));
+        final var elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        if (hits.isEmpty()) {
+            System.out.printf("No sessions match \"%s\" (%d ms).%n", String.join(" ", query), elapsedMs);
+        }
+        else {
+            final Map<String, SessionCatalog.Entry> entries = sessions.stream()
+                    .collect(Collectors.toMap(SessionCatalog.Entry::sessionId, Function.identity()));
+            System.out.printf("%-40s %-20s %-7s %-50s%n", "SESSION ID", "UPDATED AT", "MATCHES", "TITLE");
+            System.out.println("-".repeat(120));
+            for (final var hit : hits) {
+                final var entry = entries.get(hit.sessionId());
+                System.out.printf("%-40s %-20s %-7s %-50s%n",
+                                  hit.sessionId(),
+                                  DATE_FORMATTER.format(Instant.ofEpochMilli(hit.updatedAt() / 1000)),
+                                  hit.matchedTerms(),
+                                  entry == null ? "No Title" : Objects.requireNonNullElse(entry.title(), "No Title"));
+                if (hit.snippet() != null) {
+                    System.out.println("    " + hit.snippet());
+                }
+            }
+            System.out.printf("%n%d session(s) in %d ms.%n", hits.size(), elapsedMs);
+        }
+
+        final var stale = searchIndex.stale(sessions).size();
+        if (stale > 0) {
+            System.out.printf("Re-indexing %d session(s) that changed since they were indexed...%n", stale);
+            searchIndex.update(sessionStore, sessions);
+        }
+        return 0;
+    }
+}
@@ -18,15 +18,14 @@ package io.appform.sai.commands;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.base.Strings;
-import com.phonepe.sentinelai.core.agentmessages.AgentMessage;
-import com.phonepe.sentinelai.core.agentmessages.responses.StructuredOutput;
-import com.phonepe.sentinelai.core.agentmessages.responses.Text;
-import com.phonepe.sentinelai.core.model.ModelUsageStats;
 import com.phonepe.sentinelai.core.utils.JsonUtils;
 import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
-import com.phonepe.sentinelai.session.QueryDirection;
 
 import io.appform.sai.SaiCommand;
+import io.appform.sai.TurnTimingFormatter;
+import io.appform.sai.session.SessionBlobStore;
+import io.appform.sai.session.SessionStatsStore;
+import io.appform.sai.session.TurnTimingStore;
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -44,8 +43,10 @@ import picocli.CommandLine.ParentCommand;
 
 /**
  * {@code session-summary <sessionId>} — prints a detailed human-readable summary for a single
- * session, including metadata, keywords, raw JSON, per-type message counts, and aggregate token
- * usage (input/output/cached tokens and cache hit rate).
+ * session, including metadata, keywords, raw JSON, per-type message counts, aggregate token
+ * usage (input/output/cached tokens and cache hit rate), and the latency breakdown of recent turns
+ * together with latency aggregates across the whole session. Counts and token usage come from the
+ * session's {@link SessionStatsStore} record, which is built from the transcript if it is missing.
  */
 @Slf4j
 @Command(name = "session-summary", description = "Show detailed summary of a specific session")
@@ -61,20 +62,6 @@ public class SessionSummaryCommand implements Callable<Integer> {
     @Parameters(index = "0", description = "The session ID to view the summary for")
     private String sessionId;
 
-    /**
-     * Extracts usage stats from a stored message when it is a response type that carries them
-     * ({@link Text} or {@link StructuredOutput}); returns {@code null} otherwise.
-     */
-    private static ModelUsageStats statsOf(AgentMessage message) {
-        if (message instanceof Text text) {
-            return text.getStats();
-        }
-        if (message instanceof StructuredOutput structuredOutput) {
-            return structuredOutput.getStats();
-        }
-        return null;
-    }
-
     @Override
     @SneakyThrows
     public Integer call() {
@@ -94,7 +81,7 @@ public class SessionSummaryCommand implements Callable<Integer> {
         final var mapper = JsonUtils.createMapper();
         final var sessionStore = FileSystemSessionStore.builder()
                 .baseDir(dataDirPath.toAbsolutePath().normalize().toString())
-                .mapper(mapper)
+                .mapper(new SessionBlobStore(dataDirPath).mapper(settings.getSessionCodec().mapper(mapper)))
                 .cacheSize(1)
                 .build();
 
@@ -150,59 +137,39 @@ public class SessionSummaryCommand implements Callable<Integer> {
             System.out.println("N/A");
         }
 
-        // Fetch messages to get counts
-        final var messagesScrollable = sessionStore.readMessages(summary.getSessionId(),
-                                                                 Integer.MAX_VALUE,
-                                                                 false,
-                                                                 null,
-                                                                 QueryDirection.OLDER);
-        final var messages = messagesScrollable.getItems();
-        if (messages != null && !messages.isEmpty()) {
+        final var stats = new SessionStatsStore(dataDirPath, mapper).readOrRebuild(summary.getSessionId(),
+                                                                               sessionStore);
+        if (stats.getTotalMessages() > 0) {
             System.out.println();
             System.out.println("Message Stats:");
-            long userPrompts = messages.stream().filter(m -> m.getMessageType()
-                    == com.phonepe.sentinelai.core.agentmessages.AgentMessageType.USER_PROMPT_REQUEST_MESSAGE).count();
-            long systemPrompts = messages.stream().filter(m -> m.getMessageType()
-                    == com.phonepe.sentinelai.core.agentmessages.AgentMessageType.SYSTEM_PROMPT_REQUEST_MESSAGE)
-                    .count();
-            long toolCallReqs = messages.stream().filter(m -> m.getMessageType()
-                    == com.phonepe.sentinelai.core.agentmessages.AgentMessageType.TOOL_CALL_REQUEST_MESSAGE).count();
-            long toolCallResps = messages.stream().filter(m -> m.getMessageType()
-                    == com.phonepe.sentinelai.core.agentmessages.AgentMessageType.TOOL_CALL_RESPONSE_MESSAGE).count();
-            long textResps = messages.stream().filter(m -> m.getMessageType()
-                    == com.phonepe.sentinelai.core.agentmessages.AgentMessageType.TEXT_RESPONSE_MESSAGE).count();
-
-            System.out.println("  Total Messages:        " + messages.size());
-            System.out.println("  User Prompts:          " + userPrompts);
-            System.out.println("  System Prompts:        " + systemPrompts);
-            System.out.println("  Tool Call Requests:    " + toolCallReqs);
-            System.out.println("  Tool Call Responses:   " + toolCallResps);
-            System.out.println("  Text Responses:        " + textResps);
-
-            // Aggregate token usage across all response messages that carry stats.
-            long requestTokens = 0;
-            long responseTokens = 0;
-            long cachedTokens = 0;
-            for (var message : messages) {
-                final var stats = statsOf(message);
-                if (stats == null) {
-                    continue;
-                }
-                requestTokens += stats.getRequestTokens();
-                responseTokens += stats.getResponseTokens();
-                cachedTokens += stats.getRequestTokenDetails().getCachedTokens();
-            }
-            if (requestTokens > 0 || responseTokens > 0) {
-                final double hitRate = requestTokens > 0 ? (cachedTokens * 100.0 / requestTokens) : 0.0;
+            System.out.println("  Turns:                 " + stats.getTurns());
+            System.out.println("  Total Messages:        " + stats.getTotalMessages());
+            System.out.println("  User Prompts:          " + stats.getUserPrompts());
+            System.out.println("  System Prompts:        " + stats.getSystemPrompts());
+            System.out.println("  Tool Call Requests:    " + stats.getToolCallRequests());
+            System.out.println("  Tool Call Responses:   " + stats.getToolCallResponses());
+            System.out.println("  Text Responses:        " + stats.getTextResponses());
+            System.out.printf("  Tool Time:             %.1fs%n", stats.getToolMs() / 1000.0);
+
+            if (stats.getRequestTokens() > 0 || stats.getResponseTokens() > 0) {
                 System.out.println();
                 System.out.println("Token Usage:");
-                System.out.println("  Input Tokens:          " + requestTokens);
-                System.out.println("  Output Tokens:         " + responseTokens);
-                System.out.println("  Cached Tokens:         " + cachedTokens);
-                System.out.printf("  Cache Hit Rate:        %.1f%%%n", hitRate);
+                System.out.println("  Input Tokens:          " + stats.getRequestTokens());
+                System.out.println("  Output Tokens:         " + stats.getResponseTokens());
+                System.out.println("  Cached Tokens:         " + stats.getCachedTokens());
+                System.out.printf("  Cache Hit Rate:        %.1f%%%n", stats.cacheHitRate());
             }
         }
 
+        final var timings = new TurnTimingStore(dataDirPath, mapper).read(summary.getSessionId());
+        if (!timings.isEmpty()) {
+            final var timingFormatter = new TurnTimingFormatter(false);
+            final var sb = new StringBuilder();
+            timingFormatter.appendRecentTurns(sb, timings, TurnTimingFormatter.DEFAULT_RECENT_TURNS);
+            timingFormatter.appendAggregates(sb, timings);
+            System.out.print(sb);
+        }
+
         System.out.println("-".repeat(80));
 
         return 0;
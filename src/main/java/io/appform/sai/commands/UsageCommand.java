@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.commands;
+
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+
+import io.appform.sai.SaiCommand;
+import io.appform.sai.session.SessionBlobStore;
+import io.appform.sai.session.SessionCatalog;
+import io.appform.sai.session.SessionUsageReport;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * {@code usage} — aggregates token usage, cache hit rate, turn latency percentiles and the share
+ * of turn time spent in tools across all sessions, grouped by day, model, persona or working
+ * directory, as a table or as JSON.
+ *
+ * <p>Only the per-session stats records and turn timings are read, in parallel, so the report
+ * does not open any transcript. See {@link SessionUsageReport}.
+ */
+@Slf4j
+@Command(name = "usage", description = "Show token usage and turn latency across sessions")
+@SuppressWarnings("java:S106")
+public class UsageCommand implements Callable<Integer> {
+
+    @ParentCommand
+    private SaiCommand parent;
+
+    @Option(names = {
+            "-g", "--group-by"
+    }, description = "Group sessions by day, model, persona or workdir; repeat to combine (default: model)")
+    private List<String> groupBy = new ArrayList<>();
+
+    @Option(names = "--days", description = "Only include sessions updated within this many days (default: all)")
+    private Integer days;
+
+    @Option(names = {
+            "-f", "--format"
+    }, description = "Output format: table or json (default: table)")
+    private String format = "table";
+
+    @Option(names = "--parallelism", description = "Number of sessions read concurrently (default: number of CPUs)")
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    @Option(names = "--rebuild-index", description = "Rebuild the session catalogue from the session directories first")
+    private boolean rebuildIndex;
+
+    private static String percent(double share) {
+        return "%.1f%%".formatted(share * 100);
+    }
+
+    private static void printRow(SessionUsageReport.Row row) {
+        System.out.printf("%-40s %8d %7d %12d %12d %12d %6s %8s %8s %6s%n",
+                          row.group().length() > 40 ? "..." + row.group().substring(row.group().length() - 37) : row.group(),
+                          row.sessions(),
+                          row.turns(),
+                          row.requestTokens(),
+                          row.responseTokens(),
+                          row.cachedTokens(),
+                          percent(row.cacheHitRate()),
+                          seconds(row.p50TurnMs()),
+                          seconds(row.p95TurnMs()),
+                          percent(row.toolShare()));
+    }
+
+    private static String seconds(long millis) {
+        return "%.1fs".formatted(millis / 1000.0);
+    }
+
+    @Override
+    @SneakyThrows
+    public Integer call() {
+        final List<SessionUsageReport.GroupBy> properties;
+        try {
+            properties = groupBy.isEmpty()
+                    ? List.of(SessionUsageReport.GroupBy.MODEL)
+                    : groupBy.stream().map(SessionUsageReport.GroupBy::parse).distinct().toList();
+        }
+        catch (IllegalArgumentException e) {
+            System.err.println("Invalid --group-by value. Valid values: day, model, persona, workdir");
+            return -1;
+        }
+        final var json = "json".equalsIgnoreCase(format);
+        if (!json && !"table".equalsIgnoreCase(format)) {
+            System.err.println("Invalid format: " + format + ". Valid formats: table, json");
+            return -1;
+        }
+
+        final var settings = SaiCommand.resolveSettings(parent);
+
+        final var dataDirPath = Paths.get(settings.getDataDir(), "sessions");
+        if (!Files.exists(dataDirPath)) {
+            System.out.println("No sessions found.");
+            return 0;
+        }
+
+        final var mapper = JsonUtils.createMapper();
+        final var sessionStore = FileSystemSessionStore.builder()
+                .baseDir(dataDirPath.toAbsolutePath().normalize().toString())
+                .mapper(new SessionBlobStore(dataDirPath).mapper(settings.getSessionCodec().mapper(mapper)))
+                .cacheSize(1)
+                .build();
+
+        final var catalog = new SessionCatalog(dataDirPath, mapper);
+        if (rebuildIndex) {
+            catalog.rebuild(sessionStore);
+        }
+        // Catalogue times are in microseconds
+        final var cutoff = days == null
+                ? Long.MIN_VALUE
+                : TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days));
+        final var sessions = catalog.all(sessionStore)
+                .stream()
+                .filter(session -> session.updatedAt() >= cutoff)
+                .toList();
+
+        final SessionUsageReport.Report report;
+        try (var usage = new SessionUsageReport(dataDirPath, mapper, parallelism)) {
+            report = usage.aggregate(sessions, properties);
+        }
+
+        if (json) {
+            System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+            return 0;
+        }
+        if (sessions.isEmpty()) {
+            System.out.println("No sessions found.");
+            return 0;
+        }
+        System.out.printf("%-40s %8s %7s %12s %12s %12s %6s %8s %8s %6s%n",
+                          properties.stream().map(Enum::name).reduce((a, b) -> a + " | " + b).orElse(""),
+                          "SESSIONS",
+                          "TURNS",
+                          "REQ TOKENS",
+                          "RESP TOKENS",
+                          "CACHED",
+                          "HIT",
+                          "P50",
+                          "P95",
+                          "TOOLS");
+        System.out.println("-".repeat(128));
+        report.rows().forEach(UsageCommand::printRow);
+        System.out.println("-".repeat(128));
+        printRow(report.total());
+        if (report.total().sessionsWithoutStats() > 0) {
+            System.out.printf("%n%d session(s) have no stats record and show no tokens. "
+                    + "Run 'sai rebuild-session-stats' to create them.%n",
+                              report.total().sessionsWithoutStats());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Compression of request bodies sent to a provider, configured under {@code compression} in a
+ * {@link ProviderEntry}. Only use it with gateways that accept compressed request bodies; most
+ * public APIs do not. Unset fields take the values of {@link #DEFAULT}.
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompressionPolicy {
+    public static final String GZIP = "gzip";
+
+    public static final CompressionPolicy DEFAULT = CompressionPolicy.builder()
+            .enabled(false)
+            .encoding(GZIP)
+            .minSizeKb(64)
+            .build();
+
+    /**
+     * Whether request bodies are compressed.
+     */
+    @Nullable
+    Boolean enabled;
+
+    /**
+     * {@code Content-Encoding} to compress with; only {@code gzip} is supported.
+     */
+    @Nullable
+    String encoding;
+
+    /**
+     * Bodies smaller than this many KB are sent uncompressed.
+     */
+    @Nullable
+    Integer minSizeKb;
+
+    /**
+     * Returns a policy in which every unset field of this policy is taken from {@code defaults}.
+     *
+     * @param defaults policy supplying the missing values
+     * @return the merged policy
+     */
+    public CompressionPolicy withDefaults(CompressionPolicy defaults) {
+        return CompressionPolicy.builder()
+                .enabled(Objects.requireNonNullElse(enabled, defaults.enabled))
+                .encoding(Objects.requireNonNullElse(encoding, defaults.encoding))
+                .minSizeKb(Objects.requireNonNullElse(minSizeKb, defaults.minSizeKb))
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.config;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import javax.annotation.Nullable;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * One of the further base URLs listed under {@code endpoints} in a {@link ProviderEntry}.
+ *
+ * <p>Written either as a plain URL, which is sent the provider's {@code apiKey}, or as an object
+ * with its own {@code apiKey} for endpoints such as other Azure regions that issue their own keys.
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EndpointEntry {
+
+    /**
+     * Base URL serving the same models as the provider's {@code endpoint}.
+     */
+    String url;
+
+    /**
+     * API key for this endpoint; the provider's {@code apiKey} when absent.
+     */
+    @Nullable
+    String apiKey;
+
+    public static class EndpointEntryBuilder {
+        /**
+         * Reads an endpoint written as a plain URL.
+         */
+        @JsonCreator
+        static EndpointEntryBuilder fromUrl(String url) {
+            return EndpointEntry.builder().url(url);
+        }
+    }
+
+    /**
+     * @param url base URL
+     * @return an endpoint that uses the provider's API key
+     */
+    public static EndpointEntry of(String url) {
+        return EndpointEntry.builder().url(url).build();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Request hedging for a provider, configured under {@code hedging} in a {@link ProviderEntry}.
+ *
+ * <p>When enabled, a duplicate of a model request is sent if the provider has not started to
+ * answer within the {@code percentile} of recent response times, and whichever copy answers first
+ * is used. This trims tail latency at the cost of extra requests, which count against quotas and
+ * may be billed, so hedging is off unless {@code enabled} is set.
+ *
+ * <p>Until enough responses have been observed, {@code initialDelay} is used as the hedge delay.
+ * The delay is always kept between {@code minDelay} and {@code maxDelay}. Unset fields take the
+ * values of {@link #DEFAULT}.
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HedgingPolicy {
+
+    public static final HedgingPolicy DEFAULT = HedgingPolicy.builder()
+            .enabled(false)
+            .percentile(0.95)
+            .initialDelay(Duration.ofSeconds(3))
+            .minDelay(Duration.ofMillis(500))
+            .maxDelay(Duration.ofSeconds(15))
+            .build();
+
+    /**
+     * Whether duplicate requests are sent at all.
+     */
+    @Nullable
+    Boolean enabled;
+
+    /**
+     * Percentile (0.0–1.0) of recent time-to-first-byte used as the hedge delay.
+     */
+    @Nullable
+    Double percentile;
+
+    /**
+     * Hedge delay used until enough responses have been observed.
+     */
+    @Nullable
+    Duration initialDelay;
+
+    /**
+     * Lower bound of the hedge delay.
+     */
+    @Nullable
+    Duration minDelay;
+
+    /**
+     * Upper bound of the hedge delay.
+     */
+    @Nullable
+    Duration maxDelay;
+
+    /**
+     * Returns a policy in which every unset field of this policy is taken from {@code defaults}.
+     *
+     * @param defaults policy supplying the missing values
+     * @return the merged policy
+     */
+    public HedgingPolicy withDefaults(HedgingPolicy defaults) {
+        return HedgingPolicy.builder()
+                .enabled(Objects.requireNonNullElse(enabled, defaults.enabled))
+                .percentile(Objects.requireNonNullElse(percentile, defaults.percentile))
+                .initialDelay(Objects.requireNonNullElse(initialDelay, defaults.initialDelay))
+                .minDelay(Objects.requireNonNullElse(minDelay, defaults.minDelay))
+                .maxDelay(Objects.requireNonNullElse(maxDelay, defaults.maxDelay))
+                .build();
+    }
+}
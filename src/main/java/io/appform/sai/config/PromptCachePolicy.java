@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Prompt-cache support for a provider, configured under {@code promptCache} in a
+ * {@link ProviderEntry}.
+ *
+ * <p>For models whose id matches {@code models}, {@code cache_control} breakpoints are added to
+ * the tool definitions, the system prompt and the end of the conversation history, so that
+ * Anthropic models behind OpenAI-compatible gateways cache the prompt prefix. Independently, the
+ * first {@code stabilityWindowKb} KB of consecutive requests are compared and a warning is logged
+ * when they change. Unset fields take the values of {@link #DEFAULT}.
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PromptCachePolicy {
+
+    public static final PromptCachePolicy DEFAULT = PromptCachePolicy.builder()
+            .breakpoints(true)
+            .models("(?i).*(claude|anthropic).*")
+            .stabilityWindowKb(32)
+            .build();
+
+    /**
+     * Whether to add {@code cache_control} breakpoints to requests for matching models.
+     */
+    @Nullable
+    Boolean breakpoints;
+
+    /**
+     * Regular expression matched against the model id to decide which models get breakpoints.
+     */
+    @Nullable
+    String models;
+
+    /**
+     * Size in KB of the request prefix checked for changes between turns; {@code 0} disables the
+     * check.
+     */
+    @Nullable
+    Integer stabilityWindowKb;
+
+    /**
+     * Returns a policy in which every unset field of this policy is taken from {@code defaults}.
+     *
+     * @param defaults policy supplying the missing values
+     * @return the merged policy
+     */
+    public PromptCachePolicy withDefaults(PromptCachePolicy defaults) {
+        return PromptCachePolicy.builder()
+                .breakpoints(Objects.requireNonNullElse(breakpoints, defaults.breakpoints))
+                .models(Objects.requireNonNullElse(models, defaults.models))
+                .stabilityWindowKb(Objects.requireNonNullElse(stabilityWindowKb, defaults.stabilityWindowKb))
+                .build();
+    }
+}
@@ -17,6 +17,9 @@ package io.appform.sai.config;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import javax.annotation.Nullable;
@@ -42,7 +45,7 @@ import lombok.extern.jackson.Jacksonized;
 public class ProviderEntry {
 
     /**
-     * Provider type: {@code "openai"} or {@code "azure"}.
+     * Provider type: {@code "openai"}, {@code "openai-responses"} or {@code "azure"}.
      */
     @Nullable
     String type;
@@ -53,6 +56,14 @@ public class ProviderEntry {
     @Nullable
     String endpoint;
 
+    /**
+     * Further base URLs serving the same models, e.g. other regions or gateways, each with an
+     * optional API key of its own. Requests are routed between {@code endpoint} and these; see
+     * {@link RoutingPolicy}.
+     */
+    @Nullable
+    List<EndpointEntry> endpoints;
+
     /**
      * API key (typically an {@code ${ENV}} reference, not a literal).
      */
@@ -83,6 +94,43 @@ public class ProviderEntry {
     @Nullable
     Map<String, String> extraHeaders;
 
+    /**
+     * Retry policy for calls to this provider; {@link RetryPolicy#DEFAULT} when absent.
+     */
+    @Nullable
+    RetryPolicy retry;
+
+    /**
+     * Request hedging for calls to this provider; disabled when absent.
+     */
+    @Nullable
+    HedgingPolicy hedging;
+
+    /**
+     * Longest gap between two chunks of a streamed response before it is aborted;
+     * {@code PT60S} when absent, {@code PT0S} disables the watchdog.
+     */
+    @Nullable
+    Duration streamIdleTimeout;
+
+    /**
+     * Routing between {@link #allEndpoints()}; {@link RoutingPolicy#DEFAULT} when absent.
+     */
+    @Nullable
+    RoutingPolicy routing;
+
+    /**
+     * Prompt-cache breakpoints and prefix checks; {@link PromptCachePolicy#DEFAULT} when absent.
+     */
+    @Nullable
+    PromptCachePolicy promptCache;
+
+    /**
+     * Compression of large request bodies; disabled when absent.
+     */
+    @Nullable
+    CompressionPolicy compression;
+
     /**
      * Provider-level tuning defaults — apply to all models under this provider.
      */
@@ -108,4 +156,33 @@ public class ProviderEntry {
         }
         return models.get(modelId);
     }
+
+    /**
+     * Returns {@code endpoint} followed by {@code endpoints}, without blanks or duplicate URLs.
+     * The {@code endpoint} itself uses the provider's {@code apiKey}.
+     *
+     * @return the configured endpoints in order of preference, empty if none is configured
+     */
+    public List<EndpointEntry> allEndpoints() {
+        final var all = new ArrayList<EndpointEntry>();
+        if (endpoint != null && !endpoint.isBlank()) {
+            all.add(EndpointEntry.of(endpoint));
+        }
+        if (endpoints != null) {
+            endpoints.stream()
+                    .filter(entry -> entry != null && entry.getUrl() != null && !entry.getUrl().isBlank())
+                    .filter(entry -> all.stream().noneMatch(existing -> existing.getUrl().equals(entry.getUrl())))
+                    .forEach(all::add);
+        }
+        return all;
+    }
+
+    /**
+     * @return the URL of the first of {@link #allEndpoints()}, or {@code null} if none is configured
+     */
+    @Nullable
+    public String primaryEndpoint() {
+        final var all = allEndpoints();
+        return all.isEmpty() ? null : all.get(0).getUrl();
+    }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.config;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Which sessions to keep, configured under {@code sessionRetention} in {@code settings.yaml} and
+ * used by {@code prune-sessions} and the optional background pruning at start-up.
+ *
+ * <p>A session is deleted if it breaks any of the limits that are set: it is older than
+ * {@code maxAge}, it is beyond the {@code maxSessionsPerWorkDir} most recent sessions of its
+ * directory, or the sessions more recent than it already take up {@code maxTotalMb}. Limits that
+ * are not set do not apply. Unset fields take the values of {@link #DEFAULT}.
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RetentionPolicy {
+
+    public static final RetentionPolicy DEFAULT = RetentionPolicy.builder()
+            .parallelism(4)
+            .autoPrune(false)
+            .autoPruneInterval(Duration.ofDays(1))
+            .build();
+
+    /**
+     * Sessions not updated for longer than this are deleted.
+     */
+    @Nullable
+    Duration maxAge;
+
+    /**
+     * Number of most recent sessions kept per working directory.
+     */
+    @Nullable
+    Integer maxSessionsPerWorkDir;
+
+    /**
+     * Total size in MB of the sessions kept, most recent first.
+     */
+    @Nullable
+    Long maxTotalMb;
+
+    /**
+     * Number of sessions measured and deleted concurrently.
+     */
+    @Nullable
+    Integer parallelism;
+
+    /**
+     * Whether {@code sai} prunes sessions in the background after start-up.
+     */
+    @Nullable
+    Boolean autoPrune;
+
+    /**
+     * Minimum time between two background prunes.
+     */
+    @Nullable
+    Duration autoPruneInterval;
+
+    private static <T> T orDefault(@Nullable T value, @Nullable T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * @return whether at least one of the limits is set
+     */
+    @JsonIgnore
+    public boolean hasLimits() {
+        return maxAge != null || maxSessionsPerWorkDir != null || maxTotalMb != null;
+    }
+
+    /**
+     * Returns a policy in which every unset field of this policy is taken from {@code defaults}.
+     *
+     * @param defaults policy supplying the missing values
+     * @return the merged policy
+     */
+    public RetentionPolicy withDefaults(RetentionPolicy defaults) {
+        return RetentionPolicy.builder()
+                .maxAge(orDefault(maxAge, defaults.maxAge))
+                .maxSessionsPerWorkDir(orDefault(maxSessionsPerWorkDir, defaults.maxSessionsPerWorkDir))
+                .maxTotalMb(orDefault(maxTotalMb, defaults.maxTotalMb))
+                .parallelism(Objects.requireNonNullElse(parallelism, defaults.parallelism))
+                .autoPrune(Objects.requireNonNullElse(autoPrune, defaults.autoPrune))
+                .autoPruneInterval(Objects.requireNonNullElse(autoPruneInterval, defaults.autoPruneInterval))
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Retry policy for calls to a provider, configured under {@code retry} in a {@link ProviderEntry}.
+ *
+ * <p>A call is retried when the provider answers with one of {@link #getRetryOnStatus()} or the
+ * connection fails. The wait before retry {@code n} is {@code initialBackoff * multiplier^(n-1)},
+ * capped at {@code maxBackoff}, of which a random {@code jitter} fraction is subtracted so that
+ * concurrent clients do not retry in lockstep. A {@code Retry-After} header takes precedence over
+ * the computed backoff; if it asks for longer than {@code maxRetryAfter}, the call is not retried.
+ *
+ * <p>All fields are optional; unset fields take the values of {@link #DEFAULT}.
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RetryPolicy {
+
+    /** Applied to providers without a {@code retry} block. */
+    public static final RetryPolicy DEFAULT = RetryPolicy.builder()
+            .maxAttempts(3)
+            .initialBackoff(Duration.ofSeconds(1))
+            .maxBackoff(Duration.ofSeconds(20))
+            .multiplier(2.0)
+            .jitter(0.5)
+            .maxRetryAfter(Duration.ofSeconds(60))
+            .retryOnStatus(List.of(408, 429, 500, 502, 503, 504))
+            .build();
+
+    /**
+     * Total number of attempts including the first one. {@code 1} disables retries.
+     */
+    @Nullable
+    Integer maxAttempts;
+
+    /**
+     * Wait before the first retry.
+     */
+    @Nullable
+    Duration initialBackoff;
+
+    /**
+     * Upper bound for the exponential backoff.
+     */
+    @Nullable
+    Duration maxBackoff;
+
+    /**
+     * Growth factor of the backoff between consecutive retries.
+     */
+    @Nullable
+    Double multiplier;
+
+    /**
+     * Fraction (0.0–1.0) of each backoff that is randomised.
+     */
+    @Nullable
+    Double jitter;
+
+    /**
+     * Longest {@code Retry-After} the client is willing to wait for.
+     */
+    @Nullable
+    Duration maxRetryAfter;
+
+    /**
+     * HTTP status codes that are retried.
+     */
+    @Nullable
+    List<Integer> retryOnStatus;
+
+    /**
+     * Returns a policy in which every unset field of this policy is taken from {@code defaults}.
+     *
+     * @param defaults policy supplying the missing values
+     * @return the merged policy
+     */
+    public RetryPolicy withDefaults(RetryPolicy defaults) {
+        return RetryPolicy.builder()
+                .maxAttempts(Objects.requireNonNullElse(maxAttempts, defaults.maxAttempts))
+                .initialBackoff(Objects.requireNonNullElse(initialBackoff, defaults.initialBackoff))
+                .maxBackoff(Objects.requireNonNullElse(maxBackoff, defaults.maxBackoff))
+                .multiplier(Objects.requireNonNullElse(multiplier, defaults.multiplier))
+                .jitter(Objects.requireNonNullElse(jitter, defaults.jitter))
+                .maxRetryAfter(Objects.requireNonNullElse(maxRetryAfter, defaults.maxRetryAfter))
+                .retryOnStatus(Objects.requireNonNullElse(retryOnStatus, defaults.retryOnStatus))
+                .build();
+    }
+}
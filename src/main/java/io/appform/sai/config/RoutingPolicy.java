@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Routing between the endpoints of a provider, configured under {@code routing} in a
+ * {@link ProviderEntry} that lists more than one endpoint.
+ *
+ * <p>Each request goes to the endpoint with the lowest score, which is the moving average of its
+ * time to first byte weighted by its recent error rate. {@code ewmaAlpha} is the weight of the
+ * newest observation in both averages. After {@code failureThreshold} consecutive failures an
+ * endpoint is taken out of rotation for {@code openDuration}, after which a single probe request
+ * decides whether it comes back. Unset fields take the values of {@link #DEFAULT}.
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RoutingPolicy {
+
+    public static final RoutingPolicy DEFAULT = RoutingPolicy.builder()
+            .ewmaAlpha(0.3)
+            .errorPenalty(4.0)
+            .failureThreshold(3)
+            .openDuration(Duration.ofSeconds(30))
+            .build();
+
+    /**
+     * Weight (0.0–1.0) of the newest observation in the latency and error-rate averages.
+     */
+    @Nullable
+    Double ewmaAlpha;
+
+    /**
+     * How strongly the error rate inflates the latency score; an endpoint failing every request
+     * scores {@code 1 + errorPenalty} times its latency.
+     */
+    @Nullable
+    Double errorPenalty;
+
+    /**
+     * Consecutive failures after which an endpoint is taken out of rotation.
+     */
+    @Nullable
+    Integer failureThreshold;
+
+    /**
+     * How long an ejected endpoint stays out of rotation before it is probed again.
+     */
+    @Nullable
+    Duration openDuration;
+
+    /**
+     * Returns a policy in which every unset field of this policy is taken from {@code defaults}.
+     *
+     * @param defaults policy supplying the missing values
+     * @return the merged policy
+     */
+    public RoutingPolicy withDefaults(RoutingPolicy defaults) {
+        return RoutingPolicy.builder()
+                .ewmaAlpha(Objects.requireNonNullElse(ewmaAlpha, defaults.ewmaAlpha))
+                .errorPenalty(Objects.requireNonNullElse(errorPenalty, defaults.errorPenalty))
+                .failureThreshold(Objects.requireNonNullElse(failureThreshold, defaults.failureThreshold))
+                .openDuration(Objects.requireNonNullElse(openDuration, defaults.openDuration))
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.appform.sai.session.SessionCodec;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * How an interactive or headless {@code sai} run persists its session, configured under
+ * {@code sessionStore} in {@code settings.yaml}.
+ *
+ * <p>With {@code writeBehind}, the messages of a turn are appended to a crash journal and written
+ * to the session directory by a background thread, so tool calls do not wait for the session
+ * files. Pending writes are flushed at the end of every turn, on exit and on {@code SIGTERM}, and
+ * a journal left behind by a crashed run is replayed at the next start. {@code codec} applies to
+ * every {@code sai} command that writes sessions, unless {@code --session-codec} overrides it.
+ * Unset fields take the values of {@link #DEFAULT}.
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SessionStoreConfig {
+
+    public static final SessionStoreConfig DEFAULT = SessionStoreConfig.builder()
+            .cacheSize(1)
+            .writeBehind(true)
+            .queueSize(256)
+            .flushTimeout(Duration.ofSeconds(30))
+            .codec(SessionCodec.JSON)
+            .build();
+
+    /**
+     * Number of sessions whose messages the session store keeps in memory.
+     */
+    @Nullable
+    Integer cacheSize;
+
+    /**
+     * Whether session messages are written in the background instead of during the turn.
+     */
+    @Nullable
+    Boolean writeBehind;
+
+    /**
+     * Maximum number of message batches waiting to be written; further writes block.
+     */
+    @Nullable
+    Integer queueSize;
+
+    /**
+     * Longest wait for pending writes at the end of a turn or on exit.
+     */
+    @Nullable
+    Duration flushTimeout;
+
+    /**
+     * Encoding of newly written session files; files of every codec can be read.
+     */
+    @Nullable
+    SessionCodec codec;
+
+    /**
+     * Returns a config in which every unset field of this config is taken from {@code defaults}.
+     *
+     * @param defaults config supplying the missing values
+     * @return the merged config
+     */
+    public SessionStoreConfig withDefaults(SessionStoreConfig defaults) {
+        return SessionStoreConfig.builder()
+                .cacheSize(Objects.requireNonNullElse(cacheSize, defaults.cacheSize))
+                .writeBehind(Objects.requireNonNullElse(writeBehind, defaults.writeBehind))
+                .queueSize(Objects.requireNonNullElse(queueSize, defaults.queueSize))
+                .flushTimeout(Objects.requireNonNullElse(flushTimeout, defaults.flushTimeout))
+                .codec(Objects.requireNonNullElse(codec, defaults.codec))
+                .build();
+    }
+}
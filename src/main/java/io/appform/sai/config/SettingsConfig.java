@@ -40,12 +40,24 @@ import lombok.extern.jackson.Jacksonized;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class SettingsConfig {
 
-    public static final SettingsConfig DEFAULT = new SettingsConfig(Map.of());
+    public static final SettingsConfig DEFAULT = new SettingsConfig(Map.of(), null, null);
 
     @JsonProperty("providers")
     @Nullable
     Map<String, ProviderEntry> providers;
 
+    /**
+     * Which sessions {@code prune-sessions} and background pruning keep; no limits when absent.
+     */
+    @Nullable
+    RetentionPolicy sessionRetention;
+
+    /**
+     * How the running session is persisted; {@link SessionStoreConfig#DEFAULT} when absent.
+     */
+    @Nullable
+    SessionStoreConfig sessionStore;
+
     /**
      * Returns the provider entry for the given name, or {@code null} if not found.
      *
@@ -59,6 +71,28 @@ public class SettingsConfig {
         return Optional.ofNullable(providers.get(providerName));
     }
 
+    /**
+     * Returns the session retention policy with defaults applied.
+     *
+     * @return the configured policy, or {@link RetentionPolicy#DEFAULT} if none is configured
+     */
+    public RetentionPolicy retentionPolicy() {
+        return sessionRetention == null
+                ? RetentionPolicy.DEFAULT
+                : sessionRetention.withDefaults(RetentionPolicy.DEFAULT);
+    }
+
+    /**
+     * Returns the session store config with defaults applied.
+     *
+     * @return the configured store settings, or {@link SessionStoreConfig#DEFAULT} if none are configured
+     */
+    public SessionStoreConfig sessionStoreConfig() {
+        return sessionStore == null
+                ? SessionStoreConfig.DEFAULT
+                : sessionStore.withDefaults(SessionStoreConfig.DEFAULT);
+    }
+
     /**
      * Checks whether this config has any providers defined.
      *
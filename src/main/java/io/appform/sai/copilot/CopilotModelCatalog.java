@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.copilot;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nullable;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Disk-cached copy of the Copilot {@code /models} catalogue.
+ *
+ * <p>The catalogue is kept in {@code ~/.config/sai/copilot_models.json} together with the time it
+ * was fetched. Lookups are served from the cached copy; once it is older than the TTL a refresh is
+ * started in the background and the stale copy is used until it completes. Only when there is no
+ * cached copy at all does a lookup wait for the fetch, and then for at most
+ * {@link #FIRST_FETCH_WAIT}. Refreshes are single-flight, and the file is written to a temporary
+ * file and renamed into place so concurrent SAI processes never read a partial catalogue.
+ */
+@Slf4j
+public class CopilotModelCatalog {
+    public static final Duration DEFAULT_TTL = Duration.ofHours(24);
+    public static final Duration FIRST_FETCH_WAIT = Duration.ofSeconds(3);
+
+    /**
+     * Fetches the current catalogue from the Copilot API.
+     */
+    @FunctionalInterface
+    public interface Fetcher {
+        List<CopilotModel> fetch() throws IOException;
+    }
+
+    /**
+     * On-disk form of the catalogue.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Snapshot(
+            @JsonProperty("fetched_at") long fetchedAt,
+            @JsonProperty("models") List<CopilotModel> models
+    ) {
+    }
+
+    private final Path cachePath;
+    private final ObjectMapper mapper;
+    private final Duration ttl;
+    private final Fetcher fetcher;
+    private final Executor executor;
+    private final LongSupplier clock;
+
+    private volatile Snapshot snapshot;
+    private CompletableFuture<Snapshot> refresh;
+
+    public CopilotModelCatalog(Path cachePath, ObjectMapper mapper, Duration ttl, Fetcher fetcher, Executor executor) {
+        this(cachePath, mapper, ttl, fetcher, executor, System::currentTimeMillis);
+    }
+
+    CopilotModelCatalog(Path cachePath,
+                        ObjectMapper mapper,
+                        Duration ttl,
+                        Fetcher fetcher,
+                        Executor executor,
+                        LongSupplier clock) {
+        this.cachePath = cachePath;
+        this.mapper = mapper;
+        this.ttl = ttl;
+        this.fetcher = fetcher;
+        this.executor = executor;
+        this.clock = clock;
+        this.snapshot = load(cachePath, mapper);
+    }
+
+    /**
+     * @return {@code ~/.config/sai/copilot_models.json}, next to the cached Copilot token
+     */
+    public static Path defaultCachePath() {
+        final var home = System.getProperty("user.home",
+                                            System.getenv().getOrDefault("HOME", ""));
+        return Path.of(home, ".config", "sai", "copilot_models.json");
+    }
+
+    @Nullable
+    static Snapshot load(Path cachePath, ObjectMapper mapper) {
+        if (!Files.exists(cachePath)) {
+            return null;
+        }
+        try {
+            final var loaded = mapper.readValue(cachePath.toFile(), Snapshot.class);
+            return loaded.models() == null ? null : loaded;
+        }
+        catch (IOException e) {
+            log.warn("Failed to read cached Copilot model catalogue, will fetch fresh: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    static void persist(Snapshot snapshot, Path cachePath, ObjectMapper mapper) {
+        try {
+            Files.createDirectories(cachePath.getParent());
+            final var tmp = Files.createTempFile(cachePath.getParent(), cachePath.getFileName().toString(), ".tmp");
+            try {
+                mapper.writeValue(tmp.toFile(), snapshot);
+                Files.move(tmp, cachePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        catch (IOException e) {
+            log.warn("Failed to persist Copilot model catalogue: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Looks up a model by id, starting a background refresh if the cached catalogue is stale.
+     *
+     * @param modelId the API model id (e.g. {@code claude-sonnet-4})
+     * @return the model, or empty if it is not in the catalogue or no catalogue could be fetched
+     */
+    public Optional<CopilotModel> find(String modelId) {
+        var current = snapshot;
+        if (current == null) {
+            current = awaitFirstFetch();
+        }
+        else {
+            refreshIfStale();
+        }
+        return current == null
+                ? Optional.empty()
+                : current.models()
+                        .stream()
+                        .filter(model -> Objects.equals(modelId, model.getId()))
+                        .findFirst();
+    }
+
+    /**
+     * @return {@code true} if there is no cached catalogue or it is older than the TTL
+     */
+    public boolean isStale() {
+        final var current = snapshot;
+        return current == null || clock.getAsLong() - current.fetchedAt() >= ttl.toMillis();
+    }
+
+    /**
+     * Fetches the catalogue now, regardless of its age, and caches it.
+     *
+     * @return the fetched models
+     * @throws IOException if the fetch fails
+     */
+    public List<CopilotModel> refreshNow() throws IOException {
+        try {
+            return refresh().get().models();
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching Copilot models", e);
+        }
+    }
+
+    /**
+     * Starts a background refresh if the cached catalogue is missing or older than the TTL.
+     */
+    public void refreshIfStale() {
+        if (isStale()) {
+            refresh();
+        }
+    }
+
+    @Nullable
+    private Snapshot awaitFirstFetch() {
+        try {
+            return refresh().get(FIRST_FETCH_WAIT.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e) {
+            log.info("Copilot model catalogue not available yet; using default model limits");
+            return null;
+        }
+        catch (ExecutionException e) {
+            return null;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private synchronized CompletableFuture<Snapshot> refresh() {
+        if (refresh != null && !refresh.isDone()) {
+            return refresh;
+        }
+        refresh = CompletableFuture.supplyAsync(() -> {
+            try {
+                final var fetched = new Snapshot(clock.getAsLong(), fetcher.fetch());
+                persist(fetched, cachePath, mapper);
+                snapshot = fetched;
+                log.info("Fetched Copilot model catalogue ({} models, valid until {})",
+                         fetched.models().size(),
+                         Instant.ofEpochMilli(fetched.fetchedAt()).plus(ttl));
+                return fetched;
+            }
+            catch (IOException e) {
+                log.warn("Failed to fetch Copilot model catalogue: {}", e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+        return refresh;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Opens a connection to the current provider endpoint ahead of the next model call, so that the
+ * first request of a turn does not pay for DNS, TCP and TLS set-up.
+ *
+ * <p>{@link #warm()} sends an unauthenticated {@code HEAD} to the provider's base URL in the
+ * background. The status code does not matter: any response leaves a connection in the shared
+ * pool, where the next call to the same host picks it up. It is called once at startup, while the
+ * terminal and persona are still loading.
+ *
+ * <p>While the REPL waits for input ({@link #onIdle()} until {@link #onBusy()}) the request is
+ * repeated every {@code rewarmInterval} so that the connection is not closed by the server or
+ * evicted from the pool during a pause. After {@code maxIdle} without a turn, re-warming stops.
+ */
+@Slf4j
+public class ConnectionPrewarmer implements AutoCloseable {
+    public static final Duration DEFAULT_REWARM_INTERVAL = Duration.ofSeconds(45);
+    public static final Duration DEFAULT_MAX_IDLE = Duration.ofMinutes(15);
+
+    private static final Duration WARM_TIMEOUT = Duration.ofSeconds(10);
+
+    private final OkHttpClient client;
+    private final Supplier<Optional<String>> baseUrl;
+    private final long rewarmIntervalMillis;
+    private final long maxIdleNanos;
+    private final LongSupplier nanoClock;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        final var t = new Thread(r, "connection-prewarm");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+
+    private ScheduledFuture<?> idleTask;
+    private long idleSinceNanos;
+
+    /**
+     * @param client  client whose connection pool should be warmed
+     * @param baseUrl supplies the base URL of the current provider; re-evaluated on every warm-up
+     *                so that model switches are followed
+     */
+    public ConnectionPrewarmer(OkHttpClient client, Supplier<Optional<String>> baseUrl) {
+        this(client, baseUrl, DEFAULT_REWARM_INTERVAL, DEFAULT_MAX_IDLE, System::nanoTime);
+    }
+
+    ConnectionPrewarmer(OkHttpClient client,
+                        Supplier<Optional<String>> baseUrl,
+                        Duration rewarmInterval,
+                        Duration maxIdle,
+                        LongSupplier nanoClock) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.rewarmIntervalMillis = rewarmInterval.toMillis();
+        this.maxIdleNanos = maxIdle.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Stops re-warming; called when a turn starts.
+     */
+    public synchronized void onBusy() {
+        if (idleTask != null) {
+            idleTask.cancel(false);
+            idleTask = null;
+        }
+    }
+
+    /**
+     * Starts re-warming the connection periodically until {@link #onBusy()} is called. The first
+     * re-warm happens after one interval, as a turn that has just finished leaves a fresh
+     * connection behind.
+     */
+    public synchronized void onIdle() {
+        onBusy();
+        idleSinceNanos = nanoClock.getAsLong();
+        idleTask = scheduler.scheduleWithFixedDelay(this::rewarm,
+                                                    rewarmIntervalMillis,
+                                                    rewarmIntervalMillis,
+                                                    TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends a warm-up request to the current provider endpoint in the background. Does nothing if
+     * the endpoint is unknown or a warm-up is already in flight.
+     *
+     * @return {@code true} if a request was sent
+     */
+    public boolean warm() {
+        final var url = baseUrl.get().map(HttpUrl::parse).orElse(null);
+        if (url == null || !inFlight.compareAndSet(false, true)) {
+            return false;
+        }
+        final var call = client.newCall(new Request.Builder().url(url).head().build());
+        call.timeout().timeout(WARM_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                inFlight.set(false);
+                log.debug("Failed to pre-warm connection to {}: {}", url.host(), e.getMessage());
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+                inFlight.set(false);
+                log.debug("Pre-warmed connection to {} (HTTP {})", url.host(), response.code());
+            }
+        });
+        return true;
+    }
+
+    private void rewarm() {
+        synchronized (this) {
+            if (nanoClock.getAsLong() - idleSinceNanos > maxIdleNanos) {
+                log.debug("Idle for longer than {}, no longer keeping the provider connection warm",
+                          Duration.ofNanos(maxIdleNanos));
+                onBusy();
+                return;
+            }
+        }
+        warm();
+    }
+}
@@ -0,0 +1,480 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import io.appform.sai.config.EndpointEntry;
+import io.appform.sai.config.RoutingPolicy;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nullable;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Spreads a provider's requests over several base URLs serving the same models, such as regional
+ * deployments or gateways, and fails over between them.
+ *
+ * <p>The provider SDK is configured with the first endpoint; this interceptor swaps that prefix of
+ * each request URL for the endpoint with the lowest score. The score is the moving average of an
+ * endpoint's time to first byte of the response body, multiplied by {@code 1 + errorPenalty *
+ * errorRate}. An endpoint that has not been tried yet scores zero, so every endpoint is tried
+ * early on. When a request fails with a connection error, {@code 429} or {@code 5xx}, it is sent to the
+ * next endpoint straight away (unless its body can only be sent once).
+ *
+ * <p>An endpoint with an API key of its own gets that key in place of the provider's, in whichever
+ * of the {@code Authorization} and {@code api-key} headers the SDK set. Since the provider's key
+ * is only known to work on the first endpoint, a {@code 401} or {@code 403} from any other
+ * endpoint counts as a failure of that endpoint too.
+ *
+ * <p>After {@link RoutingPolicy#getFailureThreshold()} consecutive failures an endpoint's circuit
+ * opens and it only receives traffic when every other endpoint is open too. Once
+ * {@link RoutingPolicy#getOpenDuration()} has passed, one request is let through as a probe: a
+ * success closes the circuit, a failure opens it again.
+ *
+ * <p>Routers are kept per provider for the lifetime of the process (see {@link #forProvider}), so
+ * agents rebuilt after {@code /model} or {@code /persona} keep the routing state, and
+ * {@code /providers} can show it through {@link #routers()}.
+ */
+@Slf4j
+public class EndpointRouter implements Interceptor {
+    private static final Map<String, EndpointRouter> ROUTERS = new ConcurrentHashMap<>();
+
+    /**
+     * Circuit breaker state of an endpoint.
+     */
+    public enum CircuitState {
+        /** In rotation. */
+        CLOSED,
+        /** Ejected after repeated failures. */
+        OPEN,
+        /** Ejection expired; the next request probes the endpoint. */
+        HALF_OPEN,
+    }
+
+    /**
+     * Snapshot of the routing state of one endpoint.
+     */
+    @Value
+    @Builder
+    public static class EndpointStats {
+        String url;
+        CircuitState state;
+        /** Requests sent to the endpoint. */
+        long requests;
+        /** Requests that failed with a connection error, {@code 429}, {@code 5xx} or a rejected key. */
+        long failures;
+        /** Moving average of the time to first byte, {@code -1} before the first success. */
+        double ttfbMillis;
+        /** Moving average of the failure rate, 0.0–1.0. */
+        double errorRate;
+        /** Routing score; the endpoint with the lowest score among closed ones is chosen. */
+        double score;
+    }
+
+    private static final class Endpoint {
+        private final String url;
+        @Nullable
+        private final String apiKey;
+        private final int order;
+        private long requests;
+        private long failures;
+        private double ttfbMillis = -1;
+        private double errorRate;
+        private int consecutiveFailures;
+        private boolean open;
+        private long openUntilNanos;
+        private boolean probing;
+
+        private Endpoint(String url, @Nullable String apiKey, int order) {
+            this.url = url;
+            this.apiKey = apiKey;
+            this.order = order;
+        }
+    }
+
+    /**
+     * Response body that reports when its first byte arrives. If the body is closed before
+     * anything was read, the time the response headers arrived is reported instead.
+     */
+    private static final class FirstByteTimingBody extends ResponseBody {
+        private final ResponseBody delegate;
+        private final long headersNanos;
+        private final LongSupplier nanoClock;
+        private final LongConsumer onFirstByte;
+        private final Runnable onError;
+        private BufferedSource source;
+        private boolean reported;
+
+        private FirstByteTimingBody(ResponseBody delegate,
+                                    long headersNanos,
+                                    LongSupplier nanoClock,
+                                    LongConsumer onFirstByte,
+                                    Runnable onError) {
+            this.delegate = delegate;
+            this.headersNanos = headersNanos;
+            this.nanoClock = nanoClock;
+            this.onFirstByte = onFirstByte;
+            this.onError = onError;
+        }
+
+        @Override
+        public void close() {
+            report(headersNanos);
+            delegate.close();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        @Nullable
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public synchronized BufferedSource source() {
+            if (source == null) {
+                source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                    @Override
+                    public long read(Buffer sink, long byteCount) throws IOException {
+                        final long read;
+                        try {
+                            read = super.read(sink, byteCount);
+                        }
+                        catch (IOException e) {
+                            if (!reported) {
+                                reported = true;
+                                onError.run();
+                            }
+                            throw e;
+                        }
+                        if (read > 0) {
+                            report(nanoClock.getAsLong());
+                        }
+                        return read;
+                    }
+                });
+            }
+            return source;
+        }
+
+        private void report(long atNanos) {
+            if (!reported) {
+                reported = true;
+                onFirstByte.accept(atNanos);
+            }
+        }
+    }
+
+    @Getter
+    private final String provider;
+    private final List<Endpoint> endpoints;
+    private final RoutingPolicy policy;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param provider  provider name, used for logging and {@link #routers()}
+     * @param endpoints endpoints in order of preference; the first is the one the SDK is
+     *                  configured with
+     * @param policy    fully populated policy, see {@link RoutingPolicy#withDefaults(RoutingPolicy)}
+     */
+    public EndpointRouter(String provider, List<EndpointEntry> endpoints, RoutingPolicy policy) {
+        this(provider, endpoints, policy, System::nanoTime);
+    }
+
+    EndpointRouter(String provider, List<EndpointEntry> endpoints, RoutingPolicy policy, LongSupplier nanoClock) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("Provider '" + provider + "' has no endpoints to route between");
+        }
+        this.provider = provider;
+        final var entries = normalise(endpoints);
+        this.endpoints = IntStream.range(0, entries.size())
+                .mapToObj(i -> new Endpoint(entries.get(i).getUrl(), entries.get(i).getApiKey(), i))
+                .toList();
+        this.policy = policy;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the process-wide router of a provider, creating it on first use or when the
+     * provider's endpoints or policy have changed.
+     *
+     * @param provider  provider name
+     * @param endpoints endpoints in order of preference
+     * @param policy    fully populated policy
+     * @return the router for the provider
+     */
+    public static EndpointRouter forProvider(String provider, List<EndpointEntry> endpoints, RoutingPolicy policy) {
+        final var entries = normalise(endpoints);
+        return ROUTERS.compute(provider, (name, existing) -> {
+            if (existing != null && existing.entries().equals(entries) && existing.policy.equals(policy)) {
+                return existing;
+            }
+            log.debug("Routing requests for provider {} between {}",
+                      name,
+                      entries.stream().map(EndpointEntry::getUrl).toList());
+            return new EndpointRouter(name, entries, policy);
+        });
+    }
+
+    /**
+     * @return the routers created so far, by provider name
+     */
+    public static Map<String, EndpointRouter> routers() {
+        return new TreeMap<>(ROUTERS);
+    }
+
+    private static boolean isFailure(int code, Endpoint target) {
+        return code == 429 || code >= 500 || (target.order > 0 && (code == 401 || code == 403));
+    }
+
+    private static boolean isUnder(String url, String base) {
+        return url.startsWith(base)
+                && (url.length() == base.length() || "/?#".indexOf(url.charAt(base.length())) >= 0);
+    }
+
+    private static String normalise(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * @return the endpoints with trailing slashes stripped, keeping the first of duplicate URLs
+     */
+    private static List<EndpointEntry> normalise(List<EndpointEntry> endpoints) {
+        final var seen = new HashSet<String>();
+        return endpoints.stream()
+                .map(endpoint -> EndpointEntry.builder()
+                        .url(normalise(endpoint.getUrl()))
+                        .apiKey(endpoint.getApiKey())
+                        .build())
+                .filter(endpoint -> seen.add(endpoint.getUrl()))
+                .toList();
+    }
+
+    /**
+     * Puts the target's own API key in place of the provider's, if it has one.
+     */
+    private static Request withCredentials(Request request, Endpoint target) {
+        if (target.apiKey == null) {
+            return request;
+        }
+        final var builder = request.newBuilder();
+        if (request.header("api-key") != null) {
+            builder.header("api-key", target.apiKey);
+        }
+        if (request.header("Authorization") != null) {
+            builder.header("Authorization", "Bearer " + target.apiKey);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        final var request = chain.request();
+        final var url = request.url().toString();
+        final var source = endpoints.stream()
+                .filter(endpoint -> isUnder(url, endpoint.url))
+                .findFirst()
+                .orElse(null);
+        if (source == null) {
+            return chain.proceed(request);
+        }
+        final var path = url.substring(source.url.length());
+        final var candidates = ranked();
+        final var attempts = RetryInterceptor.isOneShot(request) ? 1 : candidates.size();
+        for (int i = 0;; i++) {
+            final var target = candidates.get(i);
+            final var last = i == attempts - 1;
+            final var start = nanoClock.getAsLong();
+            final Response response;
+            try {
+                response = chain.proceed(withCredentials(request.newBuilder().url(target.url + path).build(),
+                                                         target));
+            }
+            catch (IOException e) {
+                if (chain.call().isCanceled()) {
+                    release(target);
+                    throw e;
+                }
+                recordFailure(target);
+                if (last) {
+                    throw e;
+                }
+                log.info("Request to {} failed ({}), failing over", target.url, e.getMessage());
+                continue;
+            }
+            if (isFailure(response.code(), target)) {
+                recordFailure(target);
+                if (last) {
+                    return response;
+                }
+                log.info("Request to {} failed with status {}, failing over", target.url, response.code());
+                response.close();
+                continue;
+            }
+            return timed(response, target, start);
+        }
+    }
+
+    /**
+     * @return the routing state of every endpoint, in configuration order
+     */
+    public synchronized List<EndpointStats> stats() {
+        final var now = nanoClock.getAsLong();
+        return endpoints.stream()
+                .map(endpoint -> EndpointStats.builder()
+                        .url(endpoint.url)
+                        .state(state(endpoint, now))
+                        .requests(endpoint.requests)
+                        .failures(endpoint.failures)
+                        .ttfbMillis(endpoint.ttfbMillis)
+                        .errorRate(endpoint.errorRate)
+                        .score(score(endpoint))
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Orders the endpoints for one request: an endpoint due for a probe first, then closed
+     * endpoints by score, then the remaining ones by how soon they may be probed. The endpoint
+     * put first is marked as probing if it is half-open, so that concurrent requests do not probe
+     * it as well.
+     */
+    private synchronized List<Endpoint> ranked() {
+        final var now = nanoClock.getAsLong();
+        final var ranked = endpoints.stream()
+                .sorted(Comparator.<Endpoint>comparingInt(endpoint -> rank(endpoint, now))
+                        .thenComparingDouble(endpoint -> endpoint.open ? 0 : score(endpoint))
+                        .thenComparingLong(endpoint -> endpoint.open ? endpoint.openUntilNanos - now : 0)
+                        .thenComparingInt(endpoint -> endpoint.order))
+                .toList();
+        final var first = ranked.get(0);
+        if (state(first, now) == CircuitState.HALF_OPEN && !first.probing) {
+            first.probing = true;
+            log.info("Probing endpoint {} of provider {}", first.url, provider);
+        }
+        return ranked;
+    }
+
+    private int rank(Endpoint endpoint, long nowNanos) {
+        return switch (state(endpoint, nowNanos)) {
+            case HALF_OPEN -> endpoint.probing ? 2 : 0;
+            case CLOSED -> 1;
+            case OPEN -> 2;
+        };
+    }
+
+    private synchronized void recordFailure(Endpoint endpoint) {
+        final var alpha = policy.getEwmaAlpha();
+        endpoint.requests++;
+        endpoint.failures++;
+        endpoint.errorRate = alpha + (1 - alpha) * endpoint.errorRate;
+        endpoint.consecutiveFailures++;
+        if (endpoint.probing || endpoint.consecutiveFailures >= policy.getFailureThreshold()) {
+            if (!endpoint.open || endpoint.probing) {
+                log.warn("Ejecting endpoint {} of provider {} for {} after {} consecutive failures",
+                         endpoint.url,
+                         provider,
+                         policy.getOpenDuration(),
+                         endpoint.consecutiveFailures);
+            }
+            endpoint.open = true;
+            endpoint.openUntilNanos = nanoClock.getAsLong() + policy.getOpenDuration().toNanos();
+        }
+        endpoint.probing = false;
+    }
+
+    private synchronized void recordSuccess(Endpoint endpoint, long ttfbNanos) {
+        final var alpha = policy.getEwmaAlpha();
+        final var millis = ttfbNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        endpoint.requests++;
+        endpoint.ttfbMillis = endpoint.ttfbMillis < 0 ? millis : alpha * millis + (1 - alpha) * endpoint.ttfbMillis;
+        endpoint.errorRate = (1 - alpha) * endpoint.errorRate;
+        endpoint.consecutiveFailures = 0;
+        if (endpoint.open) {
+            log.info("Endpoint {} of provider {} is back in rotation", endpoint.url, provider);
+        }
+        endpoint.open = false;
+        endpoint.probing = false;
+    }
+
+    private synchronized void release(Endpoint endpoint) {
+        endpoint.probing = false;
+    }
+
+    private double score(Endpoint endpoint) {
+        if (endpoint.ttfbMillis < 0) {
+            // Untried endpoints go first; ones that have only ever failed go last
+            return endpoint.failures == 0 ? 0 : Double.POSITIVE_INFINITY;
+        }
+        return endpoint.ttfbMillis * (1 + policy.getErrorPenalty() * endpoint.errorRate);
+    }
+
+    private CircuitState state(Endpoint endpoint, long nowNanos) {
+        if (!endpoint.open) {
+            return CircuitState.CLOSED;
+        }
+        return nowNanos - endpoint.openUntilNanos < 0 ? CircuitState.OPEN : CircuitState.HALF_OPEN;
+    }
+
+    private Response timed(Response response, Endpoint target, long startNanos) {
+        final var headersNanos = nanoClock.getAsLong();
+        final var body = response.body();
+        if (body == null) {
+            recordSuccess(target, headersNanos - startNanos);
+            return response;
+        }
+        return response.newBuilder()
+                .body(new FirstByteTimingBody(body,
+                                              headersNanos,
+                                              nanoClock,
+                                              atNanos -> recordSuccess(target, atNanos - startNanos),
+                                              () -> recordFailure(target)))
+                .build();
+    }
+
+    private List<EndpointEntry> entries() {
+        return endpoints.stream()
+                .map(endpoint -> EndpointEntry.builder().url(endpoint.url).apiKey(endpoint.apiKey).build())
+                .toList();
+    }
+}
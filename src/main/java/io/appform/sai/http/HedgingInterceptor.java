@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import com.google.common.collect.MapMaker;
+
+import io.appform.sai.config.HedgingPolicy;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Sends a duplicate of a slow provider request and returns whichever copy answers first, following
+ * a {@link HedgingPolicy}.
+ *
+ * <p>The original request proceeds down the chain on a worker thread. If no response headers have
+ * arrived within the hedge delay (a percentile of recent times to first byte, see
+ * {@link LatencyWindow}), the call is cloned and executed as well. The first copy to return a
+ * usable response (not a 5xx or 429) wins; the other is cancelled if it is the duplicate, or
+ * closed as soon as its headers arrive if it is the original, which aborts its stream.
+ *
+ * <p>The duplicate runs through the client's whole interceptor chain, so authentication and
+ * request rewriting apply to it as well. Its call is marked as a hedged copy, see
+ * {@link #isHedgedCopy(Call)}: this interceptor and {@link RetryInterceptor} pass it through
+ * untouched, and interceptors that keep state across requests, such as the prompt-cache
+ * stability check and the Responses API conversation state, transform it without updating that
+ * state, so that the same request is not counted twice. A request tag cannot carry the mark, as a
+ * cloned call keeps the original request.
+ */
+@Slf4j
+public class HedgingInterceptor implements Interceptor {
+    private static final Set<Call> HEDGED_CALLS = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+        final var t = new Thread(r, "request-hedge");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Result of one copy of the request.
+     */
+    private record Outcome(Response response, IOException error, boolean hedge) {
+
+        static Outcome failed(IOException error, boolean hedge) {
+            return new Outcome(null, error, hedge);
+        }
+
+        static Outcome of(Response response, boolean hedge) {
+            return new Outcome(response, null, hedge);
+        }
+
+        void discard() {
+            if (response != null) {
+                response.close();
+            }
+        }
+
+        Response get() throws IOException {
+            if (error != null) {
+                throw error;
+            }
+            return response;
+        }
+
+        boolean usable() {
+            return response != null && response.code() < 500 && response.code() != 429;
+        }
+    }
+
+    private final HedgingPolicy policy;
+    private final LatencyWindow latencies;
+
+    /**
+     * @param policy fully populated policy, see {@link HedgingPolicy#withDefaults(HedgingPolicy)}
+     */
+    public HedgingInterceptor(HedgingPolicy policy) {
+        this(policy, new LatencyWindow());
+    }
+
+    HedgingInterceptor(HedgingPolicy policy, LatencyWindow latencies) {
+        this.policy = policy;
+        this.latencies = latencies;
+    }
+
+    /**
+     * @param call the call an interceptor is handling, from {@link Chain#call()}
+     * @return {@code true} if the call is a duplicate sent by a hedging interceptor
+     */
+    public static boolean isHedgedCopy(Call call) {
+        return HEDGED_CALLS.contains(call);
+    }
+
+    private static Outcome await(CompletableFuture<Outcome> future, Call call, long timeoutMillis)
+            throws IOException {
+        try {
+            return timeoutMillis < 0 ? future.get() : future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e) {
+            return null;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            call.cancel();
+            throw new InterruptedIOException("Interrupted while waiting for response");
+        }
+        catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static Outcome execute(Call hedgeCall) {
+        try {
+            return Outcome.of(hedgeCall.execute(), true);
+        }
+        catch (IOException e) {
+            return Outcome.failed(e, true);
+        }
+    }
+
+    /**
+     * @return how long to wait for the original request before sending a duplicate
+     */
+    long hedgeDelayMillis() {
+        final var delay = latencies.percentile(policy.getPercentile())
+                .orElse(policy.getInitialDelay().toMillis());
+        return Math.max(policy.getMinDelay().toMillis(), Math.min(policy.getMaxDelay().toMillis(), delay));
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        final var request = chain.request();
+        if (isHedgedCopy(chain.call()) || RetryInterceptor.isOneShot(request)) {
+            return chain.proceed(request);
+        }
+        final var delay = hedgeDelayMillis();
+        final var primary = CompletableFuture.supplyAsync(() -> timed(() -> proceed(chain)), EXECUTOR);
+        final var early = await(primary, chain.call(), delay);
+        if (early != null) {
+            return early.get();
+        }
+
+        log.debug("No response from {} after {} ms, sending hedged request", request.url().host(), delay);
+        final var hedgeCall = chain.call().clone();
+        HEDGED_CALLS.add(hedgeCall);
+        final var hedge = CompletableFuture.supplyAsync(() -> timed(() -> execute(hedgeCall)), EXECUTOR);
+        final Outcome winner;
+        try {
+            winner = firstUsable(primary, hedge, chain.call());
+        }
+        catch (IOException e) {
+            hedgeCall.cancel();
+            hedge.thenAccept(Outcome::discard);
+            primary.thenAccept(Outcome::discard);
+            throw e;
+        }
+        if (winner.hedge()) {
+            log.debug("Hedged request to {} answered first", request.url().host());
+            primary.thenAccept(Outcome::discard);
+        }
+        else {
+            hedgeCall.cancel();
+            hedge.thenAccept(Outcome::discard);
+        }
+        return winner.get();
+    }
+
+    private Outcome firstUsable(CompletableFuture<Outcome> primary,
+                                CompletableFuture<Outcome> hedge,
+                                Call call) throws IOException {
+        final var first = await(CompletableFuture.anyOf(primary, hedge).thenApply(Outcome.class::cast), call, -1);
+        if (first.usable() || call.isCanceled()) {
+            return first;
+        }
+        final var second = await(first.hedge() ? primary : hedge, call, -1);
+        if (second.usable()) {
+            first.discard();
+            return second;
+        }
+        // Neither copy succeeded: report the original's outcome
+        final var original = first.hedge() ? second : first;
+        (first.hedge() ? first : second).discard();
+        return original;
+    }
+
+    private Outcome proceed(Chain chain) {
+        try {
+            return Outcome.of(chain.proceed(chain.request()), false);
+        }
+        catch (IOException e) {
+            return Outcome.failed(e, false);
+        }
+    }
+
+    private Outcome timed(Supplier<Outcome> copy) {
+        final var start = System.nanoTime();
+        final var outcome = copy.get();
+        if (outcome.usable()) {
+            latencies.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return outcome;
+    }
+}
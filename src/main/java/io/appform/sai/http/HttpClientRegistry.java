@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+
+/**
+ * Process-wide owner of the HTTP clients used to talk to model providers and HTTP tools.
+ *
+ * <p>All clients handed out by the registry are derived from one base client and therefore share a
+ * single {@link ConnectionPool} and {@link Dispatcher}: a connection opened for one provider
+ * endpoint is reused by every agent built afterwards (for example after {@code /model} or
+ * {@code /persona}), instead of paying for a new TCP and TLS handshake.
+ *
+ * <p>{@link #client(String, Supplier)} caches one client per endpoint key so that rebuilding an
+ * agent for the same interceptor chain does not create another client. The registry also counts
+ * how often a call was served by a pooled connection versus a newly opened one; see
+ * {@link #stats()}.
+ */
+@Slf4j
+public class HttpClientRegistry implements AutoCloseable {
+    public static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    public static final Duration READ_TIMEOUT = Duration.ofSeconds(300);
+    public static final Duration CALL_TIMEOUT = Duration.ofSeconds(300);
+
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    /**
+     * Snapshot of the connection pool counters.
+     */
+    @Value
+    @Builder
+    public static class PoolStats {
+        /** Calls that acquired an already open connection from the pool. */
+        long hits;
+        /** Calls that had to open a new connection. */
+        long misses;
+        /** Connections currently held by the pool. */
+        int connections;
+        /** Pooled connections that are currently idle. */
+        int idleConnections;
+        /** Number of distinct endpoint clients handed out. */
+        int endpoints;
+
+        /**
+         * @return share of calls served by a pooled connection, {@code 0} if no call was made yet
+         */
+        public double hitRate() {
+            final var total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    /**
+     * Per-call listener that records whether the call opened its own connection before acquiring
+     * one. OkHttp creates one listener per call, so no synchronisation is needed.
+     */
+    private final class PoolMetricsListener extends EventListener {
+        private boolean connected;
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            (connected ? misses : hits).increment();
+            connected = false;
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connected = true;
+        }
+    }
+
+    private final ConnectionPool connectionPool;
+    private final Dispatcher dispatcher;
+    private final OkHttpClient baseClient;
+    private final Map<String, OkHttpClient> endpointClients = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public HttpClientRegistry() {
+        this(new OkHttpClient.Builder()
+                .readTimeout(READ_TIMEOUT)
+                .callTimeout(CALL_TIMEOUT)
+                .connectTimeout(CONNECT_TIMEOUT));
+    }
+
+    /**
+     * Creates a registry whose base client is built from the given builder. The builder's
+     * connection pool, dispatcher and event listener are replaced by the registry's own.
+     *
+     * @param baseBuilder builder carrying timeouts and other client-wide settings
+     */
+    public HttpClientRegistry(OkHttpClient.Builder baseBuilder) {
+        this.connectionPool = new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES);
+        this.dispatcher = new Dispatcher();
+        this.baseClient = baseBuilder
+                .connectionPool(connectionPool)
+                .dispatcher(dispatcher)
+                .eventListenerFactory(call -> new PoolMetricsListener())
+                .build();
+    }
+
+    /**
+     * @return the base client, without any interceptors
+     */
+    public OkHttpClient baseClient() {
+        return baseClient;
+    }
+
+    /**
+     * Returns the client for an endpoint, creating it on first use by adding the given
+     * interceptors, in order, to the base client. Later calls with the same key return the same
+     * client and do not evaluate {@code interceptors}.
+     *
+     * @param endpointKey  identifies the endpoint and its interceptor chain; two chains that
+     *                     behave differently must use different keys
+     * @param interceptors supplies the application interceptors of the chain
+     * @return the shared client for the key
+     */
+    public OkHttpClient client(String endpointKey, Supplier<List<Interceptor>> interceptors) {
+        return endpointClients.computeIfAbsent(endpointKey, key -> {
+            log.debug("Creating HTTP client for endpoint {}", key);
+            final var builder = baseClient.newBuilder();
+            interceptors.get().forEach(builder::addInterceptor);
+            return builder.build();
+        });
+    }
+
+    @Override
+    public void close() {
+        if (log.isDebugEnabled()) {
+            log.debug("HTTP connection pool at shutdown: {}", stats());
+        }
+        dispatcher.executorService().shutdown();
+        connectionPool.evictAll();
+    }
+
+    /**
+     * @return the current connection reuse counters and pool occupancy
+     */
+    public PoolStats stats() {
+        return PoolStats.builder()
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .connections(connectionPool.connectionCount())
+                .idleConnections(connectionPool.idleConnectionCount())
+                .endpoints(endpointClients.size())
+                .build();
+    }
+}
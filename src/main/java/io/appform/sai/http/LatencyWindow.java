@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * Sliding window over the most recent latency samples of an endpoint, used to derive percentiles.
+ */
+public class LatencyWindow {
+    public static final int DEFAULT_CAPACITY = 64;
+    /** Fewer samples than this do not give a meaningful tail percentile. */
+    public static final int MIN_SAMPLES = 8;
+
+    private final long[] samples;
+    private int count;
+    private int next;
+
+    public LatencyWindow() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    /**
+     * Returns the given percentile of the samples in the window.
+     *
+     * @param percentile percentile between 0.0 and 1.0
+     * @return the percentile in milliseconds, or empty if fewer than {@value #MIN_SAMPLES} samples
+     *         have been recorded
+     */
+    public synchronized OptionalLong percentile(double percentile) {
+        if (count < MIN_SAMPLES) {
+            return OptionalLong.empty();
+        }
+        final var sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        final var index = (int) Math.ceil(percentile * count) - 1;
+        return OptionalLong.of(sorted[Math.max(0, Math.min(count - 1, index))]);
+    }
+
+    public synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import io.appform.sai.config.CompressionPolicy;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * Compresses request bodies of at least {@link CompressionPolicy#getMinSizeKb()} KB and marks
+ * them with {@code Content-Encoding}.
+ *
+ * <p>Installed as a network interceptor, so it compresses the bytes that actually go on the wire:
+ * after request transforms and the Responses API translation, and once per attempt. Bodies that
+ * are smaller, already encoded or one-shot are sent as they are. The number of compressed
+ * requests, their sizes before and after, and the time spent compressing are kept in
+ * process-wide counters, see {@link #stats()}.
+ */
+@Slf4j
+public class RequestCompressionInterceptor implements Interceptor {
+    private static final AtomicLong REQUESTS = new AtomicLong();
+    private static final AtomicLong ORIGINAL_BYTES = new AtomicLong();
+    private static final AtomicLong COMPRESSED_BYTES = new AtomicLong();
+    private static final AtomicLong COMPRESS_NANOS = new AtomicLong();
+
+    /**
+     * Compression counters since process start.
+     *
+     * @param requests        requests sent compressed
+     * @param originalBytes   their total size before compression
+     * @param compressedBytes their total size after compression
+     * @param compressNanos   time spent compressing them
+     */
+    public record Stats(
+            long requests,
+            long originalBytes,
+            long compressedBytes,
+            long compressNanos
+    ) {
+        /**
+         * @return compressed size as a fraction of the original size, {@code 1.0} if nothing was
+         *         compressed
+         */
+        public double ratio() {
+            return originalBytes == 0 ? 1.0 : (double) compressedBytes / originalBytes;
+        }
+    }
+
+    private final long minBytes;
+
+    /**
+     * @param policy the provider's compression policy, with defaults applied
+     * @throws IllegalArgumentException if the policy asks for an unsupported encoding
+     */
+    public RequestCompressionInterceptor(CompressionPolicy policy) {
+        if (!CompressionPolicy.GZIP.equalsIgnoreCase(policy.getEncoding())) {
+            throw new IllegalArgumentException("Unsupported request compression encoding '" + policy.getEncoding()
+                    + "'. Use 'gzip'.");
+        }
+        this.minBytes = policy.getMinSizeKb() * 1024L;
+    }
+
+    public static Stats stats() {
+        return new Stats(REQUESTS.get(), ORIGINAL_BYTES.get(), COMPRESSED_BYTES.get(), COMPRESS_NANOS.get());
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        final var request = chain.request();
+        final var body = request.body();
+        if (body == null
+                || body.isOneShot()
+                || body.contentLength() < minBytes
+                || request.header("Content-Encoding") != null) {
+            return chain.proceed(request);
+        }
+        final var start = System.nanoTime();
+        final var compressed = new Buffer();
+        try (var sink = Okio.buffer(new GzipSink(compressed))) {
+            body.writeTo(sink);
+        }
+        final var elapsed = System.nanoTime() - start;
+        final var originalBytes = body.contentLength();
+        final var compressedBytes = compressed.size();
+        REQUESTS.incrementAndGet();
+        ORIGINAL_BYTES.addAndGet(originalBytes);
+        COMPRESSED_BYTES.addAndGet(compressedBytes);
+        COMPRESS_NANOS.addAndGet(elapsed);
+        log.debug("Compressed request body from {} to {} bytes in {} us",
+                  originalBytes,
+                  compressedBytes,
+                  elapsed / 1_000);
+        return chain.proceed(request.newBuilder()
+                .header("Content-Encoding", CompressionPolicy.GZIP)
+                .header("Content-Length", Long.toString(compressedBytes))
+                .method(request.method(), RequestBody.create(compressed.readByteString(), body.contentType()))
+                .build());
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nullable;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+
+/**
+ * Sends chat-completion requests to the OpenAI Responses API, keeping the conversation state on
+ * the server.
+ *
+ * <p>{@code SimpleOpenAIModel} sends the whole history with every request. This interceptor
+ * remembers, for the last {@value #MAX_CONVERSATIONS} responses, the input items the response
+ * accounts for: the request's items plus its own output. When a request starts with exactly
+ * those items, only the items after them are sent, chained to the response with
+ * {@code previous_response_id}, so the upload stays the size of one turn however long the session
+ * grows. System messages are sent as {@code instructions} every time, since they are not carried
+ * over by the server.
+ *
+ * <p>The full history is sent instead when no remembered response matches, e.g. because
+ * compaction rewrote the history; when the matching response is older than the state TTL; and,
+ * as a retry, when the server no longer knows the previous response. Responses, streamed or not,
+ * are translated back to the chat-completions format by {@link ResponsesApiTranslator}.
+ *
+ * <p>A duplicate sent by the {@link HedgingInterceptor} is translated the same way, continuing
+ * the same remembered response, but neither remembers its own response nor forgets an expired
+ * one: only the original request updates the conversation state, so a hedged turn is not stored
+ * twice.
+ */
+@Slf4j
+public class ResponsesApiInterceptor implements Interceptor {
+    public static final Duration DEFAULT_STATE_TTL = Duration.ofHours(1);
+    static final int MAX_CONVERSATIONS = 32;
+
+    private static final String CHAT_COMPLETIONS_PATH = "/chat/completions";
+    private static final String RESPONSES_PATH = "/responses";
+    private static final MediaType JSON = MediaType.get("application/json");
+    private static final MediaType EVENT_STREAM = MediaType.get("text/event-stream");
+
+    /**
+     * A stored response and the input items it accounts for.
+     */
+    private record Conversation(String responseId, List<JsonNode> items, long storedAtMillis) {
+    }
+
+    /**
+     * Translates a streamed Responses body into chat-completion chunks as it is read.
+     */
+    private final class TranslatingSource implements Source {
+        private final BufferedSource upstream;
+        @Nullable
+        private final List<JsonNode> items;
+        private final ResponsesApiTranslator.StreamTranslator translator;
+        private final Buffer pending = new Buffer();
+        private boolean finished;
+
+        private TranslatingSource(BufferedSource upstream, @Nullable List<JsonNode> items) {
+            this.upstream = upstream;
+            this.items = items;
+            this.translator = new ResponsesApiTranslator.StreamTranslator(mapper);
+        }
+
+        @Override
+        public void close() throws IOException {
+            upstream.close();
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            while (pending.size() == 0 && !finished) {
+                final var line = upstream.readUtf8Line();
+                if (line == null) {
+                    finished = true;
+                }
+                else if (line.startsWith("data:")) {
+                    translate(line.substring("data:".length()).trim());
+                }
+            }
+            return pending.size() == 0 ? -1 : pending.read(sink, Math.min(byteCount, pending.size()));
+        }
+
+        @Override
+        public Timeout timeout() {
+            return upstream.timeout();
+        }
+
+        private void translate(String data) throws IOException {
+            if (data.isEmpty() || "[DONE]".equals(data)) {
+                return;
+            }
+            try {
+                for (final var chunk : translator.translate(mapper.readTree(data))) {
+                    pending.writeUtf8("data: ").writeUtf8(mapper.writeValueAsString(chunk)).writeUtf8("\n\n");
+                }
+            }
+            catch (IllegalStateException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            final var completed = translator.completed();
+            if (completed != null) {
+                if (items != null) {
+                    remember(items, completed);
+                }
+                pending.writeUtf8("data: [DONE]\n\n");
+                finished = true;
+            }
+        }
+    }
+
+    private final ObjectMapper mapper;
+    private final long stateTtlMillis;
+    private final LongSupplier clock;
+    private final Deque<Conversation> conversations = new ArrayDeque<>();
+
+    public ResponsesApiInterceptor(ObjectMapper mapper) {
+        this(mapper, DEFAULT_STATE_TTL, System::currentTimeMillis);
+    }
+
+    ResponsesApiInterceptor(ObjectMapper mapper, Duration stateTtl, LongSupplier clock) {
+        this.mapper = mapper;
+        this.stateTtlMillis = stateTtl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * @return whether the server rejected the request because it no longer has the previous
+     *         response
+     */
+    private static boolean stateExpired(Response response) throws IOException {
+        return response.code() == 404
+                || (response.code() == 400 && response.peekBody(64 * 1024).string().contains("previous_response"));
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        final var request = chain.request();
+        final var body = request.body();
+        if (body == null || !request.url().encodedPath().endsWith(CHAT_COMPLETIONS_PATH)) {
+            return chain.proceed(request);
+        }
+        final var buffer = new Buffer();
+        body.writeTo(buffer);
+        final var chat = mapper.readTree(buffer.readUtf8());
+        final var items = ResponsesApiTranslator.inputItems(mapper, chat.path("messages"));
+
+        final var hedgedCopy = HedgingInterceptor.isHedgedCopy(chain.call());
+        final var continued = continuationOf(items);
+        var response = send(chain, request, chat, items, continued);
+        if (continued != null && stateExpired(response)) {
+            log.info("Response {} is no longer stored by the server; resending the full history",
+                     continued.responseId());
+            if (!hedgedCopy) {
+                forget(continued);
+            }
+            response.close();
+            response = send(chain, request, chat, items, null);
+        }
+        return translate(response, hedgedCopy ? null : items);
+    }
+
+    @Nullable
+    private synchronized Conversation continuationOf(List<JsonNode> items) {
+        final var now = clock.getAsLong();
+        conversations.removeIf(conversation -> now - conversation.storedAtMillis() > stateTtlMillis);
+        Conversation best = null;
+        for (final var conversation : conversations) {
+            final var size = conversation.items().size();
+            if (size < items.size()
+                    && (best == null || size > best.items().size())
+                    && items.subList(0, size).equals(conversation.items())) {
+                best = conversation;
+            }
+        }
+        return best;
+    }
+
+    private synchronized void forget(Conversation conversation) {
+        conversations.remove(conversation);
+    }
+
+    private synchronized void remember(List<JsonNode> items, JsonNode response) {
+        final var responseId = response.path("id").asText();
+        if (responseId.isEmpty()) {
+            return;
+        }
+        final var accounted = new ArrayList<>(items);
+        accounted.addAll(ResponsesApiTranslator.outputItems(mapper, response));
+        conversations.addFirst(new Conversation(responseId, List.copyOf(accounted), clock.getAsLong()));
+        while (conversations.size() > MAX_CONVERSATIONS) {
+            conversations.removeLast();
+        }
+    }
+
+    private Response send(Chain chain,
+                          Request request,
+                          JsonNode chat,
+                          List<JsonNode> items,
+                          @Nullable Conversation continued) throws IOException {
+        final var input = continued == null ? items : items.subList(continued.items().size(), items.size());
+        final var previousResponseId = continued == null ? null : continued.responseId();
+        final var payload = mapper.writeValueAsString(ResponsesApiTranslator.request(mapper,
+                                                                                     chat,
+                                                                                     input,
+                                                                                     previousResponseId));
+        log.debug("Sending {} of {} input items ({} bytes) to the Responses API, previous response: {}",
+                  input.size(),
+                  items.size(),
+                  payload.length(),
+                  previousResponseId);
+        final var path = request.url().encodedPath();
+        final var url = request.url()
+                .newBuilder()
+                .encodedPath(path.substring(0, path.length() - CHAT_COMPLETIONS_PATH.length()) + RESPONSES_PATH)
+                .build();
+        return chain.proceed(request.newBuilder()
+                .url(url)
+                .post(RequestBody.create(payload, JSON))
+                .build());
+    }
+
+    /**
+     * @param items input items to remember the response for, {@code null} to leave the
+     *              conversation state alone
+     */
+    private Response translate(Response response, @Nullable List<JsonNode> items) throws IOException {
+        final var body = response.body();
+        if (!response.isSuccessful() || body == null) {
+            return response;
+        }
+        final var contentType = body.contentType();
+        if (contentType != null && "event-stream".equals(contentType.subtype())) {
+            return response.newBuilder()
+                    .body(ResponseBody.create(Okio.buffer(new TranslatingSource(body.source(), items)), EVENT_STREAM, -1))
+                    .build();
+        }
+        final JsonNode result;
+        try (body) {
+            result = mapper.readTree(body.string());
+        }
+        if (items != null) {
+            remember(items, result);
+        }
+        return response.newBuilder()
+                .body(ResponseBody.create(mapper.writeValueAsString(ResponsesApiTranslator.chatCompletion(mapper, result)),
+                                          JSON))
+                .build();
+    }
+}
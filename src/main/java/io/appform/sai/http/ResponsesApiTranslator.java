@@ -0,0 +1,436 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Translates between the chat-completions format {@code SimpleOpenAIModel} speaks and the OpenAI
+ * Responses API.
+ *
+ * <p>Chat messages become Responses input items: system messages are joined into
+ * {@code instructions}, user and assistant text become easy input messages, assistant tool calls
+ * become {@code function_call} items and tool results {@code function_call_output} items. Text
+ * content parts are joined into a single string, so that {@code cache_control} markers or other
+ * part boundaries do not make an otherwise unchanged message look different. Responses, streamed
+ * or not, are translated back into chat completions and chunks.
+ */
+final class ResponsesApiTranslator {
+
+    /**
+     * Translates the events of a streamed response into chat-completion chunks, one event at a
+     * time.
+     */
+    static final class StreamTranslator {
+        private final ObjectMapper mapper;
+        private final Map<Integer, Integer> toolIndexByOutput = new HashMap<>();
+        private String id = "";
+        private String model = "";
+        private long created;
+        private JsonNode completed;
+
+        StreamTranslator(ObjectMapper mapper) {
+            this.mapper = mapper;
+        }
+
+        /**
+         * @return the final response, once a {@code response.completed} or
+         *         {@code response.incomplete} event has been translated
+         */
+        @Nullable
+        JsonNode completed() {
+            return completed;
+        }
+
+        /**
+         * Translates one event.
+         *
+         * @param event the event's JSON data; its {@code type} field names the event
+         * @return the chunks to emit, possibly none
+         * @throws IllegalStateException if the event reports that the response failed
+         */
+        List<ObjectNode> translate(JsonNode event) {
+            final var chunks = new ArrayList<ObjectNode>();
+            switch (event.path("type").asText()) {
+                case "response.created" -> {
+                    final var response = event.path("response");
+                    id = response.path("id").asText();
+                    model = response.path("model").asText();
+                    created = response.path("created_at").asLong();
+                    chunks.add(chunk(delta().put("role", "assistant").put("content", ""), null));
+                }
+                case "response.output_text.delta" -> chunks.add(chunk(delta().put("content", event.path("delta").asText()),
+                                                                      null));
+                case "response.reasoning_summary_text.delta" -> chunks.add(chunk(delta().put("reasoning_content",
+                                                                                             event.path("delta").asText()),
+                                                                                 null));
+                case "response.output_item.added" -> {
+                    final var item = event.path("item");
+                    if ("function_call".equals(item.path("type").asText())) {
+                        final var index = toolIndexByOutput.size();
+                        toolIndexByOutput.put(event.path("output_index").asInt(), index);
+                        final var call = mapper.createObjectNode()
+                                .put("index", index)
+                                .put("id", item.path("call_id").asText())
+                                .put("type", "function");
+                        call.putObject("function")
+                                .put("name", item.path("name").asText())
+                                .put("arguments", "");
+                        final var delta = delta();
+                        delta.putArray("tool_calls").add(call);
+                        chunks.add(chunk(delta, null));
+                    }
+                }
+                case "response.function_call_arguments.delta" -> {
+                    final var index = toolIndexByOutput.get(event.path("output_index").asInt());
+                    if (index != null) {
+                        final var call = mapper.createObjectNode().put("index", index);
+                        call.putObject("function").put("arguments", event.path("delta").asText());
+                        final var delta = delta();
+                        delta.putArray("tool_calls").add(call);
+                        chunks.add(chunk(delta, null));
+                    }
+                }
+                case "response.completed", "response.incomplete" -> {
+                    completed = event.path("response");
+                    chunks.add(chunk(delta(), finishReason(completed)));
+                    final var usage = chunk(null, null);
+                    usage.set("usage", usage(mapper, completed.path("usage")));
+                    chunks.add(usage);
+                }
+                case "response.failed", "error" -> {
+                    final var error = event.has("response") ? event.path("response").path("error") : event;
+                    throw new IllegalStateException("Responses API stream failed: "
+                            + error.path("message").asText(error.toString()));
+                }
+                default -> {
+                    // Lifecycle and annotation events carry nothing the chat format has
+                }
+            }
+            return chunks;
+        }
+
+        private ObjectNode chunk(@Nullable ObjectNode delta, @Nullable String finishReason) {
+            final var chunk = mapper.createObjectNode()
+                    .put("id", id)
+                    .put("object", "chat.completion.chunk")
+                    .put("created", created)
+                    .put("model", model);
+            final var choices = chunk.putArray("choices");
+            if (delta != null) {
+                final var choice = choices.addObject().put("index", 0);
+                choice.set("delta", delta);
+                choice.put("finish_reason", finishReason);
+            }
+            return chunk;
+        }
+
+        private ObjectNode delta() {
+            return mapper.createObjectNode();
+        }
+    }
+
+    private ResponsesApiTranslator() {
+    }
+
+    /**
+     * Translates chat messages into Responses input items; system messages are left out.
+     */
+    static List<JsonNode> inputItems(ObjectMapper mapper, JsonNode messages) {
+        final var items = new ArrayList<JsonNode>();
+        for (final var message : messages) {
+            final var role = message.path("role").asText();
+            switch (role) {
+                case "system", "developer" -> {
+                    // Sent as instructions
+                }
+                case "tool" -> items.add(mapper.createObjectNode()
+                        .put("type", "function_call_output")
+                        .put("call_id", message.path("tool_call_id").asText())
+                        .put("output", text(message.path("content"))));
+                case "assistant" -> {
+                    final var content = text(message.path("content"));
+                    if (!content.isEmpty()) {
+                        items.add(mapper.createObjectNode().put("role", "assistant").put("content", content));
+                    }
+                    for (final var call : message.path("tool_calls")) {
+                        items.add(functionCall(mapper,
+                                               call.path("id").asText(),
+                                               call.path("function").path("name").asText(),
+                                               call.path("function").path("arguments").asText()));
+                    }
+                }
+                default -> items.add(userMessage(mapper, role, message.path("content")));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Joins the text of all system and developer messages.
+     */
+    @Nullable
+    static String instructions(JsonNode messages) {
+        final var instructions = new StringBuilder();
+        for (final var message : messages) {
+            final var role = message.path("role").asText();
+            if ("system".equals(role) || "developer".equals(role)) {
+                if (!instructions.isEmpty()) {
+                    instructions.append("\n\n");
+                }
+                instructions.append(text(message.path("content")));
+            }
+        }
+        return instructions.isEmpty() ? null : instructions.toString();
+    }
+
+    /**
+     * Translates the output of a response into the input items the next request would send for
+     * it, to recognise that request as a continuation.
+     */
+    static List<JsonNode> outputItems(ObjectMapper mapper, JsonNode response) {
+        final var items = new ArrayList<JsonNode>();
+        final var text = outputText(response);
+        if (!text.isEmpty()) {
+            items.add(mapper.createObjectNode().put("role", "assistant").put("content", text));
+        }
+        for (final var item : response.path("output")) {
+            if ("function_call".equals(item.path("type").asText())) {
+                items.add(functionCall(mapper,
+                                       item.path("call_id").asText(),
+                                       item.path("name").asText(),
+                                       item.path("arguments").asText()));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Builds a Responses request from a chat-completions request.
+     *
+     * @param chat               the chat-completions request
+     * @param input              the input items to send
+     * @param previousResponseId the response the input continues, or {@code null} to send it all
+     */
+    static ObjectNode request(ObjectMapper mapper, JsonNode chat, List<JsonNode> input, @Nullable String previousResponseId) {
+        final var request = mapper.createObjectNode();
+        request.set("model", chat.path("model"));
+        request.put("store", true);
+        if (previousResponseId != null) {
+            request.put("previous_response_id", previousResponseId);
+        }
+        final var instructions = instructions(chat.path("messages"));
+        if (instructions != null) {
+            request.put("instructions", instructions);
+        }
+        request.putArray("input").addAll(input);
+        if (chat.path("tools").isArray() && !chat.path("tools").isEmpty()) {
+            final var tools = request.putArray("tools");
+            for (final var tool : chat.path("tools")) {
+                final var function = tool.path("function");
+                final var translated = tools.addObject().put("type", "function");
+                translated.set("name", function.path("name"));
+                copy(function, translated, "description", "description");
+                copy(function, translated, "parameters", "parameters");
+                copy(function, translated, "strict", "strict");
+            }
+        }
+        final var toolChoice = chat.path("tool_choice");
+        if (toolChoice.isObject()) {
+            request.putObject("tool_choice")
+                    .put("type", "function")
+                    .put("name", toolChoice.path("function").path("name").asText());
+        }
+        else {
+            copy(chat, request, "tool_choice", "tool_choice");
+        }
+        copy(chat, request, "max_tokens", "max_output_tokens");
+        copy(chat, request, "max_completion_tokens", "max_output_tokens");
+        copy(chat, request, "temperature", "temperature");
+        copy(chat, request, "top_p", "top_p");
+        copy(chat, request, "parallel_tool_calls", "parallel_tool_calls");
+        copy(chat, request, "user", "user");
+        copy(chat, request, "stream", "stream");
+        if (chat.hasNonNull("reasoning_effort")) {
+            request.putObject("reasoning").set("effort", chat.get("reasoning_effort"));
+        }
+        final var responseFormat = chat.path("response_format");
+        if ("json_schema".equals(responseFormat.path("type").asText())) {
+            final var schema = responseFormat.path("json_schema");
+            final var format = request.putObject("text").putObject("format").put("type", "json_schema");
+            copy(schema, format, "name", "name");
+            copy(schema, format, "schema", "schema");
+            copy(schema, format, "strict", "strict");
+        }
+        else if ("json_object".equals(responseFormat.path("type").asText())) {
+            request.putObject("text").putObject("format").put("type", "json_object");
+        }
+        return request;
+    }
+
+    /**
+     * Translates a complete response into a chat completion.
+     */
+    static ObjectNode chatCompletion(ObjectMapper mapper, JsonNode response) {
+        final var completion = mapper.createObjectNode()
+                .put("id", response.path("id").asText())
+                .put("object", "chat.completion")
+                .put("created", response.path("created_at").asLong())
+                .put("model", response.path("model").asText());
+        final var choice = completion.putArray("choices").addObject().put("index", 0);
+        final var message = choice.putObject("message").put("role", "assistant");
+        final var text = outputText(response);
+        if (text.isEmpty()) {
+            message.putNull("content");
+        }
+        else {
+            message.put("content", text);
+        }
+        final var reasoning = reasoningSummary(response);
+        if (!reasoning.isEmpty()) {
+            message.put("reasoning_content", reasoning);
+        }
+        ArrayNode toolCalls = null;
+        for (final var item : response.path("output")) {
+            if ("function_call".equals(item.path("type").asText())) {
+                if (toolCalls == null) {
+                    toolCalls = message.putArray("tool_calls");
+                }
+                final var call = toolCalls.addObject()
+                        .put("id", item.path("call_id").asText())
+                        .put("type", "function");
+                call.putObject("function")
+                        .put("name", item.path("name").asText())
+                        .put("arguments", item.path("arguments").asText());
+            }
+        }
+        choice.put("finish_reason", finishReason(response));
+        completion.set("usage", usage(mapper, response.path("usage")));
+        return completion;
+    }
+
+    private static void copy(JsonNode from, ObjectNode to, String fromField, String toField) {
+        if (from.hasNonNull(fromField)) {
+            to.set(toField, from.get(fromField));
+        }
+    }
+
+    private static String finishReason(JsonNode response) {
+        for (final var item : response.path("output")) {
+            if ("function_call".equals(item.path("type").asText())) {
+                return "tool_calls";
+            }
+        }
+        return "incomplete".equals(response.path("status").asText())
+                && "max_output_tokens".equals(response.path("incomplete_details").path("reason").asText())
+                        ? "length"
+                        : "stop";
+    }
+
+    private static ObjectNode functionCall(ObjectMapper mapper, String callId, String name, String arguments) {
+        return mapper.createObjectNode()
+                .put("type", "function_call")
+                .put("call_id", callId)
+                .put("name", name)
+                .put("arguments", arguments);
+    }
+
+    private static String outputText(JsonNode response) {
+        final var text = new StringBuilder();
+        for (final var item : response.path("output")) {
+            if ("message".equals(item.path("type").asText())) {
+                for (final var part : item.path("content")) {
+                    if ("output_text".equals(part.path("type").asText())) {
+                        text.append(part.path("text").asText());
+                    }
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    private static String reasoningSummary(JsonNode response) {
+        final var text = new StringBuilder();
+        for (final var item : response.path("output")) {
+            if ("reasoning".equals(item.path("type").asText())) {
+                for (final var part : item.path("summary")) {
+                    text.append(part.path("text").asText());
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Joins the text of string or array content; non-text parts are ignored.
+     */
+    private static String text(JsonNode content) {
+        if (content.isTextual()) {
+            return content.asText();
+        }
+        final var text = new StringBuilder();
+        for (final var part : content) {
+            if (part.has("text")) {
+                text.append(part.path("text").asText());
+            }
+        }
+        return text.toString();
+    }
+
+    private static ObjectNode usage(ObjectMapper mapper, JsonNode usage) {
+        final var translated = mapper.createObjectNode()
+                .put("prompt_tokens", usage.path("input_tokens").asInt())
+                .put("completion_tokens", usage.path("output_tokens").asInt())
+                .put("total_tokens", usage.path("total_tokens").asInt());
+        translated.putObject("prompt_tokens_details")
+                .put("cached_tokens", usage.path("input_tokens_details").path("cached_tokens").asInt());
+        translated.putObject("completion_tokens_details")
+                .put("reasoning_tokens", usage.path("output_tokens_details").path("reasoning_tokens").asInt());
+        return translated;
+    }
+
+    private static ObjectNode userMessage(ObjectMapper mapper, String role, JsonNode content) {
+        final var message = mapper.createObjectNode().put("role", role);
+        final var images = new ArrayList<JsonNode>();
+        content.forEach(part -> {
+            if ("image_url".equals(part.path("type").asText())) {
+                images.add(part);
+            }
+        });
+        if (images.isEmpty()) {
+            return message.put("content", text(content));
+        }
+        final var parts = message.putArray("content");
+        final var text = text(content);
+        if (!text.isEmpty()) {
+            parts.addObject().put("type", "input_text").put("text", text);
+        }
+        images.forEach(image -> parts.addObject()
+                .put("type", "input_image")
+                .put("image_url", image.path("image_url").path("url").asText()));
+        return message;
+    }
+}
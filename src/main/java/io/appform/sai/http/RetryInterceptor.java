@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import io.appform.sai.config.RetryPolicy;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Retries provider calls that fail with a retryable status or a connection error, following a
+ * {@link RetryPolicy}.
+ *
+ * <p>The wait before a retry is taken from the {@code retry-after-ms} or {@code Retry-After}
+ * response header when present (both seconds and HTTP-date forms are understood), otherwise from
+ * the policy's jittered exponential backoff. Calls that were cancelled, requests with one-shot
+ * bodies and hedged duplicates (see {@link HedgingInterceptor}) are never retried.
+ */
+@Slf4j
+public class RetryInterceptor implements Interceptor {
+    private final RetryPolicy policy;
+    private final DoubleSupplier random;
+    private final LongSupplier wallClock;
+
+    /**
+     * @param policy fully populated policy, see {@link RetryPolicy#withDefaults(RetryPolicy)}
+     */
+    public RetryInterceptor(RetryPolicy policy) {
+        this(policy, () -> ThreadLocalRandom.current().nextDouble(), System::currentTimeMillis);
+    }
+
+    RetryInterceptor(RetryPolicy policy, DoubleSupplier random, LongSupplier wallClock) {
+        this.policy = policy;
+        this.random = random;
+        this.wallClock = wallClock;
+    }
+
+    static boolean isOneShot(Request request) {
+        return request.body() != null && (request.body().isOneShot() || request.body().isDuplex());
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        final var request = chain.request();
+        final var maxAttempts = HedgingInterceptor.isHedgedCopy(chain.call()) || isOneShot(request)
+                ? 1
+                : policy.getMaxAttempts();
+        for (int attempt = 1;; attempt++) {
+            final Response response;
+            try {
+                response = chain.proceed(request);
+            }
+            catch (IOException e) {
+                if (attempt >= maxAttempts || chain.call().isCanceled()) {
+                    throw e;
+                }
+                final var delay = backoffMillis(attempt);
+                log.warn("Request to {} failed ({}), retrying in {} ms (attempt {}/{})",
+                         request.url().host(), e.getMessage(), delay, attempt + 1, maxAttempts);
+                sleep(delay);
+                continue;
+            }
+            if (attempt >= maxAttempts || !policy.getRetryOnStatus().contains(response.code())) {
+                return response;
+            }
+            final var retryAfter = retryAfterMillis(response);
+            if (retryAfter > policy.getMaxRetryAfter().toMillis()) {
+                log.warn("{} asked to retry after {} ms, longer than the configured maximum; giving up",
+                         request.url().host(), retryAfter);
+                return response;
+            }
+            final var delay = retryAfter >= 0 ? retryAfter : backoffMillis(attempt);
+            log.warn("Request to {} returned HTTP {}, retrying in {} ms (attempt {}/{})",
+                     request.url().host(), response.code(), delay, attempt + 1, maxAttempts);
+            response.close();
+            sleep(delay);
+        }
+    }
+
+    /**
+     * @return the jittered exponential backoff before retry number {@code attempt}
+     */
+    long backoffMillis(int attempt) {
+        final var ceiling = Math.min(policy.getMaxBackoff().toMillis(),
+                                     policy.getInitialBackoff().toMillis()
+                                             * Math.pow(policy.getMultiplier(), attempt - 1.0));
+        return Math.round(ceiling * (1 - policy.getJitter() * random.getAsDouble()));
+    }
+
+    /**
+     * @return the wait requested by the response headers in milliseconds, or {@code -1} if none
+     *         or unparseable
+     */
+    long retryAfterMillis(Response response) {
+        final var retryAfterMs = response.header("retry-after-ms");
+        if (retryAfterMs != null) {
+            try {
+                return Math.max(0, (long) Double.parseDouble(retryAfterMs.trim()));
+            }
+            catch (NumberFormatException e) {
+                log.debug("Ignoring malformed retry-after-ms header: {}", retryAfterMs);
+            }
+        }
+        final var retryAfter = response.header("Retry-After");
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return -1;
+        }
+        final var value = retryAfter.trim();
+        try {
+            if (value.chars().allMatch(Character::isDigit)) {
+                return Math.multiplyExact(Long.parseLong(value), 1000L);
+            }
+            final var at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, at.toInstant().toEpochMilli() - wallClock.getAsLong());
+        }
+        catch (DateTimeParseException | ArithmeticException | NumberFormatException e) {
+            log.debug("Ignoring malformed Retry-After header: {}", value);
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.AsyncTimeout;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+
+/**
+ * Aborts streamed (server-sent events) responses that stop sending data.
+ *
+ * <p>The client's read timeout is sized for the slowest complete answer, so a provider that stalls
+ * would otherwise hold the turn for minutes. This interceptor waits at most the idle timeout for
+ * the first byte of an {@code text/event-stream} body before handing the response on. If none
+ * arrives the response is dropped and the request proceeds down the chain again, up to
+ * {@link #MAX_REISSUES} times. The wait happens here rather than in the caller's first read, as
+ * interceptors in front of this one, like the reasoning normalisation, may read the whole body
+ * before the caller sees it.
+ *
+ * <p>Every later read of the body gets the same idle timeout; when it passes the call is cancelled
+ * and the read fails with a {@link StalledStreamException}. Part of the answer has been consumed
+ * by then, so it cannot be replaced transparently, and {@link io.appform.sai.CommandProcessor}
+ * fails the turn. The exception carries the {@link Stalls} of that one call, including the
+ * re-issues before it, so they are reported to the turn the call belonged to rather than to
+ * whatever turn happens to be running.
+ */
+@Slf4j
+public class StreamWatchdogInterceptor implements Interceptor {
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofSeconds(60);
+    public static final int MAX_REISSUES = 2;
+
+    /**
+     * Thrown when a streamed body received no data within the idle timeout.
+     */
+    public static class StalledStreamException extends InterruptedIOException {
+        private Stalls stalls;
+
+        public StalledStreamException(long idleMillis, @Nullable IOException cause) {
+            super("Stream stalled: no data received for %d ms".formatted(idleMillis));
+            initCause(cause);
+            this.stalls = new Stalls(1, 0, idleMillis);
+        }
+
+        /**
+         * @return the stalls of the call that failed, including the re-issues before this one
+         */
+        public Stalls stalls() {
+            return stalls;
+        }
+    }
+
+    /**
+     * Stall counters of one call and the requests re-issued for it.
+     *
+     * @param detected      streams aborted by the watchdog
+     * @param reissued      of those, streams that were re-issued here before any data arrived
+     * @param stalledMillis time spent waiting on the stalled streams
+     */
+    public record Stalls(
+            long detected,
+            long reissued,
+            long stalledMillis
+    ) {
+        /**
+         * @param later stalls of a later request of the same call
+         * @return both counted together
+         */
+        public Stalls plus(Stalls later) {
+            return new Stalls(detected + later.detected,
+                              reissued + later.reissued,
+                              stalledMillis + later.stalledMillis);
+        }
+
+        /**
+         * @return stalls that surfaced to the caller as a failure
+         */
+        public long unrecovered() {
+            return detected - reissued;
+        }
+    }
+
+    /**
+     * Body of a streamed response whose reads are bounded by the idle timeout.
+     */
+    private final class WatchedBody extends ResponseBody {
+        @Nullable
+        private final MediaType contentType;
+        private final Response response;
+        private final Source watched;
+        private final Stalls stalls;
+        private BufferedSource source;
+
+        private WatchedBody(Call call, Response response, Stalls stalls) {
+            this.contentType = response.body().contentType();
+            this.response = response;
+            this.watched = watch(call, response.body().source());
+            this.stalls = stalls;
+        }
+
+        @Override
+        public long contentLength() {
+            return -1;
+        }
+
+        @Override
+        @Nullable
+        public MediaType contentType() {
+            return contentType;
+        }
+
+        @Override
+        public synchronized BufferedSource source() {
+            if (source == null) {
+                source = Okio.buffer(new Source() {
+                    @Override
+                    public void close() {
+                        response.close();
+                    }
+
+                    @Override
+                    public long read(Buffer sink, long byteCount) throws IOException {
+                        try {
+                            return watched.read(sink, byteCount);
+                        }
+                        catch (StalledStreamException e) {
+                            e.stalls = stalls.plus(e.stalls);
+                            throw e;
+                        }
+                    }
+
+                    @Override
+                    public Timeout timeout() {
+                        return Timeout.NONE;
+                    }
+                });
+            }
+            return source;
+        }
+    }
+
+    private final long idleMillis;
+
+    /**
+     * @param idleTimeout longest gap between two reads of a streamed body
+     */
+    public StreamWatchdogInterceptor(Duration idleTimeout) {
+        this.idleMillis = idleTimeout.toMillis();
+    }
+
+    private static boolean isEventStream(Response response) {
+        final var contentType = response.body() == null ? null : response.body().contentType();
+        return contentType != null
+                && "text".equals(contentType.type())
+                && "event-stream".equals(contentType.subtype());
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        final var request = chain.request();
+        var stalls = new Stalls(0, 0, 0);
+        while (true) {
+            final var response = chain.proceed(request);
+            if (!response.isSuccessful() || !isEventStream(response)) {
+                return response;
+            }
+            try {
+                awaitFirstByte(response);
+                return response.newBuilder()
+                        .body(new WatchedBody(chain.call(), response, stalls))
+                        .build();
+            }
+            catch (SocketTimeoutException e) {
+                response.close();
+                stalls = stalls.plus(new Stalls(1, 0, idleMillis));
+                if (stalls.detected() > MAX_REISSUES) {
+                    final var stalled = new StalledStreamException(idleMillis, e);
+                    stalled.stalls = stalls;
+                    throw stalled;
+                }
+                stalls = stalls.plus(new Stalls(0, 1, 0));
+                log.warn("Stream from {} stalled before any data was received, re-issuing request ({}/{})",
+                         request.url().host(),
+                         stalls.reissued(),
+                         MAX_REISSUES);
+            }
+            catch (IOException e) {
+                response.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Waits at most the idle timeout for the first byte of the body, which stays buffered in its
+     * source. The timeout of the body's own source is used rather than cancelling the call, so
+     * that the request can proceed again afterwards.
+     */
+    private void awaitFirstByte(Response response) throws IOException {
+        final var source = response.body().source();
+        final var timeout = source.timeout();
+        final var previousNanos = timeout.timeoutNanos();
+        timeout.timeout(idleMillis, TimeUnit.MILLISECONDS);
+        try {
+            source.request(1);
+        }
+        finally {
+            timeout.timeout(previousNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Bounds every read of {@code source} by the idle timeout. When it passes, the call is
+     * cancelled to unblock the read, which then fails with a {@link StalledStreamException}.
+     */
+    private Source watch(Call call, Source source) {
+        final var watchdog = new AsyncTimeout() {
+            @Override
+            protected IOException newTimeoutException(@Nullable IOException cause) {
+                return new StalledStreamException(idleMillis, cause);
+            }
+
+            @Override
+            protected void timedOut() {
+                call.cancel();
+            }
+        };
+        watchdog.timeout(idleMillis, TimeUnit.MILLISECONDS);
+        return watchdog.source(source);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.models;
+
+import javax.annotation.Nullable;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Running totals for one session, kept up to date after every turn so that summaries do not have
+ * to read the whole transcript.
+ *
+ * <p>Message counts and token usage are taken from the stored messages; {@code toolMs} is the sum
+ * of the tool time of every recorded {@link TurnTiming}. {@code lastRunId} is the last turn
+ * included in the totals, so a turn is never counted twice.
+ *
+ * <p>A forked session's totals include the history it was forked with; {@code inherited} holds
+ * that part, so that usage across sessions can leave it out instead of counting it twice.
+ */
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
+public class SessionStats {
+    public static final SessionStats EMPTY = SessionStats.builder().build();
+
+    int turns;
+    long totalMessages;
+    long userPrompts;
+    long systemPrompts;
+    long toolCallRequests;
+    long toolCallResponses;
+    long textResponses;
+    long requestTokens;
+    long responseTokens;
+    long cachedTokens;
+    long toolMs;
+    @Nullable
+    String lastRunId;
+    @Nullable
+    SessionStats inherited;
+
+    /**
+     * @return share of input tokens served from the provider's prompt cache, in percent
+     */
+    public double cacheHitRate() {
+        return requestTokens > 0 ? cachedTokens * 100.0 / requestTokens : 0.0;
+    }
+}
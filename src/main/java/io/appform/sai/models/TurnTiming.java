@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.models;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Where the wall-clock time of one turn went. All durations are in milliseconds.
+ *
+ * <p>{@code queueMs} is the time from the turn starting until the first request was sent to the
+ * model. {@code modelMs} covers every model call from request sent to response received, of which
+ * {@code streamingMs} is the part after the first streamed token. Tool and compaction time are
+ * measured separately; whatever is left of {@code totalMs} is framework overhead.
+ * {@code stallMs} is the part of {@code modelMs} spent waiting on streams that stalled and failed
+ * the turn, including the requests re-issued for them.
+ *
+ * <p>The turn also records the model and persona it ran with and the tokens its model calls used,
+ * so that usage can be grouped turn by turn. Records written before these were kept have no model
+ * or persona and no tokens.
+ */
+@Value
+@Builder
+@Jacksonized
+public class TurnTiming {
+
+    /** Duration of a single tool call made during the turn. */
+    @Value
+    @Builder
+    @Jacksonized
+    public static class ToolTiming {
+        String toolName;
+        long durationMs;
+    }
+
+    String runId;
+    /** Epoch millis at which the turn started. */
+    long startedAt;
+    /** Model pointer, {@code provider/model[/mode]}, the turn ran with. */
+    @Nullable
+    String model;
+    /** Persona file the turn ran with, empty for the default persona. */
+    @Nullable
+    String persona;
+    long totalMs;
+    long queueMs;
+    /** Time from the first request to the first token; {@code null} if no output was received. */
+    @Nullable
+    Long timeToFirstTokenMs;
+    long modelMs;
+    long streamingMs;
+    int modelCalls;
+    long toolMs;
+    @Singular
+    List<ToolTiming> toolCalls;
+    long compactionMs;
+    /** Streams aborted by the stall watchdog. */
+    int stalls;
+    long stallMs;
+    long requestTokens;
+    long responseTokens;
+    long cachedTokens;
+
+    /**
+     * @return time not accounted for by queueing, model calls, tools or compaction
+     */
+    public long overheadMs() {
+        return Math.max(0, totalMs - queueMs - modelMs - toolMs - compactionMs);
+    }
+}
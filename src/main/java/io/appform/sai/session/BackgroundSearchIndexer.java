@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.phonepe.sentinelai.session.SessionStore;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Brings the {@link SessionSearchIndex} up to date in the background.
+ *
+ * <p>Sessions that changed since they were indexed, for example because they were written by an
+ * older {@code sai}, are re-indexed {@link #STARTUP_DELAY} after {@link #start()} on a
+ * low-priority daemon thread, so that the first turn does not wait for it. Nothing is done while
+ * the index has not been built; the first {@code search-sessions} builds it.
+ *
+ * <p>The turns of the running session are added by {@link #recordRun(String, String)} on the same
+ * thread, so that segment merges and re-indexing a session never hold up the prompt, and updates
+ * of the index never overlap.
+ */
+@Slf4j
+public class BackgroundSearchIndexer implements AutoCloseable {
+    public static final Duration STARTUP_DELAY = Duration.ofSeconds(20);
+
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final SessionSearchIndex searchIndex;
+    private final SessionCatalog catalog;
+    private final SessionStore sessionStore;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        final var t = new Thread(r, "session-search-indexer");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+    private ScheduledFuture<?> startup;
+
+    /**
+     * @param searchIndex  the index to update
+     * @param catalog      catalogue of the sessions that should be indexed
+     * @param sessionStore session store holding the transcripts
+     */
+    public BackgroundSearchIndexer(SessionSearchIndex searchIndex, SessionCatalog catalog, SessionStore sessionStore) {
+        this.searchIndex = searchIndex;
+        this.catalog = catalog;
+        this.sessionStore = sessionStore;
+    }
+
+    /**
+     * Drops the start-up update if it has not begun, and waits up to {@link #CLOSE_TIMEOUT} for the
+     * turns already handed to {@link #recordRun(String, String)}. Turns left over are indexed by a
+     * later update, since their session has changed since it was indexed.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (startup != null) {
+                startup.cancel(false);
+            }
+        }
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                scheduler.shutdownNow();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues a finished turn for {@link SessionSearchIndex#recordRun(String, String, SessionStore)}
+     * and returns at once.
+     *
+     * @param sessionId session the turn belongs to
+     * @param runId     run ID of the turn
+     */
+    public void recordRun(String sessionId, String runId) {
+        try {
+            scheduler.execute(() -> {
+                try {
+                    searchIndex.recordRun(sessionId, runId, sessionStore);
+                }
+                catch (Exception e) {
+                    log.warn("Failed to update session search index for {}: {}", sessionId, e.getMessage());
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            log.debug("Search indexer closed, not indexing run {} of session {}", runId, sessionId);
+        }
+    }
+
+    /**
+     * Schedules the background update if the index has been built.
+     */
+    public synchronized void start() {
+        if (!searchIndex.exists()) {
+            return;
+        }
+        startup = scheduler.schedule(this::run, STARTUP_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Re-indexes the sessions that fell behind.
+     *
+     * @return number of sessions re-indexed
+     */
+    @VisibleForTesting
+    int run() {
+        try {
+            return searchIndex.update(sessionStore, catalog.all(sessionStore));
+        }
+        catch (Exception e) {
+            log.warn("Background session search index update failed: {}", e.getMessage(), e);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.phonepe.sentinelai.session.SessionStore;
+
+import io.appform.sai.config.RetentionPolicy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies the configured {@link RetentionPolicy} in the background when {@code autoPrune} is set.
+ *
+ * <p>The prune starts {@link #STARTUP_DELAY} after {@link #start()}, on a single low-priority
+ * daemon thread that measures and deletes one session at a time, so that it does not compete with
+ * the first turn for disk or CPU. It runs at most once per {@code autoPruneInterval} across all
+ * {@code sai} processes, tracked by the modification time of {@value #MARKER_FILE} next to the
+ * sessions directory. The current session is never deleted.
+ */
+@Slf4j
+public class BackgroundSessionPruner implements AutoCloseable {
+    public static final Duration STARTUP_DELAY = Duration.ofSeconds(30);
+
+    static final String MARKER_FILE = "last-prune";
+
+    private final Path sessionsDir;
+    private final SessionCatalog catalog;
+    private final SessionStore sessionStore;
+    private final RetentionPolicy policy;
+    private final String currentSessionId;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        final var t = new Thread(r, "session-auto-prune");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    /**
+     * @param sessionsDir      base directory of the session store
+     * @param catalog          catalogue of the sessions
+     * @param sessionStore     session store, scanned if the catalogue has to be rebuilt
+     * @param policy           retention policy with defaults applied
+     * @param currentSessionId session in use, which is kept
+     */
+    public BackgroundSessionPruner(Path sessionsDir,
+                                   SessionCatalog catalog,
+                                   SessionStore sessionStore,
+                                   RetentionPolicy policy,
+                                   String currentSessionId) {
+        this.sessionsDir = sessionsDir;
+        this.catalog = catalog;
+        this.sessionStore = sessionStore;
+        this.policy = policy;
+        this.currentSessionId = currentSessionId;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Schedules the background prune if the policy enables it and sets at least one limit.
+     */
+    public void start() {
+        if (!Boolean.TRUE.equals(policy.getAutoPrune()) || !policy.hasLimits()) {
+            return;
+        }
+        scheduler.schedule(this::runIfDue, STARTUP_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Prunes sessions unless another prune ran within {@code autoPruneInterval}.
+     *
+     * @return whether a prune ran
+     */
+    @VisibleForTesting
+    boolean runIfDue() {
+        final var marker = sessionsDir.resolveSibling(MARKER_FILE);
+        try {
+            if (Files.exists(marker)
+                    && Files.getLastModifiedTime(marker).toInstant()
+                            .isAfter(Instant.now().minus(policy.getAutoPruneInterval()))) {
+                log.debug("Skipping background session prune, last one ran at {}",
+                          Files.getLastModifiedTime(marker));
+                return false;
+            }
+            Files.createDirectories(marker.getParent());
+            Files.writeString(marker, Instant.now().toString());
+        }
+        catch (IOException e) {
+            log.warn("Skipping background session prune: {}", e.getMessage());
+            return false;
+        }
+        try (var retention = new SessionRetention(sessionsDir, catalog, 1)) {
+            final var plan = retention.plan(catalog.all(sessionStore), policy, Set.of(currentSessionId));
+            if (plan.deletions().isEmpty()) {
+                log.info("Background session prune: nothing to delete among {} sessions", plan.sessions());
+                return true;
+            }
+            final var result = retention.execute(plan);
+            log.info("Background session prune deleted {} of {} sessions, reclaimed {} bytes, {} failed",
+                     result.deleted().size(),
+                     plan.sessions(),
+                     result.reclaimedBytes(),
+                     result.failed().size());
+        }
+        catch (Exception e) {
+            log.warn("Background session prune failed: {}", e.getMessage(), e);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepe.sentinelai.core.agentmessages.AgentMessage;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes each message as one line of compact JSON, in the same form the session store keeps it,
+ * so exports can be loaded line by line by analytics jobs. The session summary is not written;
+ * every message carries its session and run IDs.
+ */
+class JsonlExportWriter implements SessionExportWriter {
+    private final JsonGenerator generator;
+
+    JsonlExportWriter(Writer out, ObjectMapper mapper) throws IOException {
+        this.generator = mapper.createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.close();
+    }
+
+    @Override
+    public void start(SessionSummary summary) {
+        // Lines are self-describing
+    }
+
+    @Override
+    public void write(AgentMessage message) throws IOException {
+        generator.writeObject(message);
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.phonepe.sentinelai.core.agentmessages.AgentMessage;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the session as a Markdown document: the title and summary, then every message with its
+ * type, timestamp and pretty-printed JSON in a fenced code block. The Markdown is written directly
+ * rather than built as a document tree, so memory use does not grow with the session.
+ */
+class MarkdownExportWriter implements SessionExportWriter {
+    private static final DateTimeFormatter UPDATED_AT_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private final Writer out;
+    private final ObjectWriter jsonWriter;
+
+    MarkdownExportWriter(Writer out, ObjectMapper mapper) {
+        this.out = out;
+        // Each message closes its generator, which must leave the file open and unflushed
+        this.jsonWriter = mapper.writerWithDefaultPrettyPrinter()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+    }
+
+    /**
+     * Escapes the characters that would otherwise start inline Markdown markup.
+     */
+    private static String escape(String text) {
+        if (text == null) {
+            return "null";
+        }
+        final var sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            final var c = text.charAt(i);
+            switch (c) {
+                case '\\', '*', '_', '`', '[', ']', '<', '>', '#' -> sb.append('\\').append(c);
+                case '\n' -> sb.append(' ');
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void finish() {
+        // Everything has been written
+    }
+
+    @Override
+    public void start(SessionSummary summary) throws IOException {
+        out.write("# " + escape(summary.getTitle()) + "\n\n");
+        out.write("**Session ID:** " + escape(summary.getSessionId()) + "\n");
+        out.write("**Updated At:** " + UPDATED_AT_FORMAT.format(
+                new Date(TimeUnit.NANOSECONDS.toMillis(summary.getUpdatedAt())).toInstant()) + "\n");
+        out.write("**Summary:** " + escape(summary.getSummary()) + "\n");
+    }
+
+    @Override
+    public void write(AgentMessage message) throws IOException {
+        out.write("\n**Type:** " + message.getMessageType() + "\n");
+        out.write("**Timestamp:** " + TIMESTAMP_FORMAT.format(SessionExporter.timestampOf(message)) + "\n");
+        out.write("```json\n");
+        jsonWriter.writeValue(out, message);
+        out.write("\n```\n");
+    }
+}
@@ -0,0 +1,507 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.fasterxml.jackson.databind.ser.std.StringSerializer;
+import com.google.common.annotations.VisibleForTesting;
+import com.phonepe.sentinelai.core.agentmessages.requests.ToolCallResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Content-addressed store for large tool payloads, kept in {@value #DIR_NAME} next to the sessions
+ * directory.
+ *
+ * <p>Bash output and file contents are embedded in every stored tool call response, and the same
+ * file is often read many times in a session. Applied to the session store's mapper with
+ * {@link #mapper(ObjectMapper)}, responses of at least {@code minBlobChars} characters are written
+ * once, gzip-compressed, to a file named after their SHA-256 hash, and the message only holds a
+ * {@value #REF_PREFIX}{@code <hash>} reference. References are resolved back to the content when
+ * messages are read, so the session store and everything reading through it see the full
+ * payload. Sessions written before the blob store, or with payloads below the threshold, are read
+ * as before.
+ *
+ * <p>Blobs are shared between sessions, and each keeps a count of the sessions referring to it: an
+ * empty marker file per session in {@code <hash>.refs/}, created when the session stores the blob
+ * and listed in the session's {@value #REFS_FILE_NAME}. Deleting a session releases its markers,
+ * and {@link #sweep()} deletes the blobs that have none left without reading any session file.
+ * Markers of sessions that were deleted some other way are dropped by the sweep. Blobs younger
+ * than {@link #SWEEP_GRACE} are kept regardless, as a running session writes a blob just before
+ * the message that refers to it. Blob stores that predate the counts are counted once, by
+ * scanning the session files, on their first sweep.
+ */
+@Slf4j
+public class SessionBlobStore {
+    public static final String DIR_NAME = "session-blobs";
+    public static final String REF_PREFIX = "sai-blob:sha256:";
+    public static final int DEFAULT_MIN_BLOB_CHARS = 16 * 1024;
+    public static final Duration SWEEP_GRACE = Duration.ofHours(1);
+    public static final String REFS_FILE_NAME = "blob-refs.txt";
+
+    private static final Pattern REF_PATTERN = Pattern.compile(Pattern.quote(REF_PREFIX) + "([0-9a-f]{64})");
+    private static final int HASH_CHARS = 64;
+    private static final String REFS_DIR_SUFFIX = ".refs";
+    private static final String COUNTED_FILE_NAME = "refs-counted";
+    private static final String MISSING_BLOB_FORMAT = "[tool output lost: session blob %s is missing]";
+
+    /**
+     * Totals of a sweep.
+     *
+     * @param blobs          blobs found
+     * @param referenced     blobs still referenced by a session
+     * @param deleted        blobs deleted
+     * @param reclaimedBytes size of the deleted blobs
+     */
+    public record SweepResult(int blobs, int referenced, int deleted, long reclaimedBytes) {
+    }
+
+    /**
+     * Writes large tool responses as blob references. Other strings use the default serializer.
+     */
+    private final class BlobSerializer extends StdScalarSerializer<String> implements ContextualSerializer {
+        private final boolean blobbed;
+
+        private BlobSerializer(boolean blobbed) {
+            super(String.class);
+            this.blobbed = blobbed;
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider prov, BeanProperty property) {
+            return isToolResponse(property) ? new BlobSerializer(true) : new StringSerializer();
+        }
+
+        @Override
+        public void serialize(String value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            // The reference is counted for the session of the response being written
+            if (blobbed
+                    && value.length() >= minBlobChars
+                    && gen.currentValue() instanceof ToolCallResponse response
+                    && response.getSessionId() != null) {
+                gen.writeString(put(response.getSessionId(), value));
+            }
+            else {
+                gen.writeString(value);
+            }
+        }
+    }
+
+    /**
+     * Resolves blob references in tool responses back to their content. Other strings use the
+     * default deserializer.
+     */
+    private final class BlobDeserializer extends StdScalarDeserializer<String> implements ContextualDeserializer {
+        private BlobDeserializer() {
+            super(String.class);
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+            return isToolResponse(property) ? this : StringDeserializer.instance;
+        }
+
+        @Override
+        public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return resolve(StringDeserializer.instance.deserialize(p, ctxt));
+        }
+    }
+
+    private final Path sessionsDir;
+    private final Path blobsDir;
+    private final int minBlobChars;
+    private final LongSupplier epochMillis;
+
+    /**
+     * @param sessionsDir base directory of the session store; blobs are kept next to it
+     */
+    public SessionBlobStore(Path sessionsDir) {
+        this(sessionsDir, DEFAULT_MIN_BLOB_CHARS, System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    SessionBlobStore(Path sessionsDir, int minBlobChars, LongSupplier epochMillis) {
+        this.sessionsDir = sessionsDir;
+        this.blobsDir = sessionsDir.resolveSibling(DIR_NAME);
+        this.minBlobChars = minBlobChars;
+        this.epochMillis = epochMillis;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return whether {@code property} is {@link ToolCallResponse#getResponse()}, written through
+     *         the class itself or read through its builder
+     */
+    private static boolean isToolResponse(BeanProperty property) {
+        if (property == null || property.getMember() == null || !"response".equals(property.getName())) {
+            return false;
+        }
+        final var declaringClass = property.getMember().getDeclaringClass();
+        return ToolCallResponse.class.isAssignableFrom(declaringClass)
+                || ToolCallResponse.class.equals(declaringClass.getEnclosingClass());
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        }
+        catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns a copy of {@code base} that moves large tool responses into this store on write and
+     * resolves references on read.
+     *
+     * @param base the session store mapper, usually from {@link SessionCodec#mapper(ObjectMapper)}
+     * @return the mapper to give to the session store
+     */
+    public ObjectMapper mapper(ObjectMapper base) {
+        return base.copy()
+                .registerModule(new SimpleModule("sai-session-blobs")
+                        .addSerializer(String.class, new BlobSerializer(false))
+                        .addDeserializer(String.class, new BlobDeserializer()));
+    }
+
+    /**
+     * Gives a fork a reference to every blob its parent refers to, as the fork's copy of the
+     * history holds the same references.
+     *
+     * @param parentId session that was forked
+     * @param forkId   the new session
+     * @throws IOException if a reference cannot be recorded
+     */
+    public void fork(String parentId, String forkId) throws IOException {
+        for (final var hash : references(parentId)) {
+            retain(forkId, hash);
+        }
+    }
+
+    /**
+     * Stores {@code content} unless a blob with the same hash exists, and counts the reference of
+     * {@code sessionId} to it.
+     *
+     * @param sessionId session the content belongs to
+     * @param content   the payload
+     * @return the reference to keep in its place
+     */
+    public String put(String sessionId, String content) {
+        final var data = content.getBytes(StandardCharsets.UTF_8);
+        final var hash = sha256(data);
+        final var file = blobFile(hash);
+        try {
+            if (Files.exists(file)) {
+                // Keeps the blob out of a concurrent sweep until the message referring to it is saved
+                Files.setLastModifiedTime(file, FileTime.fromMillis(epochMillis.getAsLong()));
+            }
+            else {
+                write(file, hash, data);
+            }
+            retain(sessionId, hash);
+        }
+        catch (IOException e) {
+            log.warn("Failed to store session blob, keeping the payload inline: {}", e.getMessage());
+            return content;
+        }
+        return REF_PREFIX + hash;
+    }
+
+    /**
+     * Lists the blobs a session refers to. Read it before deleting the session and pass it to
+     * {@link #release} afterwards.
+     *
+     * @param sessionId the session
+     * @return hashes of the blobs, empty if the session has none or its list cannot be read
+     */
+    public Set<String> references(String sessionId) {
+        final var file = sessionsDir.resolve(sessionId).resolve(REFS_FILE_NAME);
+        if (!Files.isRegularFile(file)) {
+            return Set.of();
+        }
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.filter(line -> line.length() == HASH_CHARS).collect(Collectors.toSet());
+        }
+        catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to read the blob references of session {}: {}", sessionId, e.getMessage());
+            return Set.of();
+        }
+    }
+
+    /**
+     * Drops the references of a deleted session. Blobs left without references are deleted by the
+     * next {@link #sweep()}.
+     *
+     * @param sessionId  the deleted session
+     * @param references the blobs it referred to, from {@link #references}
+     */
+    public void release(String sessionId, Set<String> references) {
+        for (final var hash : references) {
+            try {
+                Files.deleteIfExists(refsDir(hash).resolve(sessionId));
+            }
+            catch (IOException e) {
+                log.warn("Failed to release session blob {} of session {}: {}", hash, sessionId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the content a reference points to. Strings that are not references are returned as
+     * they are. A reference to a blob that no longer exists is data loss: it is logged, and a note
+     * saying the output is missing takes the content's place.
+     *
+     * @param value a string read from a session file
+     * @return the content
+     * @throws UncheckedIOException if the blob exists but cannot be read
+     */
+    public String resolve(String value) {
+        if (value == null
+                || value.length() != REF_PREFIX.length() + HASH_CHARS
+                || !value.startsWith(REF_PREFIX)) {
+            return value;
+        }
+        final var hash = value.substring(REF_PREFIX.length());
+        final var file = blobFile(hash);
+        try (var in = SessionCodec.decoded(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        catch (NoSuchFileException e) {
+            log.error("Session blob {} is missing, the tool output stored in it is lost", file);
+            return String.format(MISSING_BLOB_FORMAT, hash);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Failed to read session blob " + file, e);
+        }
+    }
+
+    /**
+     * Deletes blobs whose reference count has dropped to zero.
+     *
+     * @return the totals
+     * @throws IOException if the blob or session directories cannot be read
+     */
+    public SweepResult sweep() throws IOException {
+        if (!Files.isDirectory(blobsDir)) {
+            return new SweepResult(0, 0, 0, 0);
+        }
+        final var blobs = blobs();
+        if (blobs.isEmpty()) {
+            return new SweepResult(0, 0, 0, 0);
+        }
+        countExistingReferences();
+        final var cutoff = epochMillis.getAsLong() - SWEEP_GRACE.toMillis();
+        var referenced = 0;
+        var deleted = 0;
+        var reclaimed = 0L;
+        for (final var entry : blobs.entrySet()) {
+            if (referenceCount(entry.getKey()) > 0) {
+                referenced++;
+                continue;
+            }
+            final var file = entry.getValue();
+            try {
+                if (Files.getLastModifiedTime(file).toMillis() > cutoff) {
+                    continue;
+                }
+                final var size = sizeOf(file);
+                if (Files.deleteIfExists(file)) {
+                    deleted++;
+                    reclaimed += size;
+                }
+                Files.deleteIfExists(refsDir(entry.getKey()));
+            }
+            catch (IOException e) {
+                log.warn("Failed to delete session blob {}: {}", file, e.getMessage());
+            }
+        }
+        log.info("Swept session blobs: {} found, {} referenced, {} deleted ({} bytes)",
+                 blobs.size(), referenced, deleted, reclaimed);
+        return new SweepResult(blobs.size(), referenced, deleted, reclaimed);
+    }
+
+    /**
+     * Reference counts of the blobs that have any, by hash.
+     */
+    @VisibleForTesting
+    Map<String, Integer> referenceCounts() throws IOException {
+        final var counts = new HashMap<String, Integer>();
+        for (final var hash : blobs().keySet()) {
+            final var count = referenceCount(hash);
+            if (count > 0) {
+                counts.put(hash, count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Creates the reference markers of blob stores written before references were counted, by
+     * scanning every session file once.
+     */
+    private void countExistingReferences() throws IOException {
+        final var counted = blobsDir.resolve(COUNTED_FILE_NAME);
+        if (Files.exists(counted) || !Files.isDirectory(sessionsDir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(sessionsDir)) {
+            files.filter(file -> file.getNameCount() > sessionsDir.getNameCount() + 1)
+                    .filter(file -> file.getFileName().toString().endsWith(".json"))
+                    .forEach(file -> {
+                        final var sessionId = sessionsDir.relativize(file).getName(0).toString();
+                        try (var in = SessionCodec.decoded(Files.newInputStream(file))) {
+                            final var matcher = REF_PATTERN.matcher(
+                                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                            while (matcher.find()) {
+                                retain(sessionId, matcher.group(1));
+                            }
+                        }
+                        catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.createFile(counted);
+        log.info("Counted the references to existing session blobs");
+    }
+
+    /**
+     * Counts the sessions referring to a blob, dropping the markers of sessions that no longer
+     * exist.
+     */
+    private int referenceCount(String hash) throws IOException {
+        final var dir = refsDir(hash);
+        if (!Files.isDirectory(dir)) {
+            return 0;
+        }
+        final List<Path> markers;
+        try (Stream<Path> files = Files.list(dir)) {
+            markers = files.toList();
+        }
+        var count = 0;
+        for (final var marker : markers) {
+            if (Files.isDirectory(sessionsDir.resolve(marker.getFileName().toString()))) {
+                count++;
+            }
+            else {
+                Files.deleteIfExists(marker);
+            }
+        }
+        return count;
+    }
+
+    private void retain(String sessionId, String hash) throws IOException {
+        final var marker = refsDir(hash).resolve(sessionId);
+        if (Files.exists(marker)) {
+            return;
+        }
+        // The session directory comes first, or a sweep could take the marker for a stale one
+        final var sessionDir = Files.createDirectories(sessionsDir.resolve(sessionId));
+        Files.createDirectories(marker.getParent());
+        try {
+            Files.createFile(marker);
+        }
+        catch (FileAlreadyExistsException e) {
+            return;
+        }
+        Files.writeString(sessionDir.resolve(REFS_FILE_NAME),
+                          hash + "\n",
+                          StandardOpenOption.CREATE,
+                          StandardOpenOption.APPEND);
+    }
+
+    private void write(Path file, String hash, byte[] data) throws IOException {
+        Files.createDirectories(file.getParent());
+        final var temp = Files.createTempFile(file.getParent(), hash, ".tmp");
+        try {
+            try (var out = SessionCodec.GZIP.encoding(Files.newOutputStream(temp))) {
+                out.write(data);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (FileAlreadyExistsException e) {
+            log.debug("Blob {} was written concurrently", hash);
+        }
+        finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Map<String, Path> blobs() throws IOException {
+        try (Stream<Path> files = Files.walk(blobsDir, 2)) {
+            final var blobs = new HashMap<String, Path>();
+            files.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().length() == HASH_CHARS)
+                    .forEach(file -> blobs.put(file.getFileName().toString(), file));
+            return blobs;
+        }
+    }
+
+    private Path blobFile(String hash) {
+        return blobsDir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private Path refsDir(String hash) {
+        return blobsDir.resolve(hash.substring(0, 2)).resolve(hash + REFS_DIR_SUFFIX);
+    }
+}
@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Streams;
+import com.phonepe.sentinelai.session.QueryDirection;
+import com.phonepe.sentinelai.session.SessionStore;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compact catalogue of all sessions, kept in {@value #FILE_NAME} next to the sessions directory,
+ * so that listing and pruning sessions need not open every session directory.
+ *
+ * <p>The file holds one JSON line per session, newest {@code updatedAt} first. Changes are not
+ * written to it directly: {@link #record(SessionSummary)} and {@link #remove(Collection)} append a
+ * line to the change log {@value #LOG_FILE_NAME}, so that the end of a turn costs one small append
+ * however many sessions there are. Readers fold the change log into the file as they stream it and
+ * stop once they have the page they asked for. Once the change log passes
+ * {@value #COMPACT_AFTER_BYTES} bytes, the writer that appended to it rewrites the file with the
+ * changes applied and deletes the log. Writers hold a lock file, and the file is replaced by
+ * renaming a temporary file into place, so concurrent {@code sai} processes never see a partial
+ * catalogue. When the file is missing or unreadable the catalogue is rebuilt by scanning the
+ * session store.
+ */
+@Slf4j
+public class SessionCatalog {
+    public static final String FILE_NAME = "session-catalog.jsonl";
+    public static final String LOG_FILE_NAME = "session-catalog.log.jsonl";
+
+    static final long COMPACT_AFTER_BYTES = 64 * 1024;
+
+    private static final int TITLE_FROM_SUMMARY_LENGTH = 50;
+    private static final Object LOCK = new Object();
+
+    /**
+     * Catalogue line for one session.
+     *
+     * @param sessionId ID of the session
+     * @param title     the session's title, or the start of its summary if it has none
+     * @param updatedAt the session's {@code updatedAt}, as stored by the session store
+     * @param workDir   directory the session was started in, if known
+     * @param model     model pointer the session was last run with, if known
+     * @param persona   persona the session was last run with, empty for the default, if known
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Entry(
+            String sessionId,
+            @Nullable String title,
+            long updatedAt,
+            @Nullable String workDir,
+            @Nullable String model,
+            @Nullable String persona
+    ) {
+        public Entry(String sessionId, @Nullable String title, long updatedAt, @Nullable String workDir) {
+            this(sessionId, title, updatedAt, workDir, null, null);
+        }
+
+        private static String extra(SessionSummary summary, String key) {
+            final var extra = summary.getExtra();
+            final var value = extra == null ? null : extra.get(key);
+            return value == null ? null : value.toString();
+        }
+
+        public static Entry of(SessionSummary summary) {
+            var title = summary.getTitle();
+            if (Strings.isNullOrEmpty(title)) {
+                title = summary.getSummary();
+                if (title != null && title.length() > TITLE_FROM_SUMMARY_LENGTH) {
+                    title = title.substring(0, TITLE_FROM_SUMMARY_LENGTH - 3) + "...";
+                }
+            }
+            return new Entry(summary.getSessionId(),
+                             Strings.emptyToNull(title),
+                             summary.getUpdatedAt(),
+                             extra(summary, "workDir"),
+                             extra(summary, "model"),
+                             extra(summary, "persona"));
+        }
+    }
+
+    /**
+     * Change log line: either the new entry of a session or the ID of a removed one.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Change(@Nullable Entry entry, @Nullable String removed) {
+        String sessionId() {
+            return entry != null ? entry.sessionId() : removed;
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOAction {
+        void run() throws IOException;
+    }
+
+    private final Path sessionsDir;
+    private final Path file;
+    private final Path logFile;
+    private final ObjectMapper mapper;
+
+    /**
+     * @param sessionsDir base directory of the session store; the catalogue lives next to it
+     * @param mapper      mapper for the catalogue lines
+     */
+    public SessionCatalog(Path sessionsDir, ObjectMapper mapper) {
+        this.sessionsDir = sessionsDir;
+        this.file = sessionsDir.resolveSibling(FILE_NAME);
+        this.logFile = sessionsDir.resolveSibling(LOG_FILE_NAME);
+        this.mapper = mapper;
+    }
+
+    private static Comparator<Entry> newestFirst() {
+        return Comparator.comparingLong(Entry::updatedAt).reversed().thenComparing(Entry::sessionId);
+    }
+
+    /**
+     * Returns all sessions, newest first, rebuilding the catalogue from {@code store} if needed.
+     *
+     * @param store session store to scan if the catalogue has to be rebuilt
+     * @return every catalogued session
+     */
+    public List<Entry> all(SessionStore store) {
+        return page(store, null, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Whether the catalogue file exists. Sessions are only listed from a catalogue that exists;
+     * otherwise it is rebuilt first.
+     */
+    public boolean exists() {
+        return Files.isRegularFile(file);
+    }
+
+    /**
+     * Returns a page of sessions, newest first, rebuilding the catalogue from {@code store} if it
+     * is missing or unreadable. Only as much of the catalogue is read as is needed to fill the
+     * page. Sessions whose directory no longer exists are skipped.
+     *
+     * @param store   session store to scan if the catalogue has to be rebuilt
+     * @param workDir only return sessions started in this directory, or {@code null} for all
+     * @param offset  number of matching sessions to skip
+     * @param limit   maximum number of sessions to return
+     * @return the page
+     */
+    public List<Entry> page(SessionStore store, @Nullable String workDir, int offset, int limit) {
+        if (exists()) {
+            try (var entries = stream()) {
+                return entries
+                        .filter(entry -> workDir == null || workDir.equals(entry.workDir()))
+                        .filter(entry -> Files.isDirectory(sessionsDir.resolve(entry.sessionId())))
+                        .skip(offset)
+                        .limit(limit)
+                        .toList();
+            }
+            catch (IOException | UncheckedIOException e) {
+                log.warn("Session catalogue {} is unreadable, rebuilding it: {}", file, e.getMessage());
+            }
+        }
+        return rebuild(store).stream()
+                .filter(entry -> workDir == null || workDir.equals(entry.workDir()))
+                .skip(offset)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Adds or replaces the entry of a session by appending it to the change log. Does nothing
+     * while there is no catalogue: the session is on disk, so the rebuild on the next listing
+     * picks it up.
+     *
+     * @param summary the session's latest summary
+     */
+    public void record(SessionSummary summary) {
+        if (!exists()) {
+            return;
+        }
+        append(List.of(new Change(Entry.of(summary), null)));
+    }
+
+    /**
+     * Rebuilds the catalogue from a scan of every session in the store.
+     *
+     * @param store the session store
+     * @return the rebuilt catalogue, newest first
+     */
+    public List<Entry> rebuild(SessionStore store) {
+        final var entries = store.sessions(Integer.MAX_VALUE, null, QueryDirection.NEWER)
+                .getItems()
+                .stream()
+                .map(Entry::of)
+                .sorted(newestFirst())
+                .toList();
+        replace(entries);
+        log.info("Rebuilt session catalogue {} with {} sessions", file, entries.size());
+        return entries;
+    }
+
+    /**
+     * Removes the entries of the given sessions.
+     *
+     * @param sessionIds IDs of deleted sessions
+     */
+    public void remove(Collection<String> sessionIds) {
+        if (sessionIds.isEmpty() || !exists()) {
+            return;
+        }
+        append(sessionIds.stream().map(sessionId -> new Change(null, sessionId)).toList());
+    }
+
+    private void append(List<Change> changes) {
+        withLock(() -> {
+            final var lines = new ArrayList<String>(changes.size());
+            for (final var change : changes) {
+                lines.add(mapper.writeValueAsString(change));
+            }
+            Files.write(logFile, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (Files.size(logFile) > COMPACT_AFTER_BYTES) {
+                compact();
+            }
+        });
+    }
+
+    /**
+     * Reads the change log, the last change of each session winning. Lines that cannot be parsed,
+     * such as one cut short by a crash, are skipped.
+     */
+    private Map<String, Change> changes() throws IOException {
+        final var changes = new LinkedHashMap<String, Change>();
+        if (!Files.isRegularFile(logFile)) {
+            return changes;
+        }
+        for (final var line : Files.readAllLines(logFile, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                final var change = mapper.readValue(line, Change.class);
+                if (change.sessionId() != null) {
+                    changes.remove(change.sessionId());
+                    changes.put(change.sessionId(), change);
+                }
+            }
+            catch (IOException e) {
+                log.debug("Skipping unreadable line in session catalogue log {}: {}", logFile, e.getMessage());
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Rewrites the catalogue with the change log applied and deletes the log. Called under the
+     * lock. An unreadable catalogue is deleted instead, so that the next listing rebuilds it.
+     */
+    private void compact() throws IOException {
+        final List<Entry> current;
+        try {
+            current = readAll();
+        }
+        catch (UncheckedIOException e) {
+            log.warn("Deleting unreadable session catalogue {}: {}", file, e.getMessage());
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(logFile);
+            return;
+        }
+        write(current);
+        // Readers read the log before the catalogue, so they never miss changes in between
+        Files.deleteIfExists(logFile);
+        log.debug("Compacted session catalogue {} with {} sessions", file, current.size());
+    }
+
+    private Entry parse(String line) {
+        try {
+            return mapper.readValue(line, Entry.class);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Entry> readAll() throws IOException {
+        if (!exists()) {
+            return List.of();
+        }
+        try (var entries = stream()) {
+            return entries.toList();
+        }
+    }
+
+    private void replace(List<Entry> entries) {
+        withLock(() -> {
+            write(entries);
+            Files.deleteIfExists(logFile);
+        });
+    }
+
+    /**
+     * Streams the catalogue with the change log folded in, newest first. The changed entries are
+     * merged into the sorted file as it is read, so a page still reads only the start of it.
+     */
+    private Stream<Entry> stream() throws IOException {
+        final var changes = changes();
+        final var lines = Files.lines(file, StandardCharsets.UTF_8);
+        final var unchanged = lines
+                .filter(line -> !line.isBlank())
+                .map(this::parse)
+                .filter(entry -> !changes.containsKey(entry.sessionId()));
+        if (changes.isEmpty()) {
+            return unchanged;
+        }
+        final var changed = changes.values()
+                .stream()
+                .map(Change::entry)
+                .filter(Objects::nonNull)
+                .sorted(newestFirst())
+                .toList();
+        return Streams.stream(Iterators.mergeSorted(List.of(unchanged.iterator(), changed.iterator()), newestFirst()))
+                .onClose(lines::close);
+    }
+
+    private void withLock(IOAction action) {
+        try {
+            Files.createDirectories(file.getParent());
+            final var lockPath = file.resolveSibling(FILE_NAME + ".lock");
+            synchronized (LOCK) {
+                try (var channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     var ignored = channel.lock()) {
+                    action.run();
+                }
+            }
+        }
+        catch (IOException e) {
+            log.warn("Failed to update session catalogue {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void write(List<Entry> entries) throws IOException {
+        final var tmp = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (final var entry : entries) {
+                    writer.write(mapper.writeValueAsString(entry));
+                    writer.write('\n');
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
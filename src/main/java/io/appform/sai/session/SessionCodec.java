@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.io.InputDecorator;
+import com.fasterxml.jackson.core.io.OutputDecorator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk encoding of the files written by the session store, set with {@code codec} under
+ * {@code sessionStore} in {@code settings.yaml} or with {@code --session-codec}.
+ *
+ * <p>The codec is applied below Jackson, as stream decorators on the session store's mapper, so
+ * the store itself is unchanged. Every codec reads both plain and gzip-compressed files, detected
+ * by the gzip magic bytes, so sessions written with one codec can be resumed, listed and exported
+ * with any other and existing JSON sessions keep working without migration. The codec only
+ * decides how new files are written; {@code sai migrate-sessions} re-encodes existing ones.
+ */
+public enum SessionCodec {
+    /**
+     * Plain JSON, as written by earlier versions.
+     */
+    JSON,
+    /**
+     * JSON compressed with gzip. Tool output and file contents are highly repetitive, so session
+     * files typically shrink by 80–90%.
+     */
+    GZIP;
+
+    private static final int GZIP_MAGIC_FIRST = 0x1f;
+    private static final int GZIP_MAGIC_SECOND = 0x8b;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Decompresses gzip input and passes everything else through.
+     */
+    private static final class SniffingInputDecorator extends InputDecorator {
+        @Override
+        public InputStream decorate(IOContext ctxt, InputStream in) throws IOException {
+            return decoded(in);
+        }
+
+        @Override
+        public InputStream decorate(IOContext ctxt, byte[] src, int offset, int length) throws IOException {
+            return isCompressed(src, offset, length)
+                    ? new GZIPInputStream(new ByteArrayInputStream(src, offset, length), BUFFER_SIZE)
+                    : null;
+        }
+
+        @Override
+        public Reader decorate(IOContext ctxt, Reader r) {
+            return r;
+        }
+    }
+
+    /**
+     * Compresses byte output with gzip. Character output, such as
+     * {@link ObjectMapper#writeValueAsString(Object)}, cannot carry binary data and is left as is.
+     */
+    private static final class GzipOutputDecorator extends OutputDecorator {
+        @Override
+        public OutputStream decorate(IOContext ctxt, OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+
+        @Override
+        public Writer decorate(IOContext ctxt, Writer w) {
+            return w;
+        }
+    }
+
+    /**
+     * Parses a codec name as given on the command line or in {@code settings.yaml}, ignoring case.
+     *
+     * @param name {@code json} or {@code gzip}
+     * @return the codec
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    @JsonCreator
+    public static SessionCodec parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown session codec '" + name + "'. Valid codecs: "
+                    + Arrays.toString(values()).toLowerCase(Locale.ROOT), e);
+        }
+    }
+
+    /**
+     * Returns {@code in}, decompressed if it starts with the gzip magic bytes.
+     *
+     * @param in raw file content
+     * @return the decoded content
+     * @throws IOException if the stream cannot be read
+     */
+    public static InputStream decoded(InputStream in) throws IOException {
+        final var buffered = in.markSupported() ? in : new BufferedInputStream(in, BUFFER_SIZE);
+        buffered.mark(2);
+        final var first = buffered.read();
+        final var second = buffered.read();
+        buffered.reset();
+        return first == GZIP_MAGIC_FIRST && second == GZIP_MAGIC_SECOND
+                ? new GZIPInputStream(buffered, BUFFER_SIZE)
+                : buffered;
+    }
+
+    /**
+     * Whether the bytes start with the gzip magic bytes.
+     */
+    public static boolean isCompressed(byte[] data, int offset, int length) {
+        return length >= 2
+                && (data[offset] & 0xff) == GZIP_MAGIC_FIRST
+                && (data[offset + 1] & 0xff) == GZIP_MAGIC_SECOND;
+    }
+
+    /**
+     * Returns a copy of {@code base} that reads files of every codec and writes this one.
+     *
+     * @param base mapper with the modules and settings the session store needs
+     * @return the mapper to give to the session store
+     */
+    public ObjectMapper mapper(ObjectMapper base) {
+        final var factory = base.getFactory().rebuild().inputDecorator(new SniffingInputDecorator());
+        if (this == GZIP) {
+            factory.outputDecorator(new GzipOutputDecorator());
+        }
+        return base.copyWith(factory.build());
+    }
+
+    /**
+     * Wraps {@code out} so that bytes written to it are encoded with this codec.
+     *
+     * @param out the file stream
+     * @return the encoding stream; closing it finishes the encoding and closes {@code out}
+     * @throws IOException if the stream cannot be written
+     */
+    public OutputStream encoding(OutputStream out) throws IOException {
+        return this == GZIP ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.phonepe.sentinelai.core.agentmessages.AgentMessage;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import java.io.IOException;
+
+/**
+ * Writes one export format as {@link SessionExporter} reads messages page by page. Nothing is held
+ * back between calls except what the underlying writer buffers.
+ */
+interface SessionExportWriter {
+
+    /**
+     * Called once after the last message.
+     */
+    void finish() throws IOException;
+
+    /**
+     * Called once before the first message.
+     */
+    void start(SessionSummary summary) throws IOException;
+
+    /**
+     * Called for every message that passes the export filter, oldest first.
+     */
+    void write(AgentMessage message) throws IOException;
+}
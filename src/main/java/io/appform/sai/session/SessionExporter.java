@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepe.sentinelai.core.agentmessages.AgentMessage;
+import com.phonepe.sentinelai.core.agentmessages.AgentMessageType;
+import com.phonepe.sentinelai.session.BiScrollable;
+import com.phonepe.sentinelai.session.QueryDirection;
+import com.phonepe.sentinelai.session.SessionStore;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+/**
+ * Streams a session's messages, oldest first, into an export {@link Format}.
+ *
+ * <p>Messages are read from the {@link SessionStore} in pages of {@code pageSize} and written to
+ * the given {@link Writer} as they arrive, so memory use is bounded by one page and the first
+ * bytes are written before the rest of the transcript has been read. Messages can be restricted
+ * to some types and to a time range; reading stops at the first message after the end of the
+ * range.
+ */
+public class SessionExporter {
+    public static final int DEFAULT_PAGE_SIZE = 256;
+
+    /**
+     * Export formats.
+     */
+    public enum Format {
+        /**
+         * A readable document with every message pretty-printed in a code block.
+         */
+        MARKDOWN,
+        /**
+         * One compact JSON message per line.
+         */
+        JSONL;
+
+        /**
+         * Parses a format name as given on the command line, ignoring case.
+         *
+         * @param name {@code markdown} or {@code jsonl}
+         * @return the format
+         * @throws IllegalArgumentException if the name is unknown
+         */
+        public static Format parse(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            }
+            catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown export format '" + name + "'. Valid formats: "
+                        + Arrays.toString(values()).toLowerCase(Locale.ROOT), e);
+            }
+        }
+    }
+
+    /**
+     * Messages to export.
+     *
+     * @param types message types to keep; empty keeps all
+     * @param since keep messages at or after this instant, if set
+     * @param until keep messages at or before this instant, if set
+     */
+    public record Filter(Set<AgentMessageType> types, @Nullable Instant since, @Nullable Instant until) {
+        public static final Filter ALL = new Filter(Set.of(), null, null);
+
+        boolean isAfterRange(Instant timestamp) {
+            return until != null && timestamp.isAfter(until);
+        }
+
+        boolean matches(AgentMessage message, Instant timestamp) {
+            return (types.isEmpty() || types.contains(message.getMessageType()))
+                    && (since == null || !timestamp.isBefore(since))
+                    && !isAfterRange(timestamp);
+        }
+    }
+
+    /**
+     * Totals of an export.
+     *
+     * @param read    messages read from the store
+     * @param written messages that passed the filter and were written
+     */
+    public record Result(long read, long written) {
+    }
+
+    private final SessionStore sessionStore;
+    private final ObjectMapper mapper;
+    private final int pageSize;
+
+    /**
+     * @param sessionStore store to read the messages from
+     * @param mapper       mapper used to write messages as JSON
+     */
+    public SessionExporter(SessionStore sessionStore, ObjectMapper mapper) {
+        this(sessionStore, mapper, DEFAULT_PAGE_SIZE);
+    }
+
+    public SessionExporter(SessionStore sessionStore, ObjectMapper mapper, int pageSize) {
+        this.sessionStore = sessionStore;
+        this.mapper = mapper;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @return when the message was created; stored timestamps are epoch nanoseconds
+     */
+    static Instant timestampOf(AgentMessage message) {
+        return Instant.ofEpochMilli(TimeUnit.NANOSECONDS.toMillis(message.getTimestamp()));
+    }
+
+    /**
+     * Writes the session's messages that pass {@code filter} to {@code out}. {@code out} is not
+     * flushed or closed.
+     *
+     * @param summary the session to export
+     * @param format  export format
+     * @param filter  messages to export
+     * @param out     destination
+     * @return the totals
+     * @throws IOException if {@code out} cannot be written
+     */
+    public Result export(SessionSummary summary, Format format, Filter filter, Writer out) throws IOException {
+        final SessionExportWriter writer = switch (format) {
+            case MARKDOWN -> new MarkdownExportWriter(out, mapper);
+            case JSONL -> new JsonlExportWriter(out, mapper);
+        };
+        writer.start(summary);
+        var read = 0L;
+        var written = 0L;
+        BiScrollable.DataPointer pointer = null;
+        var done = false;
+        while (!done) {
+            final var page = sessionStore.readMessages(summary.getSessionId(),
+                                                       pageSize,
+                                                       false,
+                                                       pointer,
+                                                       QueryDirection.NEWER);
+            final var items = page.getItems();
+            if (items == null || items.isEmpty()) {
+                break;
+            }
+            for (final var message : items) {
+                read++;
+                final var timestamp = timestampOf(message);
+                if (filter.isAfterRange(timestamp)) {
+                    done = true;
+                    break;
+                }
+                if (filter.matches(message, timestamp)) {
+                    writer.write(message);
+                    written++;
+                }
+            }
+            pointer = page.getPointer();
+            done |= pointer == null;
+        }
+        writer.finish();
+        return new Result(read, written);
+    }
+}
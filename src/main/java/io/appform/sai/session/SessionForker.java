@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Strings;
+import com.phonepe.sentinelai.session.SessionStore;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates a new session that starts with the history of an existing one.
+ *
+ * <p>The fork gets its own summary, saved through the session store, with the parent's extra data
+ * so that resuming it restores the same model, mode and persona. Every other file of the parent's
+ * directory is copied into the fork's directory; large tool outputs are shared through the
+ * {@link SessionBlobStore} in any case. The copied messages keep the parent's {@code sessionId},
+ * since they are copied as they are; they are told apart from the fork's own messages by it.
+ *
+ * <p>On request the files are hard-linked instead, which takes no time and almost no disk space
+ * whatever the size of the session. That relies on the session store never rewriting a file in
+ * place, which holds for its message files but is not guaranteed by it; a store that rewrites a
+ * shared file, such as an index, changes both sessions. Where hard links are not supported, for
+ * example across file systems, the files are copied.
+ *
+ * <p>The per-session records kept by SAI itself ({@link SessionStatsStore#FILE_NAME},
+ * {@link TurnTimingStore#FILE_NAME} and {@link SessionSearchIndex#PASSAGES_FILE}) are updated in
+ * place and therefore never shared. The fork's stats start from the parent's, marked as inherited
+ * so that {@link SessionUsageReport} does not count them twice; its timings start empty, and its
+ * search text is rebuilt from the transcript after its first turn. The fork also gets its own
+ * {@link SessionBlobStore#REFS_FILE_NAME}, counting it as a user of every blob the parent uses.
+ */
+@Slf4j
+public class SessionForker {
+
+    /**
+     * Outcome of a fork.
+     *
+     * @param sessionId   ID of the new session
+     * @param linked      files shared with the parent through hard links
+     * @param copied      files copied from the parent
+     * @param copiedBytes size of the copied files
+     */
+    public record Result(String sessionId, int linked, int copied, long copiedBytes) {
+    }
+
+    private static final Set<String> UNSHARED_FILES = Set.of(SessionStatsStore.FILE_NAME,
+                                                             TurnTimingStore.FILE_NAME,
+                                                             SessionSearchIndex.PASSAGES_FILE,
+                                                             SessionBlobStore.REFS_FILE_NAME);
+
+    private final Path sessionsDir;
+    private final ObjectMapper mapper;
+
+    /**
+     * @param sessionsDir base directory of the session store
+     * @param mapper      mapper used to copy the session summary
+     */
+    public SessionForker(Path sessionsDir, ObjectMapper mapper) {
+        this.sessionsDir = sessionsDir;
+        this.mapper = mapper;
+    }
+
+    private static boolean isShared(Path file) {
+        final var name = file.getFileName().toString();
+        return !UNSHARED_FILES.contains(name) && !name.endsWith(".tmp") && !name.endsWith(".lock");
+    }
+
+    private static boolean link(Path target, Path source) {
+        try {
+            Files.createLink(target, source);
+            return true;
+        }
+        catch (UnsupportedOperationException | IOException e) {
+            log.debug("Cannot hard-link {}, copying it: {}", source, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Forks a session.
+     *
+     * @param store      session store holding the parent
+     * @param parentId   ID of the session to fork
+     * @param forkId     ID of the new session; must not exist yet
+     * @param title      title of the new session, or {@code null} to derive it from the parent's
+     * @param extra      extra data replacing the parent's values in the new session, such as the
+     *                   current {@code model}
+     * @param link       hard-link the files instead of copying them, see the class comment
+     * @return what was shared and copied
+     * @throws IOException if the parent's files cannot be read or the fork's written
+     */
+    public Result fork(SessionStore store,
+                       String parentId,
+                       String forkId,
+                       @Nullable String title,
+                       Map<String, String> extra,
+                       boolean link) throws IOException {
+        final var parent = store.session(parentId)
+                .orElseThrow(() -> new IllegalArgumentException("Session not found: " + parentId));
+        final var parentDir = sessionsDir.resolve(parentId);
+        final var forkDir = sessionsDir.resolve(forkId);
+        if (Files.exists(forkDir)) {
+            throw new IllegalArgumentException("Session already exists: " + forkId);
+        }
+        try {
+            final var summary = forkSummary(parent, forkId, title, extra);
+            store.saveSession(summary);
+            var linked = 0;
+            var copied = 0;
+            var copiedBytes = 0L;
+            final List<Path> files;
+            try (Stream<Path> paths = Files.walk(parentDir)) {
+                files = paths.filter(Files::isRegularFile).filter(SessionForker::isShared).toList();
+            }
+            for (final var file : files) {
+                final var target = forkDir.resolve(parentDir.relativize(file).toString());
+                // Files the store wrote for the fork's own summary are not taken from the parent
+                if (Files.exists(target)) {
+                    continue;
+                }
+                Files.createDirectories(target.getParent());
+                if (link && link(target, file)) {
+                    linked++;
+                }
+                else {
+                    Files.copy(file, target, StandardCopyOption.COPY_ATTRIBUTES);
+                    copied++;
+                    copiedBytes += Files.size(target);
+                }
+            }
+            new SessionBlobStore(sessionsDir).fork(parentId, forkId);
+            new SessionStatsStore(sessionsDir, mapper).fork(parentId, forkId, store);
+            new SessionCatalog(sessionsDir, mapper).record(store.session(forkId).orElse(summary));
+            log.info("Forked session {} into {}: {} files linked, {} copied", parentId, forkId, linked, copied);
+            return new Result(forkId, linked, copied, copiedBytes);
+        }
+        catch (IOException | RuntimeException e) {
+            FileUtils.deleteQuietly(forkDir.toFile());
+            throw e;
+        }
+    }
+
+    private SessionSummary forkSummary(SessionSummary parent,
+                                       String forkId,
+                                       @Nullable String title,
+                                       Map<String, String> extra) throws IOException {
+        final ObjectNode node = mapper.valueToTree(parent);
+        node.put("sessionId", forkId);
+        if (!Strings.isNullOrEmpty(title)) {
+            node.put("title", title);
+        }
+        else {
+            node.put("title", Strings.isNullOrEmpty(parent.getTitle())
+                    ? "Fork of " + parent.getSessionId()
+                    : parent.getTitle() + " (fork)");
+        }
+        if (!extra.isEmpty()) {
+            final var extraNode = node.path("extra").isObject()
+                    ? (ObjectNode) node.get("extra")
+                    : node.putObject("extra");
+            extra.forEach(extraNode::put);
+        }
+        return mapper.treeToValue(node, SessionSummary.class);
+    }
+}
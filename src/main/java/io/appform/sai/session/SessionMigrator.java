@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Re-encodes the JSON files of stored sessions with a {@link SessionCodec}.
+ *
+ * <p>Only files ending in {@code .json} inside session directories are touched; line-oriented
+ * files such as {@link TurnTimingStore#FILE_NAME} stay plain text. Each file is decoded, whatever
+ * its current encoding, and written to a temporary file that is renamed into place, so an
+ * interrupted migration leaves every file readable. Files already in the target encoding are
+ * skipped.
+ */
+@Slf4j
+public class SessionMigrator {
+
+    /**
+     * Totals of a migration.
+     *
+     * @param files       JSON files found
+     * @param converted   files re-encoded, or that would be in a dry run
+     * @param bytesBefore size of all files before
+     * @param bytesAfter  size of all files after
+     */
+    public record Result(int files, int converted, long bytesBefore, long bytesAfter) {
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    private final Path sessionsDir;
+    private final SessionCodec target;
+
+    /**
+     * @param sessionsDir base directory of the session store
+     * @param target      codec to encode the files with
+     */
+    public SessionMigrator(Path sessionsDir, SessionCodec target) {
+        this.sessionsDir = sessionsDir;
+        this.target = target;
+    }
+
+    private static boolean isCompressed(Path file) throws IOException {
+        try (var in = Files.newInputStream(file)) {
+            final var header = in.readNBytes(2);
+            return SessionCodec.isCompressed(header, 0, header.length);
+        }
+    }
+
+    /**
+     * Re-encodes the files of one session, or of every session if {@code sessionId} is
+     * {@code null}.
+     *
+     * @param sessionId session to migrate, or {@code null} for all
+     * @param dryRun    only measure what would change
+     * @return the totals
+     * @throws IOException if the session directories cannot be read
+     */
+    public Result migrate(String sessionId, boolean dryRun) throws IOException {
+        final var root = sessionId == null ? sessionsDir : sessionsDir.resolve(sessionId);
+        if (!Files.isDirectory(root)) {
+            return new Result(0, 0, 0, 0);
+        }
+        final List<Path> files;
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().endsWith(".json"))
+                    .toList();
+        }
+        var converted = 0;
+        var bytesBefore = 0L;
+        var bytesAfter = 0L;
+        for (final var file : files) {
+            final var size = Files.size(file);
+            bytesBefore += size;
+            if (isCompressed(file) == (target == SessionCodec.GZIP)) {
+                bytesAfter += size;
+                continue;
+            }
+            bytesAfter += dryRun ? encodedSize(file) : reencode(file);
+            converted++;
+        }
+        return new Result(files.size(), converted, bytesBefore, bytesAfter);
+    }
+
+    private long encodedSize(Path file) throws IOException {
+        final var counter = new CountingOutputStream();
+        try (var in = SessionCodec.decoded(Files.newInputStream(file));
+             var out = target.encoding(counter)) {
+            in.transferTo(out);
+        }
+        return counter.count;
+    }
+
+    private long reencode(Path file) throws IOException {
+        final var tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (var in = SessionCodec.decoded(Files.newInputStream(file));
+                 var out = target.encoding(Files.newOutputStream(tmp))) {
+                in.transferTo(out);
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("Re-encoded {} as {}", file, target);
+            return Files.size(file);
+        }
+        finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import io.appform.sai.config.RetentionPolicy;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decides which sessions a {@link RetentionPolicy} removes and deletes them.
+ *
+ * <p>{@link #plan} walks the {@link SessionCatalog} from the newest session to the oldest and
+ * marks every session that is too old, beyond the per-directory count, or beyond the total size
+ * budget. Session sizes are measured, and sessions deleted, on a pool of
+ * {@link RetentionPolicy#getParallelism()} threads. A plan can be printed without executing it to
+ * see how much space would be reclaimed.
+ *
+ * <p>Forks can share their history with the parent through hard links, so files are told apart by
+ * their {@link BasicFileAttributes#fileKey()} and each is counted once: towards the newest session
+ * that is kept, or else the newest deleted one.
+ */
+@Slf4j
+public class SessionRetention implements AutoCloseable {
+
+    /**
+     * Why a session is deleted.
+     */
+    public enum Reason {
+        AGE("older than max age"),
+        COUNT("beyond per-directory count"),
+        SIZE("beyond total size");
+
+        private final String description;
+
+        Reason(String description) {
+            this.description = description;
+        }
+
+        public String description() {
+            return description;
+        }
+    }
+
+    /**
+     * A session to be deleted.
+     *
+     * @param session the session's catalogue entry
+     * @param bytes   space freed by deleting the session, leaving out files it shares with a kept
+     *                session or with a deletion listed before it
+     * @param reason  the first limit the session breaks
+     */
+    public record Deletion(SessionCatalog.Entry session, long bytes, Reason reason) {
+    }
+
+    /**
+     * Outcome of {@link #plan}.
+     *
+     * @param deletions  sessions to delete, newest first
+     * @param sessions   number of sessions considered
+     * @param totalBytes size of the sessions considered, counting shared files once, or {@code -1}
+     *                   if not measured
+     */
+    public record Plan(List<Deletion> deletions, int sessions, long totalBytes) {
+        public long reclaimableBytes() {
+            return deletions.stream().mapToLong(Deletion::bytes).sum();
+        }
+    }
+
+    /**
+     * Outcome of {@link #execute}.
+     *
+     * @param deleted        IDs of the deleted sessions
+     * @param failed         error message per session that could not be deleted
+     * @param reclaimedBytes size of the deleted sessions and of the blobs only they referred to
+     */
+    public record Result(List<String> deleted, Map<String, String> failed, long reclaimedBytes) {
+    }
+
+    private final Path sessionsDir;
+    private final SessionCatalog catalog;
+    private final SessionBlobStore blobStore;
+    private final LongSupplier epochMillis;
+    private final ExecutorService pool;
+
+    /**
+     * @param sessionsDir base directory of the session store
+     * @param catalog     catalogue of the sessions, updated after deletions
+     * @param parallelism number of threads used to measure and delete sessions
+     */
+    public SessionRetention(Path sessionsDir, SessionCatalog catalog, int parallelism) {
+        this(sessionsDir, catalog, parallelism, System::currentTimeMillis);
+    }
+
+    SessionRetention(Path sessionsDir, SessionCatalog catalog, int parallelism, LongSupplier epochMillis) {
+        this.sessionsDir = sessionsDir;
+        this.catalog = catalog;
+        this.blobStore = new SessionBlobStore(sessionsDir);
+        this.epochMillis = epochMillis;
+        final var threadCount = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            final var t = new Thread(r, "session-prune-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Nullable
+    private static Reason reason(SessionCatalog.Entry session,
+                                 RetentionPolicy policy,
+                                 long cutoffMicros,
+                                 Map<String, Integer> perWorkDir,
+                                 long maxBytes,
+                                 long bytesIfKept) {
+        if (session.updatedAt() < cutoffMicros) {
+            return Reason.AGE;
+        }
+        if (policy.getMaxSessionsPerWorkDir() != null) {
+            final var rank = perWorkDir.merge(workDir(session), 1, Integer::sum);
+            if (rank > policy.getMaxSessionsPerWorkDir()) {
+                return Reason.COUNT;
+            }
+        }
+        if (maxBytes >= 0 && bytesIfKept > maxBytes) {
+            return Reason.SIZE;
+        }
+        return null;
+    }
+
+    private static String workDir(SessionCatalog.Entry session) {
+        return session.workDir() == null ? "" : session.workDir();
+    }
+
+    /**
+     * @return size of every regular file under {@code dir}, by file key where the file system has
+     *         one, otherwise by path
+     */
+    private static Map<Object, Long> filesOf(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return Map.of();
+        }
+        final var sizes = new HashMap<Object, Long>();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.forEach(file -> {
+                try {
+                    final var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    if (attributes.isRegularFile()) {
+                        sizes.put(Objects.requireNonNullElse(attributes.fileKey(), file), attributes.size());
+                    }
+                }
+                catch (IOException e) {
+                    log.debug("Failed to measure {}: {}", file, e.getMessage());
+                }
+            });
+        }
+        catch (IOException | UncheckedIOException e) {
+            log.debug("Failed to measure {}: {}", dir, e.getMessage());
+        }
+        return sizes;
+    }
+
+    private static long unseenBytes(Map<Object, Long> files, Set<Object> seen) {
+        return files.entrySet()
+                .stream()
+                .filter(file -> !seen.contains(file.getKey()))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while pruning sessions", e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+        try {
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Deletes the sessions of a plan in parallel and removes them from the catalogue.
+     *
+     * @param plan the plan to execute
+     * @return the sessions deleted and those that failed
+     */
+    public Result execute(Plan plan) {
+        final var futures = new LinkedHashMap<Deletion, Future<?>>();
+        for (final var deletion : plan.deletions()) {
+            futures.put(deletion, pool.submit(() -> {
+                final var sessionId = deletion.session().sessionId();
+                final var blobs = blobStore.references(sessionId);
+                FileUtils.deleteDirectory(sessionsDir.resolve(sessionId).toFile());
+                blobStore.release(sessionId, blobs);
+                return null;
+            }));
+        }
+        final var deleted = new ArrayList<String>();
+        final var failed = new LinkedHashMap<String, String>();
+        var reclaimed = 0L;
+        for (final var entry : futures.entrySet()) {
+            final var sessionId = entry.getKey().session().sessionId();
+            try {
+                await(entry.getValue());
+                deleted.add(sessionId);
+                reclaimed += entry.getKey().bytes();
+            }
+            catch (IllegalStateException e) {
+                failed.put(sessionId, e.getCause() == null ? e.getMessage() : e.getCause().getMessage());
+            }
+        }
+        catalog.remove(deleted);
+        if (!deleted.isEmpty()) {
+            reclaimed += sweepBlobs();
+        }
+        return new Result(deleted, failed, reclaimed);
+    }
+
+    /**
+     * Works out which sessions {@code policy} deletes.
+     *
+     * @param sessions     all sessions, newest first, as listed by the catalogue
+     * @param policy       the retention policy, with defaults applied
+     * @param protectedIds sessions that are never deleted, such as the one in use; they still count
+     *                     towards the per-directory limit
+     * @return the sessions to delete
+     */
+    public Plan plan(List<SessionCatalog.Entry> sessions, RetentionPolicy policy, Set<String> protectedIds) {
+        final var cutoffMicros = policy.getMaxAge() == null
+                ? Long.MIN_VALUE
+                : (epochMillis.getAsLong() - policy.getMaxAge().toMillis()) * 1000L;
+        final var maxBytes = policy.getMaxTotalMb() == null ? -1L : policy.getMaxTotalMb() * 1024L * 1024L;
+        // Sizes are needed for every session under a size budget, otherwise only for deletions
+        final var files = maxBytes >= 0 ? measure(sessions) : null;
+
+        final var perWorkDir = new HashMap<String, Integer>();
+        final var deletions = new ArrayList<SessionCatalog.Entry>();
+        final var reasons = new HashMap<String, Reason>();
+        final var keptFiles = new HashSet<Object>();
+        final var seenFiles = new HashSet<Object>();
+        var keptBytes = 0L;
+        var totalBytes = 0L;
+        for (final var session : sessions) {
+            final var sessionFiles = files == null ? Map.<Object, Long>of() : files.get(session.sessionId());
+            totalBytes += unseenBytes(sessionFiles, seenFiles);
+            seenFiles.addAll(sessionFiles.keySet());
+            final var bytes = unseenBytes(sessionFiles, keptFiles);
+            if (protectedIds.contains(session.sessionId())) {
+                keptBytes += bytes;
+                keptFiles.addAll(sessionFiles.keySet());
+                // A protected session still takes up one of its directory's places
+                perWorkDir.merge(workDir(session), 1, Integer::sum);
+                continue;
+            }
+            final var reason = reason(session, policy, cutoffMicros, perWorkDir, maxBytes, keptBytes + bytes);
+            if (reason == null) {
+                keptBytes += bytes;
+                keptFiles.addAll(sessionFiles.keySet());
+            }
+            else {
+                deletions.add(session);
+                reasons.put(session.sessionId(), reason);
+            }
+        }
+        final var deletionFiles = files != null ? files : measure(deletions);
+        final var counted = new HashSet<Object>(keptFiles);
+        final var planned = new ArrayList<Deletion>();
+        for (final var session : deletions) {
+            final var sessionFiles = deletionFiles.get(session.sessionId());
+            planned.add(new Deletion(session, unseenBytes(sessionFiles, counted), reasons.get(session.sessionId())));
+            counted.addAll(sessionFiles.keySet());
+        }
+        return new Plan(planned, sessions.size(), files == null ? -1 : totalBytes);
+    }
+
+    private Map<String, Map<Object, Long>> measure(List<SessionCatalog.Entry> sessions) {
+        final var futures = new LinkedHashMap<String, Future<Map<Object, Long>>>();
+        for (final var session : sessions) {
+            final Callable<Map<Object, Long>> files = () -> filesOf(sessionsDir.resolve(session.sessionId()));
+            futures.put(session.sessionId(), pool.submit(files));
+        }
+        final var files = new HashMap<String, Map<Object, Long>>();
+        futures.forEach((sessionId, future) -> files.put(sessionId, await(future)));
+        return files;
+    }
+
+    private long sweepBlobs() {
+        try {
+            return blobStore.sweep().reclaimedBytes();
+        }
+        catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to sweep session blobs: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
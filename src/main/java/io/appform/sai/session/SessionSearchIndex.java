@@ -0,0 +1,721 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import com.phonepe.sentinelai.core.agentmessages.AgentMessage;
+import com.phonepe.sentinelai.core.agentmessages.requests.UserPrompt;
+import com.phonepe.sentinelai.core.agentmessages.responses.Text;
+import com.phonepe.sentinelai.core.agentmessages.responses.ToolCall;
+import com.phonepe.sentinelai.session.BiScrollable;
+import com.phonepe.sentinelai.session.QueryDirection;
+import com.phonepe.sentinelai.session.SessionStore;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nullable;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Inverted index over the text of all sessions, kept in {@value #DIR_NAME} next to the sessions
+ * directory, for {@code search-sessions}.
+ *
+ * <p>User prompts, assistant text and tool calls (the tool name and the string values of its
+ * arguments) are split into lower-case terms. The index maps every term to the sessions that
+ * contain it and how often; searches rank sessions by how many of the query terms they contain,
+ * then by BM25. The text itself is kept per session in {@value #PASSAGES_FILE}, which is only read
+ * to cut snippets for the sessions that are shown.
+ *
+ * <p>The index is a compacted segment plus a log of later changes. Every finished turn appends
+ * its terms to the log through {@link #recordRun}; once the log outgrows {@link #MAX_DELTA_BYTES}
+ * it is merged into a new segment. Sessions written elsewhere, such as by an older {@code sai},
+ * fall behind the catalogue; {@link #update} re-indexes just those. Writers hold a lock file, and
+ * new segments are renamed into place, so concurrent {@code sai} processes never see a partial
+ * index.
+ */
+@Slf4j
+public class SessionSearchIndex {
+    public static final String DIR_NAME = "session-search";
+    public static final String PASSAGES_FILE = "search-text.jsonl";
+
+    static final String SEGMENT_FILE = "segment.json";
+    static final String DELTA_FILE = "delta.jsonl";
+    static final long MAX_DELTA_BYTES = 1L << 20;
+
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final int MAX_PASSAGE_CHARS = 4096;
+    private static final int SNIPPET_CHARS = 160;
+    private static final int PAGE_SIZE = 256;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Object LOCK = new Object();
+
+    /**
+     * A session that matches a query.
+     *
+     * @param sessionId    ID of the session
+     * @param matchedTerms number of distinct query terms the session contains
+     * @param score        BM25 score of the session for the query
+     * @param updatedAt    the session's {@code updatedAt} when it was last indexed
+     * @param snippet      the indexed text that best matches the query, shortened, if any
+     */
+    public record Hit(
+            String sessionId,
+            int matchedTerms,
+            double score,
+            long updatedAt,
+            @Nullable String snippet
+    ) {
+    }
+
+    /**
+     * Piece of indexed text, one line of {@value #PASSAGES_FILE}.
+     */
+    record Passage(String runId, Kind kind, String text) {
+        enum Kind {
+            PROMPT,
+            ANSWER,
+            COMMAND
+        }
+    }
+
+    /**
+     * A session of the compacted segment. Its position in the segment is its ordinal in the
+     * postings.
+     */
+    record Doc(String sessionId, long updatedAt, long length) {
+    }
+
+    /**
+     * Compacted index. Postings hold {@code ordinal, frequency} pairs in ordinal order.
+     */
+    record Segment(List<Doc> sessions, Map<String, int[]> postings) {
+    }
+
+    /**
+     * Change to the index, one line of {@value #DELTA_FILE}. A replacement drops everything
+     * indexed for the session before; otherwise the terms are added to it.
+     */
+    record Delta(String sessionId, long updatedAt, boolean replace, Map<String, Integer> terms) {
+    }
+
+    @FunctionalInterface
+    private interface IOAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * Indexed state of one session while the index is in memory.
+     */
+    private static final class DocState {
+        final String sessionId;
+        long updatedAt;
+        long length;
+        boolean live = true;
+
+        DocState(String sessionId) {
+            this.sessionId = sessionId;
+        }
+    }
+
+    /**
+     * Growable list of {@code ordinal, frequency} pairs.
+     */
+    private static final class Postings {
+        int[] data;
+        int size;
+
+        Postings(int[] data) {
+            this.data = data;
+            this.size = data.length;
+        }
+
+        void add(int ordinal, int frequency) {
+            if (size + 2 > data.length) {
+                data = Arrays.copyOf(data, Math.max(8, data.length * 2));
+            }
+            data[size++] = ordinal;
+            data[size++] = frequency;
+        }
+    }
+
+    /**
+     * The segment with the log applied.
+     */
+    private static final class Snapshot {
+        final List<DocState> docs = new ArrayList<>();
+        final Map<String, Integer> ordinals = new HashMap<>();
+        final Map<String, Postings> postings = new HashMap<>();
+
+        void apply(Delta delta) {
+            var ordinal = ordinals.get(delta.sessionId());
+            if (ordinal == null || delta.replace()) {
+                if (ordinal != null) {
+                    docs.get(ordinal).live = false;
+                }
+                ordinal = docs.size();
+                docs.add(new DocState(delta.sessionId()));
+                ordinals.put(delta.sessionId(), ordinal);
+            }
+            final var doc = docs.get(ordinal);
+            doc.updatedAt = delta.updatedAt();
+            for (final var term : delta.terms().entrySet()) {
+                doc.length += term.getValue();
+                postings.computeIfAbsent(term.getKey(), key -> new Postings(new int[0]))
+                        .add(ordinal, term.getValue());
+            }
+        }
+
+        /**
+         * Returns the live sessions containing {@code term}, with the term's frequency in each.
+         */
+        Map<Integer, Integer> frequencies(String term) {
+            final var termPostings = postings.get(term);
+            if (termPostings == null) {
+                return Map.of();
+            }
+            final var frequencies = new HashMap<Integer, Integer>();
+            for (int i = 0; i < termPostings.size; i += 2) {
+                if (docs.get(termPostings.data[i]).live) {
+                    frequencies.merge(termPostings.data[i], termPostings.data[i + 1], Integer::sum);
+                }
+            }
+            return frequencies;
+        }
+
+        @Nullable
+        DocState live(String sessionId) {
+            final var ordinal = ordinals.get(sessionId);
+            return ordinal == null || !docs.get(ordinal).live ? null : docs.get(ordinal);
+        }
+    }
+
+    private final Path sessionsDir;
+    private final Path dir;
+    private final ObjectMapper mapper;
+
+    /**
+     * @param sessionsDir base directory of the session store; the index lives next to it
+     * @param mapper      mapper for the index files
+     */
+    public SessionSearchIndex(Path sessionsDir, ObjectMapper mapper) {
+        this.sessionsDir = sessionsDir;
+        this.dir = sessionsDir.resolveSibling(DIR_NAME);
+        this.mapper = mapper;
+    }
+
+    /**
+     * Splits text into lower-case terms of letters and digits. Terms shorter than
+     * {@value #MIN_TERM_LENGTH} or longer than {@value #MAX_TERM_LENGTH} characters are dropped.
+     *
+     * @param text text to split
+     * @return the terms, in order of appearance, with repeats
+     */
+    static List<String> terms(@Nullable String text) {
+        final var terms = new ArrayList<String>();
+        if (text == null) {
+            return terms;
+        }
+        final var term = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            final var c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                term.append(Character.toLowerCase(c));
+                continue;
+            }
+            if (term.length() >= MIN_TERM_LENGTH && term.length() <= MAX_TERM_LENGTH) {
+                terms.add(term.toString());
+            }
+            term.setLength(0);
+        }
+        return terms;
+    }
+
+    private static void collectStrings(JsonNode node, StringBuilder out) {
+        if (node.isTextual()) {
+            out.append(' ').append(node.asText());
+        }
+        else {
+            node.forEach(child -> collectStrings(child, out));
+        }
+    }
+
+    /**
+     * Cuts a snippet of about {@value #SNIPPET_CHARS} characters around the first query term in
+     * the passage, with whitespace collapsed.
+     */
+    private static String snippet(Passage passage, Collection<String> queryTerms) {
+        final var text = passage.text().replaceAll("\\s+", " ").strip();
+        final var lower = text.toLowerCase(Locale.ROOT);
+        var at = -1;
+        for (final var term : queryTerms) {
+            final var index = lower.indexOf(term);
+            if (index >= 0 && (at < 0 || index < at)) {
+                at = index;
+            }
+        }
+        final var start = Math.max(0, Math.min(at - SNIPPET_CHARS / 4, text.length() - SNIPPET_CHARS));
+        final var end = Math.min(text.length(), start + SNIPPET_CHARS);
+        return passage.kind() + ": "
+                + (start > 0 ? "…" : "")
+                + text.substring(start, end)
+                + (end < text.length() ? "…" : "");
+    }
+
+    /**
+     * Whether the index has been built.
+     */
+    public boolean exists() {
+        return Files.isRegularFile(dir.resolve(SEGMENT_FILE));
+    }
+
+    /**
+     * Adds a finished turn to the index. A session that has not been indexed yet, or whose entry
+     * was lost with an unreadable or deleted index, is indexed in full instead, which includes the
+     * turn.
+     *
+     * @param sessionId session the turn belongs to
+     * @param runId     run ID of the turn
+     * @param store     session store the turn's messages were saved to
+     */
+    public void recordRun(String sessionId, String runId, SessionStore store) {
+        if (!Files.isRegularFile(passagesFile(sessionId)) || load().live(sessionId) == null) {
+            final var delta = reindex(sessionId, store);
+            withLock(() -> appendDelta(delta));
+            return;
+        }
+        final var messages = new ArrayList<>(SessionStatsStore.runMessages(sessionId, runId, store));
+        if (messages.isEmpty()) {
+            return;
+        }
+        final var passages = new ArrayList<Passage>();
+        final var terms = new HashMap<String, Integer>();
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            addPassage(messages.get(i), passages, terms);
+        }
+        if (passages.isEmpty()) {
+            return;
+        }
+        try {
+            writePassages(passagesFile(sessionId), passages, StandardOpenOption.APPEND);
+        }
+        catch (IOException e) {
+            log.warn("Failed to save search text for session {}: {}", sessionId, e.getMessage());
+            return;
+        }
+        final var delta = new Delta(sessionId, updatedAt(sessionId, store), false, terms);
+        withLock(() -> appendDelta(delta));
+    }
+
+    /**
+     * Rebuilds the whole index from the given sessions.
+     *
+     * @param store    session store holding the transcripts
+     * @param sessions sessions to index, usually the whole {@link SessionCatalog}
+     * @return number of sessions indexed
+     */
+    public int rebuild(SessionStore store, List<SessionCatalog.Entry> sessions) {
+        final var deltas = reindex(sessions, store);
+        withLock(() -> {
+            final var snapshot = new Snapshot();
+            deltas.forEach(snapshot::apply);
+            writeSegment(snapshot);
+        });
+        log.info("Rebuilt session search index {} with {} sessions", dir, deltas.size());
+        return deltas.size();
+    }
+
+    /**
+     * Searches the index. Sessions containing more of the query terms rank first, then those with
+     * the higher BM25 score. Sessions whose directory no longer exists are skipped.
+     *
+     * @param query text to search for
+     * @param limit maximum number of sessions to return
+     * @return matching sessions, best first
+     */
+    public List<Hit> search(String query, int limit) {
+        final var queryTerms = new LinkedHashSet<>(terms(query));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        final var snapshot = load();
+        final var live = snapshot.docs.stream().filter(doc -> doc.live).toList();
+        if (live.isEmpty()) {
+            return List.of();
+        }
+        final var averageLength = Math.max(1.0, live.stream().mapToLong(doc -> doc.length).average().orElse(1));
+        final var scores = new HashMap<Integer, Double>();
+        final var matched = new HashMap<Integer, Integer>();
+        for (final var term : queryTerms) {
+            final var frequencies = snapshot.frequencies(term);
+            final var df = frequencies.size();
+            final var idf = Math.log(1 + (live.size() - df + 0.5) / (df + 0.5));
+            frequencies.forEach((ordinal, tf) -> {
+                final var length = snapshot.docs.get(ordinal).length;
+                final var weight = tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                scores.merge(ordinal, idf * weight, Double::sum);
+                matched.merge(ordinal, 1, Integer::sum);
+            });
+        }
+        return scores.keySet()
+                .stream()
+                .sorted(Comparator.<Integer>comparingInt(matched::get)
+                        .thenComparingDouble(scores::get)
+                        .reversed())
+                .filter(ordinal -> Files.isDirectory(sessionsDir.resolve(snapshot.docs.get(ordinal).sessionId)))
+                .limit(limit)
+                .map(ordinal -> {
+                    final var doc = snapshot.docs.get(ordinal);
+                    return new Hit(doc.sessionId,
+                                   matched.get(ordinal),
+                                   scores.get(ordinal),
+                                   doc.updatedAt,
+                                   bestSnippet(doc.sessionId, queryTerms));
+                })
+                .toList();
+    }
+
+    /**
+     * Returns the sessions that changed since they were indexed, or were never indexed.
+     *
+     * @param sessions sessions that should be indexed, usually the whole {@link SessionCatalog}
+     * @return the sessions that need re-indexing
+     */
+    public List<SessionCatalog.Entry> stale(List<SessionCatalog.Entry> sessions) {
+        final var snapshot = load();
+        return sessions.stream()
+                .filter(entry -> {
+                    final var doc = snapshot.live(entry.sessionId());
+                    return doc == null || entry.updatedAt() > doc.updatedAt;
+                })
+                .toList();
+    }
+
+    /**
+     * Re-indexes the sessions that fell behind and merges the result into a new segment.
+     *
+     * @param store    session store holding the transcripts
+     * @param sessions sessions that should be indexed, usually the whole {@link SessionCatalog}
+     * @return number of sessions re-indexed
+     */
+    public int update(SessionStore store, List<SessionCatalog.Entry> sessions) {
+        final var stale = stale(sessions);
+        if (stale.isEmpty()) {
+            return 0;
+        }
+        final var deltas = reindex(stale, store);
+        withLock(() -> {
+            final var snapshot = read();
+            deltas.forEach(snapshot::apply);
+            writeSegment(snapshot);
+        });
+        log.info("Re-indexed {} sessions in session search index {}", deltas.size(), dir);
+        return deltas.size();
+    }
+
+    private void addPassage(AgentMessage message, List<Passage> passages, Map<String, Integer> terms) {
+        final String text;
+        final Passage.Kind kind;
+        if (message instanceof UserPrompt userPrompt) {
+            kind = Passage.Kind.PROMPT;
+            text = userPrompt.getContent();
+        }
+        else if (message instanceof Text response) {
+            kind = Passage.Kind.ANSWER;
+            text = response.getContent();
+        }
+        else if (message instanceof ToolCall toolCall) {
+            kind = Passage.Kind.COMMAND;
+            text = toolCall.getToolName() + argumentText(toolCall.getArguments());
+        }
+        else {
+            return;
+        }
+        if (Strings.isNullOrEmpty(text)) {
+            return;
+        }
+        terms(text).forEach(term -> terms.merge(term, 1, Integer::sum));
+        passages.add(new Passage(message.getRunId(),
+                                 kind,
+                                 text.length() > MAX_PASSAGE_CHARS ? text.substring(0, MAX_PASSAGE_CHARS) : text));
+    }
+
+    private void appendDelta(Delta delta) throws IOException {
+        final var file = dir.resolve(DELTA_FILE);
+        Files.writeString(file,
+                          mapper.writeValueAsString(delta) + "\n",
+                          StandardCharsets.UTF_8,
+                          StandardOpenOption.CREATE,
+                          StandardOpenOption.APPEND);
+        if (Files.size(file) > MAX_DELTA_BYTES) {
+            writeSegment(read());
+        }
+    }
+
+    /**
+     * Returns the string values of a tool call's JSON arguments, so that argument names and JSON
+     * syntax are not indexed.
+     */
+    private String argumentText(@Nullable String arguments) {
+        if (Strings.isNullOrEmpty(arguments)) {
+            return "";
+        }
+        try {
+            final var out = new StringBuilder();
+            collectStrings(mapper.readTree(arguments), out);
+            return out.toString();
+        }
+        catch (IOException e) {
+            return " " + arguments;
+        }
+    }
+
+    @Nullable
+    private String bestSnippet(String sessionId, Collection<String> queryTerms) {
+        final var file = passagesFile(sessionId);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Passage best = null;
+        var bestMatches = 0;
+        try (var lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            for (final var line : (Iterable<String>) lines::iterator) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                final var passage = mapper.readValue(line, Passage.class);
+                final var passageTerms = new LinkedHashSet<>(terms(passage.text()));
+                final var matches = (int) queryTerms.stream().filter(passageTerms::contains).count();
+                // Later passages win ties, the latest mention is usually the resolution
+                if (matches > 0 && matches >= bestMatches) {
+                    best = passage;
+                    bestMatches = matches;
+                }
+            }
+        }
+        catch (IOException | UncheckedIOException e) {
+            log.debug("Cannot read search text of session {}: {}", sessionId, e.getMessage());
+        }
+        return best == null ? null : snippet(best, queryTerms);
+    }
+
+    private Snapshot load() {
+        final var snapshot = new AtomicReference<>(new Snapshot());
+        withLock(() -> snapshot.set(read()));
+        return snapshot.get();
+    }
+
+    private Path passagesFile(String sessionId) {
+        return sessionsDir.resolve(sessionId).resolve(PASSAGES_FILE);
+    }
+
+    /**
+     * Reads the segment and applies the log. Must be called under the lock. An unreadable index
+     * reads as empty, so that the sessions in it are re-indexed by the next {@link #update}.
+     */
+    private Snapshot read() {
+        final var snapshot = new Snapshot();
+        try {
+            final var segmentFile = dir.resolve(SEGMENT_FILE);
+            if (Files.isRegularFile(segmentFile)) {
+                final var segment = mapper.readValue(segmentFile.toFile(), Segment.class);
+                for (final var doc : segment.sessions()) {
+                    final var state = new DocState(doc.sessionId());
+                    state.updatedAt = doc.updatedAt();
+                    state.length = doc.length();
+                    snapshot.ordinals.put(doc.sessionId(), snapshot.docs.size());
+                    snapshot.docs.add(state);
+                }
+                segment.postings().forEach((term, pairs) -> snapshot.postings.put(term, new Postings(pairs)));
+            }
+            final var deltaFile = dir.resolve(DELTA_FILE);
+            if (Files.isRegularFile(deltaFile)) {
+                try (var lines = Files.lines(deltaFile, StandardCharsets.UTF_8)) {
+                    for (final var line : (Iterable<String>) lines::iterator) {
+                        if (!line.isBlank()) {
+                            snapshot.apply(mapper.readValue(line, Delta.class));
+                        }
+                    }
+                }
+            }
+            return snapshot;
+        }
+        catch (IOException | UncheckedIOException e) {
+            log.warn("Session search index {} is unreadable, it will be rebuilt: {}", dir, e.getMessage());
+            return new Snapshot();
+        }
+    }
+
+    /**
+     * Indexes a whole session, rewriting its passages, and returns the replacement for its entry.
+     * The transcript is read page by page, oldest first.
+     */
+    private Delta reindex(String sessionId, SessionStore store) {
+        final var updatedAt = updatedAt(sessionId, store);
+        final var passages = new ArrayList<Passage>();
+        final var terms = new HashMap<String, Integer>();
+        BiScrollable.DataPointer pointer = null;
+        while (true) {
+            final var page = store.readMessages(sessionId, PAGE_SIZE, false, pointer, QueryDirection.NEWER);
+            final var items = page.getItems();
+            if (items == null || items.isEmpty()) {
+                break;
+            }
+            items.forEach(message -> addPassage(message, passages, terms));
+            pointer = page.getPointer();
+            if (pointer == null || items.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+        final var file = passagesFile(sessionId);
+        try {
+            Files.createDirectories(file.getParent());
+            final var tmp = Files.createTempFile(file.getParent(), PASSAGES_FILE, ".tmp");
+            try {
+                writePassages(tmp, passages, StandardOpenOption.TRUNCATE_EXISTING);
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        catch (IOException e) {
+            log.warn("Failed to save search text for session {}: {}", sessionId, e.getMessage());
+        }
+        return new Delta(sessionId, updatedAt, true, terms);
+    }
+
+    /**
+     * Indexes each of the sessions in full. Sessions that cannot be read are left out.
+     */
+    private List<Delta> reindex(List<SessionCatalog.Entry> sessions, SessionStore store) {
+        final var deltas = new ArrayList<Delta>(sessions.size());
+        for (final var entry : sessions) {
+            try {
+                deltas.add(reindex(entry.sessionId(), store));
+            }
+            catch (Exception e) {
+                log.warn("Failed to index session {}: {}", entry.sessionId(), e.getMessage());
+            }
+        }
+        return deltas;
+    }
+
+    private long updatedAt(String sessionId, SessionStore store) {
+        return store.session(sessionId).map(SessionSummary::getUpdatedAt).orElse(0L);
+    }
+
+    private void withLock(IOAction action) {
+        try {
+            Files.createDirectories(dir);
+            final var lockPath = dir.resolve("index.lock");
+            synchronized (LOCK) {
+                try (var channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     var ignored = channel.lock()) {
+                    action.run();
+                }
+            }
+        }
+        catch (IOException e) {
+            log.warn("Failed to update session search index {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private void writePassages(Path file, List<Passage> passages, StandardOpenOption mode) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file,
+                                                             StandardCharsets.UTF_8,
+                                                             StandardOpenOption.CREATE,
+                                                             StandardOpenOption.WRITE,
+                                                             mode)) {
+            for (final var passage : passages) {
+                writer.write(mapper.writeValueAsString(passage));
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Writes the snapshot as a new segment and empties the log. Replaced entries and sessions whose
+     * directory no longer exists are dropped, and the remaining sessions are renumbered.
+     */
+    private void writeSegment(Snapshot snapshot) throws IOException {
+        final var remap = new int[snapshot.docs.size()];
+        final var docs = new ArrayList<Doc>();
+        for (int i = 0; i < remap.length; i++) {
+            final var doc = snapshot.docs.get(i);
+            if (doc.live && Files.isDirectory(sessionsDir.resolve(doc.sessionId))) {
+                remap[i] = docs.size();
+                docs.add(new Doc(doc.sessionId, doc.updatedAt, doc.length));
+            }
+            else {
+                remap[i] = -1;
+            }
+        }
+        final var postings = new TreeMap<String, int[]>();
+        snapshot.postings.forEach((term, termPostings) -> {
+            final var frequencies = new TreeMap<Integer, Integer>();
+            for (int i = 0; i < termPostings.size; i += 2) {
+                final var ordinal = remap[termPostings.data[i]];
+                if (ordinal >= 0) {
+                    frequencies.merge(ordinal, termPostings.data[i + 1], Integer::sum);
+                }
+            }
+            if (!frequencies.isEmpty()) {
+                final var pairs = new int[frequencies.size() * 2];
+                var i = 0;
+                for (final var entry : frequencies.entrySet()) {
+                    pairs[i++] = entry.getKey();
+                    pairs[i++] = entry.getValue();
+                }
+                postings.put(term, pairs);
+            }
+        });
+        final var tmp = Files.createTempFile(dir, SEGMENT_FILE, ".tmp");
+        try {
+            mapper.writeValue(tmp.toFile(), new Segment(docs, postings));
+            Files.move(tmp, dir.resolve(SEGMENT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                       StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(dir.resolve(DELTA_FILE));
+        }
+        finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepe.sentinelai.core.agentmessages.AgentMessage;
+import com.phonepe.sentinelai.core.agentmessages.responses.StructuredOutput;
+import com.phonepe.sentinelai.core.agentmessages.responses.Text;
+import com.phonepe.sentinelai.core.model.ModelUsageStats;
+import com.phonepe.sentinelai.session.BiScrollable;
+import com.phonepe.sentinelai.session.QueryDirection;
+import com.phonepe.sentinelai.session.SessionStore;
+
+import io.appform.sai.models.SessionStats;
+import io.appform.sai.models.TurnTiming;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps a {@link SessionStats} record in {@value #FILE_NAME} inside each session's directory.
+ *
+ * <p>After every turn {@link #recordRun} reads back only the messages of that turn, newest page
+ * first, and adds them to the stored totals, so {@code session-summary}, {@code /info} and
+ * {@code list-sessions --stats} read one small file instead of the whole transcript. A new
+ * session's record starts with its first turn. Sessions written before the record existed get one
+ * with {@link #rebuild}, which reads the full transcript once; {@link #readOrRebuild} does that on
+ * first use, never the end of a turn.
+ */
+@Slf4j
+public class SessionStatsStore {
+    public static final String FILE_NAME = "session-stats.json";
+
+    private static final int PAGE_SIZE = 64;
+
+    private final Path sessionsDir;
+    private final ObjectMapper mapper;
+
+    public SessionStatsStore(Path sessionsDir, ObjectMapper mapper) {
+        this.sessionsDir = sessionsDir;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Extracts usage stats from a stored message when it is a response type that carries them
+     * ({@link Text} or {@link StructuredOutput}); returns {@code null} otherwise.
+     */
+    private static ModelUsageStats usageOf(AgentMessage message) {
+        if (message instanceof Text text) {
+            return text.getStats();
+        }
+        if (message instanceof StructuredOutput structuredOutput) {
+            return structuredOutput.getStats();
+        }
+        return null;
+    }
+
+    /**
+     * Adds the counts and token usage of {@code messages} to {@code stats}. Turns, tool time and
+     * the last run ID are left unchanged.
+     *
+     * @param stats    totals so far
+     * @param messages messages to add
+     * @return the new totals
+     */
+    public static SessionStats add(SessionStats stats, List<AgentMessage> messages) {
+        final var builder = stats.toBuilder();
+        var userPrompts = stats.getUserPrompts();
+        var systemPrompts = stats.getSystemPrompts();
+        var toolCallRequests = stats.getToolCallRequests();
+        var toolCallResponses = stats.getToolCallResponses();
+        var textResponses = stats.getTextResponses();
+        var requestTokens = stats.getRequestTokens();
+        var responseTokens = stats.getResponseTokens();
+        var cachedTokens = stats.getCachedTokens();
+        for (final var message : messages) {
+            switch (message.getMessageType()) {
+                case USER_PROMPT_REQUEST_MESSAGE -> userPrompts++;
+                case SYSTEM_PROMPT_REQUEST_MESSAGE -> systemPrompts++;
+                case TOOL_CALL_REQUEST_MESSAGE -> toolCallRequests++;
+                case TOOL_CALL_RESPONSE_MESSAGE -> toolCallResponses++;
+                case TEXT_RESPONSE_MESSAGE -> textResponses++;
+                default -> {
+                    // Not shown separately, only in the total
+                }
+            }
+            final var usage = usageOf(message);
+            if (usage != null) {
+                requestTokens += usage.getRequestTokens();
+                responseTokens += usage.getResponseTokens();
+                cachedTokens += usage.getRequestTokenDetails().getCachedTokens();
+            }
+        }
+        return builder.totalMessages(stats.getTotalMessages() + messages.size())
+                .userPrompts(userPrompts)
+                .systemPrompts(systemPrompts)
+                .toolCallRequests(toolCallRequests)
+                .toolCallResponses(toolCallResponses)
+                .textResponses(textResponses)
+                .requestTokens(requestTokens)
+                .responseTokens(responseTokens)
+                .cachedTokens(cachedTokens)
+                .build();
+    }
+
+    /**
+     * @return whether the transcript holds more than the {@code runMessages} messages of the last
+     *         run, found by reading one message past them
+     */
+    private static boolean hasEarlierRuns(String sessionId, int runMessages, SessionStore store) {
+        final var items = store.readMessages(sessionId, runMessages + 1, false, null, QueryDirection.OLDER)
+                .getItems();
+        return items != null && items.size() > runMessages;
+    }
+
+    /**
+     * Reads the messages of one run from the end of the transcript, stopping at the first older
+     * message of another run. The messages are returned newest first.
+     */
+    static List<AgentMessage> runMessages(String sessionId, String runId, SessionStore store) {
+        final var messages = new ArrayList<AgentMessage>();
+        BiScrollable.DataPointer pointer = null;
+        while (true) {
+            final var page = store.readMessages(sessionId, PAGE_SIZE, false, pointer, QueryDirection.OLDER);
+            final var items = page.getItems();
+            if (items == null || items.isEmpty()) {
+                return messages;
+            }
+            for (int i = items.size() - 1; i >= 0; i--) {
+                if (!runId.equals(items.get(i).getRunId())) {
+                    return messages;
+                }
+                messages.add(items.get(i));
+            }
+            pointer = page.getPointer();
+            if (pointer == null) {
+                return messages;
+            }
+        }
+    }
+
+    /**
+     * Starts the record of a fork with the parent's totals, all of them marked as inherited, so
+     * that only the fork's own turns are added to them. The parent's record is built first if it
+     * has none. Tool time is not carried over, as the fork starts without turn timings.
+     *
+     * @param parentId session that was forked
+     * @param forkId   the new session
+     * @param store    session store holding the parent's transcript
+     * @return the fork's totals
+     */
+    public SessionStats fork(String parentId, String forkId, SessionStore store) {
+        final var parentStats = readOrRebuild(parentId, store).toBuilder()
+                .toolMs(0)
+                .inherited(null)
+                .build();
+        final var stats = parentStats.toBuilder()
+                .inherited(parentStats.toBuilder().lastRunId(null).build())
+                .build();
+        save(forkId, stats);
+        return stats;
+    }
+
+    /**
+     * Reads the stored record of a session.
+     *
+     * @param sessionId session to read
+     * @return the record, empty if there is none or it cannot be read
+     */
+    public Optional<SessionStats> read(String sessionId) {
+        final var file = file(sessionId);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        // migrate-sessions re-encodes every .json file in a session, this one included
+        try (var in = SessionCodec.decoded(Files.newInputStream(file))) {
+            return Optional.of(mapper.readValue(in, SessionStats.class));
+        }
+        catch (IOException e) {
+            log.warn("Ignoring unreadable session stats {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads the stored record of a session, building it from the transcript if there is none.
+     *
+     * @param sessionId session to read
+     * @param store     session store holding the transcript
+     * @return the totals
+     */
+    public SessionStats readOrRebuild(String sessionId, SessionStore store) {
+        return read(sessionId).orElseGet(() -> rebuild(sessionId, store));
+    }
+
+    /**
+     * Recomputes the record of a session from its full transcript and turn timings and saves it.
+     * Messages that carry another session's ID were inherited from the session it was forked from
+     * and are counted as {@code inherited} as well.
+     *
+     * @param sessionId session to rebuild
+     * @param store     session store holding the transcript
+     * @return the totals
+     */
+    public SessionStats rebuild(String sessionId, SessionStore store) {
+        final var page = store.readMessages(sessionId, Integer.MAX_VALUE, false, null, QueryDirection.OLDER);
+        final List<AgentMessage> messages = Objects.requireNonNullElse(page.getItems(), List.of());
+        final var runIds = new LinkedHashSet<String>();
+        messages.forEach(message -> runIds.add(message.getRunId()));
+        final var toolMs = new TurnTimingStore(sessionsDir, mapper).read(sessionId)
+                .stream()
+                .filter(timing -> runIds.contains(timing.getRunId()))
+                .mapToLong(TurnTiming::getToolMs)
+                .sum();
+        final var inheritedMessages = messages.stream()
+                .filter(message -> message.getSessionId() != null && !sessionId.equals(message.getSessionId()))
+                .toList();
+        final var inherited = inheritedMessages.isEmpty()
+                ? null
+                : add(SessionStats.EMPTY, inheritedMessages).toBuilder()
+                        .turns((int) inheritedMessages.stream().map(AgentMessage::getRunId).distinct().count())
+                        .build();
+        final var stats = add(SessionStats.EMPTY, messages).toBuilder()
+                .turns(runIds.size())
+                .toolMs(toolMs)
+                .lastRunId(messages.isEmpty() ? null : messages.get(messages.size() - 1).getRunId())
+                .inherited(inherited)
+                .build();
+        save(sessionId, stats);
+        return stats;
+    }
+
+    /**
+     * Adds a finished turn to the record of a session; a turn already included is ignored. Only
+     * the turn's own messages are read. A session without a record gets one if the turn is all of
+     * its history; otherwise it is left without, for {@link #readOrRebuild} to build from the full
+     * transcript when the record is first needed.
+     *
+     * @param sessionId session the turn belongs to
+     * @param runId     run ID of the turn
+     * @param store     session store the turn's messages were saved to
+     * @param timing    timing of the turn, if it was recorded
+     * @return the new totals, empty if the session has no record
+     */
+    public Optional<SessionStats> recordRun(String sessionId,
+                                            String runId,
+                                            SessionStore store,
+                                            @Nullable TurnTiming timing) {
+        final var current = read(sessionId).orElse(null);
+        if (current != null && runId.equals(current.getLastRunId())) {
+            return Optional.of(current);
+        }
+        final var messages = runMessages(sessionId, runId, store);
+        if (messages.isEmpty()) {
+            return Optional.ofNullable(current);
+        }
+        if (current == null && hasEarlierRuns(sessionId, messages.size(), store)) {
+            log.debug("Session {} has no stats record yet, leaving it to be built on first read", sessionId);
+            return Optional.empty();
+        }
+        final var base = Objects.requireNonNullElse(current, SessionStats.EMPTY);
+        final var stats = add(base, messages).toBuilder()
+                .turns(base.getTurns() + 1)
+                .toolMs(base.getToolMs() + (timing != null ? timing.getToolMs() : 0))
+                .lastRunId(runId)
+                .build();
+        save(sessionId, stats);
+        return Optional.of(stats);
+    }
+
+    private Path file(String sessionId) {
+        return sessionsDir.resolve(sessionId).resolve(FILE_NAME);
+    }
+
+    private void save(String sessionId, SessionStats stats) {
+        final var file = file(sessionId);
+        try {
+            Files.createDirectories(file.getParent());
+            final var temp = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+            try {
+                mapper.writeValue(temp.toFile(), stats);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        catch (IOException e) {
+            log.warn("Failed to save session stats for {}: {}", sessionId, e.getMessage());
+        }
+    }
+}
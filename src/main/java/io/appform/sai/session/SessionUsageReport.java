@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+
+import io.appform.sai.models.SessionStats;
+import io.appform.sai.models.TurnTiming;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+/**
+ * Aggregates token usage and turn latency across sessions for {@code sai usage}.
+ *
+ * <p>Each session's {@link SessionStatsStore} record and {@link TurnTimingStore} timings are read
+ * in parallel, without opening the transcripts. Every timed turn counts towards the day it started
+ * and the model and persona it ran with, and carries its own token usage. What the session's
+ * stats hold beyond its timed turns, such as turns recorded before timings kept tokens, counts
+ * towards the group given by the session's {@link SessionCatalog} entry: the day it was last
+ * updated and the model and persona it was last run with. Sessions without a stats record only
+ * contribute their turn timings; {@code rebuild-session-stats} creates the missing records. The
+ * history a fork inherited from its parent is left out of the fork's totals, since the parent
+ * counts it.
+ */
+public class SessionUsageReport implements AutoCloseable {
+    private static final String UNKNOWN = "(unknown)";
+
+    /**
+     * Property of a turn that usage is grouped by.
+     */
+    public enum GroupBy {
+        DAY,
+        MODEL,
+        PERSONA,
+        WORKDIR;
+
+        public static GroupBy parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+
+        /**
+         * @param session the session
+         * @param turn    a timed turn of the session, or {@code null} for the usage not covered by
+         *                its timings; values the turn did not record are taken from the session
+         */
+        String keyOf(SessionCatalog.Entry session, @Nullable TurnTiming turn) {
+            return switch (this) {
+                case DAY -> LocalDate.ofInstant(Instant.ofEpochMilli(turn != null && turn.getStartedAt() > 0
+                        ? turn.getStartedAt()
+                        : session.updatedAt() / 1000), ZoneId.systemDefault())
+                        .toString();
+                case MODEL -> {
+                    final var model = turn != null && turn.getModel() != null ? turn.getModel() : session.model();
+                    yield Strings.isNullOrEmpty(model) ? UNKNOWN : model;
+                }
+                case PERSONA -> {
+                    final var persona = turn != null && turn.getPersona() != null
+                            ? turn.getPersona()
+                            : session.persona();
+                    yield persona == null ? UNKNOWN : persona.isEmpty() ? "(default)" : persona;
+                }
+                case WORKDIR -> Strings.isNullOrEmpty(session.workDir()) ? UNKNOWN : session.workDir();
+            };
+        }
+    }
+
+    /**
+     * Totals of one group of sessions. Latencies are in milliseconds and cover the turns with a
+     * recorded timing.
+     *
+     * @param group                the group, the values of the grouped properties joined by {@code " | "}
+     * @param sessions             number of sessions with usage in the group
+     * @param sessionsWithoutStats those of them that have no stats record
+     * @param turns                number of turns
+     * @param requestTokens        prompt tokens sent
+     * @param responseTokens       tokens generated
+     * @param cachedTokens         prompt tokens served from the provider's cache
+     * @param cacheHitRate         share of the prompt tokens served from the cache
+     * @param timedTurns           turns with a recorded timing
+     * @param p50TurnMs            median turn time
+     * @param p95TurnMs            95th percentile turn time
+     * @param turnMs               wall-clock time of all timed turns
+     * @param toolMs               part of {@code turnMs} spent in tools
+     * @param toolShare            share of {@code turnMs} spent in tools
+     */
+    public record Row(
+            String group,
+            int sessions,
+            int sessionsWithoutStats,
+            long turns,
+            long requestTokens,
+            long responseTokens,
+            long cachedTokens,
+            double cacheHitRate,
+            int timedTurns,
+            long p50TurnMs,
+            long p95TurnMs,
+            long turnMs,
+            long toolMs,
+            double toolShare
+    ) {
+        public long totalTokens() {
+            return requestTokens + responseTokens;
+        }
+    }
+
+    /**
+     * Result of {@link #aggregate}.
+     *
+     * @param groupBy properties the sessions were grouped by
+     * @param rows    one row per group
+     * @param total   totals over all sessions
+     */
+    public record Report(List<GroupBy> groupBy, List<Row> rows, Row total) {
+    }
+
+    private record Sample(SessionCatalog.Entry session, @Nullable SessionStats stats, List<TurnTiming> timings) {
+    }
+
+    /**
+     * Running totals of a group.
+     */
+    private static final class Totals {
+        final Set<String> sessions = new HashSet<>();
+        final Set<String> sessionsWithoutStats = new HashSet<>();
+        long turns;
+        long requestTokens;
+        long responseTokens;
+        long cachedTokens;
+        long turnMs;
+        long toolMs;
+        final List<Long> turnTimes = new ArrayList<>();
+
+        void addSession(Sample sample) {
+            sessions.add(sample.session().sessionId());
+            if (sample.stats() == null) {
+                sessionsWithoutStats.add(sample.session().sessionId());
+            }
+        }
+
+        void addTurn(TurnTiming timing) {
+            turns++;
+            requestTokens += timing.getRequestTokens();
+            responseTokens += timing.getResponseTokens();
+            cachedTokens += timing.getCachedTokens();
+            turnTimes.add(timing.getTotalMs());
+            turnMs += timing.getTotalMs();
+            toolMs += timing.getToolMs();
+        }
+
+        void addUntimed(SessionStats untimed) {
+            turns += untimed.getTurns();
+            requestTokens += untimed.getRequestTokens();
+            responseTokens += untimed.getResponseTokens();
+            cachedTokens += untimed.getCachedTokens();
+        }
+
+        Row toRow(String group) {
+            Collections.sort(turnTimes);
+            return new Row(group,
+                           sessions.size(),
+                           sessionsWithoutStats.size(),
+                           turns,
+                           requestTokens,
+                           responseTokens,
+                           cachedTokens,
+                           requestTokens > 0 ? (double) cachedTokens / requestTokens : 0,
+                           turnTimes.size(),
+                           percentile(turnTimes, 50),
+                           percentile(turnTimes, 95),
+                           turnMs,
+                           toolMs,
+                           turnMs > 0 ? (double) toolMs / turnMs : 0);
+        }
+    }
+
+    private final SessionStatsStore statsStore;
+    private final TurnTimingStore timingStore;
+    private final ExecutorService pool;
+
+    /**
+     * @param sessionsDir base directory of the session store
+     * @param mapper      mapper for the stats and timing files
+     * @param parallelism number of sessions read concurrently
+     */
+    public SessionUsageReport(Path sessionsDir, ObjectMapper mapper, int parallelism) {
+        this.statsStore = new SessionStatsStore(sessionsDir, mapper);
+        this.timingStore = new TurnTimingStore(sessionsDir, mapper);
+        final var threadCount = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            final var t = new Thread(r, "session-usage-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Nearest-rank percentile of an ascending list.
+     */
+    private static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        final var rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    /**
+     * @return the part of a session's own totals, leaving out what it inherited, that its timed
+     *         turns do not account for
+     */
+    private static SessionStats untimed(SessionStats stats, List<TurnTiming> timings) {
+        final var inherited = Objects.requireNonNullElse(stats.getInherited(), SessionStats.EMPTY);
+        return SessionStats.builder()
+                .turns(Math.max(0, stats.getTurns() - inherited.getTurns() - timings.size()))
+                .requestTokens(Math.max(0, stats.getRequestTokens() - inherited.getRequestTokens()
+                        - timings.stream().mapToLong(TurnTiming::getRequestTokens).sum()))
+                .responseTokens(Math.max(0, stats.getResponseTokens() - inherited.getResponseTokens()
+                        - timings.stream().mapToLong(TurnTiming::getResponseTokens).sum()))
+                .cachedTokens(Math.max(0, stats.getCachedTokens() - inherited.getCachedTokens()
+                        - timings.stream().mapToLong(TurnTiming::getCachedTokens).sum()))
+                .build();
+    }
+
+    private static String group(List<GroupBy> groupBy, SessionCatalog.Entry session, @Nullable TurnTiming turn) {
+        return groupBy.isEmpty()
+                ? "all"
+                : groupBy.stream()
+                        .map(property -> property.keyOf(session, turn))
+                        .collect(Collectors.joining(" | "));
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading session usage", e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Reads the usage of the given sessions and groups it turn by turn. Rows grouped by day are
+     * ordered newest day first; other rows by total tokens, largest first.
+     *
+     * @param sessions sessions to include
+     * @param groupBy  properties to group by; all sessions form one group if empty
+     * @return the report
+     */
+    public Report aggregate(List<SessionCatalog.Entry> sessions, List<GroupBy> groupBy) {
+        final var futures = new ArrayList<Future<Sample>>(sessions.size());
+        for (final var session : sessions) {
+            final Callable<Sample> read = () -> new Sample(session,
+                                                           statsStore.read(session.sessionId()).orElse(null),
+                                                           timingStore.read(session.sessionId()));
+            futures.add(pool.submit(read));
+        }
+        final var groups = new LinkedHashMap<String, Totals>();
+        final var total = new Totals();
+        for (final var future : futures) {
+            final var sample = await(future);
+            total.addSession(sample);
+            for (final var timing : sample.timings()) {
+                final var totals = groups.computeIfAbsent(group(groupBy, sample.session(), timing),
+                                                          key -> new Totals());
+                totals.addSession(sample);
+                totals.addTurn(timing);
+                total.addTurn(timing);
+            }
+            final var untimed = sample.stats() == null
+                    ? SessionStats.EMPTY
+                    : untimed(sample.stats(), sample.timings());
+            // A session with nothing timed still shows up in its own group
+            if (sample.timings().isEmpty() || !untimed.equals(SessionStats.EMPTY)) {
+                final var totals = groups.computeIfAbsent(group(groupBy, sample.session(), null),
+                                                          key -> new Totals());
+                totals.addSession(sample);
+                totals.addUntimed(untimed);
+                total.addUntimed(untimed);
+            }
+        }
+        final var order = groupBy.contains(GroupBy.DAY)
+                ? Comparator.comparing(Row::group).reversed()
+                : Comparator.comparingLong(Row::totalTokens).reversed().thenComparing(Row::group);
+        final var rows = groups.entrySet()
+                .stream()
+                .map(entry -> entry.getValue().toRow(entry.getKey()))
+                .sorted(order)
+                .toList();
+        return new Report(List.copyOf(groupBy), rows, total.toRow("total"));
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+        try {
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.appform.sai.models.TurnTiming;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persists {@link TurnTiming} records as JSON lines in {@value #FILE_NAME} inside each session's
+ * directory under the sessions base directory. Keeping the file next to the session's messages
+ * means deleting or pruning a session removes its timings too.
+ */
+@Slf4j
+public class TurnTimingStore {
+    public static final String FILE_NAME = "turn-timings.jsonl";
+
+    private final Path sessionsDir;
+    private final ObjectMapper mapper;
+
+    public TurnTimingStore(Path sessionsDir, ObjectMapper mapper) {
+        this.sessionsDir = sessionsDir;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Appends the timing of a finished turn to the session's timings file.
+     *
+     * @param sessionId session the turn belongs to
+     * @param timing    timing of the turn
+     * @throws IOException if the file cannot be written
+     */
+    public void append(String sessionId, TurnTiming timing) throws IOException {
+        final var file = file(sessionId);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file,
+                          mapper.writeValueAsString(timing) + "\n",
+                          StandardCharsets.UTF_8,
+                          StandardOpenOption.CREATE,
+                          StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Reads all recorded turn timings of a session, oldest first. Lines that cannot be parsed (for
+     * example a partial line left by a crash) are skipped.
+     *
+     * @param sessionId session to read
+     * @return the recorded timings, empty if there are none
+     */
+    public List<TurnTiming> read(String sessionId) {
+        final var file = file(sessionId);
+        if (!Files.isRegularFile(file)) {
+            return List.of();
+        }
+        final var timings = new ArrayList<TurnTiming>();
+        try (final var lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            lines.filter(line -> !line.isBlank()).forEach(line -> {
+                try {
+                    timings.add(mapper.readValue(line, TurnTiming.class));
+                }
+                catch (IOException e) {
+                    log.warn("Skipping unreadable turn timing in {}: {}", file, e.getMessage());
+                }
+            });
+        }
+        catch (IOException e) {
+            log.warn("Failed to read turn timings from {}: {}", file, e.getMessage());
+        }
+        return timings;
+    }
+
+    private Path file(String sessionId) {
+        return sessionsDir.resolve(sessionId).resolve(FILE_NAME);
+    }
+}
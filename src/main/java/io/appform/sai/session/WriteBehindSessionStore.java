@@ -0,0 +1,610 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepe.sentinelai.core.agentmessages.AgentMessage;
+import com.phonepe.sentinelai.session.BiScrollable;
+import com.phonepe.sentinelai.session.QueryDirection;
+import com.phonepe.sentinelai.session.SessionStore;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind layer over a {@link SessionStore}: {@code saveMessages} returns as soon as the
+ * messages are in a crash journal, and a background thread writes them to the wrapped store.
+ *
+ * <p>Writes are held back until {@link #flush()} is called at the end of the turn, or until
+ * {@code queueSize} of them are waiting, and consecutive writes for the same run are handed to the
+ * wrapped store as one call. Every other store method, including reads and {@code saveSession},
+ * first waits for the pending writes, so callers always see their own writes and a session's
+ * messages are saved before its summary. When the queue is full, {@code saveMessages} blocks for
+ * up to the flush timeout; if the writer has not caught up by then, the pending writes and the new
+ * one are saved synchronously on the caller's thread.
+ *
+ * <p>Each instance appends to its own journal in {@value #DIR_NAME} next to the sessions
+ * directory, holding an exclusive lock on it while open. The journal is emptied whenever nothing
+ * is pending and deleted by {@link #close()}; it is not synced to disk, so it survives the
+ * process but not the machine crashing. {@link #recover(SessionStore, Path, ObjectMapper)} replays
+ * the journals left behind by processes that died with writes pending.
+ */
+@Slf4j
+public class WriteBehindSessionStore implements SessionStore, AutoCloseable {
+    public static final String DIR_NAME = "session-journal";
+
+    private static final String JOURNAL_SUFFIX = ".jsonl";
+    private static final Duration INITIAL_RETRY_BACKOFF = Duration.ofMillis(500);
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(10);
+
+    private final SessionStore delegate;
+    private final ObjectMapper mapper;
+    private final Path journalFile;
+    private final FileChannel journal;
+    private final FileLock journalLock;
+    private final int queueSize;
+    private final Duration flushTimeout;
+    private final Thread writer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock writing = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final ArrayDeque<Write> queue = new ArrayDeque<>();
+    private long enqueued;
+    private long applied;
+    private boolean flushRequested;
+    private boolean closed;
+
+    /**
+     * A batch of messages passed to {@code saveMessages}, numbered in journal order.
+     */
+    record Write(long seq, String sessionId, String runId, List<AgentMessage> messages) {
+    }
+
+    /**
+     * One journal line: either a write or the sequence number up to which writes were applied.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record JournalEntry(Long seq, String sessionId, String runId, List<AgentMessage> messages, Long applied) {
+        static JournalEntry applied(long seq) {
+            return new JournalEntry(null, null, null, null, seq);
+        }
+
+        static JournalEntry of(Write write) {
+            return new JournalEntry(write.seq(), write.sessionId(), write.runId(), write.messages(), null);
+        }
+    }
+
+    /**
+     * Opens a new journal and starts the writer thread.
+     *
+     * @param delegate     store the messages are written to
+     * @param sessionsDir  the sessions directory; the journal goes into a sibling directory
+     * @param mapper       mapper for the journal, able to write {@link AgentMessage}s
+     * @param queueSize    number of pending writes after which writing starts without a flush and
+     *                     {@code saveMessages} blocks
+     * @param flushTimeout longest wait for pending writes in {@link #flush()}, {@link #close()} and
+     *                     a blocked {@code saveMessages}
+     * @throws IOException if the journal cannot be created
+     */
+    public WriteBehindSessionStore(SessionStore delegate,
+                                   Path sessionsDir,
+                                   ObjectMapper mapper,
+                                   int queueSize,
+                                   Duration flushTimeout) throws IOException {
+        this.delegate = delegate;
+        this.mapper = mapper;
+        this.queueSize = Math.max(queueSize, 1);
+        this.flushTimeout = flushTimeout;
+        final var dir = journalDir(sessionsDir);
+        Files.createDirectories(dir);
+        this.journalFile = dir.resolve(ProcessHandle.current().pid() + "-"
+                + UUID.randomUUID().toString().substring(0, 8) + JOURNAL_SUFFIX);
+        this.journal = FileChannel.open(journalFile,
+                                        StandardOpenOption.CREATE_NEW,
+                                        StandardOpenOption.WRITE,
+                                        StandardOpenOption.APPEND);
+        this.journalLock = journal.lock();
+        this.writer = new Thread(this::writeLoop, "session-write-behind");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Replays the journals of processes that exited with writes pending, and deletes them.
+     * Journals still locked by a running {@code sai} are left alone. A write whose messages are
+     * already the last messages of their run is not repeated.
+     *
+     * @param store       store to write the pending messages to
+     * @param sessionsDir the sessions directory
+     * @param mapper      mapper able to read {@link AgentMessage}s
+     * @return number of writes replayed
+     */
+    public static int recover(SessionStore store, Path sessionsDir, ObjectMapper mapper) {
+        final var dir = journalDir(sessionsDir);
+        if (!Files.isDirectory(dir)) {
+            return 0;
+        }
+        final List<Path> files;
+        try (var paths = Files.list(dir)) {
+            files = paths.filter(path -> path.getFileName().toString().endsWith(JOURNAL_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        catch (IOException e) {
+            log.warn("Failed to list session journals in {}: {}", dir, e.getMessage());
+            return 0;
+        }
+        var replayed = 0;
+        for (final var file : files) {
+            var done = false;
+            try (var channel = FileChannel.open(file, StandardOpenOption.WRITE);
+                 var fileLock = tryLock(channel)) {
+                if (fileLock == null) {
+                    continue;
+                }
+                for (final var group : coalesce(pendingWrites(file, mapper))) {
+                    if (!alreadySaved(store, group, mapper)) {
+                        store.saveMessages(group.sessionId(), group.runId(), group.messages());
+                        replayed++;
+                    }
+                }
+                done = true;
+            }
+            catch (Exception e) {
+                log.warn("Failed to replay session journal {}: {}", file, e.getMessage());
+            }
+            if (done) {
+                try {
+                    Files.deleteIfExists(file);
+                }
+                catch (IOException e) {
+                    log.warn("Failed to delete replayed session journal {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} unsaved session writes from {}", replayed, dir);
+        }
+        return replayed;
+    }
+
+    private static boolean alreadySaved(SessionStore store, Write write, ObjectMapper mapper) {
+        try {
+            final var saved = SessionStatsStore.runMessages(write.sessionId(), write.runId(), store);
+            if (saved.size() < write.messages().size()) {
+                return false;
+            }
+            final var tail = new ArrayList<>(saved.subList(0, write.messages().size()));
+            Collections.reverse(tail);
+            return mapper.valueToTree(tail).equals(mapper.valueToTree(write.messages()));
+        }
+        catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Merges consecutive writes for the same session and run, keeping the message order.
+     */
+    static List<Write> coalesce(List<Write> writes) {
+        final var groups = new ArrayList<Write>();
+        for (final var write : writes) {
+            final var last = groups.isEmpty() ? null : groups.get(groups.size() - 1);
+            if (last != null
+                    && last.sessionId().equals(write.sessionId())
+                    && Objects.equals(last.runId(), write.runId())) {
+                final var messages = new ArrayList<>(last.messages());
+                messages.addAll(write.messages());
+                groups.set(groups.size() - 1, new Write(write.seq(), write.sessionId(), write.runId(), messages));
+            }
+            else {
+                groups.add(write);
+            }
+        }
+        return groups;
+    }
+
+    private static Path journalDir(Path sessionsDir) {
+        return sessionsDir.resolveSibling(DIR_NAME);
+    }
+
+    private static List<Write> pendingWrites(Path file, ObjectMapper mapper) throws IOException {
+        final var writes = new ArrayList<Write>();
+        var applied = 0L;
+        for (final var line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            final JournalEntry entry;
+            try {
+                entry = mapper.readValue(line, JournalEntry.class);
+            }
+            catch (IOException e) {
+                // The last line of a journal may have been cut short by the crash
+                log.warn("Skipping unreadable line in session journal {}: {}", file, e.getMessage());
+                continue;
+            }
+            if (entry.applied() != null) {
+                applied = Math.max(applied, entry.applied());
+            }
+            else if (entry.seq() != null && entry.sessionId() != null && entry.messages() != null) {
+                writes.add(new Write(entry.seq(), entry.sessionId(), entry.runId(), entry.messages()));
+            }
+        }
+        final var highWaterMark = applied;
+        return writes.stream().filter(write -> write.seq() > highWaterMark).toList();
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        }
+        catch (OverlappingFileLockException e) {
+            // Held by this process
+            return null;
+        }
+    }
+
+    /**
+     * Writes the pending messages, waits up to the flush timeout for the writer to finish and
+     * deletes the journal if nothing is left. Writes still pending stay in the journal for
+     * {@link #recover(SessionStore, Path, ObjectMapper)}. Safe to call more than once, including
+     * from a shutdown hook.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            changed.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+        if (!awaitApplied()) {
+            writer.interrupt();
+        }
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            if (!journal.isOpen()) {
+                return;
+            }
+            final var pending = queue.size();
+            try {
+                journalLock.release();
+                journal.close();
+                if (pending == 0) {
+                    Files.deleteIfExists(journalFile);
+                }
+                else {
+                    log.warn("{} session writes could not be saved; they are kept in {} and replayed on the next start",
+                             pending,
+                             journalFile);
+                }
+            }
+            catch (IOException e) {
+                log.warn("Failed to close session journal {}: {}", journalFile, e.getMessage());
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean deleteSession(String sessionId) {
+        flush();
+        return delegate.deleteSession(sessionId);
+    }
+
+    /**
+     * Writes the pending messages to the wrapped store and waits for them.
+     *
+     * @return {@code true} if everything was written within the flush timeout
+     */
+    public boolean flush() {
+        lock.lock();
+        try {
+            if (queue.isEmpty()) {
+                return true;
+            }
+            flushRequested = true;
+            changed.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+        return awaitApplied();
+    }
+
+    /**
+     * @return number of writes not yet applied to the wrapped store
+     */
+    public int pending() {
+        lock.lock();
+        try {
+            return queue.size();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public BiScrollable<AgentMessage> readMessages(String sessionId,
+                                                   int count,
+                                                   boolean skipSystemPrompt,
+                                                   BiScrollable.DataPointer pointer,
+                                                   QueryDirection queryDirection) {
+        flush();
+        return delegate.readMessages(sessionId, count, skipSystemPrompt, pointer, queryDirection);
+    }
+
+    /**
+     * Journals the messages and returns; they are written to the wrapped store by the writer
+     * thread. If they cannot be journalled, or the writer has not caught up with a full queue
+     * within the flush timeout, the pending writes and these messages are saved synchronously.
+     *
+     * @throws UncheckedIOException if the synchronous save fails to update the journal
+     */
+    @Override
+    public void saveMessages(String sessionId, String runId, List<AgentMessage> messages) {
+        if (enqueue(sessionId, runId, messages)) {
+            return;
+        }
+        try {
+            // Everything queued before these messages goes first, so the history keeps its order
+            writePending();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        delegate.saveMessages(sessionId, runId, messages);
+    }
+
+    @Override
+    public Optional<SessionSummary> saveSession(SessionSummary sessionSummary) {
+        flush();
+        return delegate.saveSession(sessionSummary);
+    }
+
+    @Override
+    public Optional<SessionSummary> session(String sessionId) {
+        flush();
+        return delegate.session(sessionId);
+    }
+
+    @Override
+    public BiScrollable<SessionSummary> sessions(int count, String pointer, QueryDirection queryDirection) {
+        flush();
+        return delegate.sessions(count, pointer, queryDirection);
+    }
+
+    @Override
+    public String toString() {
+        return "WriteBehindSessionStore[" + delegate + "]";
+    }
+
+    private void apply(Write group, int writes) throws IOException {
+        delegate.saveMessages(group.sessionId(), group.runId(), group.messages());
+        lock.lock();
+        try {
+            for (var i = 0; i < writes; i++) {
+                queue.removeFirst();
+            }
+            applied = group.seq();
+            if (!journal.isOpen()) {
+                // Saved synchronously after close(); the journal kept for recovery skips it as already saved
+                log.debug("Session journal {} is closed, not marking write {} as applied", journalFile, applied);
+            }
+            else if (queue.isEmpty()) {
+                flushRequested = false;
+                journal.truncate(0);
+            }
+            else {
+                appendToJournal(JournalEntry.applied(applied));
+            }
+            changed.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private void appendToJournal(JournalEntry entry) throws IOException {
+        final var line = mapper.writeValueAsString(entry) + "\n";
+        final var buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+    }
+
+    private boolean awaitApplied() {
+        lock.lock();
+        try {
+            final var target = enqueued;
+            final var deadline = System.nanoTime() + flushTimeout.toNanos();
+            while (applied < target) {
+                final var remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !writer.isAlive()) {
+                    log.warn("Timed out waiting for {} pending session writes", queue.size());
+                    return false;
+                }
+                // Wake up now and then in case the writer died without signalling
+                changed.awaitNanos(Math.min(remaining, TimeUnit.SECONDS.toNanos(1)));
+            }
+            return true;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean due() {
+        return !queue.isEmpty() && (flushRequested || closed || queue.size() >= queueSize);
+    }
+
+    /**
+     * Journals and queues a write.
+     *
+     * @return {@code false} if the write has to be done directly, because the store is closed,
+     *         the queue stayed full for the flush timeout, the journal failed or the caller was
+     *         interrupted
+     */
+    private boolean enqueue(String sessionId, String runId, List<AgentMessage> messages) {
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            var remaining = flushTimeout.toNanos();
+            while (queue.size() >= queueSize) {
+                if (remaining <= 0) {
+                    log.warn("{} session writes are still pending after {} ms, saving synchronously",
+                             queue.size(),
+                             flushTimeout.toMillis());
+                    return false;
+                }
+                changed.signalAll();
+                remaining = changed.awaitNanos(remaining);
+            }
+            final var write = new Write(enqueued + 1, sessionId, runId, List.copyOf(messages));
+            try {
+                appendToJournal(JournalEntry.of(write));
+            }
+            catch (IOException e) {
+                log.warn("Failed to journal session write, saving it directly: {}", e.getMessage());
+                return false;
+            }
+            enqueued = write.seq();
+            queue.addLast(write);
+            if (queue.size() >= queueSize) {
+                changed.signalAll();
+            }
+            return true;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeLoop() {
+        var backoff = INITIAL_RETRY_BACKOFF;
+        while (true) {
+            lock.lock();
+            try {
+                while (!due()) {
+                    if (closed) {
+                        return;
+                    }
+                    changed.await();
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            finally {
+                lock.unlock();
+            }
+            try {
+                writePending();
+                backoff = INITIAL_RETRY_BACKOFF;
+            }
+            catch (Exception e) {
+                log.warn("Failed to save session messages, retrying in {} ms: {}", backoff.toMillis(), e.getMessage());
+                try {
+                    Thread.sleep(backoff.toMillis());
+                }
+                catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(MAX_RETRY_BACKOFF) > 0
+                        ? MAX_RETRY_BACKOFF
+                        : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    /**
+     * Applies the writes queued so far, merged per run. Runs on the writer thread, or on a caller
+     * whose write could not be queued; {@code writing} keeps the two from applying the same writes.
+     */
+    private void writePending() throws IOException {
+        writing.lock();
+        try {
+            final List<Write> batch;
+            lock.lock();
+            try {
+                batch = new ArrayList<>(queue);
+            }
+            finally {
+                lock.unlock();
+            }
+            var start = 0;
+            for (final var group : coalesce(batch)) {
+                var writes = 0;
+                while (start + writes < batch.size() && batch.get(start + writes).seq() <= group.seq()) {
+                    writes++;
+                }
+                apply(group, writes);
+                start += writes;
+            }
+        }
+        finally {
+            writing.unlock();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.transform;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Checks that the leading bytes of a prompt stay byte-identical from one request to the next, as
+ * providers can only serve the shared prefix of two prompts from their prompt cache.
+ *
+ * <p>{@link #compare(List)} is a port of {@code cache-bench/prefix_stability.py}: it computes the
+ * prefix shared by all of a set of prompts and where the first two diverge.
+ * {@link #observe(String, List)} applies the same measure between consecutive requests of one
+ * conversation. A request is rendered in the order providers cache it (tool definitions, then the
+ * system prompt, then the messages) as labelled segments, so that appending messages extends the
+ * rendering without changing what came before. If anything within the first
+ * {@code windowBytes} of the previous rendering changes, such as a timestamp in the system prompt
+ * or reordered tools, a {@link Divergence} naming the segment is returned.
+ *
+ * <p>Only the window, and a snippet's worth beyond it, is rendered and kept per conversation,
+ * and at most {@value #MAX_CONVERSATIONS} conversations are remembered, the least recently seen
+ * being dropped first, so the checker's memory stays small however long the prompts grow.
+ */
+public class PrefixStabilityChecker {
+    public static final int DEFAULT_WINDOW_BYTES = 32 * 1024;
+    static final int MAX_CONVERSATIONS = 64;
+
+    private static final int SNIPPET_BYTES = 70;
+
+    /**
+     * A labelled part of a rendered prompt, e.g. {@code tools[0]} or {@code messages[3]}.
+     */
+    public record Segment(String label, String text) {
+    }
+
+    /**
+     * Where two renderings of the same conversation first differ.
+     *
+     * @param offset   byte offset of the first difference
+     * @param segment  label of the segment containing it
+     * @param previous up to 70 bytes of the previous rendering from the offset
+     * @param current  up to 70 bytes of the current rendering from the offset
+     */
+    public record Divergence(int offset, String segment, String previous, String current) {
+        public String describe() {
+            return "prompt prefix changed at byte %d in %s: %s -> %s".formatted(offset, segment, quote(previous), quote(current));
+        }
+    }
+
+    /**
+     * Shared-prefix summary of a set of prompts, as printed by {@code prefix_stability.py}.
+     */
+    public record Report(int runs, int promptBytes, int sharedBytes, String firstRun, String secondRun) {
+        public double sharedPercent() {
+            return promptBytes == 0 ? 100.0 : sharedBytes * 100.0 / promptBytes;
+        }
+
+        public String format() {
+            return """
+                    runs captured  : %d
+                    prompt bytes   : %d
+                    shared prefix  : %d bytes  (%.1f%%)
+                    first divergence:
+                       run0: %s
+                       run1: %s
+                    """.formatted(runs, promptBytes, sharedBytes, sharedPercent(), quote(firstRun), quote(secondRun));
+        }
+    }
+
+    private record Rendering(byte[] bytes, List<String> labels, int[] offsets) {
+    }
+
+    /** Access-ordered map that forgets the least recently seen conversation once full. */
+    private static final class Renderings extends LinkedHashMap<String, Rendering> {
+        private static final long serialVersionUID = 1L;
+
+        Renderings() {
+            super(MAX_CONVERSATIONS, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Rendering> eldest) {
+            return size() > MAX_CONVERSATIONS;
+        }
+    }
+
+    private final int windowBytes;
+    private final Map<String, Rendering> previous = Collections.synchronizedMap(new Renderings());
+
+    public PrefixStabilityChecker() {
+        this(DEFAULT_WINDOW_BYTES);
+    }
+
+    public PrefixStabilityChecker(int windowBytes) {
+        this.windowBytes = windowBytes;
+    }
+
+    /**
+     * Measures the prefix shared by all {@code prompts} and where the first two diverge.
+     *
+     * @param prompts at least two prompts, e.g. the system prompt of several runs
+     * @return the report; its size and prefix refer to the first prompt
+     * @throws IllegalArgumentException if fewer than two prompts are given
+     */
+    public static Report compare(List<String> prompts) {
+        if (prompts.size() < 2) {
+            throw new IllegalArgumentException("At least two prompts are needed to compare, got " + prompts.size());
+        }
+        final var base = prompts.get(0).getBytes(StandardCharsets.UTF_8);
+        var shared = base.length;
+        for (final var prompt : prompts.subList(1, prompts.size())) {
+            shared = Math.min(shared, sharedPrefix(base, prompt.getBytes(StandardCharsets.UTF_8)));
+        }
+        final var second = prompts.get(1).getBytes(StandardCharsets.UTF_8);
+        return new Report(prompts.size(), base.length, shared, snippet(base, shared), snippet(second, shared));
+    }
+
+    static int sharedPrefix(byte[] lhs, byte[] rhs) {
+        final var mismatch = Arrays.mismatch(lhs, rhs);
+        return mismatch < 0 ? lhs.length : mismatch;
+    }
+
+    private static String quote(String text) {
+        return "'" + text.replace("\\", "\\\\").replace("\n", "\\n").replace("'", "\\'") + "'";
+    }
+
+    /**
+     * Renders the segments up to {@code limitBytes}; segments starting beyond it are left out and
+     * the bytes are cut at it.
+     */
+    private static Rendering render(List<Segment> segments, int limitBytes) {
+        final var out = new StringBuilder();
+        final var labels = new ArrayList<String>();
+        final var offsets = new ArrayList<Integer>();
+        var offset = 0;
+        for (var i = 0; i < segments.size() && offset < limitBytes; i++) {
+            final var segment = segments.get(i);
+            final var text = segment.text() + "\n";
+            labels.add(segment.label());
+            offsets.add(offset);
+            offset += text.getBytes(StandardCharsets.UTF_8).length;
+            out.append(text);
+        }
+        final var bytes = out.toString().getBytes(StandardCharsets.UTF_8);
+        return new Rendering(bytes.length > limitBytes ? Arrays.copyOf(bytes, limitBytes) : bytes,
+                             List.copyOf(labels),
+                             offsets.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static String snippet(byte[] bytes, int from) {
+        final var to = Math.min(bytes.length, from + SNIPPET_BYTES);
+        return from >= to ? "" : new String(bytes, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return number of leading bytes of a request that are rendered: the window and a snippet
+     *         past it. Segments starting after them need not be passed to {@link #observe}
+     */
+    public int renderedBytes() {
+        return windowBytes <= 0 ? 0 : windowBytes + SNIPPET_BYTES;
+    }
+
+    /**
+     * Compares a request with the previous one observed under the same key and remembers its
+     * window for the next call.
+     *
+     * @param key      identifies the conversation, so that unrelated requests are not compared
+     * @param segments the request in prompt order
+     * @return the first change within the checked window, or empty if the prefix is stable or this
+     *         is the first request under {@code key}
+     */
+    public Optional<Divergence> observe(String key, List<Segment> segments) {
+        if (windowBytes <= 0) {
+            return Optional.empty();
+        }
+        // The snippet past the window is kept so that a change at its very end can be shown
+        final var current = render(segments, renderedBytes());
+        final var last = previous.put(key, current);
+        if (last == null) {
+            return Optional.empty();
+        }
+        final var checked = Math.min(windowBytes, Math.min(last.bytes().length, current.bytes().length));
+        final var shared = sharedPrefix(last.bytes(), current.bytes());
+        if (shared >= checked) {
+            return Optional.empty();
+        }
+        var segment = 0;
+        while (segment + 1 < current.offsets().length && current.offsets()[segment + 1] <= shared) {
+            segment++;
+        }
+        final var label = current.labels().isEmpty() ? "request" : current.labels().get(segment);
+        return Optional.of(new Divergence(shared, label, snippet(last.bytes(), shared), snippet(current.bytes(), shared)));
+    }
+}
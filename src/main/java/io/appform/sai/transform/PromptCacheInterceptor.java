@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.transform;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.appform.sai.config.PromptCachePolicy;
+import io.appform.sai.http.HedgingInterceptor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+
+/**
+ * An OkHttp interceptor that helps providers serve chat-completion prompts from their prompt
+ * cache.
+ *
+ * <p>For models matching {@link PromptCachePolicy#getModels()}, it adds Anthropic-style
+ * {@code cache_control} breakpoints, which OpenAI-compatible gateways pass through to Anthropic
+ * models. Anthropic allows four per request; they are placed on
+ * <ul>
+ * <li>the last tool definition, caching all tools;</li>
+ * <li>the system prompt;</li>
+ * <li>the last message, the end of the history the next request will resend;</li>
+ * <li>the last message before the newest user prompt, where the previous turn's final breakpoint
+ * was, so that its cache entry is still found after a long run of tool calls.</li>
+ * </ul>
+ * String message content is turned into a single text part to carry the breakpoint. Requests that
+ * already contain {@code cache_control} anywhere, e.g. from a request transform, are left alone.
+ *
+ * <p>For all models, the request is passed to a {@link PrefixStabilityChecker} before breakpoints
+ * are added, and a warning is logged the first time a segment within the checked prefix changes
+ * between turns of a conversation. Duplicates sent by the {@link HedgingInterceptor} get their
+ * breakpoints but are not checked, as the original request already was.
+ */
+@Slf4j
+public class PromptCacheInterceptor implements Interceptor {
+
+    private static final String CHAT_COMPLETIONS_PATH = "/chat/completions";
+    private static final String CACHE_CONTROL = "cache_control";
+    private static final String CONTENT = "content";
+    private static final String MESSAGES = "messages";
+    private static final String TOOLS = "tools";
+
+    private final ObjectMapper mapper;
+    private final boolean breakpoints;
+    private final Pattern models;
+    private final PrefixStabilityChecker checker;
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    public PromptCacheInterceptor(ObjectMapper mapper, @Nullable PromptCachePolicy policy) {
+        final var effective = policy == null
+                ? PromptCachePolicy.DEFAULT
+                : policy.withDefaults(PromptCachePolicy.DEFAULT);
+        this.mapper = mapper;
+        this.breakpoints = effective.getBreakpoints();
+        this.models = Pattern.compile(effective.getModels());
+        this.checker = new PrefixStabilityChecker(effective.getStabilityWindowKb() * 1024);
+    }
+
+    /**
+     * Identifies the conversation a request belongs to by model and set of tool names, so that
+     * e.g. compaction requests, which use other tools, are not compared with agent turns.
+     */
+    private static String conversationKey(ObjectNode payload) {
+        final var toolNames = new TreeSet<String>();
+        payload.path(TOOLS).forEach(tool -> toolNames.add(tool.path("function").path("name").asText()));
+        return payload.path("model").asText() + "|" + toolNames;
+    }
+
+    private static boolean hasCacheControl(JsonNode node) {
+        return node.findParent(CACHE_CONTROL) != null;
+    }
+
+    private static int lastMarkable(ArrayNode messages, int before, int after) {
+        for (var i = before - 1; i > after; i--) {
+            if (markable(messages.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean markable(JsonNode message) {
+        final var content = message.path(CONTENT);
+        return (content.isTextual() && !content.asText().isEmpty())
+                || (content.isArray() && !content.isEmpty() && content.get(content.size() - 1).isObject());
+    }
+
+    /**
+     * Adds breakpoints as described in the class documentation.
+     *
+     * @return the number of breakpoints added
+     */
+    int addBreakpoints(ObjectNode payload) {
+        var added = 0;
+        final var tools = payload.path(TOOLS);
+        if (tools.isArray() && !tools.isEmpty() && tools.get(tools.size() - 1).isObject()) {
+            ((ObjectNode) tools.get(tools.size() - 1)).set(CACHE_CONTROL, ephemeral());
+            added++;
+        }
+        if (!(payload.path(MESSAGES) instanceof ArrayNode messages) || messages.isEmpty()) {
+            return added;
+        }
+        var system = -1;
+        if ("system".equals(messages.get(0).path("role").asText()) && markable(messages.get(0))) {
+            system = 0;
+            mark((ObjectNode) messages.get(0));
+            added++;
+        }
+        final var last = lastMarkable(messages, messages.size(), system);
+        if (last >= 0) {
+            mark((ObjectNode) messages.get(last));
+            added++;
+        }
+        var lastUser = -1;
+        for (var i = messages.size() - 1; i > system && lastUser < 0; i--) {
+            if ("user".equals(messages.get(i).path("role").asText())) {
+                lastUser = i;
+            }
+        }
+        final var previousTurn = lastUser < 0 ? -1 : lastMarkable(messages, lastUser, system);
+        if (previousTurn >= 0 && previousTurn != last) {
+            mark((ObjectNode) messages.get(previousTurn));
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * Renders the request in the order providers cache it: tools, then messages. Rendering stops
+     * once {@code limitChars} characters, and so at least as many UTF-8 bytes, are rendered.
+     */
+    List<PrefixStabilityChecker.Segment> segments(ObjectNode payload, int limitChars) throws IOException {
+        final var segments = new ArrayList<PrefixStabilityChecker.Segment>();
+        var rendered = 0L;
+        final var tools = payload.path(TOOLS);
+        for (var i = 0; i < tools.size() && rendered < limitChars; i++) {
+            final var text = mapper.writeValueAsString(tools.get(i));
+            segments.add(new PrefixStabilityChecker.Segment("tools[" + i + "]", text));
+            rendered += text.length() + 1;
+        }
+        final var messages = payload.path(MESSAGES);
+        for (var i = 0; i < messages.size() && rendered < limitChars; i++) {
+            final var message = messages.get(i);
+            final var label = "system".equals(message.path("role").asText()) ? "system prompt" : "messages[" + i + "]";
+            final var text = mapper.writeValueAsString(message);
+            segments.add(new PrefixStabilityChecker.Segment(label, text));
+            rendered += text.length() + 1;
+        }
+        return segments;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        var request = chain.request();
+        final var body = request.body();
+        if (body == null || body.isOneShot() || !request.url().encodedPath().endsWith(CHAT_COMPLETIONS_PATH)) {
+            return chain.proceed(request);
+        }
+        final var buffer = new Buffer();
+        body.writeTo(buffer);
+        final var bodyString = buffer.readUtf8();
+        if (bodyString.isBlank() || !(mapper.readTree(bodyString) instanceof ObjectNode payload)) {
+            return chain.proceed(request);
+        }
+
+        if (!HedgingInterceptor.isHedgedCopy(chain.call())) {
+            checkStability(payload);
+        }
+
+        if (breakpoints
+                && models.matcher(payload.path("model").asText()).matches()
+                && !hasCacheControl(payload)) {
+            final var added = addBreakpoints(payload);
+            if (added > 0) {
+                log.debug("Added {} cache_control breakpoint(s) to request for {}", added, payload.path("model").asText());
+                request = request.newBuilder()
+                        .method(request.method(), RequestBody.create(mapper.writeValueAsString(payload), body.contentType()))
+                        .build();
+            }
+        }
+        return chain.proceed(request);
+    }
+
+    private void checkStability(ObjectNode payload) throws IOException {
+        final var key = conversationKey(payload);
+        checker.observe(key, segments(payload, checker.renderedBytes())).ifPresent(divergence -> {
+            if (reported.add(key + "#" + divergence.segment())) {
+                log.warn("Prompt-cache miss likely: {}", divergence.describe());
+            }
+            else {
+                log.debug("Prompt-cache miss likely: {}", divergence.describe());
+            }
+        });
+    }
+
+    private ObjectNode ephemeral() {
+        return mapper.createObjectNode().put("type", "ephemeral");
+    }
+
+    private void mark(ObjectNode message) {
+        final var content = message.get(CONTENT);
+        if (content.isTextual()) {
+            final var part = mapper.createObjectNode()
+                    .put("type", "text")
+                    .put("text", content.asText());
+            part.set(CACHE_CONTROL, ephemeral());
+            message.set(CONTENT, mapper.createArrayNode().add(part));
+        }
+        else {
+            ((ObjectNode) content.get(content.size() - 1)).set(CACHE_CONTROL, ephemeral());
+        }
+    }
+}
@@ -15,17 +15,30 @@
  */
 package io.appform.sai;
 
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.appform.sai.config.CompressionPolicy;
+import io.appform.sai.config.EndpointEntry;
+import io.appform.sai.config.HedgingPolicy;
 import io.appform.sai.config.ProviderEntry;
+import io.appform.sai.config.RetryPolicy;
 import io.appform.sai.config.SettingsConfig;
+import io.appform.sai.http.EndpointRouter;
+import io.appform.sai.http.HedgingInterceptor;
+import io.appform.sai.http.RequestCompressionInterceptor;
+import io.appform.sai.http.RetryInterceptor;
+import io.appform.sai.http.StreamWatchdogInterceptor;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 import okhttp3.OkHttpClient;
@@ -56,6 +69,66 @@ class ConfigurableProviderFactoryTest {
         assertTrue(expected.equals(actual), "Expected '" + expected + "' but got '" + actual + "'");
     }
 
+    private static List<Class<?>> interceptorTypes(OkHttpClient client) {
+        return client.interceptors().stream().<Class<?>>map(Object::getClass).toList();
+    }
+
+    @Test
+    void baseUrlFollowsConfigThenBuiltInDefaults() {
+        final var config = SettingsConfig.builder()
+                .providers(Map.of("openrouter",
+                                  ProviderEntry.builder()
+                                          .type("openai")
+                                          .endpoint("https://openrouter.ai/api/v1")
+                                          .apiKey("or-key")
+                                          .build()))
+                .build();
+
+        assertEquals("https://openrouter.ai/api/v1",
+                     ConfigurableProviderFactory.baseUrl("openrouter", config).orElse(null));
+        assertEquals(CopilotDirectProvider.COPILOT_API_BASE_URL,
+                     ConfigurableProviderFactory.baseUrl("copilot", config).orElse(null));
+        assertTrue(ConfigurableProviderFactory.baseUrl("unknown", config).isEmpty());
+    }
+
+    @Test
+    void withResilienceAddsConfiguredInterceptors() {
+        assertIterableEquals(List.of(RetryInterceptor.class, StreamWatchdogInterceptor.class),
+                             interceptorTypes(ConfigurableProviderFactory.withResilience(httpClient, "openai", null)));
+
+        final var allDisabled = ProviderEntry.builder()
+                .retry(RetryPolicy.builder().maxAttempts(1).build())
+                .streamIdleTimeout(Duration.ZERO)
+                .build();
+        assertSame(httpClient, ConfigurableProviderFactory.withResilience(httpClient, "openai", allDisabled));
+
+        final var hedged = ProviderEntry.builder()
+                .hedging(HedgingPolicy.builder().enabled(true).build())
+                .streamIdleTimeout(Duration.ZERO)
+                .build();
+        assertIterableEquals(List.of(RetryInterceptor.class, HedgingInterceptor.class),
+                             interceptorTypes(ConfigurableProviderFactory.withResilience(httpClient, "openai", hedged)));
+
+        final var multiRegion = ProviderEntry.builder()
+                .endpoint("https://eastus.example.com/openai")
+                .endpoints(List.of(EndpointEntry.of("https://westeurope.example.com/openai")))
+                .retry(RetryPolicy.builder().maxAttempts(1).build())
+                .build();
+        assertIterableEquals(List.of(StreamWatchdogInterceptor.class, EndpointRouter.class),
+                             interceptorTypes(ConfigurableProviderFactory.withResilience(httpClient,
+                                                                                         "multi-region",
+                                                                                         multiRegion)));
+
+        final var compressed = ProviderEntry.builder()
+                .retry(RetryPolicy.builder().maxAttempts(1).build())
+                .streamIdleTimeout(Duration.ZERO)
+                .compression(CompressionPolicy.builder().enabled(true).build())
+                .build();
+        final var compressedClient = ConfigurableProviderFactory.withResilience(httpClient, "openai", compressed);
+        assertIterableEquals(List.of(RequestCompressionInterceptor.class),
+                             compressedClient.networkInterceptors().stream().map(Object::getClass).toList());
+    }
+
     @Test
     void getAzureFromConfigSucceedsWithoutEnvVars() {
         final var config = SettingsConfig.builder()
@@ -30,6 +30,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class CopilotDirectProviderTest {
 
@@ -180,6 +185,80 @@ class CopilotDirectProviderTest {
     // persistToken — static helper
     // -------------------------------------------------------------------------
 
+    @Test
+    void persistTokenLeavesNoTemporaryFiles() throws Exception {
+        final var mapper = new ObjectMapper();
+        final var cacheFile = tmpDir.resolve("copilot_access_token.json");
+        final long futureExpiry = Instant.now().getEpochSecond() + 3600;
+
+        CopilotDirectProvider.persistToken(CopilotDirectProvider.CopilotTokenResponse.of("one", futureExpiry, 1800),
+                                           cacheFile,
+                                           mapper);
+        CopilotDirectProvider.persistToken(CopilotDirectProvider.CopilotTokenResponse.of("two", futureExpiry, 1800),
+                                           cacheFile,
+                                           mapper);
+
+        try (var files = Files.list(tmpDir)) {
+            assertEquals(List.of(cacheFile), files.toList());
+        }
+        assertEquals("two", CopilotDirectProvider.loadCachedToken(cacheFile, mapper).token());
+    }
+
+    // -------------------------------------------------------------------------
+    // refreshShared — cross-process token refresh
+    // -------------------------------------------------------------------------
+
+    @Test
+    void refreshSharedFetchesOnceForConcurrentCallers() throws Exception {
+        final var mapper = new ObjectMapper();
+        final var cacheFile = tmpDir.resolve("copilot_access_token.json");
+        final var fetches = new AtomicInteger();
+        final var executor = Executors.newFixedThreadPool(8);
+        try {
+            final var results = new ArrayList<Future<CopilotDirectProvider.CopilotTokenResponse>>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> CopilotDirectProvider.refreshShared(cacheFile, mapper, null, () -> {
+                    fetches.incrementAndGet();
+                    return CopilotDirectProvider.CopilotTokenResponse.of("shared-tok",
+                                                                          Instant.now().getEpochSecond() + 3600,
+                                                                          1800);
+                })));
+            }
+            for (final var result : results) {
+                assertEquals("shared-tok", result.get().token());
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void refreshSharedReplacesRejectedToken() throws Exception {
+        final var mapper = new ObjectMapper();
+        final var cacheFile = tmpDir.resolve("copilot_access_token.json");
+        final long futureExpiry = Instant.now().getEpochSecond() + 3600;
+        CopilotDirectProvider.persistToken(CopilotDirectProvider.CopilotTokenResponse.of("rejected-tok",
+                                                                                         futureExpiry,
+                                                                                         1800),
+                                           cacheFile,
+                                           mapper);
+
+        final var refreshed = CopilotDirectProvider.refreshShared(cacheFile,
+                                                                  mapper,
+                                                                  "rejected-tok",
+                                                                  () -> CopilotDirectProvider.CopilotTokenResponse
+                                                                          .of("new-tok", futureExpiry, 1800));
+        final var reused = CopilotDirectProvider.refreshShared(cacheFile, mapper, "rejected-tok", () -> {
+            throw new IllegalStateException("Token was refreshed already and must not be fetched again");
+        });
+
+        assertEquals("new-tok", refreshed.token());
+        assertEquals("new-tok", reused.token());
+        assertEquals("new-tok", CopilotDirectProvider.loadCachedToken(cacheFile, mapper).token());
+    }
+
     @Test
     void resolveCachedTokenPathReturnsDefaultUnderHomeDir() {
         final var resolved = CopilotDirectProvider.resolveCachedTokenPath();
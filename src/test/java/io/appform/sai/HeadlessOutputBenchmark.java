@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import lombok.SneakyThrows;
+
+/**
+ * Compares the per-turn output cost of the two {@link CommandProcessor} execution paths:
+ * <ul>
+ * <li>{@code streamed} — the answer arrives in small chunks and goes through
+ * {@link AgentStreamConsumer}, {@link BufferedOutputPrinter} and a {@link MarkdownRenderer}
+ * call per sentence/line/block.</li>
+ * <li>{@code nonStreamedHeadless} — what {@code --no-stream} does in headless mode: a single
+ * update carrying the unrendered final answer.</li>
+ * <li>{@code nonStreamedInteractive} — {@code --no-stream} in a terminal: the full answer is
+ * rendered once.</li>
+ * </ul>
+ *
+ * <p>Run with:
+ * <pre>
+ * mvn -B test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=io.appform.sai.HeadlessOutputBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeadlessOutputBenchmark {
+
+    private static final int CHUNK_SIZE = 6;
+
+    private static final class DiscardingPrinter extends Printer {
+
+        private Blackhole blackhole;
+
+        @SneakyThrows
+        DiscardingPrinter(ExecutorService executorService) {
+            super(Settings.builder().headless(true).build(), executorService, null, null);
+        }
+
+        @Override
+        public void print(List<Update> updates) {
+            blackhole.consume(updates);
+        }
+    }
+
+    private ExecutorService executorService;
+    private DiscardingPrinter printer;
+    private String answer;
+    private List<String> chunks;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HeadlessOutputBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    private static String sampleAnswer() {
+        final var sb = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            sb.append("## Step ").append(i).append("\n\n")
+                    .append("The build failed because the **compiler** could not find `Foo.bar()`. ")
+                    .append("Fix the import and re-run the tests. It should pass now!\n\n")
+                    .append("- first item with *emphasis*\n")
+                    .append("- second item with a [link](https://example.com)\n\n")
+                    .append("```java\nfinal var x = new Foo();\nx.bar();\n```\n\n")
+                    .append("| Name | Value |\n|------|-------|\n| a | 1 |\n| b | 2 |\n\n");
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public void nonStreamedHeadless(Blackhole blackhole) {
+        printer.blackhole = blackhole;
+        printer.print(Printer.assistantMessage(answer).withImportant(true).withRaw(true));
+    }
+
+    @Benchmark
+    public void nonStreamedInteractive(Blackhole blackhole) {
+        printer.blackhole = blackhole;
+        printer.print(Printer.assistantMessage(MarkdownRenderer.toAnsi(answer)).withImportant(true).withRaw(true));
+    }
+
+    @Setup
+    public void setup() {
+        executorService = Executors.newSingleThreadExecutor();
+        printer = new DiscardingPrinter(executorService);
+        answer = sampleAnswer();
+        chunks = new ArrayList<>();
+        for (int i = 0; i < answer.length(); i += CHUNK_SIZE) {
+            chunks.add(answer.substring(i, Math.min(answer.length(), i + CHUNK_SIZE)));
+        }
+    }
+
+    @Benchmark
+    public void streamed(Blackhole blackhole) {
+        printer.blackhole = blackhole;
+        final var consumer = new AgentStreamConsumer(new BufferedOutputPrinter(printer),
+                                                     new BufferedOutputPrinter(printer));
+        for (final var chunk : chunks) {
+            consumer.consumeReasoningAndContent(null, chunk);
+        }
+        consumer.markDone();
+    }
+
+    @TearDown
+    @SneakyThrows
+    public void tearDown() {
+        printer.close();
+        executorService.shutdownNow();
+    }
+}
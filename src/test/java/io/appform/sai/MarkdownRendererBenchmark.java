@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmarks for {@link MarkdownRenderer}. Each {@code *Full} benchmark goes through the
+ * commonmark parser without the fast path or cache ({@link MarkdownRenderer#render(String)}) and
+ * is the baseline for its {@link MarkdownRenderer#toAnsi(String)} counterpart.
+ *
+ * <p>Run with:
+ * <pre>
+ * mvn -B test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=io.appform.sai.MarkdownRendererBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarkdownRendererBenchmark {
+
+    private static final String PLAIN_SENTENCE = "The build failed because the compiler could not resolve the import.";
+    private static final String INLINE_SENTENCE = "Call **`Foo.bar()`** before *anything* else.";
+    private static final String TABLE = """
+            | Name | Type | Description |
+            |------|------|-------------|
+            | `id` | **string** | Unique identifier |
+            | `createdAt` | *long* | Creation time in epoch millis |
+            | `owner` | string | Owning user |
+            """;
+    private static final String ANSI_CELL = Printer.Colours.YELLOW + "`createdAt`" + Printer.Colours.RESET
+            + "\u001B[1m long \u001B[22m";
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MarkdownRendererBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Benchmark
+    public String inlineSentence() {
+        return MarkdownRenderer.toAnsi(INLINE_SENTENCE);
+    }
+
+    @Benchmark
+    public String inlineSentenceFull() {
+        return MarkdownRenderer.render(INLINE_SENTENCE);
+    }
+
+    @Benchmark
+    public String plainSentence() {
+        return MarkdownRenderer.toAnsi(PLAIN_SENTENCE);
+    }
+
+    @Benchmark
+    public String plainSentenceFull() {
+        return MarkdownRenderer.render(PLAIN_SENTENCE);
+    }
+
+    @Benchmark
+    public String stripAnsiRegex() {
+        return MarkdownRenderer.stripAnsi(ANSI_CELL);
+    }
+
+    @Benchmark
+    public String tableCached() {
+        return MarkdownRenderer.toAnsi(TABLE);
+    }
+
+    @Benchmark
+    public String tableFull() {
+        return MarkdownRenderer.render(TABLE);
+    }
+
+    @Benchmark
+    public int visibleLength() {
+        return MarkdownRenderer.visibleLength(ANSI_CELL);
+    }
+}
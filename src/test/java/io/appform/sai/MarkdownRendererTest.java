@@ -15,11 +15,14 @@
  */
 package io.appform.sai;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class MarkdownRendererTest {
 
@@ -124,6 +127,33 @@ class MarkdownRendererTest {
         assertTrue(stripAnsi(result).contains("world"), "plain text should be present");
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "# Heading",
+            "- item",
+            "+ item",
+            "1. first",
+            "3) third",
+            "> quote",
+            "    indented code",
+            "\tindented code",
+            "---",
+            "~~~",
+            "```java",
+            "some **bold** text",
+            "some `code` here",
+            "a [link](https://example.com)",
+            "escaped \\* star",
+            "entity &amp; text",
+            "<b>html</b>",
+            "| a | b |",
+            "two\nlines"
+    })
+    void linesWithMarkupUseFullParser(String line) {
+        assertNull(MarkdownRenderer.plainLine(line));
+        assertEquals(MarkdownRenderer.render(line), MarkdownRenderer.toAnsi(line));
+    }
+
     @Test
     void mixedContentDoesNotThrow() {
         final var md = """
@@ -187,12 +217,35 @@ class MarkdownRendererTest {
     // GFM tables
     // ------------------------------------------------------------------
 
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "The build passed.",
+            "   Indented by three spaces.",
+            "Trailing whitespace is dropped.  \t",
+            "2024 was a good year!",
+            "Question? Yes: it works, 100% (mostly).",
+            "Unicode ✓ passes through — fine"
+    })
+    void plainLineFastPathMatchesFullRender(String line) {
+        assertNotNull(MarkdownRenderer.plainLine(line), "line should take the fast path");
+        assertEquals(MarkdownRenderer.render(line), MarkdownRenderer.toAnsi(line));
+    }
+
     @Test
     void plainParagraphPreservesText() {
         final var result = MarkdownRenderer.toAnsi("Hello, world!");
         assertTrue(stripAnsi(result).contains("Hello, world!"), "plain text should be preserved");
     }
 
+    @Test
+    void repeatedBlocksRenderIdentically() {
+        final var md = "| A | B |\n|---|---|\n| `x` | **y** |\n";
+        final var first = MarkdownRenderer.toAnsi(md);
+        final var second = MarkdownRenderer.toAnsi(md);
+        assertEquals(first, second);
+        assertEquals(MarkdownRenderer.render(md), second);
+    }
+
     @Test
     void tableCellTextIsPresentInOutput() {
         final var md = "| Language | Stars |\n|----------|-------|\n| Java     | 9999  |\n| Kotlin   | 8888  |\n";
@@ -265,4 +318,12 @@ class MarkdownRendererTest {
         final var result = MarkdownRenderer.toAnsi("---");
         assertTrue(stripAnsi(result).contains("─"), "thematic break should produce horizontal line characters");
     }
+
+    @Test
+    void visibleLengthSkipsAnsiEscapes() {
+        final var s = Printer.Colours.YELLOW + "`code`" + Printer.Colours.RESET + "\u001B[1mbold\u001B[22m";
+        assertEquals(stripAnsi(s).length(), MarkdownRenderer.visibleLength(s));
+        assertEquals(stripAnsi(s), MarkdownRenderer.stripAnsi(s));
+        assertEquals(3, MarkdownRenderer.visibleLength("abc"));
+    }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.phonepe.sentinelai.core.agentmessages.AgentMessage;
+import com.phonepe.sentinelai.core.agentmessages.requests.UserPrompt;
+import com.phonepe.sentinelai.core.agentmessages.responses.Text;
+import com.phonepe.sentinelai.core.model.ModelUsageStats;
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+class TranscriptPagerTest {
+
+    private static final String SESSION_ID = "test-pager-session";
+    private static final int TOTAL_TURNS = 12;
+
+    @TempDir
+    Path tempDir;
+
+    private FileSystemSessionStore sessionStore;
+
+    private static List<String> prompts(List<AgentMessage> messages) {
+        return messages.stream()
+                .filter(UserPrompt.class::isInstance)
+                .map(message -> ((UserPrompt) message).getContent())
+                .toList();
+    }
+
+    @Test
+    void pagesBackwardsThroughAllTurns() {
+        final var pager = new TranscriptPager(sessionStore, SESSION_ID, 5);
+
+        assertEquals(List.of("prompt-9", "prompt-10", "prompt-11"), prompts(pager.previousTurns(3)));
+        assertEquals(List.of("prompt-4", "prompt-5", "prompt-6", "prompt-7", "prompt-8"),
+                     prompts(pager.previousTurns(5)));
+        assertEquals(List.of("prompt-0", "prompt-1", "prompt-2", "prompt-3"), prompts(pager.previousTurns(10)));
+        assertFalse(pager.hasMore());
+        assertTrue(pager.previousTurns(1).isEmpty());
+    }
+
+    @Test
+    void returnsCompleteTurnsInChronologicalOrder() {
+        final var pager = new TranscriptPager(sessionStore, SESSION_ID, 3);
+
+        final var messages = pager.previousTurns(2);
+
+        assertEquals(4, messages.size());
+        assertEquals("prompt-10", ((UserPrompt) messages.get(0)).getContent());
+        assertEquals("answer-10", ((Text) messages.get(1)).getContent());
+        assertEquals("prompt-11", ((UserPrompt) messages.get(2)).getContent());
+        assertEquals("answer-11", ((Text) messages.get(3)).getContent());
+        assertTrue(pager.hasMore());
+    }
+
+    @BeforeEach
+    void setUp() {
+        sessionStore = FileSystemSessionStore.builder()
+                .baseDir(tempDir.resolve("sessions").toString())
+                .mapper(JsonUtils.createMapper())
+                .cacheSize(1)
+                .build();
+        sessionStore.saveSession(SessionSummary.builder()
+                .sessionId(SESSION_ID)
+                .title("Pager test")
+                .updatedAt(System.currentTimeMillis())
+                .build());
+        IntStream.range(0, TOTAL_TURNS).forEach(turn -> {
+            final var runId = "run-" + turn;
+            sessionStore.saveMessages(SESSION_ID,
+                                      runId,
+                                      List.of(UserPrompt.builder()
+                                              .sessionId(SESSION_ID)
+                                              .runId(runId)
+                                              .content("prompt-" + turn)
+                                              .build(),
+                                              Text.builder()
+                                                      .sessionId(SESSION_ID)
+                                                      .runId(runId)
+                                                      .content("answer-" + turn)
+                                                      .stats(new ModelUsageStats())
+                                                      .elapsedTimeMs(10)
+                                                      .build()));
+        });
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.phonepe.sentinelai.core.agentmessages.AgentMessage;
+import com.phonepe.sentinelai.core.agentmessages.responses.Text;
+import com.phonepe.sentinelai.core.events.MessageReceivedAgentEvent;
+import com.phonepe.sentinelai.core.events.ToolCallCompletedAgentEvent;
+import com.phonepe.sentinelai.core.events.ToolCalledAgentEvent;
+import com.phonepe.sentinelai.core.model.ModelUsageStats;
+
+import org.jline.utils.AttributedString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.SneakyThrows;
+
+class TurnStatusTrackerTest {
+
+    private static class CapturingPrinter extends Printer {
+
+        final List<Printer.Update> captured = new CopyOnWriteArrayList<>();
+        private final boolean headless;
+
+        @SneakyThrows
+        CapturingPrinter(boolean headless) {
+            super(Settings.builder().headless(true).build(),
+                  Executors.newSingleThreadExecutor(),
+                  null,
+                  null);
+            this.headless = headless;
+        }
+
+        @Override
+        public boolean isHeadless() {
+            return headless;
+        }
+
+        @Override
+        public void print(List<Printer.Update> updates) {
+            captured.addAll(updates);
+        }
+
+        List<String> statuses() {
+            return captured.stream()
+                    .filter(Printer.Update::isStatusUpdate)
+                    .map(update -> AttributedString.fromAnsi(update.getData()).toString())
+                    .toList();
+        }
+    }
+
+    private final AtomicLong clock = new AtomicLong();
+    private CapturingPrinter printer;
+    private TurnStatusTracker tracker;
+
+    private static MessageReceivedAgentEvent responseWithPromptTokens(int requestTokens) {
+        final var stats = mock(ModelUsageStats.class);
+        when(stats.getRequestTokens()).thenReturn(requestTokens);
+        final var text = mock(Text.class);
+        when(text.getStats()).thenReturn(stats);
+        final var event = mock(MessageReceivedAgentEvent.class);
+        when(event.getNewMessages()).thenReturn(List.<AgentMessage>of(text));
+        return event;
+    }
+
+    @Test
+    void headlessPrinterReceivesNoStatus() {
+        final var headlessPrinter = new CapturingPrinter(true);
+        final var headlessTracker = new TurnStatusTracker(headlessPrinter, () -> 1000, clock::get, 250);
+
+        headlessTracker.startTurn("run-1");
+        advanceMillis(1000);
+        headlessTracker.onStreamed("hello");
+
+        assertTrue(headlessPrinter.statuses().isEmpty());
+    }
+
+    @Test
+    void ignoresInputOutsideATurn() {
+        tracker.onStreamed("hello");
+        tracker.visit(mock(ToolCalledAgentEvent.class));
+
+        assertTrue(printer.statuses().isEmpty());
+    }
+
+    @Test
+    void publishesAtCappedRate() {
+        tracker.startTurn("run-1");
+        assertEquals(1, printer.statuses().size());
+
+        advanceMillis(100);
+        tracker.onStreamed("a");
+        advanceMillis(100);
+        tracker.onStreamed("b");
+        assertEquals(1, printer.statuses().size());
+
+        advanceMillis(100);
+        tracker.onStreamed("c");
+        assertEquals(2, printer.statuses().size());
+    }
+
+    @Test
+    void rendersTimeToFirstTokenAndThroughput() {
+        tracker.startTurn("run-1");
+        advanceMillis(500);
+        tracker.onStreamed("x".repeat(400));
+        advanceMillis(2000);
+
+        final var status = AttributedString.fromAnsi(tracker.render(clock.get())).toString();
+
+        assertTrue(status.contains("2.5s"), status);
+        assertTrue(status.contains("TTFT 0.50s"), status);
+        assertTrue(status.contains("50 tok/s"), status);
+        assertFalse(status.contains("ctx"), status);
+    }
+
+    @Test
+    void rendersContextUsageFromReportedPromptTokens() {
+        tracker.startTurn("run-1");
+        advanceMillis(300);
+        tracker.visit(responseWithPromptTokens(64_000));
+
+        final var status = printer.statuses().get(printer.statuses().size() - 1);
+
+        assertTrue(status.contains("ctx 64.0k/128.0k (50%)"), status);
+    }
+
+    @Test
+    void splitsToolTimeFromModelTime() {
+        tracker.startTurn("run-1");
+        advanceMillis(1000);
+        tracker.visit(mock(ToolCalledAgentEvent.class));
+        advanceMillis(3000);
+        tracker.visit(mock(ToolCallCompletedAgentEvent.class));
+        advanceMillis(1000);
+
+        final var status = AttributedString.fromAnsi(tracker.render(clock.get())).toString();
+
+        assertTrue(status.contains("🤖 2.0s"), status);
+        assertTrue(status.contains("🔧 3.0s"), status);
+    }
+
+    @BeforeEach
+    void setUp() {
+        printer = new CapturingPrinter(false);
+        tracker = new TurnStatusTracker(printer, () -> 128_000, clock::get, 250);
+    }
+
+    @AfterEach
+    @SneakyThrows
+    void tearDown() {
+        printer.close();
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
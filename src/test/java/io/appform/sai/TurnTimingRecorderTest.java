@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.phonepe.sentinelai.core.events.CompactionCompletedEvent;
+import com.phonepe.sentinelai.core.events.MessageReceivedAgentEvent;
+import com.phonepe.sentinelai.core.events.MessageSentAgentEvent;
+import com.phonepe.sentinelai.core.events.ToolCallCompletedAgentEvent;
+import com.phonepe.sentinelai.core.events.ToolCalledAgentEvent;
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+
+import io.appform.sai.session.TurnTimingStore;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class TurnTimingRecorderTest {
+
+    private static final String SESSION_ID = "timing-session";
+    private static final String MODEL = "copilot/gpt-4.1";
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicLong clock = new AtomicLong();
+    private TurnTimingStore store;
+    private TurnTimingRecorder recorder;
+
+    private static ToolCallCompletedAgentEvent toolCompleted(String id, String name) {
+        final var event = mock(ToolCallCompletedAgentEvent.class);
+        when(event.getToolCallId()).thenReturn(id);
+        when(event.getToolCallName()).thenReturn(name);
+        return event;
+    }
+
+    private static ToolCalledAgentEvent toolCalled(String id) {
+        final var event = mock(ToolCalledAgentEvent.class);
+        when(event.getToolCallId()).thenReturn(id);
+        return event;
+    }
+
+    @Test
+    void breaksDownStreamedTurnWithToolCall() {
+        recorder.startTurn("run-1");
+        advanceMillis(50);
+        recorder.visit(mock(MessageSentAgentEvent.class));
+        advanceMillis(400);
+        recorder.onStreamed("Let me check");
+        advanceMillis(600);
+        recorder.visit(mock(MessageReceivedAgentEvent.class));
+        recorder.visit(toolCalled("tc-1"));
+        advanceMillis(2000);
+        recorder.visit(toolCompleted("tc-1", "core_tool_box_bash"));
+        recorder.visit(mock(MessageSentAgentEvent.class));
+        advanceMillis(300);
+        recorder.onStreamed("Done");
+        advanceMillis(200);
+        recorder.visit(mock(MessageReceivedAgentEvent.class));
+        advanceMillis(100);
+        recorder.endTurn();
+
+        final var timing = recorder.lastTiming();
+        assertEquals("run-1", timing.getRunId());
+        assertEquals(3650, timing.getTotalMs());
+        assertEquals(50, timing.getQueueMs());
+        assertEquals(400, timing.getTimeToFirstTokenMs());
+        assertEquals(1500, timing.getModelMs());
+        assertEquals(800, timing.getStreamingMs());
+        assertEquals(2, timing.getModelCalls());
+        assertEquals(2000, timing.getToolMs());
+        assertEquals(1, timing.getToolCalls().size());
+        assertEquals("core_tool_box_bash", timing.getToolCalls().get(0).getToolName());
+        assertEquals(100, timing.overheadMs());
+    }
+
+    @Test
+    void countsStallsAndClosesAbortedCall() {
+        recorder.startTurn("run-1");
+        recorder.visit(mock(MessageSentAgentEvent.class));
+        advanceMillis(200);
+        recorder.onStreamed("Partial");
+        advanceMillis(1000);
+        recorder.onStalled(1, 1000);
+        recorder.visit(mock(MessageSentAgentEvent.class));
+        advanceMillis(300);
+        recorder.visit(mock(MessageReceivedAgentEvent.class));
+        recorder.endTurn();
+
+        final var timing = recorder.lastTiming();
+        assertEquals(1, timing.getStalls());
+        assertEquals(1000, timing.getStallMs());
+        assertEquals(1500, timing.getModelMs());
+        assertEquals(2, timing.getModelCalls());
+        assertEquals(0, timing.overheadMs());
+    }
+
+    @Test
+    void ignoresEventsOutsideTurn() {
+        recorder.visit(mock(MessageSentAgentEvent.class));
+        recorder.endTurn();
+
+        assertNull(recorder.lastTiming());
+        assertTrue(store.read(SESSION_ID).isEmpty());
+    }
+
+    @Test
+    void persistsEveryTurnAndSkipsCorruptLines() throws Exception {
+        final var compaction = mock(CompactionCompletedEvent.class);
+        when(compaction.getElapsedTimeMs()).thenReturn(700L);
+
+        recorder.startTurn("run-1");
+        advanceMillis(100);
+        recorder.endTurn();
+        Files.writeString(tempDir.resolve(SESSION_ID).resolve(TurnTimingStore.FILE_NAME),
+                          "{\"runId\":\n",
+                          StandardOpenOption.APPEND);
+        recorder.startTurn("run-2");
+        recorder.visit(compaction);
+        advanceMillis(900);
+        recorder.endTurn();
+
+        final var timings = store.read(SESSION_ID);
+        assertEquals(2, timings.size());
+        assertEquals("run-1", timings.get(0).getRunId());
+        assertEquals(MODEL, timings.get(0).getModel());
+        assertEquals("", timings.get(0).getPersona());
+        assertNull(timings.get(0).getTimeToFirstTokenMs());
+        assertEquals(700, timings.get(1).getCompactionMs());
+    }
+
+    @BeforeEach
+    void setUp() {
+        store = new TurnTimingStore(tempDir, JsonUtils.createMapper());
+        recorder = new TurnTimingRecorder(SESSION_ID, store, () -> MODEL, null, clock::get);
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.cli.slash.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepe.sentinelai.core.agentmessages.requests.UserPrompt;
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+import com.phonepe.sentinelai.session.SessionStore;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import io.appform.sai.AgentConfig;
+import io.appform.sai.Printer;
+import io.appform.sai.SaiAgent;
+import io.appform.sai.Settings;
+import io.appform.sai.agent.AgentFactory;
+import io.appform.sai.cli.slash.SlashCommandContext;
+import io.appform.sai.cli.slash.SlashCommandDispatcher;
+import io.appform.sai.session.SessionCatalog;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.SneakyThrows;
+
+class ForkCommandTest {
+
+    private static final String INITIAL_MODEL = "copilot/claude-haiku-4.5";
+    private static final String TEST_SESSION_ID = "test-fork-session";
+
+    private static class CapturingPrinter extends Printer {
+
+        final List<Printer.Update> captured = new CopyOnWriteArrayList<>();
+
+        @SneakyThrows
+        CapturingPrinter() {
+            super(Settings.builder().headless(true).build(),
+                  Executors.newSingleThreadExecutor(),
+                  null,
+                  null);
+        }
+
+        @Override
+        public void print(List<Printer.Update> updates) {
+            captured.addAll(updates);
+            super.print(updates);
+        }
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private CapturingPrinter printer;
+    private FileSystemSessionStore sessionStore;
+
+    @Test
+    void forkCreatesASessionWithTheCurrentModelAndMode() {
+        final var currentMode = new AtomicReference<>("planning");
+        dispatcher(sessionStore, currentMode).dispatch("fork \"Try another approach\"", printer);
+
+        assertTrue(capturedContains("Forked session into"));
+        assertTrue(capturedContains("Resume it with: sai -s"));
+        final var fork = new SessionCatalog(tempDir.resolve("sessions"), JsonUtils.createMapper())
+                .all(sessionStore)
+                .stream()
+                .filter(entry -> !entry.sessionId().equals(TEST_SESSION_ID))
+                .findFirst()
+                .orElseThrow();
+        final var summary = sessionStore.session(fork.sessionId()).orElseThrow();
+        assertEquals("Try another approach", summary.getTitle());
+        assertEquals(INITIAL_MODEL + "/planning", summary.getExtra().get("model"));
+        assertEquals("planning", summary.getExtra().get("mode"));
+    }
+
+    @Test
+    void forkOfUnsavedSessionPrintsNothingToFork() {
+        final var emptyStore = FileSystemSessionStore.builder()
+                .baseDir(tempDir.resolve("other-sessions").toString())
+                .mapper(JsonUtils.createMapper())
+                .cacheSize(1)
+                .build();
+
+        dispatcher(emptyStore, new AtomicReference<>(null)).dispatch("fork", printer);
+
+        assertTrue(capturedContains("Nothing to fork yet"));
+    }
+
+    @Test
+    void modelPointerCarriesTheCurrentMode() {
+        assertEquals("openai/gpt-4o", ForkCommand.modelPointer("openai/gpt-4o", null));
+        assertEquals("openai/gpt-4o/coding", ForkCommand.modelPointer("openai/gpt-4o", "coding"));
+        assertEquals("openai/gpt-4o/coding", ForkCommand.modelPointer("openai/gpt-4o/planning", "coding"));
+    }
+
+    @BeforeEach
+    @SneakyThrows
+    void setUp() {
+        sessionStore = FileSystemSessionStore.builder()
+                .baseDir(tempDir.resolve("sessions").toString())
+                .mapper(JsonUtils.createMapper())
+                .cacheSize(1)
+                .build();
+        sessionStore.saveSession(SessionSummary.builder()
+                .sessionId(TEST_SESSION_ID)
+                .title("Fork command test")
+                .updatedAt(System.currentTimeMillis())
+                .build());
+        sessionStore.saveMessages(TEST_SESSION_ID,
+                                  "run-1",
+                                  List.of(UserPrompt.builder()
+                                          .sessionId(TEST_SESSION_ID)
+                                          .runId("run-1")
+                                          .content("Hello")
+                                          .build()));
+
+        printer = new CapturingPrinter();
+        printer.start();
+    }
+
+    @AfterEach
+    @SneakyThrows
+    void tearDown() {
+        printer.close();
+    }
+
+    private boolean capturedContains(String substring) {
+        try {
+            Thread.sleep(200);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return printer.captured.stream()
+                .anyMatch(u -> u.getData() != null && u.getData().contains(substring));
+    }
+
+    private SlashCommandDispatcher dispatcher(SessionStore liveStore, AtomicReference<String> currentMode) {
+        final var context = SlashCommandContext.builder()
+                .currentModel(new AtomicReference<>(INITIAL_MODEL))
+                .currentMode(currentMode)
+                .currentAgentConfig(new AtomicReference<>(AgentConfig.builder()
+                        .agentId("test")
+                        .name("Test")
+                        .description("Test agent")
+                        .model(INITIAL_MODEL)
+                        .build()))
+                .currentAgent(new AtomicReference<>(mock(SaiAgent.class)))
+                .agentFactory(mock(AgentFactory.class))
+                .printer(printer)
+                .settings(Settings.builder()
+                        .headless(true)
+                        .sessionId(TEST_SESSION_ID)
+                        .dataDir(tempDir.toString())
+                        .build())
+                .mapper(new ObjectMapper())
+                .sessionStore(liveStore)
+                .build();
+        return new SlashCommandDispatcher(context);
+    }
+}
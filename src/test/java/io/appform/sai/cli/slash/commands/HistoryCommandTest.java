@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.cli.slash.commands;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.phonepe.sentinelai.core.agentmessages.requests.UserPrompt;
+import com.phonepe.sentinelai.core.agentmessages.responses.Text;
+import com.phonepe.sentinelai.core.model.ModelUsageStats;
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import io.appform.sai.AgentConfig;
+import io.appform.sai.Printer;
+import io.appform.sai.SaiAgent;
+import io.appform.sai.Settings;
+import io.appform.sai.TranscriptPager;
+import io.appform.sai.agent.AgentFactory;
+import io.appform.sai.cli.slash.SlashCommandContext;
+import io.appform.sai.cli.slash.SlashCommandDispatcher;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.SneakyThrows;
+
+class HistoryCommandTest {
+
+    private static final String INITIAL_MODEL = "copilot/claude-haiku-4.5";
+    private static final String TEST_SESSION_ID = "test-history-session";
+
+    private static class CapturingPrinter extends Printer {
+
+        final List<Printer.Update> captured = new CopyOnWriteArrayList<>();
+
+        @SneakyThrows
+        CapturingPrinter() {
+            super(Settings.builder().headless(true).build(),
+                  Executors.newSingleThreadExecutor(),
+                  null,
+                  null);
+        }
+
+        @Override
+        public void print(List<Printer.Update> updates) {
+            captured.addAll(updates);
+            super.print(updates);
+        }
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private CapturingPrinter printer;
+    private TranscriptPager transcriptPager;
+
+    @Test
+    void historyPrintsOlderTurnsUntilStartOfSession() {
+        final var dispatcher = dispatcher(transcriptPager);
+        transcriptPager.previousTurns(1);
+
+        dispatcher.dispatch("history", printer);
+        assertTrue(capturedContains("Earlier history"));
+        assertTrue(capturedContains("first question"));
+        assertFalse(capturedContains("second question"));
+
+        dispatcher.dispatch("history", printer);
+        assertTrue(capturedContains("Reached the start of the session"));
+    }
+
+    @Test
+    void historyRejectsNonPositiveTurns() {
+        dispatcher(transcriptPager).dispatch("history 0", printer);
+        assertTrue(capturedContains("must be positive"));
+    }
+
+    @Test
+    void historyWithoutResumePrintsInfoMessage() {
+        dispatcher(null).dispatch("history", printer);
+        assertTrue(capturedContains("this session was not resumed"));
+    }
+
+    @BeforeEach
+    @SneakyThrows
+    void setUp() {
+        final var sessionStore = FileSystemSessionStore.builder()
+                .baseDir(tempDir.resolve("sessions").toString())
+                .mapper(JsonUtils.createMapper())
+                .cacheSize(1)
+                .build();
+        sessionStore.saveSession(SessionSummary.builder()
+                .sessionId(TEST_SESSION_ID)
+                .title("History test")
+                .updatedAt(System.currentTimeMillis())
+                .build());
+        saveTurn(sessionStore, "run-1", "first question", "first answer");
+        saveTurn(sessionStore, "run-2", "second question", "second answer");
+        transcriptPager = new TranscriptPager(sessionStore, TEST_SESSION_ID);
+
+        printer = new CapturingPrinter();
+        printer.start();
+    }
+
+    @AfterEach
+    @SneakyThrows
+    void tearDown() {
+        printer.close();
+    }
+
+    private boolean capturedContains(String substring) {
+        try {
+            Thread.sleep(200);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return printer.captured.stream()
+                .anyMatch(u -> u.getData() != null && u.getData().contains(substring));
+    }
+
+    private SlashCommandDispatcher dispatcher(TranscriptPager pager) {
+        final var context = SlashCommandContext.builder()
+                .currentModel(new AtomicReference<>(INITIAL_MODEL))
+                .currentMode(new AtomicReference<>(null))
+                .currentAgentConfig(new AtomicReference<>(AgentConfig.builder()
+                        .agentId("test")
+                        .name("Test")
+                        .description("Test agent")
+                        .model(INITIAL_MODEL)
+                        .build()))
+                .currentAgent(new AtomicReference<>(mock(SaiAgent.class)))
+                .agentFactory(mock(AgentFactory.class))
+                .printer(printer)
+                .settings(Settings.builder()
+                        .headless(true)
+                        .sessionId(TEST_SESSION_ID)
+                        .dataDir(tempDir.toString())
+                        .build())
+                .mapper(JsonUtils.createMapper())
+                .transcriptPager(pager)
+                .build();
+        return new SlashCommandDispatcher(context);
+    }
+
+    private void saveTurn(FileSystemSessionStore sessionStore, String runId, String prompt, String answer) {
+        sessionStore.saveMessages(TEST_SESSION_ID,
+                                  runId,
+                                  List.of(UserPrompt.builder()
+                                          .sessionId(TEST_SESSION_ID)
+                                          .runId(runId)
+                                          .content(prompt)
+                                          .build(),
+                                          Text.builder()
+                                                  .sessionId(TEST_SESSION_ID)
+                                                  .runId(runId)
+                                                  .content(answer)
+                                                  .stats(new ModelUsageStats())
+                                                  .elapsedTimeMs(10)
+                                                  .build()));
+    }
+}
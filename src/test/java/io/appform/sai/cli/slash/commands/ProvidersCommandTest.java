@@ -106,6 +106,13 @@ class ProvidersCommandTest {
         assertTrue(capturedContains("No additional providers"));
     }
 
+    @Test
+    void providersShowsEndpointsOfRoutedProvider() {
+        dispatcherWithProviders.dispatch("providers", printer);
+        assertTrue(capturedContains("routing between 2 endpoints"));
+        assertTrue(capturedContains("https://westeurope.example.com/v1"));
+    }
+
     @Test
     void providersShowsFullModelPath() {
         dispatcherWithProviders.dispatch("providers", printer);
@@ -147,6 +154,14 @@ class ProvidersCommandTest {
                           planning:
                             tuning:
                               temperature: 0.5
+                  regional:
+                    type: openai
+                    endpoint: https://eastus.example.com/v1
+                    endpoints:
+                      - https://westeurope.example.com/v1
+                    apiKey: ${MY_KEY}
+                    models:
+                      gpt-4o: {}
                 """;
         Files.writeString(tempDir.resolve("settings.yaml"), settingsYaml);
 
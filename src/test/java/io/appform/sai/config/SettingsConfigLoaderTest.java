@@ -19,11 +19,14 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.appform.sai.session.SessionCodec;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 class SettingsConfigLoaderTest {
 
@@ -144,6 +147,32 @@ class SettingsConfigLoaderTest {
         assertEquals("https://fallback.example.com/v1", openai.getEndpoint());
     }
 
+    @Test
+    void loadYamlWithEndpointsAsUrlsOrWithTheirOwnKeys(@TempDir Path tempDir) throws Exception {
+        final var file = tempDir.resolve("settings.yaml");
+        Files.writeString(file,
+                          String.join("\n",
+                                      "providers:",
+                                      "  azure:",
+                                      "    type: azure",
+                                      "    endpoint: https://eastus.example.com",
+                                      "    endpoints:",
+                                      "      - https://gateway.example.com",
+                                      "      - url: https://westeurope.example.com",
+                                      "        apiKey: westeurope-key",
+                                      "    apiKey: eastus-key",
+                                      ""));
+        final var config = SettingsConfigLoader.load(file);
+        final var azure = config.getProvider("azure").orElseThrow();
+        assertEquals(List.of(EndpointEntry.of("https://eastus.example.com"),
+                             EndpointEntry.of("https://gateway.example.com"),
+                             EndpointEntry.builder()
+                                     .url("https://westeurope.example.com")
+                                     .apiKey("westeurope-key")
+                                     .build()),
+                     azure.allEndpoints());
+    }
+
     @Test
     void loadYamlWithEnvVarInterpolation(@TempDir Path tempDir) throws Exception {
         final var pathValue = System.getenv("PATH");
@@ -215,6 +244,20 @@ class SettingsConfigLoaderTest {
         assertEquals(200000, model.getTuning().getContextWindowSize());
     }
 
+    @Test
+    void loadYamlWithSessionStoreCodec(@TempDir Path tempDir) throws Exception {
+        final var file = tempDir.resolve("settings.yaml");
+        Files.writeString(file,
+                          String.join("\n",
+                                      "sessionStore:",
+                                      "  codec: gzip",
+                                      ""));
+        assertEquals(SessionCodec.GZIP, SettingsConfigLoader.load(file).sessionStoreConfig().getCodec());
+        assertEquals(SessionCodec.JSON, SettingsConfigLoader.load(tempDir.resolve("missing.yaml"))
+                .sessionStoreConfig()
+                .getCodec());
+    }
+
     @Test
     void loadYamlWithUnknownFieldsIgnored(@TempDir Path tempDir) throws Exception {
         final var file = tempDir.resolve("settings.yaml");
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.copilot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class CopilotModelCatalogTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration TTL = Duration.ofHours(1);
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private static CopilotModel model(String id, int promptTokens) {
+        final var limits = new CopilotModel.Capabilities.Limits();
+        limits.setMaxPromptTokens(promptTokens);
+        limits.setMaxContextWindowTokens(promptTokens * 2);
+        limits.setMaxOutputTokens(16_000);
+        final var capabilities = new CopilotModel.Capabilities();
+        capabilities.setLimits(limits);
+        final var model = new CopilotModel();
+        model.setId(id);
+        model.setCapabilities(capabilities);
+        return model;
+    }
+
+    @Test
+    void fetchesAndPersistsWhenNothingIsCached() {
+        final var catalog = catalog(() -> List.of(model("gpt-4.1", 64_000)));
+
+        final var found = catalog.find("gpt-4.1");
+
+        assertTrue(found.isPresent());
+        assertEquals(64_000, found.get().getCapabilities().getLimits().getMaxPromptTokens());
+        assertEquals(1, fetches.get());
+        assertTrue(Files.exists(cachePath()));
+        assertFalse(catalog.find("unknown").isPresent());
+    }
+
+    @Test
+    void missingCatalogueYieldsNoModel() {
+        final var catalog = catalog(() -> {
+            throw new IOException("offline");
+        });
+
+        assertFalse(catalog.find("gpt-4.1").isPresent());
+        assertTrue(catalog.isStale());
+    }
+
+    @Test
+    void servesFreshCacheWithoutFetching() {
+        CopilotModelCatalog.persist(new CopilotModelCatalog.Snapshot(clock.get(), List.of(model("gpt-4.1", 64_000))),
+                                    cachePath(),
+                                    MAPPER);
+        final var catalog = catalog(() -> List.of(model("gpt-4.1", 1)));
+
+        assertEquals(64_000, catalog.find("gpt-4.1").orElseThrow().getCapabilities().getLimits().getMaxPromptTokens());
+        assertEquals(0, fetches.get());
+    }
+
+    @Test
+    void staleCacheIsServedAndRefreshed() {
+        CopilotModelCatalog.persist(new CopilotModelCatalog.Snapshot(clock.get(), List.of(model("gpt-4.1", 64_000))),
+                                    cachePath(),
+                                    MAPPER);
+        clock.addAndGet(TTL.toMillis());
+        final var catalog = catalog(() -> List.of(model("gpt-4.1", 128_000)));
+
+        // The lookup that finds the cache stale still gets an answer from it
+        assertTrue(catalog.find("gpt-4.1").isPresent());
+        assertEquals(1, fetches.get());
+        assertFalse(catalog.isStale());
+        assertEquals(128_000,
+                     CopilotModelCatalog.load(cachePath(), MAPPER).models().get(0)
+                             .getCapabilities().getLimits().getMaxPromptTokens());
+    }
+
+    private CopilotModelCatalog catalog(CopilotModelCatalog.Fetcher fetcher) {
+        return new CopilotModelCatalog(cachePath(), MAPPER, TTL, () -> {
+            fetches.incrementAndGet();
+            return fetcher.fetch();
+        }, Runnable::run, clock::get);
+    }
+
+    private Path cachePath() {
+        return tempDir.resolve("copilot_models.json");
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+class ConnectionPrewarmerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private MockWebServer server;
+    private HttpClientRegistry registry;
+
+    @Test
+    void idleRewarmStopsAfterMaxIdle() throws Exception {
+        try (final var prewarmer = prewarmer(Duration.ofMillis(50), Duration.ofMinutes(1))) {
+            prewarmer.onIdle();
+            assertNotNull(server.takeRequest(2, TimeUnit.SECONDS));
+
+            clock.addAndGet(Duration.ofMinutes(2).toNanos());
+            Thread.sleep(200);
+            drainRequests();
+            assertNull(server.takeRequest(300, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    void onBusyStopsIdleRewarm() throws Exception {
+        try (final var prewarmer = prewarmer(Duration.ofMillis(200), Duration.ofMinutes(1))) {
+            prewarmer.onIdle();
+            prewarmer.onBusy();
+
+            assertNull(server.takeRequest(500, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    void skipsUnknownEndpoint() {
+        try (final var prewarmer = new ConnectionPrewarmer(registry.baseClient(), Optional::empty)) {
+            assertFalse(prewarmer.warm());
+        }
+    }
+
+    @Test
+    void warmUpConnectionIsReusedByNextCall() throws Exception {
+        try (final var prewarmer = prewarmer(Duration.ofMinutes(1), Duration.ofMinutes(1))) {
+            assertTrue(prewarmer.warm());
+            final var warmUp = server.takeRequest(2, TimeUnit.SECONDS);
+            assertNotNull(warmUp);
+            assertEquals("HEAD", warmUp.getMethod());
+            // Wait for the warm-up response to be released back to the pool
+            Thread.sleep(200);
+
+            final var client = registry.client("provider", List::of);
+            try (final var response = client.newCall(new Request.Builder().url(server.url("/v1/chat"))
+                    .build()).execute()) {
+                assertEquals(404, response.code());
+            }
+
+            final var stats = registry.stats();
+            assertEquals(1, stats.getMisses());
+            assertEquals(1, stats.getHits());
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        for (int i = 0; i < 50; i++) {
+            server.enqueue(new MockResponse().setResponseCode(404));
+        }
+        server.start();
+        registry = new HttpClientRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        registry.close();
+        server.shutdown();
+    }
+
+    private void drainRequests() throws InterruptedException {
+        while (server.takeRequest(100, TimeUnit.MILLISECONDS) != null) {
+            // Discard warm-ups sent before re-warming stopped
+        }
+    }
+
+    private ConnectionPrewarmer prewarmer(Duration rewarmInterval, Duration maxIdle) {
+        final var baseUrl = server.url("/v1").toString();
+        return new ConnectionPrewarmer(registry.baseClient(),
+                                       () -> Optional.of(baseUrl),
+                                       rewarmInterval,
+                                       maxIdle,
+                                       clock::get);
+    }
+}
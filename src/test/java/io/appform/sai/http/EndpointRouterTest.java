@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.appform.sai.config.EndpointEntry;
+import io.appform.sai.config.RoutingPolicy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+class EndpointRouterTest {
+
+    private static final RoutingPolicy EJECT_ON_FIRST_FAILURE = RoutingPolicy.builder()
+            .failureThreshold(1)
+            .openDuration(Duration.ofSeconds(30))
+            .build()
+            .withDefaults(RoutingPolicy.DEFAULT);
+
+    private final AtomicLong clock = new AtomicLong();
+    private MockWebServer primary;
+    private MockWebServer secondary;
+
+    private static OkHttpClient client(EndpointRouter router) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(router)
+                .build();
+    }
+
+    @Test
+    void ejectsFailingEndpointAndProbesItAfterCooldown() throws Exception {
+        primary.enqueue(new MockResponse().setResponseCode(503));
+        primary.enqueue(new MockResponse().setBody("recovered"));
+        secondary.enqueue(new MockResponse().setBody("fallback"));
+        final var router = router(EJECT_ON_FIRST_FAILURE, clock::get);
+        final var client = client(router);
+
+        assertEquals("fallback", call(client));
+        assertEquals("/v1/chat/completions", secondary.takeRequest().getPath());
+        assertEquals(EndpointRouter.CircuitState.OPEN, router.stats().get(0).getState());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        assertEquals(EndpointRouter.CircuitState.HALF_OPEN, router.stats().get(0).getState());
+
+        assertEquals("recovered", call(client));
+        assertEquals(EndpointRouter.CircuitState.CLOSED, router.stats().get(0).getState());
+        assertEquals(2, primary.getRequestCount());
+        assertEquals(1, secondary.getRequestCount());
+    }
+
+    @Test
+    void forProviderReusesRouterUntilEndpointsChange() {
+        final var endpoints = List.of(EndpointEntry.of("https://a.example.com/v1"),
+                                      EndpointEntry.of("https://b.example.com/v1/"));
+        final var router = EndpointRouter.forProvider("router-test", endpoints, RoutingPolicy.DEFAULT);
+
+        assertSame(router,
+                   EndpointRouter.forProvider("router-test",
+                                              List.of(EndpointEntry.of("https://a.example.com/v1"),
+                                                      EndpointEntry.of("https://b.example.com/v1")),
+                                              RoutingPolicy.DEFAULT));
+        assertSame(router, EndpointRouter.routers().get("router-test"));
+        assertNotSame(router,
+                      EndpointRouter.forProvider("router-test",
+                                                 List.of(EndpointEntry.of("https://a.example.com/v1"),
+                                                         EndpointEntry.builder()
+                                                                 .url("https://b.example.com/v1")
+                                                                 .apiKey("b-key")
+                                                                 .build()),
+                                                 RoutingPolicy.DEFAULT));
+        assertNotSame(router,
+                      EndpointRouter.forProvider("router-test",
+                                                 List.of(EndpointEntry.of("https://a.example.com/v1")),
+                                                 RoutingPolicy.DEFAULT));
+    }
+
+    @Test
+    void rejectedKeyOfSecondaryEndpointCountsAsFailure() throws Exception {
+        primary.enqueue(new MockResponse().setResponseCode(503));
+        primary.enqueue(new MockResponse().setBody("primary"));
+        secondary.enqueue(new MockResponse().setBody("secondary"));
+        secondary.enqueue(new MockResponse().setResponseCode(401));
+        final var router = new EndpointRouter("test",
+                                              List.of(EndpointEntry.of(primary.url("/v1").toString()),
+                                                      EndpointEntry.builder()
+                                                              .url(secondary.url("/v1").toString())
+                                                              .apiKey("secondary-key")
+                                                              .build()),
+                                              EJECT_ON_FIRST_FAILURE,
+                                              clock::get);
+        final var client = client(router);
+
+        assertEquals("secondary", call(client));
+        assertEquals("primary", call(client));
+
+        assertEquals("Bearer provider-key", primary.takeRequest().getHeader("Authorization"));
+        assertEquals("Bearer secondary-key", secondary.takeRequest().getHeader("Authorization"));
+        assertEquals("Bearer secondary-key", secondary.takeRequest().getHeader("Authorization"));
+        assertEquals(EndpointRouter.CircuitState.OPEN, router.stats().get(1).getState());
+        assertEquals(1, router.stats().get(1).getFailures());
+    }
+
+    @Test
+    void returnsLastFailureWhenEveryEndpointFails() throws IOException {
+        primary.enqueue(new MockResponse().setResponseCode(503));
+        secondary.enqueue(new MockResponse().setResponseCode(429));
+        final var router = router(RoutingPolicy.DEFAULT, clock::get);
+
+        try (final var response = client(router).newCall(request()).execute()) {
+            assertEquals(429, response.code());
+        }
+        router.stats().forEach(stats -> assertEquals(1, stats.getFailures()));
+    }
+
+    @Test
+    void routesToFasterEndpoint() throws IOException {
+        for (int i = 0; i < 6; i++) {
+            primary.enqueue(new MockResponse().setBody("slow").setHeadersDelay(200, TimeUnit.MILLISECONDS));
+            secondary.enqueue(new MockResponse().setBody("fast"));
+        }
+        final var router = router(RoutingPolicy.DEFAULT, System::nanoTime);
+        final var client = client(router);
+
+        for (int i = 0; i < 6; i++) {
+            call(client);
+        }
+
+        assertEquals(1, primary.getRequestCount());
+        assertEquals(5, secondary.getRequestCount());
+        final var stats = router.stats();
+        assertTrue(stats.get(0).getScore() > stats.get(1).getScore(), stats.toString());
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        primary = new MockWebServer();
+        primary.start();
+        secondary = new MockWebServer();
+        secondary.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        primary.shutdown();
+        secondary.shutdown();
+    }
+
+    private String call(OkHttpClient client) throws IOException {
+        try (final var response = client.newCall(request()).execute()) {
+            return response.body().string();
+        }
+    }
+
+    private Request request() {
+        return new Request.Builder()
+                .url(primary.url("/v1/chat/completions"))
+                .header("Authorization", "Bearer provider-key")
+                .build();
+    }
+
+    private EndpointRouter router(RoutingPolicy policy, LongSupplier nanoClock) {
+        return new EndpointRouter("test",
+                                  List.of(EndpointEntry.of(primary.url("/v1").toString()),
+                                          EndpointEntry.of(secondary.url("/v1").toString())),
+                                  policy,
+                                  nanoClock);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * {@link Dispatcher} for {@code MockWebServer} that injects faults by request number (starting at
+ * 1): errors with optional {@code Retry-After}, and slow responses whose headers are delayed.
+ * Requests without a fault get a fast {@code 200 ok}.
+ */
+class FaultInjectingDispatcher extends Dispatcher {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Map<Integer, MockResponse> faults = new ConcurrentHashMap<>();
+    private IntFunction<MockResponse> pattern = requestNumber -> null;
+
+    /**
+     * Fails the given request with {@code status}.
+     */
+    FaultInjectingDispatcher failing(int requestNumber, int status, String retryAfter) {
+        final var response = new MockResponse().setResponseCode(status).setBody("fault");
+        if (retryAfter != null) {
+            response.setHeader("Retry-After", retryAfter);
+        }
+        faults.put(requestNumber, response);
+        return this;
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        final var requestNumber = requests.incrementAndGet();
+        final var fault = faults.getOrDefault(requestNumber, pattern.apply(requestNumber));
+        return fault != null ? fault : new MockResponse().setBody("ok");
+    }
+
+    int requestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Delays the response headers of the given request by {@code delayMillis}.
+     */
+    FaultInjectingDispatcher slow(int requestNumber, long delayMillis) {
+        faults.put(requestNumber,
+                   new MockResponse().setBody("slow").setHeadersDelay(delayMillis, TimeUnit.MILLISECONDS));
+        return this;
+    }
+
+    /**
+     * Delays the response headers of every {@code every}-th request by {@code delayMillis}.
+     */
+    FaultInjectingDispatcher slowEvery(int every, long delayMillis) {
+        pattern = requestNumber -> requestNumber % every == 0
+                ? new MockResponse().setBody("slow").setHeadersDelay(delayMillis, TimeUnit.MILLISECONDS)
+                : null;
+        return this;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.appform.sai.config.HedgingPolicy;
+import io.appform.sai.config.RetryPolicy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockWebServer;
+
+class HedgingInterceptorTest {
+
+    private static final int CALLS = 20;
+    private static final long SLOW_MILLIS = 800;
+
+    private static final HedgingPolicy POLICY = HedgingPolicy.builder()
+            .enabled(true)
+            .initialDelay(Duration.ofMillis(100))
+            .minDelay(Duration.ofMillis(50))
+            .build()
+            .withDefaults(HedgingPolicy.DEFAULT);
+
+    private MockWebServer server;
+    private FaultInjectingDispatcher dispatcher;
+
+    @Test
+    void hedgeDelayFollowsObservedPercentileWithinBounds() {
+        final var latencies = new LatencyWindow();
+        final var interceptor = new HedgingInterceptor(POLICY, latencies);
+        assertEquals(100, interceptor.hedgeDelayMillis());
+
+        IntStream.rangeClosed(1, 20).forEach(i -> latencies.record(i * 10L));
+        assertEquals(190, interceptor.hedgeDelayMillis());
+
+        IntStream.range(0, 64).forEach(i -> latencies.record(1));
+        assertEquals(50, interceptor.hedgeDelayMillis());
+    }
+
+    @Test
+    void hedgedDuplicateIsMarkedForEarlierInterceptors() throws IOException {
+        dispatcher.slow(1, SLOW_MILLIS);
+        final var hedgedCopies = new CopyOnWriteArrayList<Boolean>();
+        final var client = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    hedgedCopies.add(HedgingInterceptor.isHedgedCopy(chain.call()));
+                    return chain.proceed(chain.request());
+                })
+                .addInterceptor(new HedgingInterceptor(POLICY))
+                .build();
+
+        try (final var response = client.newCall(request()).execute()) {
+            assertEquals("ok", response.body().string());
+        }
+        assertEquals(List.of(false, true), hedgedCopies);
+    }
+
+    @Test
+    void hedgingCutsTailLatencyOfSlowResponses() throws IOException {
+        dispatcher.slowEvery(5, SLOW_MILLIS);
+        final var plain = new OkHttpClient();
+        final var hedged = new OkHttpClient.Builder()
+                .addInterceptor(new HedgingInterceptor(POLICY))
+                .build();
+
+        final var plainWorst = worstLatencyMillis(plain);
+        final var hedgedWorst = worstLatencyMillis(hedged);
+
+        assertTrue(plainWorst >= SLOW_MILLIS, "plain worst case " + plainWorst + " ms");
+        assertTrue(hedgedWorst < SLOW_MILLIS / 2, "hedged worst case " + hedgedWorst + " ms");
+    }
+
+    @Test
+    void retriesWrapHedgedAttempts() throws IOException {
+        dispatcher.failing(1, 503, null);
+        final var client = new OkHttpClient.Builder()
+                .addInterceptor(new RetryInterceptor(RetryPolicy.builder()
+                        .initialBackoff(Duration.ofMillis(10))
+                        .build()
+                        .withDefaults(RetryPolicy.DEFAULT)))
+                .addInterceptor(new HedgingInterceptor(POLICY))
+                .build();
+
+        try (final var response = client.newCall(request()).execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(2, dispatcher.requestCount());
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dispatcher = new FaultInjectingDispatcher();
+        server = new MockWebServer();
+        server.setDispatcher(dispatcher);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private Request request() {
+        return new Request.Builder().url(server.url("/v1/chat/completions")).build();
+    }
+
+    private long worstLatencyMillis(OkHttpClient client) throws IOException {
+        long worst = 0;
+        for (int i = 0; i < CALLS; i++) {
+            final var start = System.nanoTime();
+            try (final var response = client.newCall(request()).execute()) {
+                assertEquals(200, response.code());
+                response.body().string();
+            }
+            worst = Math.max(worst, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+        return worst;
+    }
+}
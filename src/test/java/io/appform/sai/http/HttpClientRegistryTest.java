@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+class HttpClientRegistryTest {
+
+    private MockWebServer server;
+    private HttpClientRegistry registry;
+
+    private static Interceptor header(String name, String value) {
+        return chain -> chain.proceed(chain.request().newBuilder().header(name, value).build());
+    }
+
+    @Test
+    void cachesClientPerEndpointKey() {
+        final var created = new AtomicInteger();
+
+        final var first = registry.client("openai", () -> {
+            created.incrementAndGet();
+            return List.of();
+        });
+        final var second = registry.client("openai", () -> {
+            created.incrementAndGet();
+            return List.of();
+        });
+
+        assertSame(first, second);
+        assertEquals(1, created.get());
+        assertEquals(1, registry.stats().getEndpoints());
+    }
+
+    @Test
+    void endpointClientsShareThePoolAndKeepTheirInterceptors() throws Exception {
+        final var copilot = registry.client("copilot", () -> List.of(header("X-Endpoint", "copilot")));
+        final var openai = registry.client("openai", () -> List.of(header("X-Endpoint", "openai")));
+
+        execute(copilot);
+        execute(openai);
+        execute(registry.baseClient());
+
+        assertSame(copilot.connectionPool(), openai.connectionPool());
+        assertSame(copilot.dispatcher(), openai.dispatcher());
+        assertEquals("copilot", server.takeRequest().getHeader("X-Endpoint"));
+        assertEquals("openai", server.takeRequest().getHeader("X-Endpoint"));
+
+        final var stats = registry.stats();
+        assertEquals(1, stats.getMisses());
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getConnections());
+        assertEquals(2.0 / 3, stats.hitRate(), 1e-9);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        registry = new HttpClientRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        registry.close();
+        server.shutdown();
+    }
+
+    private void execute(OkHttpClient client) throws IOException {
+        server.enqueue(new MockResponse().setBody("ok"));
+        try (final var response = client.newCall(new Request.Builder().url(server.url("/ping")).build()).execute()) {
+            assertEquals("ok", response.body().string());
+        }
+    }
+}
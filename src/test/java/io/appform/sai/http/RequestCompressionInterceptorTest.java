@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.appform.sai.config.CompressionPolicy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import okio.GzipSource;
+
+class RequestCompressionInterceptorTest {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    private static String gunzip(Buffer body) throws IOException {
+        final var out = new Buffer();
+        try (var source = new GzipSource(body)) {
+            while (source.read(out, 8192) != -1) {
+                // drain
+            }
+        }
+        return out.readUtf8();
+    }
+
+    private static String payload(int bytes) {
+        final var sb = new StringBuilder("{\"messages\":[");
+        while (sb.length() < bytes) {
+            sb.append("{\"role\":\"user\",\"content\":\"hello world\"},");
+        }
+        return sb.append("{}]}").toString();
+    }
+
+    @Test
+    void compressesLargeBodiesAndRecordsStats() throws Exception {
+        final var body = payload(2048);
+        final var before = RequestCompressionInterceptor.stats();
+
+        post(body);
+
+        final var recorded = server.takeRequest();
+        assertEquals("gzip", recorded.getHeader("Content-Encoding"));
+        assertEquals(recorded.getBodySize(), Long.parseLong(recorded.getHeader("Content-Length")));
+        assertTrue(recorded.getBodySize() < body.length());
+        assertEquals(body, gunzip(recorded.getBody()));
+
+        final var after = RequestCompressionInterceptor.stats();
+        assertEquals(1, after.requests() - before.requests());
+        assertEquals(body.length(), after.originalBytes() - before.originalBytes());
+        assertEquals(recorded.getBodySize(), after.compressedBytes() - before.compressedBytes());
+        assertTrue(after.compressNanos() > before.compressNanos());
+    }
+
+    @Test
+    void leavesSmallBodiesUncompressed() throws Exception {
+        final var body = payload(512);
+
+        post(body);
+
+        final var recorded = server.takeRequest();
+        assertNull(recorded.getHeader("Content-Encoding"));
+        assertEquals(body, recorded.getBody().readUtf8());
+    }
+
+    @Test
+    void rejectsUnsupportedEncoding() {
+        final var policy = CompressionPolicy.builder()
+                .encoding("zstd")
+                .build()
+                .withDefaults(CompressionPolicy.DEFAULT);
+
+        assertThrows(IllegalArgumentException.class, () -> new RequestCompressionInterceptor(policy));
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient.Builder()
+                .addNetworkInterceptor(new RequestCompressionInterceptor(CompressionPolicy.builder()
+                        .enabled(true)
+                        .minSizeKb(1)
+                        .build()
+                        .withDefaults(CompressionPolicy.DEFAULT)))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private void post(String body) throws IOException {
+        server.enqueue(new MockResponse().setBody("{}"));
+        final var request = new Request.Builder()
+                .url(server.url("/chat/completions"))
+                .post(RequestBody.create(body, JSON))
+                .build();
+        try (var response = client.newCall(request).execute()) {
+            assertEquals(200, response.code());
+        }
+    }
+}
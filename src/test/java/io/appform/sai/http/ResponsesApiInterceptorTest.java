@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class ResponsesApiInterceptorTest {
+
+    private static final Duration STATE_TTL = Duration.ofMinutes(10);
+
+    /**
+     * Stores nothing but answers like a Responses API server, forgetting the responses in
+     * {@link #forgotten}.
+     */
+    private final class StubResponsesServer extends Dispatcher {
+        final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+        final List<Integer> sizes = new CopyOnWriteArrayList<>();
+        final Set<String> forgotten = ConcurrentHashMap.newKeySet();
+        final AtomicInteger ids = new AtomicInteger();
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            final var body = request.getBody().readUtf8();
+            sizes.add(body.length());
+            try {
+                requests.add(mapper.readTree(body));
+            }
+            catch (IOException e) {
+                return new MockResponse().setResponseCode(400);
+            }
+            if (!"/v1/responses".equals(request.getPath())) {
+                return new MockResponse().setResponseCode(404);
+            }
+            final var previous = requests.get(requests.size() - 1).path("previous_response_id").asText("");
+            if (forgotten.remove(previous)) {
+                return new MockResponse().setResponseCode(404)
+                        .setBody("{\"error\":{\"code\":\"previous_response_not_found\"}}");
+            }
+            final var id = "resp_" + ids.incrementAndGet();
+            return new MockResponse()
+                    .setHeader("Content-Type", "application/json")
+                    .setBody("""
+                            {"id": "%s", "object": "response", "created_at": 1, "model": "gpt-5", "status": "completed",
+                             "output": [{"type": "message", "role": "assistant",
+                                         "content": [{"type": "output_text", "text": "answer %s"}]}],
+                             "usage": {"input_tokens": 100, "output_tokens": 2, "total_tokens": 102,
+                                       "input_tokens_details": {"cached_tokens": 64}}}
+                            """.formatted(id, id));
+        }
+    }
+
+    private final AtomicLong clock = new AtomicLong();
+    private ObjectMapper mapper;
+    private MockWebServer server;
+    private StubResponsesServer stub;
+    private OkHttpClient client;
+
+    @Test
+    void requestSizeStaysFlatAsSessionGrows() throws IOException {
+        final var messages = history();
+        final var chatSizes = new CopyOnWriteArrayList<Integer>();
+
+        for (var turn = 0; turn < 12; turn++) {
+            messages.addObject().put("role", "user").put("content", "question %d %s".formatted(turn, "x".repeat(500)));
+            chatSizes.add(mapper.writeValueAsString(chatRequest(messages)).length());
+            final var completion = complete(messages);
+            assertEquals("answer resp_" + (turn + 1), completion.at("/choices/0/message/content").asText());
+            assertEquals(64, completion.at("/usage/prompt_tokens_details/cached_tokens").asInt());
+            messages.addObject().put("role", "assistant").put("content", completion.at("/choices/0/message/content").asText());
+        }
+
+        for (var turn = 1; turn < 12; turn++) {
+            assertEquals("resp_" + turn, stub.requests.get(turn).path("previous_response_id").asText());
+            assertEquals(1, stub.requests.get(turn).path("input").size());
+            assertEquals("You are sai", stub.requests.get(turn).path("instructions").asText());
+        }
+        final var chained = stub.sizes.subList(1, 12);
+        final var spread = chained.stream().mapToInt(Integer::intValue).max().orElseThrow()
+                - chained.stream().mapToInt(Integer::intValue).min().orElseThrow();
+        assertTrue(spread < 16, "chained request sizes vary: " + chained);
+        assertTrue(chatSizes.get(11) > 5 * chained.get(10), "history did not grow: " + chatSizes);
+    }
+
+    @Test
+    void resendsFullHistoryWhenServerForgotResponse() throws IOException {
+        final var messages = history();
+        messages.addObject().put("role", "user").put("content", "first");
+        messages.addObject().put("role", "assistant").put("content", complete(messages).at("/choices/0/message/content").asText());
+        messages.addObject().put("role", "user").put("content", "second");
+        stub.forgotten.add("resp_1");
+
+        assertEquals("answer resp_2", complete(messages).at("/choices/0/message/content").asText());
+
+        assertEquals(3, stub.requests.size());
+        assertEquals("resp_1", stub.requests.get(1).path("previous_response_id").asText());
+        assertFalse(stub.requests.get(2).has("previous_response_id"));
+        assertEquals(3, stub.requests.get(2).path("input").size());
+    }
+
+    @Test
+    void resendsFullHistoryWhenHistoryIsRewrittenOrStateIsStale() throws IOException {
+        final var messages = history();
+        messages.addObject().put("role", "user").put("content", "first");
+        messages.addObject().put("role", "assistant").put("content", complete(messages).at("/choices/0/message/content").asText());
+
+        final var compacted = history();
+        compacted.addObject().put("role", "user").put("content", "summary of the conversation so far");
+        compacted.addObject().put("role", "user").put("content", "second");
+        complete(compacted);
+        assertFalse(stub.requests.get(1).has("previous_response_id"));
+
+        compacted.addObject().put("role", "assistant").put("content", "answer resp_2");
+        compacted.addObject().put("role", "user").put("content", "third");
+        clock.addAndGet(STATE_TTL.toMillis() + 1);
+        complete(compacted);
+        assertFalse(stub.requests.get(2).has("previous_response_id"));
+        assertEquals(4, stub.requests.get(2).path("input").size());
+    }
+
+    @Test
+    void translatesStreamedResponseIntoChunks() throws IOException {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                stub.requests.add(readTree(request.getBody().readUtf8()));
+                return new MockResponse()
+                        .setHeader("Content-Type", "text/event-stream")
+                        .setBody("""
+                                event: response.created
+                                data: {"type":"response.created","response":{"id":"resp_s","model":"gpt-5","created_at":7}}
+
+                                event: response.output_text.delta
+                                data: {"type":"response.output_text.delta","delta":"Hel"}
+
+                                event: response.output_item.added
+                                data: {"type":"response.output_item.added","output_index":1,"item":{"type":"function_call","call_id":"call_1","name":"read"}}
+
+                                event: response.function_call_arguments.delta
+                                data: {"type":"response.function_call_arguments.delta","output_index":1,"delta":"{\\"path\\":1}"}
+
+                                event: response.completed
+                                data: {"type":"response.completed","response":{"id":"resp_s","status":"completed","output":[{"type":"message","content":[{"type":"output_text","text":"Hel"}]},{"type":"function_call","call_id":"call_1","name":"read","arguments":"{\\"path\\":1}"}],"usage":{"input_tokens":5,"output_tokens":3,"total_tokens":8}}}
+
+                                """);
+            }
+        });
+        final var messages = history();
+        messages.addObject().put("role", "user").put("content", "read it");
+        final var chat = chatRequest(messages).put("stream", true);
+
+        final String events;
+        try (var response = client.newCall(post(chat)).execute()) {
+            assertEquals("text/event-stream", response.body().contentType().toString());
+            events = response.body().string();
+        }
+
+        final var chunks = events.lines()
+                .filter(line -> line.startsWith("data: {"))
+                .map(line -> readTree(line.substring("data: ".length())))
+                .toList();
+        assertEquals("assistant", chunks.get(0).at("/choices/0/delta/role").asText());
+        assertEquals("Hel", chunks.get(1).at("/choices/0/delta/content").asText());
+        assertEquals("call_1", chunks.get(2).at("/choices/0/delta/tool_calls/0/id").asText());
+        assertEquals("{\"path\":1}", chunks.get(3).at("/choices/0/delta/tool_calls/0/function/arguments").asText());
+        assertEquals("tool_calls", chunks.get(4).at("/choices/0/finish_reason").asText());
+        assertEquals(8, chunks.get(5).at("/usage/total_tokens").asInt());
+        assertTrue(events.strip().endsWith("data: [DONE]"));
+        assertTrue(stub.requests.get(0).path("stream").asBoolean());
+
+        // The streamed response is remembered like a complete one
+        final var assistant = messages.addObject().put("role", "assistant").put("content", "Hel");
+        final var call = assistant.putArray("tool_calls").addObject().put("id", "call_1").put("type", "function");
+        call.putObject("function").put("name", "read").put("arguments", "{\"path\":1}");
+        messages.addObject().put("role", "tool").put("tool_call_id", "call_1").put("content", "contents");
+        client.newCall(post(chatRequest(messages).put("stream", true))).execute().close();
+        assertEquals("resp_s", stub.requests.get(1).path("previous_response_id").asText());
+        assertEquals("function_call_output", stub.requests.get(1).at("/input/0/type").asText());
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mapper = JsonUtils.createMapper();
+        stub = new StubResponsesServer();
+        server = new MockWebServer();
+        server.setDispatcher(stub);
+        server.start();
+        client = new OkHttpClient.Builder()
+                .addInterceptor(new ResponsesApiInterceptor(mapper, STATE_TTL, clock::get))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private ObjectNode chatRequest(ArrayNode messages) {
+        final var chat = mapper.createObjectNode().put("model", "gpt-5").put("max_tokens", 1000);
+        chat.set("messages", messages.deepCopy());
+        chat.putArray("tools").addObject().put("type", "function")
+                .putObject("function").put("name", "read").put("description", "Reads a file");
+        return chat;
+    }
+
+    private JsonNode complete(ArrayNode messages) throws IOException {
+        try (var response = client.newCall(post(chatRequest(messages))).execute()) {
+            return mapper.readTree(response.body().string());
+        }
+    }
+
+    private ArrayNode history() {
+        final var messages = mapper.createArrayNode();
+        messages.addObject().put("role", "system").put("content", "You are sai");
+        return messages;
+    }
+
+    private Request post(ObjectNode chat) throws IOException {
+        return new Request.Builder()
+                .url(server.url("/v1/chat/completions"))
+                .post(RequestBody.create(mapper.writeValueAsString(chat), MediaType.get("application/json")))
+                .build();
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return mapper.readTree(json);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
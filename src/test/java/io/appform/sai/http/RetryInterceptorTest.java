@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.appform.sai.config.RetryPolicy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockWebServer;
+
+class RetryInterceptorTest {
+
+    private static final RetryPolicy FAST = RetryPolicy.builder()
+            .initialBackoff(Duration.ofMillis(10))
+            .maxBackoff(Duration.ofMillis(50))
+            .build()
+            .withDefaults(RetryPolicy.DEFAULT);
+
+    private MockWebServer server;
+    private FaultInjectingDispatcher dispatcher;
+
+    private static OkHttpClient client(RetryPolicy policy) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(new RetryInterceptor(policy))
+                .build();
+    }
+
+    @Test
+    void backoffGrowsExponentiallyWithJitterAndCap() {
+        final var policy = RetryPolicy.builder()
+                .initialBackoff(Duration.ofSeconds(1))
+                .maxBackoff(Duration.ofSeconds(5))
+                .build()
+                .withDefaults(RetryPolicy.DEFAULT);
+        final var noJitter = new RetryInterceptor(policy, () -> 0.0, System::currentTimeMillis);
+        final var fullJitter = new RetryInterceptor(policy, () -> 1.0, System::currentTimeMillis);
+
+        assertEquals(1000, noJitter.backoffMillis(1));
+        assertEquals(2000, noJitter.backoffMillis(2));
+        assertEquals(4000, noJitter.backoffMillis(3));
+        assertEquals(5000, noJitter.backoffMillis(4));
+        assertEquals(1000, fullJitter.backoffMillis(2));
+    }
+
+    @Test
+    void doesNotRetryNonRetryableStatus() throws IOException {
+        dispatcher.failing(1, 400, null);
+
+        try (final var response = call(client(FAST))) {
+            assertEquals(400, response.code());
+        }
+        assertEquals(1, dispatcher.requestCount());
+    }
+
+    @Test
+    void givesUpWhenRetryAfterExceedsMaximum() throws IOException {
+        dispatcher.failing(1, 429, "3600");
+
+        try (final var response = call(client(FAST))) {
+            assertEquals(429, response.code());
+        }
+        assertEquals(1, dispatcher.requestCount());
+    }
+
+    @Test
+    void honoursRetryAfter() throws IOException {
+        dispatcher.failing(1, 429, "1");
+
+        final var start = System.nanoTime();
+        try (final var response = call(client(FAST))) {
+            assertEquals(200, response.code());
+        }
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 1000);
+        assertEquals(2, dispatcher.requestCount());
+    }
+
+    @Test
+    void parsesRetryAfterHeaders() {
+        final var now = Instant.parse("2026-01-01T00:00:00Z");
+        final var interceptor = new RetryInterceptor(FAST, () -> 0.0, now::toEpochMilli);
+        final var httpDate = DateTimeFormatter.RFC_1123_DATE_TIME.format(now.plusSeconds(30).atOffset(ZoneOffset.UTC));
+
+        assertEquals(2000, interceptor.retryAfterMillis(response("Retry-After", "2")));
+        assertEquals(30_000, interceptor.retryAfterMillis(response("Retry-After", httpDate)));
+        assertEquals(250, interceptor.retryAfterMillis(response("retry-after-ms", "250")));
+        assertEquals(-1, interceptor.retryAfterMillis(response("Retry-After", "soon")));
+        assertEquals(-1, interceptor.retryAfterMillis(response("X-Other", "1")));
+    }
+
+    @Test
+    void retriesTransientErrorsUntilSuccess() throws IOException {
+        dispatcher.failing(1, 503, null).failing(2, 502, null);
+
+        try (final var response = call(client(FAST))) {
+            assertEquals(200, response.code());
+            assertEquals("ok", response.body().string());
+        }
+        assertEquals(3, dispatcher.requestCount());
+    }
+
+    @Test
+    void singleAttemptDisablesRetries() throws IOException {
+        dispatcher.failing(1, 503, null);
+        final var policy = RetryPolicy.builder().maxAttempts(1).build().withDefaults(FAST);
+
+        try (final var response = call(client(policy))) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(1, dispatcher.requestCount());
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dispatcher = new FaultInjectingDispatcher();
+        server = new MockWebServer();
+        server.setDispatcher(dispatcher);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private Response call(OkHttpClient client) throws IOException {
+        return client.newCall(new Request.Builder().url(server.url("/v1/chat/completions")).build()).execute();
+    }
+
+    private Response response(String header, String value) {
+        return new Response.Builder()
+                .request(new Request.Builder().url(server.url("/")).build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(429)
+                .message("Too Many Requests")
+                .header(header, value)
+                .build();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.appform.sai.transform.ReasoningNormalizationInterceptor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+class StreamWatchdogInterceptorTest {
+
+    private static final String EVENTS = "data: one\n\ndata: two\n\n";
+
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    private static MockResponse eventStream() {
+        return new MockResponse()
+                .setHeader("Content-Type", "text/event-stream")
+                .setBody(EVENTS);
+    }
+
+    @Test
+    void failsStreamThatStallsAfterDataWasRead() throws IOException {
+        server.enqueue(eventStream().throttleBody(11, 2, TimeUnit.SECONDS));
+
+        try (final var response = call()) {
+            final var source = response.body().source();
+            assertEquals("data: one", source.readUtf8Line());
+            final var e = assertThrows(StreamWatchdogInterceptor.StalledStreamException.class, () -> {
+                while (source.readUtf8Line() != null) {
+                    // Drain until the stall
+                }
+            });
+            assertEquals(new StreamWatchdogInterceptor.Stalls(1, 0, 200), e.stalls());
+        }
+
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void leavesNonStreamedResponsesAlone() throws IOException {
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("{}")
+                .setBodyDelay(500, TimeUnit.MILLISECONDS));
+
+        try (final var response = call()) {
+            assertEquals("{}", response.body().string());
+        }
+    }
+
+    @Test
+    void limitsReissuesOnEveryThread() throws IOException {
+        for (int i = 0; i <= StreamWatchdogInterceptor.MAX_REISSUES + 1; i++) {
+            server.enqueue(eventStream().setBodyDelay(2, TimeUnit.SECONDS));
+        }
+        // Proceed on another thread, as HedgingInterceptor does
+        client = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    try {
+                        return CompletableFuture.supplyAsync(() -> {
+                            try {
+                                return chain.proceed(chain.request());
+                            }
+                            catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }).join();
+                    }
+                    catch (CompletionException e) {
+                        throw (IOException) e.getCause().getCause();
+                    }
+                })
+                .addInterceptor(new StreamWatchdogInterceptor(Duration.ofMillis(200)))
+                .build();
+
+        final var e = assertThrows(StreamWatchdogInterceptor.StalledStreamException.class, this::call);
+        final var stalls = e.stalls();
+        assertEquals(StreamWatchdogInterceptor.MAX_REISSUES + 1, stalls.detected());
+        assertEquals(StreamWatchdogInterceptor.MAX_REISSUES, stalls.reissued());
+        assertEquals(1, stalls.unrecovered());
+
+        assertEquals(StreamWatchdogInterceptor.MAX_REISSUES + 1, server.getRequestCount());
+    }
+
+    @Test
+    void reissuesStreamThatStallsBeforeAnyData() throws IOException {
+        server.enqueue(eventStream().setBodyDelay(2, TimeUnit.SECONDS));
+        server.enqueue(eventStream());
+
+        try (final var response = call()) {
+            assertEquals(EVENTS, response.body().string());
+        }
+
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void reissuesWhenAnEarlierInterceptorReadsTheWholeStream() throws IOException {
+        server.enqueue(eventStream().setBodyDelay(2, TimeUnit.SECONDS));
+        server.enqueue(eventStream());
+        client = new OkHttpClient.Builder()
+                .addInterceptor(new ReasoningNormalizationInterceptor(new ObjectMapper()))
+                .addInterceptor(new StreamWatchdogInterceptor(Duration.ofMillis(200)))
+                .build();
+
+        try (final var response = call()) {
+            assertEquals(EVENTS, response.body().string());
+        }
+
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient.Builder()
+                .addInterceptor(new StreamWatchdogInterceptor(Duration.ofMillis(200)))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private Response call() throws IOException {
+        return client.newCall(new Request.Builder().url(server.url("/v1/chat/completions")).build()).execute();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.phonepe.sentinelai.core.agentmessages.requests.ToolCallResponse;
+import com.phonepe.sentinelai.core.errors.ErrorType;
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+import com.phonepe.sentinelai.session.QueryDirection;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+class SessionBlobStoreTest {
+
+    private static final String LARGE_OUTPUT = "{\"statusCode\":0,\"stdout\":\"" + "build output line\\n".repeat(200)
+            + "\"}";
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+    private Path sessionsDir;
+    private SessionBlobStore blobStore;
+    private FileSystemSessionStore sessionStore;
+
+    private static ToolCallResponse toolResponse(String sessionId, String response) {
+        return ToolCallResponse.builder()
+                .sessionId(sessionId)
+                .runId("run-1")
+                .toolCallId("call-1")
+                .toolName("bash")
+                .errorType(ErrorType.SUCCESS)
+                .response(response)
+                .build();
+    }
+
+    private static String readAll(Path dir) throws Exception {
+        final var sb = new StringBuilder();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (final var file : files.filter(Files::isRegularFile).toList()) {
+                try (var in = SessionCodec.decoded(Files.newInputStream(file))) {
+                    sb.append(new String(in.readAllBytes()));
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private long blobCount() throws Exception {
+        final var blobsDir = sessionsDir.resolveSibling(SessionBlobStore.DIR_NAME);
+        if (!Files.isDirectory(blobsDir)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.walk(blobsDir)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    void forkKeepsTheBlobsOfADeletedParent() throws Exception {
+        save("s1", LARGE_OUTPUT);
+        blobStore.fork("s1", "s2");
+        assertEquals(List.of(2), List.copyOf(blobStore.referenceCounts().values()));
+
+        final var references = blobStore.references("s1");
+        FileUtils.deleteDirectory(sessionsDir.resolve("s1").toFile());
+        blobStore.release("s1", references);
+        clock.addAndGet(SessionBlobStore.SWEEP_GRACE.toMillis() + 1);
+
+        assertEquals(0, blobStore.sweep().deleted());
+        assertEquals(List.of(1), List.copyOf(blobStore.referenceCounts().values()));
+        assertEquals(references, blobStore.references("s2"));
+    }
+
+    @Test
+    void largeResponsesAreStoredOnceAndReadBack() throws Exception {
+        save("s1", LARGE_OUTPUT);
+        save("s2", LARGE_OUTPUT);
+
+        assertEquals(1, blobCount());
+        final var stored = readAll(sessionsDir.resolve("s1"));
+        assertFalse(stored.contains("build output line"));
+        assertTrue(stored.contains(SessionBlobStore.REF_PREFIX));
+
+        final var messages = sessionStore.readMessages("s1", Integer.MAX_VALUE, false, null, QueryDirection.OLDER)
+                .getItems();
+        assertEquals(LARGE_OUTPUT, ((ToolCallResponse) messages.get(0)).getResponse());
+    }
+
+    @Test
+    void missingBlobIsReadAsLostOutput() throws Exception {
+        save("s1", LARGE_OUTPUT);
+        FileUtils.deleteDirectory(sessionsDir.resolveSibling(SessionBlobStore.DIR_NAME).toFile());
+
+        final var messages = sessionStore.readMessages("s1", Integer.MAX_VALUE, false, null, QueryDirection.OLDER)
+                .getItems();
+        final var response = ((ToolCallResponse) messages.get(0)).getResponse();
+        assertTrue(response.startsWith("[tool output lost"));
+        assertFalse(response.startsWith(SessionBlobStore.REF_PREFIX));
+    }
+
+    @Test
+    void smallResponsesStayInline() throws Exception {
+        save("s1", "{\"statusCode\":0,\"stdout\":\"ok\"}");
+
+        assertEquals(0, blobCount());
+        assertTrue(readAll(sessionsDir.resolve("s1")).contains("ok"));
+    }
+
+    @Test
+    void sweepDeletesOnlyUnreferencedBlobsPastTheGracePeriod() throws Exception {
+        save("s1", LARGE_OUTPUT);
+        save("s2", LARGE_OUTPUT);
+        save("s3", LARGE_OUTPUT.replace("build", "test"));
+        assertEquals(2, blobCount());
+
+        FileUtils.deleteDirectory(sessionsDir.resolve("s3").toFile());
+        assertEquals(0, blobStore.sweep().deleted());
+
+        clock.addAndGet(SessionBlobStore.SWEEP_GRACE.toMillis() + 1);
+        FileUtils.deleteDirectory(sessionsDir.resolve("s1").toFile());
+        final var result = blobStore.sweep();
+        assertEquals(new SessionBlobStore.SweepResult(2, 1, 1, result.reclaimedBytes()), result);
+        assertEquals(1, blobCount());
+        assertEquals(1, blobStore.referenceCounts().size());
+    }
+
+    @BeforeEach
+    void setUp() {
+        sessionsDir = tempDir.resolve("sessions");
+        blobStore = new SessionBlobStore(sessionsDir, 1024, clock::get);
+        sessionStore = FileSystemSessionStore.builder()
+                .baseDir(sessionsDir.toString())
+                .mapper(blobStore.mapper(SessionCodec.JSON.mapper(JsonUtils.createMapper())))
+                .cacheSize(1)
+                .build();
+    }
+
+    private void save(String sessionId, String response) {
+        sessionStore.saveSession(SessionSummary.builder()
+                .sessionId(sessionId)
+                .title("Blob test")
+                .updatedAt(System.currentTimeMillis())
+                .build());
+        sessionStore.saveMessages(sessionId, "run-1", List.of(toolResponse(sessionId, response)));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class SessionCatalogTest {
+
+    private static final List<String> SESSION_IDS = List.of("session-a", "session-b", "session-c", "session-d");
+
+    @TempDir
+    Path tempDir;
+
+    private FileSystemSessionStore sessionStore;
+    private SessionCatalog catalog;
+
+    private static SessionSummary summary(String sessionId, long updatedAt, String workDir) {
+        return SessionSummary.builder()
+                .sessionId(sessionId)
+                .title("Title of " + sessionId)
+                .updatedAt(updatedAt)
+                .extra(Map.of("workDir", workDir))
+                .build();
+    }
+
+    private static List<String> ids(List<SessionCatalog.Entry> entries) {
+        return entries.stream().map(SessionCatalog.Entry::sessionId).toList();
+    }
+
+    @Test
+    void pagesNewestFirstAndFiltersByWorkDir() {
+        catalog.page(sessionStore, null, 0, 1);
+        catalog.record(summary("session-a", 100, "/work/one"));
+        catalog.record(summary("session-b", 400, "/work/two"));
+        catalog.record(summary("session-c", 300, "/work/one"));
+        catalog.record(summary("session-d", 200, "/work/one"));
+
+        assertEquals(List.of("session-b", "session-c", "session-d", "session-a"),
+                     ids(catalog.all(sessionStore)));
+        assertEquals(List.of("session-c", "session-d"), ids(catalog.page(sessionStore, "/work/one", 0, 2)));
+        assertEquals(List.of("session-a"), ids(catalog.page(sessionStore, "/work/one", 2, 2)));
+        assertEquals("Title of session-b", catalog.all(sessionStore).get(0).title());
+
+        catalog.record(summary("session-a", 500, "/work/one"));
+        assertEquals("session-a", catalog.all(sessionStore).get(0).sessionId());
+        assertEquals(4, catalog.all(sessionStore).size());
+    }
+
+    @Test
+    void rebuildsFromScanWhenMissingOrUnreadable() throws Exception {
+        assertFalse(catalog.exists());
+        assertEquals(new HashSet<>(SESSION_IDS), Set.copyOf(ids(catalog.all(sessionStore))));
+        assertTrue(catalog.exists());
+
+        Files.writeString(tempDir.resolve(SessionCatalog.FILE_NAME), "{not json\n");
+        assertEquals(new HashSet<>(SESSION_IDS), Set.copyOf(ids(catalog.all(sessionStore))));
+    }
+
+    @Test
+    void recordsGoToAChangeLogThatIsCompacted() throws Exception {
+        catalog.all(sessionStore);
+        final var changeLog = tempDir.resolve(SessionCatalog.LOG_FILE_NAME);
+
+        catalog.record(summary("session-a", 100, "/work/one"));
+        assertTrue(Files.exists(changeLog));
+        assertFalse(Files.readString(tempDir.resolve(SessionCatalog.FILE_NAME)).contains("/work/one"));
+
+        var updatedAt = 100L;
+        while (Files.exists(changeLog) && updatedAt < 100_000) {
+            catalog.record(summary("session-a", ++updatedAt, "/work/one"));
+        }
+
+        assertFalse(Files.exists(changeLog));
+        assertTrue(Files.readString(tempDir.resolve(SessionCatalog.FILE_NAME)).contains("\"updatedAt\":" + updatedAt));
+        final var entries = catalog.all(sessionStore);
+        assertEquals(SESSION_IDS.size(), entries.size());
+        assertEquals(updatedAt, entries.get(entries.size() - 1).updatedAt());
+    }
+
+    @Test
+    void skipsRemovedAndMissingSessions() throws Exception {
+        catalog.all(sessionStore);
+
+        catalog.remove(List.of("session-a"));
+        FileUtils.deleteDirectory(tempDir.resolve("sessions").resolve("session-b").toFile());
+
+        assertEquals(Set.of("session-c", "session-d"), Set.copyOf(ids(catalog.all(sessionStore))));
+    }
+
+    @BeforeEach
+    void setUp() {
+        final var sessionsDir = tempDir.resolve("sessions");
+        sessionStore = FileSystemSessionStore.builder()
+                .baseDir(sessionsDir.toString())
+                .mapper(JsonUtils.createMapper())
+                .cacheSize(1)
+                .build();
+        SESSION_IDS.forEach(sessionId -> sessionStore.saveSession(SessionSummary.builder()
+                .sessionId(sessionId)
+                .title("Title of " + sessionId)
+                .updatedAt(System.currentTimeMillis())
+                .build()));
+        catalog = new SessionCatalog(sessionsDir, JsonUtils.createMapper());
+    }
+}
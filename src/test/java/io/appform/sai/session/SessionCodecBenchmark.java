@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import com.phonepe.sentinelai.core.agentmessages.requests.UserPrompt;
+import com.phonepe.sentinelai.core.agentmessages.responses.Text;
+import com.phonepe.sentinelai.core.model.ModelUsageStats;
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+import com.phonepe.sentinelai.session.QueryDirection;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares bytes on disk and the time to read a whole session back, as resume, export and
+ * {@code session-summary} do, for every {@link SessionCodec}.
+ *
+ * <p>By default a synthetic session of 40 turns with 50 KB of repetitive tool-like output each
+ * is generated. To measure real sessions, point {@code sai.benchmark.sessions} at a sessions
+ * directory and {@code sai.benchmark.sessionId} at one of its sessions; they are copied, so the
+ * originals are not modified. Sizes are printed during set-up.
+ *
+ * <p>Run with:
+ * <pre>
+ * mvn -B test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=io.appform.sai.session.SessionCodecBenchmark \
+ *     [-Dsai.benchmark.sessions=$HOME/.local/state/sai/sessions -Dsai.benchmark.sessionId=&lt;id&gt;]
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionCodecBenchmark {
+
+    private static final String SYNTHETIC_SESSION_ID = "benchmark-session";
+    private static final int SYNTHETIC_TURNS = 40;
+
+    @Param({
+            "JSON", "GZIP"
+    })
+    private SessionCodec codec;
+
+    private Path tempDir;
+    private String sessionId;
+    private FileSystemSessionStore sessionStore;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SessionCodecBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    private static String toolLikeOutput(int turn) {
+        final var sb = new StringBuilder();
+        var line = 0;
+        while (sb.length() < 50 * 1024) {
+            sb.append("src/main/java/io/appform/sai/Module").append(turn).append(".java:").append(line++)
+                    .append(":    final var value = compute(input, options); // TODO handle errors\n");
+        }
+        return sb.toString();
+    }
+
+    private static void writeSyntheticSession(Path sessionsDir) {
+        final var store = FileSystemSessionStore.builder()
+                .baseDir(sessionsDir.toString())
+                .mapper(JsonUtils.createMapper())
+                .cacheSize(1)
+                .build();
+        store.saveSession(SessionSummary.builder()
+                .sessionId(SYNTHETIC_SESSION_ID)
+                .title("Codec benchmark")
+                .updatedAt(System.currentTimeMillis())
+                .build());
+        for (var turn = 0; turn < SYNTHETIC_TURNS; turn++) {
+            final var runId = "run-" + turn;
+            store.saveMessages(SYNTHETIC_SESSION_ID,
+                               runId,
+                               List.of(UserPrompt.builder()
+                                       .sessionId(SYNTHETIC_SESSION_ID)
+                                       .runId(runId)
+                                       .content("Look at module " + turn)
+                                       .build(),
+                                       Text.builder()
+                                               .sessionId(SYNTHETIC_SESSION_ID)
+                                               .runId(runId)
+                                               .content(toolLikeOutput(turn))
+                                               .stats(new ModelUsageStats())
+                                               .elapsedTimeMs(10)
+                                               .build()));
+        }
+    }
+
+    @Benchmark
+    public void readWholeSession(Blackhole blackhole) {
+        blackhole.consume(sessionStore.readMessages(sessionId, Integer.MAX_VALUE, false, null, QueryDirection.NEWER)
+                                  .getItems());
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        tempDir = Files.createTempDirectory("sai-codec-benchmark-");
+        final var sessionsDir = tempDir.resolve("sessions");
+        final var realSessions = System.getProperty("sai.benchmark.sessions");
+        if (realSessions == null) {
+            writeSyntheticSession(sessionsDir);
+            sessionId = SYNTHETIC_SESSION_ID;
+        }
+        else {
+            sessionId = System.getProperty("sai.benchmark.sessionId");
+            FileUtils.copyDirectory(Paths.get(realSessions, sessionId).toFile(),
+                                    sessionsDir.resolve(sessionId).toFile());
+        }
+        final var result = new SessionMigrator(sessionsDir, codec).migrate(sessionId, false);
+        System.out.printf("%n%s: %d file(s), %s on disk%n",
+                          codec,
+                          result.files(),
+                          FileUtils.byteCountToDisplaySize(result.bytesAfter()));
+        sessionStore = FileSystemSessionStore.builder()
+                .baseDir(sessionsDir.toString())
+                .mapper(codec.mapper(JsonUtils.createMapper()))
+                .cacheSize(1)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(tempDir.toFile());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+class SessionCodecTest {
+
+    private static final Map<String, String> DOCUMENT = Map.of("content", "line of tool output\n".repeat(500));
+
+    @TempDir
+    Path tempDir;
+
+    private static boolean isCompressed(Path file) throws Exception {
+        final var bytes = Files.readAllBytes(file);
+        return SessionCodec.isCompressed(bytes, 0, bytes.length);
+    }
+
+    @Test
+    void everyCodecReadsEveryEncoding() throws Exception {
+        final var plain = tempDir.resolve("plain.json");
+        final var compressed = tempDir.resolve("compressed.json");
+        SessionCodec.JSON.mapper(JsonUtils.createMapper()).writeValue(plain.toFile(), DOCUMENT);
+        SessionCodec.GZIP.mapper(JsonUtils.createMapper()).writeValue(compressed.toFile(), DOCUMENT);
+
+        assertFalse(isCompressed(plain));
+        assertTrue(isCompressed(compressed));
+        assertTrue(Files.size(compressed) * 10 < Files.size(plain));
+        for (final var codec : SessionCodec.values()) {
+            final var mapper = codec.mapper(JsonUtils.createMapper());
+            assertEquals(DOCUMENT, mapper.readValue(plain.toFile(), Map.class));
+            assertEquals(DOCUMENT, mapper.readValue(compressed.toFile(), Map.class));
+            assertEquals(DOCUMENT, mapper.readValue(Files.readAllBytes(compressed), Map.class));
+        }
+    }
+
+    @Test
+    void migratorReencodesOnlyWhatDiffers() throws Exception {
+        final var sessionsDir = tempDir.resolve("sessions");
+        final var messages = Files.createDirectories(sessionsDir.resolve("s1").resolve("messages"));
+        final var file = messages.resolve("m1.json");
+        JsonUtils.createMapper().writeValue(file.toFile(), DOCUMENT);
+        final var timings = Files.writeString(sessionsDir.resolve("s1").resolve(TurnTimingStore.FILE_NAME), "{}\n");
+        final var plainSize = Files.size(file);
+
+        final var dryRun = new SessionMigrator(sessionsDir, SessionCodec.GZIP).migrate(null, true);
+        assertEquals(1, dryRun.converted());
+        assertTrue(dryRun.bytesAfter() < dryRun.bytesBefore());
+        assertFalse(isCompressed(file));
+
+        final var gzip = new SessionMigrator(sessionsDir, SessionCodec.GZIP).migrate(null, false);
+        assertEquals(new SessionMigrator.Result(1, 1, plainSize, Files.size(file)), gzip);
+        assertEquals(dryRun.bytesAfter(), gzip.bytesAfter());
+        assertTrue(isCompressed(file));
+        assertFalse(isCompressed(timings));
+        assertEquals(0, new SessionMigrator(sessionsDir, SessionCodec.GZIP).migrate("s1", false).converted());
+
+        new SessionMigrator(sessionsDir, SessionCodec.JSON).migrate("s1", false);
+        assertEquals(DOCUMENT, JsonUtils.createMapper().readValue(file.toFile(), Map.class));
+    }
+
+    @Test
+    void parsesCodecNames() {
+        assertEquals(SessionCodec.GZIP, SessionCodec.parse("gzip"));
+        assertEquals(SessionCodec.JSON, SessionCodec.parse(" JSON "));
+        assertThrows(IllegalArgumentException.class, () -> SessionCodec.parse("smile"));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.phonepe.sentinelai.core.agentmessages.AgentMessageType;
+import com.phonepe.sentinelai.core.agentmessages.requests.UserPrompt;
+import com.phonepe.sentinelai.core.agentmessages.responses.Text;
+import com.phonepe.sentinelai.core.model.ModelUsageStats;
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+class SessionExporterTest {
+
+    private static final String SESSION_ID = "test-export-session";
+    private static final int TURNS = 5;
+
+    @TempDir
+    Path tempDir;
+
+    private FileSystemSessionStore sessionStore;
+    private SessionSummary summary;
+    private SessionExporter exporter;
+
+    @Test
+    void filtersByTypeAndTime() throws Exception {
+        final var prompts = new SessionExporter.Filter(Set.of(AgentMessageType.USER_PROMPT_REQUEST_MESSAGE),
+                                                       null,
+                                                       null);
+        final var lines = export(SessionExporter.Format.JSONL, prompts).split("\n");
+        assertEquals(TURNS, lines.length);
+        assertTrue(lines[0].contains("prompt-0"));
+
+        final var future = new SessionExporter.Filter(Set.of(), Instant.now().plus(Duration.ofDays(1)), null);
+        final var result = exporter.export(summary, SessionExporter.Format.JSONL, future, new StringWriter());
+        assertEquals(new SessionExporter.Result(TURNS * 2, 0), result);
+    }
+
+    @Test
+    void jsonlHasOneLinePerMessageInOrder() throws Exception {
+        final var lines = export(SessionExporter.Format.JSONL, SessionExporter.Filter.ALL).split("\n");
+
+        assertEquals(TURNS * 2, lines.length);
+        assertTrue(lines[0].contains("prompt-0"), lines[0]);
+        assertTrue(lines[lines.length - 1].contains("answer-4"), lines[lines.length - 1]);
+        final var mapper = JsonUtils.createMapper();
+        for (final var line : lines) {
+            assertTrue(mapper.readTree(line).isObject());
+        }
+    }
+
+    @Test
+    void markdownHasHeaderAndOneBlockPerMessage() throws Exception {
+        final var markdown = export(SessionExporter.Format.MARKDOWN, SessionExporter.Filter.ALL);
+
+        assertTrue(markdown.startsWith("# Export test\n"), markdown);
+        assertTrue(markdown.contains("**Session ID:** test-export-session"), markdown);
+        assertEquals(TURNS * 2, markdown.split("```json\n", -1).length - 1);
+        assertTrue(markdown.indexOf("prompt-0") < markdown.indexOf("answer-4"));
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        assertEquals(SessionExporter.Format.JSONL, SessionExporter.Format.parse("JsonL"));
+        assertThrows(IllegalArgumentException.class, () -> SessionExporter.Format.parse("csv"));
+    }
+
+    @BeforeEach
+    void setUp() {
+        sessionStore = FileSystemSessionStore.builder()
+                .baseDir(tempDir.resolve("sessions").toString())
+                .mapper(JsonUtils.createMapper())
+                .cacheSize(1)
+                .build();
+        summary = SessionSummary.builder()
+                .sessionId(SESSION_ID)
+                .title("Export test")
+                .updatedAt(System.currentTimeMillis())
+                .build();
+        sessionStore.saveSession(summary);
+        IntStream.range(0, TURNS).forEach(turn -> {
+            final var runId = "run-" + turn;
+            sessionStore.saveMessages(SESSION_ID,
+                                      runId,
+                                      List.of(UserPrompt.builder()
+                                              .sessionId(SESSION_ID)
+                                              .runId(runId)
+                                              .content("prompt-" + turn)
+                                              .build(),
+                                              Text.builder()
+                                                      .sessionId(SESSION_ID)
+                                                      .runId(runId)
+                                                      .content("answer-" + turn)
+                                                      .stats(new ModelUsageStats())
+                                                      .elapsedTimeMs(10)
+                                                      .build()));
+        });
+        exporter = new SessionExporter(sessionStore, JsonUtils.createMapper(), 3);
+    }
+
+    private String export(SessionExporter.Format format, SessionExporter.Filter filter) throws Exception {
+        final var out = new StringWriter();
+        exporter.export(summary, format, filter, out);
+        return out.toString();
+    }
+}
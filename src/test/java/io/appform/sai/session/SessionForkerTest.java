@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepe.sentinelai.core.agentmessages.requests.UserPrompt;
+import com.phonepe.sentinelai.core.agentmessages.responses.Text;
+import com.phonepe.sentinelai.core.model.ModelUsageStats;
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+import com.phonepe.sentinelai.session.SessionExtraDataOperator;
+import com.phonepe.sentinelai.session.SessionStore;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+class SessionForkerTest {
+
+    private static final String PARENT_ID = "test-fork-parent";
+    private static final String FORK_ID = "test-fork-child";
+
+    @TempDir
+    Path tempDir;
+
+    private Path sessionsDir;
+    private ObjectMapper mapper;
+    private FileSystemSessionStore sessionStore;
+    private SessionForker forker;
+
+    private static boolean sharesAFile(Path parentDir, Path forkDir) throws IOException {
+        try (var files = Files.walk(forkDir)) {
+            return files.filter(Files::isRegularFile).anyMatch(file -> {
+                final var counterpart = parentDir.resolve(forkDir.relativize(file).toString());
+                try {
+                    return Files.exists(counterpart) && Files.isSameFile(file, counterpart);
+                }
+                catch (IOException e) {
+                    return false;
+                }
+            });
+        }
+    }
+
+    private static void saveTurn(SessionStore store, String sessionId, String runId) {
+        store.saveMessages(sessionId,
+                           runId,
+                           List.of(UserPrompt.builder()
+                                   .sessionId(sessionId)
+                                   .runId(runId)
+                                   .content("question " + runId)
+                                   .build(),
+                                   Text.builder()
+                                           .sessionId(sessionId)
+                                           .runId(runId)
+                                           .content("answer " + runId)
+                                           .stats(new ModelUsageStats())
+                                           .elapsedTimeMs(10)
+                                           .build()));
+    }
+
+    @Test
+    void forkCopiesTheHistoryAndDivergesOnNewMessages() throws Exception {
+        final var result = forker.fork(sessionStore, PARENT_ID, FORK_ID, "Experiment", Map.of(), false);
+
+        assertEquals(FORK_ID, result.sessionId());
+        assertEquals(0, result.linked());
+        assertTrue(result.copied() > 0);
+        assertFalse(sharesAFile(sessionsDir.resolve(PARENT_ID), sessionsDir.resolve(FORK_ID)));
+        assertEquals("Experiment", sessionStore.session(FORK_ID).orElseThrow().getTitle());
+        assertEquals(2, SessionStatsStore.runMessages(FORK_ID, "run-1", sessionStore).size());
+
+        saveTurn(sessionStore, FORK_ID, "run-2");
+
+        assertEquals(2, SessionStatsStore.runMessages(FORK_ID, "run-2", sessionStore).size());
+        assertTrue(SessionStatsStore.runMessages(PARENT_ID, "run-2", sessionStore).isEmpty());
+        assertEquals("Fork test", sessionStore.session(PARENT_ID).orElseThrow().getTitle());
+    }
+
+    @Test
+    void forkKeepsTheParentsExtraDataAndAppliesOverrides() throws Exception {
+        forker.fork(sessionStore, PARENT_ID, FORK_ID, null, Map.of("model", "copilot/gpt-4.1/planning"), false);
+
+        final var fork = sessionStore.session(FORK_ID).orElseThrow();
+        assertEquals("Fork test (fork)", fork.getTitle());
+        assertEquals("copilot/gpt-4.1/planning", fork.getExtra().get("model"));
+        assertEquals("coder.yaml", fork.getExtra().get("persona"));
+        assertTrue(new SessionCatalog(sessionsDir, mapper).all(sessionStore)
+                .stream()
+                .anyMatch(entry -> entry.sessionId().equals(FORK_ID)));
+    }
+
+    @Test
+    void linkOptionSharesTheHistoryWithoutChangingTheParent() throws Exception {
+        final var result = forker.fork(sessionStore, PARENT_ID, FORK_ID, null, Map.of(), true);
+
+        assertTrue(result.linked() > 0);
+        assertTrue(sharesAFile(sessionsDir.resolve(PARENT_ID), sessionsDir.resolve(FORK_ID)));
+
+        saveTurn(sessionStore, FORK_ID, "run-2");
+        sessionStore.saveSession(SessionSummary.builder()
+                .sessionId(FORK_ID)
+                .title("Fork test (fork)")
+                .summary("Diverged")
+                .updatedAt(System.currentTimeMillis())
+                .build());
+
+        assertEquals(2, SessionStatsStore.runMessages(FORK_ID, "run-2", sessionStore).size());
+        assertTrue(SessionStatsStore.runMessages(PARENT_ID, "run-2", sessionStore).isEmpty());
+        assertEquals(2, SessionStatsStore.runMessages(PARENT_ID, "run-1", sessionStore).size());
+        assertEquals("Fork test", sessionStore.session(PARENT_ID).orElseThrow().getTitle());
+        assertFalse("Diverged".equals(sessionStore.session(PARENT_ID).orElseThrow().getSummary()));
+    }
+
+    @Test
+    void forkStatsMarkTheParentsHistoryAsInherited() throws Exception {
+        final var statsStore = new SessionStatsStore(sessionsDir, mapper);
+        final var parentStats = statsStore.recordRun(PARENT_ID, "run-1", sessionStore, null).orElseThrow();
+
+        forker.fork(sessionStore, PARENT_ID, FORK_ID, null, Map.of(), true);
+        assertFalse(Files.isSameFile(sessionsDir.resolve(PARENT_ID).resolve(SessionStatsStore.FILE_NAME),
+                                     sessionsDir.resolve(FORK_ID).resolve(SessionStatsStore.FILE_NAME)));
+        saveTurn(sessionStore, FORK_ID, "run-2");
+        final var forkStats = statsStore.recordRun(FORK_ID, "run-2", sessionStore, null).orElseThrow();
+
+        assertEquals(2, forkStats.getTurns());
+        assertEquals(parentStats.toBuilder().lastRunId(null).build(), forkStats.getInherited());
+        assertEquals(forkStats, statsStore.rebuild(FORK_ID, sessionStore));
+        try (var report = new SessionUsageReport(sessionsDir, mapper, 1)) {
+            final var total = report.aggregate(new SessionCatalog(sessionsDir, mapper).all(sessionStore), List.of())
+                    .total();
+            assertEquals(2, total.turns());
+        }
+    }
+
+    @Test
+    void unknownParentOrExistingForkIsRejected() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                     () -> forker.fork(sessionStore, "no-such-session", FORK_ID, null, Map.of(), false));
+
+        forker.fork(sessionStore, PARENT_ID, FORK_ID, null, Map.of(), false);
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> forker.fork(sessionStore, PARENT_ID, FORK_ID, null, Map.of(), false));
+    }
+
+    @BeforeEach
+    void setUp() {
+        sessionsDir = tempDir.resolve("sessions");
+        mapper = JsonUtils.createMapper();
+        final var parentStore = FileSystemSessionStore.builder()
+                .baseDir(sessionsDir.toString())
+                .mapper(mapper)
+                .cacheSize(1)
+                .extraDataOperator(SessionExtraDataOperator.fixed(Map.of("model",
+                                                                         "openai/gpt-4o",
+                                                                         "persona",
+                                                                         "coder.yaml")))
+                .build();
+        parentStore.saveSession(SessionSummary.builder()
+                .sessionId(PARENT_ID)
+                .title("Fork test")
+                .updatedAt(System.currentTimeMillis())
+                .build());
+        saveTurn(parentStore, PARENT_ID, "run-1");
+        sessionStore = FileSystemSessionStore.builder()
+                .baseDir(sessionsDir.toString())
+                .mapper(mapper)
+                .cacheSize(1)
+                .build();
+        forker = new SessionForker(sessionsDir, mapper);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+
+import io.appform.sai.config.RetentionPolicy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class SessionRetentionTest {
+
+    private static final long NOW_MILLIS = Duration.ofDays(100).toMillis();
+    private static final int SESSION_BYTES = 10 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private Path sessionsDir;
+    private SessionRetention retention;
+
+    private static SessionCatalog.Entry entry(String sessionId, Duration age, String workDir) {
+        return new SessionCatalog.Entry(sessionId, null, (NOW_MILLIS - age.toMillis()) * 1000L, workDir);
+    }
+
+    private static Map<String, SessionRetention.Reason> reasons(SessionRetention.Plan plan) {
+        return plan.deletions().stream()
+                .collect(Collectors.toMap(deletion -> deletion.session().sessionId(),
+                                          SessionRetention.Deletion::reason));
+    }
+
+    @Test
+    void appliesAgeAndPerDirectoryLimits() {
+        final var sessions = List.of(entry("a1", Duration.ofHours(1), "/a"),
+                                     entry("b1", Duration.ofHours(2), "/b"),
+                                     entry("a2", Duration.ofHours(3), "/a"),
+                                     entry("a3", Duration.ofHours(4), "/a"),
+                                     entry("b2", Duration.ofDays(10), "/b"));
+        final var policy = RetentionPolicy.builder()
+                .maxAge(Duration.ofDays(7))
+                .maxSessionsPerWorkDir(2)
+                .build()
+                .withDefaults(RetentionPolicy.DEFAULT);
+
+        final var plan = retention.plan(sessions, policy, Set.of());
+
+        assertEquals(Map.of("a3", SessionRetention.Reason.COUNT, "b2", SessionRetention.Reason.AGE), reasons(plan));
+        assertEquals(2L * SESSION_BYTES, plan.reclaimableBytes());
+        assertEquals(-1, plan.totalBytes());
+    }
+
+    @Test
+    void executeDeletesPlannedSessions() {
+        final var sessions = List.of(entry("a1", Duration.ofHours(1), "/a"),
+                                     entry("a2", Duration.ofDays(10), "/a"),
+                                     entry("a3", Duration.ofDays(20), "/a"));
+        final var policy = RetentionPolicy.builder()
+                .maxAge(Duration.ofDays(7))
+                .build()
+                .withDefaults(RetentionPolicy.DEFAULT);
+
+        final var result = retention.execute(retention.plan(sessions, policy, Set.of()));
+
+        assertEquals(Set.of("a2", "a3"), Set.copyOf(result.deleted()));
+        assertTrue(result.failed().isEmpty());
+        assertEquals(2L * SESSION_BYTES, result.reclaimedBytes());
+        assertTrue(Files.isDirectory(sessionsDir.resolve("a1")));
+        assertFalse(Files.exists(sessionsDir.resolve("a2")));
+        assertFalse(Files.exists(sessionsDir.resolve("a3")));
+    }
+
+    @Test
+    void hardLinkedFilesAreCountedOnce() throws IOException {
+        final var shared = sessionsDir.resolve("a2").resolve("messages").resolve("data.json");
+        Files.delete(shared);
+        Files.createLink(shared, sessionsDir.resolve("a1").resolve("messages").resolve("data.json"));
+        final var sessions = List.of(entry("a1", Duration.ofHours(1), "/a"),
+                                     entry("a2", Duration.ofHours(2), "/a"),
+                                     entry("a3", Duration.ofHours(3), "/a"));
+        final var policy = RetentionPolicy.builder()
+                .maxTotalMb(0L)
+                .build()
+                .withDefaults(RetentionPolicy.DEFAULT);
+
+        final var plan = retention.plan(sessions, policy, Set.of("a1"));
+
+        assertEquals(Set.of("a2", "a3"), reasons(plan).keySet());
+        assertEquals(2L * SESSION_BYTES, plan.totalBytes());
+        assertEquals(SESSION_BYTES, plan.reclaimableBytes());
+    }
+
+    @Test
+    void keepsNewestSessionsWithinSizeBudget() {
+        final var sessions = List.of(entry("a1", Duration.ofHours(1), "/a"),
+                                     entry("a2", Duration.ofHours(2), "/a"),
+                                     entry("a3", Duration.ofHours(3), "/a"),
+                                     entry("a4", Duration.ofHours(4), "/a"));
+        final var policy = RetentionPolicy.builder()
+                .maxTotalMb(0L)
+                .build()
+                .withDefaults(RetentionPolicy.DEFAULT);
+
+        final var plan = retention.plan(sessions, policy, Set.of("a1"));
+
+        assertEquals(Set.of("a2", "a3", "a4"), reasons(plan).keySet());
+        assertEquals(4L * SESSION_BYTES, plan.totalBytes());
+        assertEquals(3L * SESSION_BYTES, plan.reclaimableBytes());
+    }
+
+    @Test
+    void protectedSessionsCountTowardsTheirDirectory() {
+        final var sessions = List.of(entry("a1", Duration.ofHours(1), "/a"),
+                                     entry("a2", Duration.ofHours(2), "/a"),
+                                     entry("a3", Duration.ofHours(3), "/a"));
+        final var policy = RetentionPolicy.builder()
+                .maxSessionsPerWorkDir(2)
+                .build()
+                .withDefaults(RetentionPolicy.DEFAULT);
+
+        final var plan = retention.plan(sessions, policy, Set.of("a2"));
+
+        assertEquals(Map.of("a3", SessionRetention.Reason.COUNT), reasons(plan));
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sessionsDir = tempDir.resolve("sessions");
+        for (final var sessionId : List.of("a1", "a2", "a3", "a4", "b1", "b2")) {
+            final var dir = Files.createDirectories(sessionsDir.resolve(sessionId).resolve("messages"));
+            Files.write(dir.resolve("data.json"), new byte[SESSION_BYTES]);
+        }
+        retention = new SessionRetention(sessionsDir,
+                                         new SessionCatalog(sessionsDir, JsonUtils.createMapper()),
+                                         4,
+                                         () -> NOW_MILLIS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        retention.close();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.phonepe.sentinelai.core.agentmessages.requests.UserPrompt;
+import com.phonepe.sentinelai.core.agentmessages.responses.Text;
+import com.phonepe.sentinelai.core.model.ModelUsageStats;
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+class SessionSearchIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileSystemSessionStore sessionStore;
+    private SessionCatalog catalog;
+    private SessionSearchIndex searchIndex;
+
+    @Test
+    void deletedSessionsAreNotReturned() {
+        saveTurn("s-1", "run-1", "kafka consumer lag", "Increased partitions");
+        saveTurn("s-2", "run-1", "kafka producer retries", "Enabled idempotence");
+        searchIndex.rebuild(sessionStore, catalog.all(sessionStore));
+
+        sessionStore.deleteSession("s-1");
+
+        assertEquals(List.of("s-2"),
+                     searchIndex.search("kafka", 10).stream().map(SessionSearchIndex.Hit::sessionId).toList());
+        assertTrue(searchIndex.search("", 10).isEmpty());
+    }
+
+    @Test
+    void rankedBySessionsMatchingMoreTerms() {
+        saveTurn("s-1", "run-1", "why does the build fail", "Gradle cannot resolve the plugin");
+        saveTurn("s-2", "run-1", "fix the NullPointerException in Parser", "Added a null check to Parser.parse");
+        saveTurn("s-3", "run-1", "the parser is slow", "Cached the grammar");
+        searchIndex.rebuild(sessionStore, catalog.all(sessionStore));
+
+        final var hits = searchIndex.search("parser nullpointerexception", 10);
+
+        assertEquals(List.of("s-2", "s-3"), hits.stream().map(SessionSearchIndex.Hit::sessionId).toList());
+        assertEquals(2, hits.get(0).matchedTerms());
+        assertTrue(hits.get(0).snippet().contains("NullPointerException"), hits.get(0).snippet());
+    }
+
+    @Test
+    void recordRunAddsTheTurnToTheIndex() {
+        saveTurn("s-1", "run-1", "first question", "first answer");
+        searchIndex.rebuild(sessionStore, catalog.all(sessionStore));
+
+        saveTurn("s-1", "run-2", "how do I rotate the certificate", "Use keytool");
+        searchIndex.recordRun("s-1", "run-2", sessionStore);
+
+        final var hits = searchIndex.search("keytool", 10);
+        assertEquals(1, hits.size());
+        assertEquals("ANSWER: Use keytool", hits.get(0).snippet());
+        assertEquals(1, searchIndex.search("first", 10).size());
+    }
+
+    @Test
+    void recordRunReindexesASessionMissingFromTheIndex() throws IOException {
+        saveTurn("s-1", "run-1", "first question", "first answer");
+        searchIndex.rebuild(sessionStore, catalog.all(sessionStore));
+        try (var files = Files.walk(tempDir.resolve(SessionSearchIndex.DIR_NAME))) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+
+        saveTurn("s-1", "run-2", "how do I rotate the certificate", "Use keytool");
+        searchIndex.recordRun("s-1", "run-2", sessionStore);
+
+        assertEquals(1, searchIndex.search("keytool", 10).size());
+        assertEquals(1, searchIndex.search("first", 10).size());
+        catalog.rebuild(sessionStore);
+        assertTrue(searchIndex.stale(catalog.all(sessionStore)).isEmpty());
+    }
+
+    @Test
+    void updateReindexesOnlyStaleSessions() {
+        saveTurn("s-1", "run-1", "deploy to staging", "Deployed");
+        searchIndex.rebuild(sessionStore, catalog.all(sessionStore));
+        saveTurn("s-2", "run-1", "deploy to production", "Deployed");
+        catalog.rebuild(sessionStore);
+
+        assertEquals(List.of("s-2"),
+                     searchIndex.stale(catalog.all(sessionStore))
+                             .stream()
+                             .map(SessionCatalog.Entry::sessionId)
+                             .toList());
+        assertEquals(1, searchIndex.update(sessionStore, catalog.all(sessionStore)));
+        assertEquals(2, searchIndex.search("deploy", 10).size());
+        assertTrue(searchIndex.stale(catalog.all(sessionStore)).isEmpty());
+    }
+
+    @BeforeEach
+    void setUp() {
+        final var sessionsDir = tempDir.resolve("sessions");
+        sessionStore = FileSystemSessionStore.builder()
+                .baseDir(sessionsDir.toString())
+                .mapper(JsonUtils.createMapper())
+                .cacheSize(1)
+                .build();
+        catalog = new SessionCatalog(sessionsDir, JsonUtils.createMapper());
+        searchIndex = new SessionSearchIndex(sessionsDir, JsonUtils.createMapper());
+    }
+
+    private void saveTurn(String sessionId, String runId, String prompt, String answer) {
+        sessionStore.saveSession(SessionSummary.builder()
+                .sessionId(sessionId)
+                .title("Search test " + sessionId)
+                .updatedAt(System.nanoTime())
+                .build());
+        sessionStore.saveMessages(sessionId,
+                                  runId,
+                                  List.of(UserPrompt.builder()
+                                          .sessionId(sessionId)
+                                          .runId(runId)
+                                          .content(prompt)
+                                          .build(),
+                                          Text.builder()
+                                                  .sessionId(sessionId)
+                                                  .runId(runId)
+                                                  .content(answer)
+                                                  .stats(new ModelUsageStats())
+                                                  .elapsedTimeMs(10)
+                                                  .build()));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.phonepe.sentinelai.core.agentmessages.requests.UserPrompt;
+import com.phonepe.sentinelai.core.agentmessages.responses.Text;
+import com.phonepe.sentinelai.core.model.ModelUsageStats;
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import io.appform.sai.models.TurnTiming;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+class SessionStatsStoreTest {
+
+    private static final String SESSION_ID = "test-stats-session";
+
+    @TempDir
+    Path tempDir;
+
+    private Path sessionsDir;
+    private FileSystemSessionStore sessionStore;
+    private SessionStatsStore statsStore;
+
+    private static TurnTiming timing(String runId, long toolMs) {
+        return TurnTiming.builder().runId(runId).toolMs(toolMs).build();
+    }
+
+    @Test
+    void firstTurnStartsTheRecordAndLaterTurnsAreAdded() throws Exception {
+        saveTurn("run-1");
+        statsStore.recordRun(SESSION_ID, "run-1", sessionStore, null);
+        assertTrue(Files.isRegularFile(sessionsDir.resolve(SESSION_ID).resolve(SessionStatsStore.FILE_NAME)));
+
+        saveTurn("run-2");
+        final var stats = statsStore.recordRun(SESSION_ID, "run-2", sessionStore, timing("run-2", 1500)).orElseThrow();
+
+        assertEquals(2, stats.getTurns());
+        assertEquals(4, stats.getTotalMessages());
+        assertEquals(2, stats.getUserPrompts());
+        assertEquals(2, stats.getTextResponses());
+        assertEquals(1500, stats.getToolMs());
+        assertEquals("run-2", stats.getLastRunId());
+        assertEquals(stats, statsStore.read(SESSION_ID).orElseThrow());
+    }
+
+    @Test
+    void rebuildMatchesIncrementalTotals() throws Exception {
+        saveTurn("run-1");
+        statsStore.recordRun(SESSION_ID, "run-1", sessionStore, null);
+        saveTurn("run-2");
+        final var incremental = statsStore.recordRun(SESSION_ID, "run-2", sessionStore, timing("run-2", 700))
+                .orElseThrow();
+        new TurnTimingStore(sessionsDir, JsonUtils.createMapper()).append(SESSION_ID, timing("run-2", 700));
+
+        assertEquals(incremental, statsStore.rebuild(SESSION_ID, sessionStore));
+    }
+
+    @Test
+    void sessionWithHistoryButNoRecordIsLeftForReadOrRebuild() {
+        saveTurn("run-1");
+        saveTurn("run-2");
+
+        assertTrue(statsStore.recordRun(SESSION_ID, "run-2", sessionStore, null).isEmpty());
+        assertTrue(statsStore.read(SESSION_ID).isEmpty());
+
+        final var stats = statsStore.readOrRebuild(SESSION_ID, sessionStore);
+        assertEquals(2, stats.getTurns());
+        assertEquals(4, stats.getTotalMessages());
+    }
+
+    @Test
+    void turnIsCountedOnce() {
+        saveTurn("run-1");
+        statsStore.recordRun(SESSION_ID, "run-1", sessionStore, null);
+        final var again = statsStore.recordRun(SESSION_ID, "run-1", sessionStore, timing("run-1", 100)).orElseThrow();
+
+        assertEquals(1, again.getTurns());
+        assertEquals(2, again.getTotalMessages());
+        assertEquals(0, again.getToolMs());
+    }
+
+    @BeforeEach
+    void setUp() {
+        sessionsDir = tempDir.resolve("sessions");
+        sessionStore = FileSystemSessionStore.builder()
+                .baseDir(sessionsDir.toString())
+                .mapper(JsonUtils.createMapper())
+                .cacheSize(1)
+                .build();
+        sessionStore.saveSession(SessionSummary.builder()
+                .sessionId(SESSION_ID)
+                .title("Stats test")
+                .updatedAt(System.currentTimeMillis())
+                .build());
+        statsStore = new SessionStatsStore(sessionsDir, JsonUtils.createMapper());
+    }
+
+    private void saveTurn(String runId) {
+        sessionStore.saveMessages(SESSION_ID,
+                                  runId,
+                                  List.of(UserPrompt.builder()
+                                          .sessionId(SESSION_ID)
+                                          .runId(runId)
+                                          .content("question " + runId)
+                                          .build(),
+                                          Text.builder()
+                                                  .sessionId(SESSION_ID)
+                                                  .runId(runId)
+                                                  .content("answer " + runId)
+                                                  .stats(new ModelUsageStats())
+                                                  .elapsedTimeMs(10)
+                                                  .build()));
+    }
+}
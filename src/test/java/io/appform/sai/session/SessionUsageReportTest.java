@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.phonepe.sentinelai.core.agentmessages.requests.UserPrompt;
+import com.phonepe.sentinelai.core.agentmessages.responses.Text;
+import com.phonepe.sentinelai.core.model.ModelUsageStats;
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import io.appform.sai.models.TurnTiming;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+class SessionUsageReportTest {
+
+    private static final long DAY_MICROS = 86_400_000_000L;
+
+    @TempDir
+    Path tempDir;
+
+    private Path sessionsDir;
+    private FileSystemSessionStore sessionStore;
+    private SessionUsageReport usage;
+
+    private static SessionCatalog.Entry entry(String sessionId, long updatedAt, String model, String persona) {
+        return new SessionCatalog.Entry(sessionId, null, updatedAt, "/work", model, persona);
+    }
+
+    @Test
+    void groupsByDayNewestFirst() throws Exception {
+        saveSession("s-1", 2, 1000, 0);
+        saveSession("s-2", 1, 1000, 0);
+        final var report = usage.aggregate(List.of(entry("s-1", 10 * DAY_MICROS, "m", ""),
+                                                   entry("s-2", 12 * DAY_MICROS + 1, "m", "")),
+                                           List.of(SessionUsageReport.GroupBy.DAY));
+
+        assertEquals(List.of(1L, 2L), report.rows().stream().map(SessionUsageReport.Row::turns).toList());
+        assertTrue(report.rows().get(0).group().compareTo(report.rows().get(1).group()) > 0);
+    }
+
+    @Test
+    void groupsByModelAndPersona() throws Exception {
+        saveSession("s-1", 3, 1000, 700);
+        saveSession("s-2", 2, 2000, 0);
+        saveSession("s-3", 1, 4000, 1000);
+        final var report = usage.aggregate(List.of(entry("s-1", 1, "copilot/gpt-4.1", "reviewer"),
+                                                   entry("s-2", 1, "copilot/gpt-4.1", "reviewer"),
+                                                   entry("s-3", 1, "openai/o3", "")),
+                                           List.of(SessionUsageReport.GroupBy.MODEL,
+                                                   SessionUsageReport.GroupBy.PERSONA));
+
+        assertEquals(List.of("copilot/gpt-4.1 | reviewer", "openai/o3 | (default)"),
+                     report.rows().stream().map(SessionUsageReport.Row::group).toList());
+        final var reviewer = report.rows().get(0);
+        assertEquals(2, reviewer.sessions());
+        assertEquals(5, reviewer.turns());
+        assertEquals(5, reviewer.timedTurns());
+        assertEquals(1000, reviewer.p50TurnMs());
+        assertEquals(2000, reviewer.p95TurnMs());
+        assertEquals(7000, reviewer.turnMs());
+        assertEquals(700, reviewer.toolMs());
+        assertEquals(0.1, reviewer.toolShare(), 1e-9);
+        assertEquals(3, report.total().sessions());
+        assertEquals(6, report.total().turns());
+    }
+
+    @Test
+    void groupsTurnsByTheDayAndModelTheyRanWith() throws Exception {
+        final var timingStore = new TurnTimingStore(sessionsDir, JsonUtils.createMapper());
+        timingStore.append("s-1",
+                           TurnTiming.builder()
+                                   .runId("run-0")
+                                   .startedAt(10 * DAY_MICROS / 1000)
+                                   .model("copilot/gpt-4.1")
+                                   .persona("")
+                                   .totalMs(1000)
+                                   .requestTokens(100)
+                                   .build());
+        timingStore.append("s-1",
+                           TurnTiming.builder()
+                                   .runId("run-1")
+                                   .startedAt(12 * DAY_MICROS / 1000)
+                                   .model("openai/o3")
+                                   .persona("")
+                                   .totalMs(1000)
+                                   .requestTokens(300)
+                                   .build());
+        final var sessions = List.of(entry("s-1", 12 * DAY_MICROS, "openai/o3", ""));
+
+        final var byModel = usage.aggregate(sessions, List.of(SessionUsageReport.GroupBy.MODEL));
+        final var byDay = usage.aggregate(sessions, List.of(SessionUsageReport.GroupBy.DAY));
+
+        assertEquals(List.of("openai/o3", "copilot/gpt-4.1"),
+                     byModel.rows().stream().map(SessionUsageReport.Row::group).toList());
+        assertEquals(List.of(300L, 100L),
+                     byModel.rows().stream().map(SessionUsageReport.Row::requestTokens).toList());
+        assertEquals(List.of(1L, 1L), byDay.rows().stream().map(SessionUsageReport.Row::turns).toList());
+        assertEquals(1, byDay.total().sessions());
+        assertEquals(400, byDay.total().requestTokens());
+    }
+
+    @Test
+    void sessionsWithoutStatsCountTheirTimedTurns() throws Exception {
+        new TurnTimingStore(sessionsDir, JsonUtils.createMapper())
+                .append("s-1", TurnTiming.builder().runId("run-0").totalMs(3000).toolMs(1500).build());
+
+        final var report = usage.aggregate(List.of(entry("s-1", 1, null, null)), List.of());
+
+        final var total = report.total();
+        assertEquals("all", report.rows().get(0).group());
+        assertEquals(1, total.sessionsWithoutStats());
+        assertEquals(1, total.turns());
+        assertEquals(0, total.requestTokens());
+        assertEquals(0.5, total.toolShare(), 1e-9);
+    }
+
+    @BeforeEach
+    void setUp() {
+        sessionsDir = tempDir.resolve("sessions");
+        sessionStore = FileSystemSessionStore.builder()
+                .baseDir(sessionsDir.toString())
+                .mapper(JsonUtils.createMapper())
+                .cacheSize(1)
+                .build();
+        usage = new SessionUsageReport(sessionsDir, JsonUtils.createMapper(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        usage.close();
+    }
+
+    /**
+     * Saves a session with {@code turns} turns that each took {@code turnMs}, of which the first
+     * spent {@code toolMs} in tools, and builds its stats record.
+     */
+    private void saveSession(String sessionId, int turns, long turnMs, long toolMs) throws Exception {
+        sessionStore.saveSession(SessionSummary.builder()
+                .sessionId(sessionId)
+                .title("Usage test")
+                .updatedAt(System.currentTimeMillis())
+                .build());
+        final var timingStore = new TurnTimingStore(sessionsDir, JsonUtils.createMapper());
+        for (int i = 0; i < turns; i++) {
+            final var runId = "run-" + i;
+            sessionStore.saveMessages(sessionId,
+                                      runId,
+                                      List.of(UserPrompt.builder()
+                                              .sessionId(sessionId)
+                                              .runId(runId)
+                                              .content("question")
+                                              .build(),
+                                              Text.builder()
+                                                      .sessionId(sessionId)
+                                                      .runId(runId)
+                                                      .content("answer")
+                                                      .stats(new ModelUsageStats())
+                                                      .elapsedTimeMs(10)
+                                                      .build()));
+            timingStore.append(sessionId,
+                               TurnTiming.builder()
+                                       .runId(runId)
+                                       .totalMs(turnMs)
+                                       .toolMs(i == 0 ? toolMs : 0)
+                                       .build());
+        }
+        new SessionStatsStore(sessionsDir, JsonUtils.createMapper()).rebuild(sessionId, sessionStore);
+    }
+}
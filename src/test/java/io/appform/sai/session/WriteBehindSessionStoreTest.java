@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepe.sentinelai.core.agentmessages.AgentMessage;
+import com.phonepe.sentinelai.core.agentmessages.requests.UserPrompt;
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+import com.phonepe.sentinelai.filesystem.session.FileSystemSessionStore;
+import com.phonepe.sentinelai.session.SessionStore;
+import com.phonepe.sentinelai.session.SessionSummary;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+class WriteBehindSessionStoreTest {
+
+    private static final String SESSION_ID = "test-write-behind-session";
+
+    @TempDir
+    Path tempDir;
+
+    private Path sessionsDir;
+    private ObjectMapper mapper;
+    private FileSystemSessionStore fileStore;
+    private WriteBehindSessionStore writeBehindStore;
+
+    private static List<AgentMessage> prompts(String runId, String... contents) {
+        final var messages = new ArrayList<AgentMessage>();
+        for (final var content : contents) {
+            messages.add(UserPrompt.builder()
+                    .sessionId(SESSION_ID)
+                    .runId(runId)
+                    .content(content)
+                    .build());
+        }
+        return messages;
+    }
+
+    @Test
+    void closeWritesPendingMessagesAndDeletesTheJournal() throws Exception {
+        writeBehindStore.saveMessages(SESSION_ID, "run-1", prompts("run-1", "first"));
+
+        writeBehindStore.close();
+
+        assertEquals(1, SessionStatsStore.runMessages(SESSION_ID, "run-1", fileStore).size());
+        try (var journals = Files.list(sessionsDir.resolveSibling(WriteBehindSessionStore.DIR_NAME))) {
+            assertEquals(0, journals.count());
+        }
+    }
+
+    @Test
+    void consecutiveWritesOfARunAreMerged() {
+        final var writes = List.of(new WriteBehindSessionStore.Write(1, SESSION_ID, "run-1", prompts("run-1", "a")),
+                                   new WriteBehindSessionStore.Write(2, SESSION_ID, "run-1", prompts("run-1", "b")),
+                                   new WriteBehindSessionStore.Write(3, SESSION_ID, "run-2", prompts("run-2", "c")),
+                                   new WriteBehindSessionStore.Write(4, SESSION_ID, "run-1", prompts("run-1", "d")));
+
+        final var groups = WriteBehindSessionStore.coalesce(writes);
+
+        assertEquals(3, groups.size());
+        assertEquals(2, groups.get(0).seq());
+        assertEquals(2, groups.get(0).messages().size());
+        assertEquals("run-2", groups.get(1).runId());
+        assertEquals(4, groups.get(2).seq());
+    }
+
+    @Test
+    void fullQueueFallsBackToSynchronousSave() throws Exception {
+        writeBehindStore.close();
+        writeBehindStore = new WriteBehindSessionStore(fileStore, sessionsDir, mapper, 1, Duration.ZERO);
+
+        for (final var content : List.of("first", "second", "third")) {
+            writeBehindStore.saveMessages(SESSION_ID, "run-1", prompts("run-1", content));
+        }
+        final var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (writeBehindStore.pending() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        final var saved = new ArrayList<>(SessionStatsStore.runMessages(SESSION_ID, "run-1", fileStore));
+        Collections.reverse(saved);
+        assertEquals(mapper.valueToTree(prompts("run-1", "first", "second", "third")), mapper.valueToTree(saved));
+    }
+
+    @Test
+    void journalInUseIsNotReplayed() {
+        writeBehindStore.saveMessages(SESSION_ID, "run-1", prompts("run-1", "first"));
+
+        assertEquals(0, WriteBehindSessionStore.recover(fileStore, sessionsDir, mapper));
+        assertEquals(1, writeBehindStore.pending());
+    }
+
+    @Test
+    void readsSeeEarlierWrites() {
+        final SessionStore store = writeBehindStore;
+        store.saveMessages(SESSION_ID, "run-1", prompts("run-1", "first"));
+        store.saveMessages(SESSION_ID, "run-1", prompts("run-1", "second"));
+
+        assertEquals(2, SessionStatsStore.runMessages(SESSION_ID, "run-1", store).size());
+        assertEquals(0, writeBehindStore.pending());
+    }
+
+    @Test
+    void recoverReplaysOnlyUnsavedWrites() throws Exception {
+        final var saved = prompts("run-2", "already saved");
+        fileStore.saveMessages(SESSION_ID, "run-2", saved);
+        final var journalDir = Files.createDirectories(sessionsDir.resolveSibling(WriteBehindSessionStore.DIR_NAME));
+        final var lines = new ArrayList<String>();
+        lines.add(mapper.writeValueAsString(WriteBehindSessionStore.JournalEntry.of(
+                new WriteBehindSessionStore.Write(1, SESSION_ID, "run-1", prompts("run-1", "applied")))));
+        lines.add(mapper.writeValueAsString(WriteBehindSessionStore.JournalEntry.applied(1)));
+        lines.add(mapper.writeValueAsString(WriteBehindSessionStore.JournalEntry.of(
+                new WriteBehindSessionStore.Write(2, SESSION_ID, "run-2", saved))));
+        lines.add(mapper.writeValueAsString(WriteBehindSessionStore.JournalEntry.of(
+                new WriteBehindSessionStore.Write(3, SESSION_ID, "run-3", prompts("run-3", "lost", "in crash")))));
+        lines.add("{\"seq\":4,\"sess");
+        final var journal = journalDir.resolve("12345-crashed.jsonl");
+        Files.write(journal, lines, StandardCharsets.UTF_8);
+
+        assertEquals(1, WriteBehindSessionStore.recover(fileStore, sessionsDir, mapper));
+
+        assertTrue(SessionStatsStore.runMessages(SESSION_ID, "run-1", fileStore).isEmpty());
+        assertEquals(1, SessionStatsStore.runMessages(SESSION_ID, "run-2", fileStore).size());
+        assertEquals(2, SessionStatsStore.runMessages(SESSION_ID, "run-3", fileStore).size());
+        assertFalse(Files.exists(journal));
+    }
+
+    @Test
+    void writesAreHeldBackUntilFlush() {
+        writeBehindStore.saveMessages(SESSION_ID, "run-1", prompts("run-1", "first", "second"));
+
+        assertTrue(SessionStatsStore.runMessages(SESSION_ID, "run-1", fileStore).isEmpty());
+        assertEquals(1, writeBehindStore.pending());
+
+        assertTrue(writeBehindStore.flush());
+
+        assertEquals(2, SessionStatsStore.runMessages(SESSION_ID, "run-1", fileStore).size());
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sessionsDir = tempDir.resolve("sessions");
+        mapper = JsonUtils.createMapper();
+        fileStore = FileSystemSessionStore.builder()
+                .baseDir(sessionsDir.toString())
+                .mapper(mapper)
+                .cacheSize(1)
+                .build();
+        fileStore.saveSession(SessionSummary.builder()
+                .sessionId(SESSION_ID)
+                .title("Write-behind test")
+                .updatedAt(System.currentTimeMillis())
+                .build());
+        writeBehindStore = new WriteBehindSessionStore(fileStore, sessionsDir, mapper, 16, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehindStore.close();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.transform;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class PrefixStabilityCheckerTest {
+
+    private static PrefixStabilityChecker.Segment segment(String label, String text) {
+        return new PrefixStabilityChecker.Segment(label, text);
+    }
+
+    @Test
+    void appendedMessagesKeepThePrefixStable() {
+        final var checker = new PrefixStabilityChecker();
+        final var tools = segment("tools[0]", "{\"name\":\"read\"}");
+        final var system = segment("system prompt", "You are helpful");
+
+        checker.observe("k", List.of(tools, system, segment("messages[1]", "hi")));
+        final var divergence = checker.observe("k",
+                                               List.of(tools,
+                                                       system,
+                                                       segment("messages[1]", "hi"),
+                                                       segment("messages[2]", "hello")));
+
+        assertTrue(divergence.isEmpty());
+    }
+
+    @Test
+    void compareReportsSharedPrefixLikeThePythonScript() {
+        final var report = PrefixStabilityChecker.compare(List.of("You are sai. currentTime: 10:00",
+                                                                  "You are sai. currentTime: 10:05",
+                                                                  "You are sai. currentTime: 11:00"));
+
+        assertEquals(3, report.runs());
+        assertEquals(31, report.promptBytes());
+        assertEquals(27, report.sharedBytes());
+        assertEquals("0:00", report.firstRun());
+        assertEquals("0:05", report.secondRun());
+        assertTrue(report.format().contains("shared prefix  : 27 bytes  (87.1%)"), report.format());
+        assertThrows(IllegalArgumentException.class, () -> PrefixStabilityChecker.compare(List.of("only one")));
+    }
+
+    @Test
+    void detectsReorderedToolsAndChangedSystemPrompt() {
+        final var checker = new PrefixStabilityChecker();
+        final var read = segment("tools[0]", "{\"name\":\"read\"}");
+        final var write = segment("tools[1]", "{\"name\":\"write\"}");
+
+        checker.observe("k", List.of(read, write, segment("system prompt", "time 10:00")));
+        final var reordered = checker.observe("k",
+                                              List.of(segment("tools[0]", "{\"name\":\"write\"}"),
+                                                      segment("tools[1]", "{\"name\":\"read\"}"),
+                                                      segment("system prompt", "time 10:00")));
+        assertEquals("tools[0]", reordered.orElseThrow().segment());
+
+        checker.observe("k", List.of(read, write, segment("system prompt", "time 10:00")));
+        final var timestamp = checker.observe("k", List.of(read, write, segment("system prompt", "time 10:05")));
+        assertEquals("system prompt", timestamp.orElseThrow().segment());
+        assertEquals("0\n", timestamp.get().previous());
+    }
+
+    @Test
+    void forgetsTheLeastRecentlySeenConversations() {
+        final var checker = new PrefixStabilityChecker(8);
+        for (var i = 0; i <= PrefixStabilityChecker.MAX_CONVERSATIONS; i++) {
+            checker.observe("k" + i, List.of(segment("system prompt", "old")));
+        }
+
+        final var last = "k" + PrefixStabilityChecker.MAX_CONVERSATIONS;
+        assertTrue(checker.observe(last, List.of(segment("system prompt", "new"))).isPresent());
+        assertTrue(checker.observe("k0", List.of(segment("system prompt", "new"))).isEmpty());
+    }
+
+    @Test
+    void ignoresChangesBeyondTheWindowAndOtherConversations() {
+        final var checker = new PrefixStabilityChecker(8);
+
+        checker.observe("a", List.of(segment("system prompt", "0123456789-old")));
+        assertTrue(checker.observe("a", List.of(segment("system prompt", "0123456789-new"))).isEmpty());
+        assertTrue(checker.observe("b", List.of(segment("system prompt", "something else"))).isEmpty());
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2026 Original Author(s)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appform.sai.transform;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepe.sentinelai.core.utils.JsonUtils;
+
+import io.appform.sai.config.PromptCachePolicy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+class PromptCacheInterceptorTest {
+
+    private static final String REQUEST = """
+            {
+              "model": "%s",
+              "tools": [
+                {"type": "function", "function": {"name": "read"}},
+                {"type": "function", "function": {"name": "write"}}
+              ],
+              "messages": [
+                {"role": "system", "content": "You are sai"},
+                {"role": "user", "content": "first question"},
+                {"role": "assistant", "content": "first answer"},
+                {"role": "user", "content": "second question"},
+                {"role": "assistant", "content": null, "tool_calls": [{"id": "c1"}]},
+                {"role": "tool", "tool_call_id": "c1", "content": "file contents"}
+              ]
+            }
+            """;
+
+    private ObjectMapper mapper;
+    private MockWebServer server;
+
+    @Test
+    void addsBreakpointsForAnthropicModels() throws Exception {
+        final var sent = send(new PromptCacheInterceptor(mapper, null), REQUEST.formatted("claude-sonnet-4"));
+
+        assertTrue(sent.at("/tools/1/cache_control").isObject());
+        assertFalse(sent.at("/tools/0").has("cache_control"));
+        assertEquals("ephemeral", sent.at("/messages/0/content/0/cache_control/type").asText());
+        assertEquals("You are sai", sent.at("/messages/0/content/0/text").asText());
+        // End of the history, and end of the previous turn
+        assertTrue(sent.at("/messages/5/content/0/cache_control").isObject());
+        assertTrue(sent.at("/messages/2/content/0/cache_control").isObject());
+        assertTrue(sent.at("/messages/1/content").isTextual());
+        assertTrue(sent.at("/messages/3/content").isTextual());
+    }
+
+    @Test
+    void leavesOtherModelsAndMarkedRequestsAlone() throws Exception {
+        final var interceptor = new PromptCacheInterceptor(mapper, null);
+
+        final var gpt = send(interceptor, REQUEST.formatted("gpt-4.1"));
+        assertFalse(gpt.toString().contains("cache_control"));
+
+        final var premarked = REQUEST.formatted("claude-sonnet-4")
+                .replace("{\"role\": \"user\", \"content\": \"first question\"}",
+                         "{\"role\": \"user\", \"content\": [{\"type\": \"text\", \"text\": \"q\", "
+                                 + "\"cache_control\": {\"type\": \"ephemeral\"}}]}");
+        final var sent = send(interceptor, premarked);
+        assertTrue(sent.at("/messages/0/content").isTextual());
+        assertFalse(sent.at("/tools/1").has("cache_control"));
+    }
+
+    @Test
+    void respectsDisabledBreakpoints() throws Exception {
+        final var interceptor = new PromptCacheInterceptor(mapper, PromptCachePolicy.builder().breakpoints(false).build());
+
+        assertFalse(send(interceptor, REQUEST.formatted("claude-sonnet-4")).toString().contains("cache_control"));
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mapper = JsonUtils.createMapper();
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private JsonNode send(PromptCacheInterceptor interceptor, String body) throws Exception {
+        server.enqueue(new MockResponse().setBody("{}"));
+        final var client = new OkHttpClient.Builder().addInterceptor(interceptor).build();
+        final var request = new Request.Builder()
+                .url(server.url("/v1/chat/completions"))
+                .post(RequestBody.create(body, MediaType.parse("application/json")))
+                .build();
+        try (var ignored = client.newCall(request).execute()) {
+            return mapper.readTree(server.takeRequest().getBody().readUtf8());
+        }
+    }
+}